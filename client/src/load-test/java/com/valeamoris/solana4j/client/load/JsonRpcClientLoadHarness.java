@@ -0,0 +1,478 @@
+package com.valeamoris.solana4j.client.load;
+
+import com.valeamoris.solana4j.client.api.ParsedAccountView;
+import com.valeamoris.solana4j.client.api.SolanaApi;
+import com.valeamoris.solana4j.client.api.SolanaClientOptionalParams;
+import com.valeamoris.solana4j.client.api.SolanaClientResponse;
+import com.valeamoris.solana4j.client.jsonrpc.InMemoryJsonRpcTransport;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClient;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientException;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientOptionalParams;
+import com.valeamoris.solana4j.client.stub.StubJsonRpcServer;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link SolanaJsonRpcClient} with a number of concurrent callers and reports throughput, latency
+ * percentiles and the allocation per call observed on the calling threads.
+ *
+ * <p>By default the client is pointed at an in-process {@link StubJsonRpcServer}; pass {@code url=...} to target a
+ * real node instead, or {@code transport=inMemory} to bypass HTTP entirely and measure the codec and API layers
+ * alone. Options are given as {@code key=value} arguments, for example
+ * {@code ./gradlew :client:loadTest --args="callers=32 scenario=getTokenAccountsByOwner latencyMicros=500"}.</p>
+ */
+public final class JsonRpcClientLoadHarness
+{
+    private static final String ADDRESS = "CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC";
+    private static final String OWNER = "7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1";
+    private static final String TOKEN_PROGRAM = "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA";
+    private static final String TRANSACTION = "AQAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=";
+
+    private JsonRpcClientLoadHarness()
+    {
+    }
+
+    /**
+     * Runs the harness.
+     *
+     * @param args {@code key=value} options, see {@link Options}
+     * @throws Exception if the stub server cannot be started or a caller is interrupted
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        final Options options = Options.parse(args);
+
+        if (options.inMemory)
+        {
+            final SolanaApi api = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(cannedResponse(options.scenario)));
+            run(api, options).print(options, System.out);
+            return;
+        }
+
+        StubJsonRpcServer server = null;
+        String url = options.url;
+        if (url == null)
+        {
+            server = StubJsonRpcServer.builder()
+                    .latency(options.latencyMicros, options.jitterMicros, TimeUnit.MICROSECONDS)
+                    .errorRate(options.errorRate, -32005, "Node is unhealthy")
+                    .throttleRate(options.throttleRate)
+                    .threads(options.serverThreads)
+                    .start();
+            url = server.url();
+        }
+
+        final OkHttpClient httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(options.maxIdleConnections, 5, TimeUnit.MINUTES))
+                .build();
+        final SolanaApi api = new SolanaJsonRpcClient(httpClient, url);
+
+        try
+        {
+            final Result result = run(api, options);
+            result.print(options, System.out);
+            if (server != null)
+            {
+                System.out.printf(Locale.ROOT, "server: requests=%d injectedErrors=%d throttled=%d%n",
+                        server.requestCount(), server.errorCount(), server.throttledCount());
+            }
+        }
+        finally
+        {
+            if (server != null)
+            {
+                server.close();
+            }
+            httpClient.connectionPool().evictAll();
+        }
+    }
+
+    private static InMemoryJsonRpcTransport.Handler cannedResponse(final Scenario scenario) throws IOException
+    {
+        final InputStream fixture = JsonRpcClientLoadHarness.class.getClassLoader().getResourceAsStream("fixtures/" + scenario.name() + ".json");
+        if (fixture == null)
+        {
+            throw new IllegalArgumentException("No fixture for " + scenario);
+        }
+
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream input = fixture)
+        {
+            body.write("{\"jsonrpc\":\"2.0\",\"result\":".getBytes(StandardCharsets.UTF_8));
+            final byte[] chunk = new byte[4096];
+            int read;
+            while ((read = input.read(chunk)) != -1)
+            {
+                body.write(chunk, 0, read);
+            }
+            body.write(",\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final byte[] response = body.toByteArray();
+        return request -> InMemoryJsonRpcTransport.ok(response);
+    }
+
+    static Result run(final SolanaApi api, final Options options) throws InterruptedException
+    {
+        final Caller[] callers = new Caller[options.callers];
+        final Thread[] threads = new Thread[options.callers];
+        final CountDownLatch ready = new CountDownLatch(options.callers);
+        final CountDownLatch go = new CountDownLatch(1);
+
+        // shared by all callers, which only ever read it
+        final SolanaClientOptionalParams optionalParams = new SolanaJsonRpcClientOptionalParams();
+        optionalParams.addParam("encoding", options.parsedAccountView == ParsedAccountView.TYPED ? "jsonParsed" : "base64");
+        optionalParams.addParam("commitment", "finalized");
+        optionalParams.setParsedAccountView(options.parsedAccountView);
+
+        for (int i = 0; i < callers.length; i++)
+        {
+            callers[i] = new Caller(api, options.scenario, optionalParams, ready, go, options.warmupSeconds, options.durationSeconds);
+            threads[i] = new Thread(callers[i], "load-caller-" + i);
+            threads[i].start();
+        }
+
+        ready.await();
+        go.countDown();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        return Result.aggregate(callers, options.durationSeconds);
+    }
+
+    /**
+     * The request each caller issues in a tight loop.
+     */
+    enum Scenario
+    {
+        getBalance
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.getBalance(ADDRESS);
+            }
+        },
+        getSlot
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.getSlot();
+            }
+        },
+        getLatestBlockhash
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.getLatestBlockhash();
+            }
+        },
+        getAccountInfo
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.getAccountInfo(ADDRESS, optionalParams);
+            }
+        },
+        getTokenAccountsByOwner
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.getTokenAccountsByOwner(OWNER, new AbstractMap.SimpleEntry<>("programId", TOKEN_PROGRAM), optionalParams);
+            }
+        },
+        getSignatureStatuses
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.getSignatureStatuses(Collections.singletonList(TRANSACTION));
+            }
+        },
+        sendTransaction
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.sendTransaction(TRANSACTION);
+            }
+        },
+        simulateTransaction
+        {
+            @Override
+            SolanaClientResponse<?> call(final SolanaApi api, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException
+            {
+                return api.simulateTransaction(TRANSACTION);
+            }
+        };
+
+        abstract SolanaClientResponse<?> call(SolanaApi api, SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException;
+    }
+
+    static final class Options
+    {
+        private String url;
+        private boolean inMemory;
+        private ParsedAccountView parsedAccountView = ParsedAccountView.MAP;
+        private Scenario scenario = Scenario.getAccountInfo;
+        private int callers = 16;
+        private int warmupSeconds = 5;
+        private int durationSeconds = 10;
+        private long latencyMicros;
+        private long jitterMicros;
+        private double errorRate;
+        private double throttleRate;
+        private int serverThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        private int maxIdleConnections = 64;
+
+        static Options parse(final String[] args)
+        {
+            final Map<String, String> values = new HashMap<>();
+            for (final String arg : args)
+            {
+                final int separator = arg.indexOf('=');
+                if (separator <= 0)
+                {
+                    throw new IllegalArgumentException("Expected key=value but got " + arg);
+                }
+                values.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+
+            final Options options = new Options();
+            options.url = values.remove("url");
+            options.inMemory = "inMemory".equals(values.getOrDefault("transport", "okhttp"));
+            options.parsedAccountView = ParsedAccountView.valueOf(values.getOrDefault("parsedAccountView", options.parsedAccountView.name()));
+            options.scenario = Scenario.valueOf(values.getOrDefault("scenario", options.scenario.name()));
+            options.callers = Integer.parseInt(values.getOrDefault("callers", String.valueOf(options.callers)));
+            options.warmupSeconds = Integer.parseInt(values.getOrDefault("warmupSeconds", String.valueOf(options.warmupSeconds)));
+            options.durationSeconds = Integer.parseInt(values.getOrDefault("durationSeconds", String.valueOf(options.durationSeconds)));
+            options.latencyMicros = Long.parseLong(values.getOrDefault("latencyMicros", "0"));
+            options.jitterMicros = Long.parseLong(values.getOrDefault("jitterMicros", "0"));
+            options.errorRate = Double.parseDouble(values.getOrDefault("errorRate", "0"));
+            options.throttleRate = Double.parseDouble(values.getOrDefault("throttleRate", "0"));
+            options.serverThreads = Integer.parseInt(values.getOrDefault("serverThreads", String.valueOf(options.serverThreads)));
+            options.maxIdleConnections = Integer.parseInt(values.getOrDefault("maxIdleConnections", String.valueOf(options.maxIdleConnections)));
+
+            values.keySet().removeAll(Arrays.asList("transport", "parsedAccountView", "scenario", "callers", "warmupSeconds", "durationSeconds", "latencyMicros",
+                    "jitterMicros", "errorRate", "throttleRate", "serverThreads", "maxIdleConnections"));
+            if (!values.isEmpty())
+            {
+                throw new IllegalArgumentException("Unknown options " + values.keySet());
+            }
+            return options;
+        }
+    }
+
+    static final class Caller implements Runnable
+    {
+        private final SolanaApi api;
+        private final Scenario scenario;
+        private final SolanaClientOptionalParams optionalParams;
+        private final CountDownLatch ready;
+        private final CountDownLatch go;
+        private final long warmupNanos;
+        private final long durationNanos;
+
+        private long[] latencies = new long[1 << 14];
+        private int count;
+        private long rpcErrors;
+        private long failures;
+        private long allocatedBytes = -1;
+
+        Caller(
+                final SolanaApi api,
+                final Scenario scenario,
+                final SolanaClientOptionalParams optionalParams,
+                final CountDownLatch ready,
+                final CountDownLatch go,
+                final int warmupSeconds,
+                final int durationSeconds)
+        {
+            this.api = api;
+            this.scenario = scenario;
+            this.optionalParams = optionalParams;
+            this.ready = ready;
+            this.go = go;
+            this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+            this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        }
+
+        @Override
+        public void run()
+        {
+            ready.countDown();
+            try
+            {
+                go.await();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            final long warmupEnd = System.nanoTime() + warmupNanos;
+            while (System.nanoTime() < warmupEnd)
+            {
+                callOnce();
+            }
+            count = 0;
+            rpcErrors = 0;
+            failures = 0;
+
+            final long allocatedBefore = threadAllocatedBytes();
+            final long end = System.nanoTime() + durationNanos;
+            long now = System.nanoTime();
+            while (now < end)
+            {
+                callOnce();
+                final long finished = System.nanoTime();
+                record(finished - now);
+                now = finished;
+            }
+            final long allocatedAfter = threadAllocatedBytes();
+            if (allocatedBefore >= 0 && allocatedAfter >= 0)
+            {
+                allocatedBytes = allocatedAfter - allocatedBefore;
+            }
+        }
+
+        private void callOnce()
+        {
+            try
+            {
+                final SolanaClientResponse<?> response = scenario.call(api, optionalParams);
+                if (!response.isSuccess())
+                {
+                    rpcErrors++;
+                }
+            }
+            catch (final SolanaJsonRpcClientException e)
+            {
+                failures++;
+            }
+        }
+
+        private void record(final long latencyNanos)
+        {
+            if (count == latencies.length)
+            {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        private static long threadAllocatedBytes()
+        {
+            final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean)
+            {
+                final com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+                if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled())
+                {
+                    return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+                }
+            }
+            return -1;
+        }
+    }
+
+    static final class Result
+    {
+        private final long[] sortedLatencies;
+        private final long rpcErrors;
+        private final long failures;
+        private final long allocatedBytes;
+        private final int durationSeconds;
+
+        private Result(final long[] sortedLatencies, final long rpcErrors, final long failures, final long allocatedBytes, final int durationSeconds)
+        {
+            this.sortedLatencies = sortedLatencies;
+            this.rpcErrors = rpcErrors;
+            this.failures = failures;
+            this.allocatedBytes = allocatedBytes;
+            this.durationSeconds = durationSeconds;
+        }
+
+        static Result aggregate(final Caller[] callers, final int durationSeconds)
+        {
+            int total = 0;
+            for (final Caller caller : callers)
+            {
+                total += caller.count;
+            }
+
+            final long[] merged = new long[total];
+            long rpcErrors = 0;
+            long failures = 0;
+            long allocatedBytes = 0;
+            int position = 0;
+            for (final Caller caller : callers)
+            {
+                System.arraycopy(caller.latencies, 0, merged, position, caller.count);
+                position += caller.count;
+                rpcErrors += caller.rpcErrors;
+                failures += caller.failures;
+                allocatedBytes = allocatedBytes < 0 || caller.allocatedBytes < 0 ? -1 : allocatedBytes + caller.allocatedBytes;
+            }
+            Arrays.sort(merged);
+
+            return new Result(merged, rpcErrors, failures, allocatedBytes, durationSeconds);
+        }
+
+        long percentile(final double percentile)
+        {
+            if (sortedLatencies.length == 0)
+            {
+                return 0;
+            }
+            final int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+
+        void print(final Options options, final java.io.PrintStream out)
+        {
+            final long calls = sortedLatencies.length;
+            out.printf(Locale.ROOT, "scenario=%s transport=%s parsedAccountView=%s callers=%d duration=%ds latency=%dus+%dus errorRate=%.3f throttleRate=%.3f%n",
+                    options.scenario, options.inMemory ? "inMemory" : "okhttp", options.parsedAccountView, options.callers, durationSeconds, options.latencyMicros, options.jitterMicros, options.errorRate, options.throttleRate);
+            out.printf(Locale.ROOT, "calls=%d throughput=%.1f calls/s rpcErrors=%d failures=%d%n",
+                    calls, calls / (double) durationSeconds, rpcErrors, failures);
+            out.printf(Locale.ROOT, "latency us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    micros(percentile(50)), micros(percentile(90)), micros(percentile(99)), micros(percentile(99.9)),
+                    micros(calls == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1]));
+            if (allocatedBytes < 0)
+            {
+                out.println("allocation: not supported by this JVM");
+            }
+            else
+            {
+                out.printf(Locale.ROOT, "allocation: %.0f bytes/call on caller threads%n", calls == 0 ? 0.0 : allocatedBytes / (double) calls);
+            }
+        }
+
+        private static double micros(final long nanos)
+        {
+            return nanos / 1_000.0;
+        }
+    }
+}
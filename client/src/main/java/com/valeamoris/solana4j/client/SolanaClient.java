@@ -1,6 +1,7 @@
 package com.valeamoris.solana4j.client;
 
 import com.valeamoris.solana4j.client.api.SolanaApi;
+import com.valeamoris.solana4j.client.jsonrpc.JsonRpcTransport;
 import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClient;
 import okhttp3.OkHttpClient;
 
@@ -30,4 +31,17 @@ public final class SolanaClient
     {
         return new SolanaJsonRpcClient(httpClient, rpcUrl);
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a new {@code SolanaApi} instance sending requests over the specified transport.
+     *
+     * @param transport   the {@link JsonRpcTransport} used to exchange encoded JSON-RPC requests for responses.
+     *                    This allows the HTTP stack to be replaced, for example by the JDK {@code HttpClient}
+     *                    or an in-memory transport in tests.
+     * @return            a new {@link SolanaApi} instance configured with the provided transport.
+     */
+    public static SolanaApi create(final JsonRpcTransport transport)
+    {
+        return new SolanaJsonRpcClient(transport);
+    }
+}
@@ -117,6 +117,15 @@ public interface AccountInfo
              *         potentially containing nested structures as {@code Map<String, Object>}
              */
             Map<String, Object> getParsedData();
+
+            /**
+             * Returns a typed view of the parsed data for well known program layouts.
+             * This is only populated when {@link ParsedAccountView#TYPED} was selected on the request and the
+             * layout is supported, in which case {@link #getParsedData()} is null.
+             *
+             * @return a {@link ParsedAccount} view, or null if no typed view is available
+             */
+            ParsedAccount getParsedAccount();
         }
     }
 }
\ No newline at end of file
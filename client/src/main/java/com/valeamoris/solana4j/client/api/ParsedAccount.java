@@ -0,0 +1,252 @@
+package com.valeamoris.solana4j.client.api;
+
+import java.util.List;
+
+/**
+ * Represents a typed view of {@code jsonParsed} account data for a well known program layout.
+ * Views are produced when {@link ParsedAccountView#TYPED} is selected on the request's optional parameters.
+ *
+ * <p>Amounts and slots are unsigned 64-bit values held in a {@code long};
+ * use {@link Long#toUnsignedString(long)} or {@link Long#compareUnsigned(long, long)} where the full range matters.</p>
+ */
+public interface ParsedAccount
+{
+    /**
+     * Returns the layout of this account, which identifies the sub-interface it implements.
+     *
+     * @return the {@link Type} of the account
+     */
+    Type getType();
+
+    /**
+     * The supported account layouts.
+     */
+    enum Type
+    {
+        /**
+         * An spl-token or spl-token-2022 token account, see {@link TokenAccountState}.
+         */
+        TOKEN_ACCOUNT,
+
+        /**
+         * An spl-token or spl-token-2022 mint, see {@link MintState}.
+         */
+        MINT,
+
+        /**
+         * An initialized durable nonce account, see {@link NonceState}.
+         */
+        NONCE,
+
+        /**
+         * An address lookup table, see {@link AddressLookupTableState}.
+         */
+        ADDRESS_LOOKUP_TABLE
+    }
+
+    /**
+     * Represents the state of an spl-token or spl-token-2022 token account.
+     */
+    interface TokenAccountState extends ParsedAccount
+    {
+        /**
+         * Returns the mint of the tokens held by the account.
+         *
+         * @return the base58-encoded mint address
+         */
+        String getMint();
+
+        /**
+         * Returns the owner of the account.
+         *
+         * @return the base58-encoded owner address
+         */
+        String getOwner();
+
+        /**
+         * Returns the raw token amount held by the account, in the mint's smallest unit.
+         *
+         * @return the unsigned raw amount
+         */
+        long getAmount();
+
+        /**
+         * Returns the number of decimals of the mint.
+         *
+         * @return the decimals
+         */
+        int getDecimals();
+
+        /**
+         * Returns the state of the account.
+         *
+         * @return the {@link State} of the account, or null if the node reported none or one not listed in {@link State}
+         */
+        State getState();
+
+        /**
+         * Returns whether the account holds wrapped SOL.
+         *
+         * @return true if this is a native account
+         */
+        boolean isNative();
+
+        /**
+         * Returns the delegate of the account, if any.
+         *
+         * @return the base58-encoded delegate address, or null if there is no delegate
+         */
+        String getDelegate();
+
+        /**
+         * Returns the raw amount the delegate is authorised to transfer.
+         *
+         * @return the unsigned raw delegated amount, zero if there is no delegate
+         */
+        long getDelegatedAmount();
+
+        /**
+         * Returns the authority allowed to close the account, if any.
+         *
+         * @return the base58-encoded close authority, or null if the owner is the close authority
+         */
+        String getCloseAuthority();
+
+        /**
+         * Returns the rent-exempt reserve of a native account.
+         *
+         * @return the unsigned reserve in lamports, zero for non-native accounts
+         */
+        long getRentExemptReserve();
+
+        /**
+         * The state of a token account.
+         */
+        enum State
+        {
+            /**
+             * The account has not been initialized.
+             */
+            UNINITIALIZED,
+
+            /**
+             * The account is initialized and usable.
+             */
+            INITIALIZED,
+
+            /**
+             * The account has been frozen by the mint's freeze authority.
+             */
+            FROZEN
+        }
+    }
+
+    /**
+     * Represents the state of an spl-token or spl-token-2022 mint.
+     */
+    interface MintState extends ParsedAccount
+    {
+        /**
+         * Returns the authority allowed to mint new tokens, if any.
+         *
+         * @return the base58-encoded mint authority, or null if the supply is fixed
+         */
+        String getMintAuthority();
+
+        /**
+         * Returns the total raw supply of the mint.
+         *
+         * @return the unsigned raw supply
+         */
+        long getSupply();
+
+        /**
+         * Returns the number of decimals of the mint.
+         *
+         * @return the decimals
+         */
+        int getDecimals();
+
+        /**
+         * Returns whether the mint has been initialized.
+         *
+         * @return true if the mint is initialized
+         */
+        boolean isInitialized();
+
+        /**
+         * Returns the authority allowed to freeze token accounts, if any.
+         *
+         * @return the base58-encoded freeze authority, or null if accounts cannot be frozen
+         */
+        String getFreezeAuthority();
+    }
+
+    /**
+     * Represents the state of an initialized durable nonce account.
+     */
+    interface NonceState extends ParsedAccount
+    {
+        /**
+         * Returns the authority allowed to advance the nonce.
+         *
+         * @return the base58-encoded nonce authority
+         */
+        String getAuthority();
+
+        /**
+         * Returns the stored nonce, to be used as the recent blockhash of a durable transaction.
+         *
+         * @return the base58-encoded nonce value
+         */
+        String getBlockhash();
+
+        /**
+         * Returns the fee per signature recorded when the nonce was last advanced.
+         *
+         * @return the lamports per signature
+         */
+        long getLamportsPerSignature();
+    }
+
+    /**
+     * Represents the state of an address lookup table.
+     */
+    interface AddressLookupTableState extends ParsedAccount
+    {
+        /**
+         * Returns the authority allowed to extend, deactivate and close the table, if any.
+         *
+         * @return the base58-encoded authority, or null if the table is frozen
+         */
+        String getAuthority();
+
+        /**
+         * Returns the slot at which the table was deactivated.
+         *
+         * @return the unsigned deactivation slot, {@code -1} (u64::MAX) while the table is active
+         */
+        long getDeactivationSlot();
+
+        /**
+         * Returns the slot at which the table was last extended.
+         *
+         * @return the unsigned slot
+         */
+        long getLastExtendedSlot();
+
+        /**
+         * Returns the index of the first address added by the last extension.
+         *
+         * @return the start index of the last extension
+         */
+        int getLastExtendedSlotStartIndex();
+
+        /**
+         * Returns the addresses stored in the table, in index order.
+         *
+         * @return the base58-encoded addresses
+         */
+        List<String> getAddresses();
+    }
+}
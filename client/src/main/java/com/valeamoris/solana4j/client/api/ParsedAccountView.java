@@ -0,0 +1,22 @@
+package com.valeamoris.solana4j.client.api;
+
+/**
+ * Selects how {@code jsonParsed} account data is bound when decoding a response.
+ * This is a client-side setting and is never sent to the JSON-RPC node.
+ */
+public enum ParsedAccountView
+{
+    /**
+     * Bind the {@code parsed} object into a generic {@code Map<String, Object>} tree,
+     * available through {@link AccountInfo.AccountInfoData.AccountInfoParsedData#getParsedData()}.
+     */
+    MAP,
+
+    /**
+     * Bind spl-token accounts and mints, nonce accounts and address lookup tables straight into compact
+     * {@link ParsedAccount} views, available through
+     * {@link AccountInfo.AccountInfoData.AccountInfoParsedData#getParsedAccount()}.
+     * Layouts without a typed view fall back to the {@link #MAP} representation.
+     */
+    TYPED
+}
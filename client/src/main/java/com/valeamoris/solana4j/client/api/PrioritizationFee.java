@@ -0,0 +1,23 @@
+package com.valeamoris.solana4j.client.api;
+
+/**
+ * Represents the prioritization fee observed in a recent slot.
+ * The fee is the minimum compute unit price paid by a transaction that landed in the slot,
+ * taken across transactions that locked all of the accounts named in the request.
+ */
+public interface PrioritizationFee
+{
+    /**
+     * Returns the slot in which the fee was observed.
+     *
+     * @return the slot number
+     */
+    long getSlot();
+
+    /**
+     * Returns the prioritization fee paid in the slot.
+     *
+     * @return the compute unit price in micro-lamports
+     */
+    long getPrioritizationFee();
+}
@@ -133,6 +133,25 @@ public interface SolanaApi
      */
     SolanaClientResponse<AccountInfo> getAccountInfo(String address, SolanaClientOptionalParams params) throws SolanaJsonRpcClientException;
 
+    /**
+     * Retrieves the account information for several addresses in a single request.
+     *
+     * @param addresses the base58-encoded public keys of the accounts, at most 100
+     * @return a list holding the {@link AccountInfo} of each address in the order requested, or null for accounts that do not exist
+     * @throws SolanaJsonRpcClientException if there is an error with the JSON-RPC request
+     */
+    SolanaClientResponse<List<AccountInfo>> getMultipleAccounts(List<String> addresses) throws SolanaJsonRpcClientException;
+
+    /**
+     * Retrieves the account information for several addresses in a single request, with optional parameters.
+     *
+     * @param addresses the base58-encoded public keys of the accounts, at most 100
+     * @param params    optional parameters for customizing the request
+     * @return a list holding the {@link AccountInfo} of each address in the order requested, or null for accounts that do not exist
+     * @throws SolanaJsonRpcClientException if there is an error with the JSON-RPC request
+     */
+    SolanaClientResponse<List<AccountInfo>> getMultipleAccounts(List<String> addresses, SolanaClientOptionalParams params) throws SolanaJsonRpcClientException;
+
     /**
      * Retrieves the current block height of the Solana blockchain.
      * The block height represents the number of blocks preceding the current block.
@@ -330,4 +349,14 @@ public interface SolanaApi
      * @param optionalParams additional parameters for getBlock.
      */
     SolanaClientResponse<BlockResponse> getBlock(long slot, SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException;
-}
\ No newline at end of file
+
+    /**
+     * Returns the prioritization fees observed in recent slots, as held in the node's cache of the last 150 blocks.
+     * When accounts are given, each fee is the minimum paid in the slot by transactions that write-locked all of them.
+     *
+     * @param addresses the base58-encoded accounts to filter by, at most 128, or an empty list for the global fee
+     * @return a {@link SolanaClientResponse} containing one {@link PrioritizationFee} per recent slot
+     * @throws SolanaJsonRpcClientException if the request fails
+     */
+    SolanaClientResponse<List<PrioritizationFee>> getRecentPrioritizationFees(List<String> addresses) throws SolanaJsonRpcClientException;
+}
@@ -24,4 +24,30 @@ public interface SolanaClientOptionalParams
      * @return a map containing all the key-value pairs for optional parameters
      */
     Map<String, Object> getParams();
-}
\ No newline at end of file
+
+    /**
+     * Selects how {@code jsonParsed} account data in the response is bound.
+     * Unlike the other parameters this is applied by the client when decoding and is not sent with the request;
+     * the {@code encoding} parameter must still be set to {@code jsonParsed} for parsed data to be returned.
+     *
+     * <p>
+     * The default implementation ignores the selection, so that implementations written before it was added keep
+     * compiling and binding parsed data as a map.
+     * </p>
+     *
+     * @param parsedAccountView the {@link ParsedAccountView} to use, {@link ParsedAccountView#MAP} by default
+     */
+    default void setParsedAccountView(final ParsedAccountView parsedAccountView)
+    {
+    }
+
+    /**
+     * Retrieves how {@code jsonParsed} account data in the response is bound.
+     *
+     * @return the selected {@link ParsedAccountView}; {@link ParsedAccountView#MAP} unless overridden
+     */
+    default ParsedAccountView getParsedAccountView()
+    {
+        return ParsedAccountView.MAP;
+    }
+}
@@ -0,0 +1,261 @@
+package com.valeamoris.solana4j.client.fees;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.client.api.Commitment;
+import com.valeamoris.solana4j.client.api.SimulateTransactionResponse;
+import com.valeamoris.solana4j.client.api.SolanaApi;
+import com.valeamoris.solana4j.client.api.SolanaClientOptionalParams;
+import com.valeamoris.solana4j.client.api.SolanaClientResponse;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientException;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientOptionalParams;
+import com.valeamoris.solana4j.programs.ComputeBudgetProgram;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sizes the compute unit limit of a transaction from a simulation of it.
+ *
+ * <p>The transaction is simulated with {@code replaceRecentBlockhash} and without signature verification, so an
+ * unsigned transaction straight from {@link Solana#builder(ByteBuffer)} can be sized before it is signed. The units it
+ * consumed, scaled by a safety margin, are then written into its set compute unit limit instruction in place; if it has
+ * none, one is inserted without re-encoding the rest of the message.</p>
+ *
+ * <p>Units consumed are remembered per instruction shape: the program of every instruction together with the signer
+ * and writable role of each account it references. Transactions of a shape that has already been simulated are sized
+ * without another round trip. Compute budget instructions are left out of the shape, so adding a price or a limit does
+ * not change it.</p>
+ */
+public final class ComputeUnitSizer
+{
+    private static final int SIGNER_ROLE = 1;
+    private static final int WRITABLE_ROLE = 2;
+
+    private final SolanaApi api;
+    private final double margin;
+    private final int maxCachedShapes;
+    private final Commitment commitment;
+    private final Map<ByteBuffer, Integer> unitsConsumedByShape = new ConcurrentHashMap<>();
+
+    private ComputeUnitSizer(final Builder builder)
+    {
+        this.api = builder.api;
+        this.margin = builder.margin;
+        this.maxCachedShapes = builder.maxCachedShapes;
+        this.commitment = builder.commitment;
+    }
+
+    /**
+     * Creates a builder for a sizer simulating through the given api.
+     *
+     * @param api the api used to simulate transactions
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final SolanaApi api)
+    {
+        return new Builder(api);
+    }
+
+    /**
+     * Sets the compute unit limit of an unsigned transaction to the units it consumes plus the margin.
+     * <p>
+     * On a cache miss the limit is first raised to {@link ComputeBudgetProgram#MAX_COMPUTE_UNIT_LIMIT} so that the
+     * simulation cannot run out of units, and stays there if the simulation fails.
+     * </p>
+     *
+     * @param transaction the buffer holding the encoded transaction between its position and limit, with room to grow
+     *                    if it does not yet carry a set compute unit limit instruction
+     * @return the compute unit limit written into the transaction
+     * @throws SolanaJsonRpcClientException if the simulation request fails
+     * @throws IllegalStateException        if the transaction fails in simulation
+     */
+    public int size(final ByteBuffer transaction) throws SolanaJsonRpcClientException
+    {
+        final ByteBuffer shape = shape(transaction);
+        Integer unitsConsumed = unitsConsumedByShape.get(shape);
+        if (unitsConsumed == null)
+        {
+            ComputeBudgetProgram.setComputeUnitLimit(transaction, ComputeBudgetProgram.MAX_COMPUTE_UNIT_LIMIT);
+            unitsConsumed = simulate(transaction);
+            if (unitsConsumedByShape.size() < maxCachedShapes)
+            {
+                unitsConsumedByShape.put(shape, unitsConsumed);
+            }
+        }
+
+        final int computeUnitLimit = (int) Math.min(ComputeBudgetProgram.MAX_COMPUTE_UNIT_LIMIT, (long) Math.ceil(unitsConsumed * margin));
+        ComputeBudgetProgram.setComputeUnitLimit(transaction, computeUnitLimit);
+        return computeUnitLimit;
+    }
+
+    /**
+     * Forgets every simulated shape, for example after a program the transactions invoke has been upgraded.
+     */
+    public void invalidate()
+    {
+        unitsConsumedByShape.clear();
+    }
+
+    /**
+     * Returns the number of instruction shapes whose units consumed are cached.
+     *
+     * @return the cached shape count
+     */
+    public int cachedShapes()
+    {
+        return unitsConsumedByShape.size();
+    }
+
+    private int simulate(final ByteBuffer transaction) throws SolanaJsonRpcClientException
+    {
+        final ByteBuffer encoded = transaction.duplicate();
+        final byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+
+        final SolanaClientOptionalParams params = new SolanaJsonRpcClientOptionalParams();
+        params.addParam("encoding", "base64");
+        params.addParam("commitment", commitment.name().toLowerCase());
+        params.addParam("replaceRecentBlockhash", true);
+        params.addParam("sigVerify", false);
+
+        final SolanaClientResponse<SimulateTransactionResponse> response = api.simulateTransaction(Base64.getEncoder().encodeToString(bytes), params);
+        if (!response.isSuccess())
+        {
+            throw new IllegalStateException("simulation request rejected: " + response.getError().getErrorMessage());
+        }
+        if (response.getResponse().getErr() != null)
+        {
+            throw new IllegalStateException("transaction failed in simulation: " + response.getResponse().getErr());
+        }
+        return response.getResponse().getUnitsConsumed();
+    }
+
+    private static ByteBuffer shape(final ByteBuffer transaction)
+    {
+        return Solana.read(transaction.duplicate()).accept(view ->
+        {
+            final List<PublicKey> staticAccounts = view.staticAccounts();
+            final int countSigned = view.countAccountsSigned();
+            final int countSignedWritable = countSigned - view.countAccountsSignedReadOnly();
+            final int countStaticWritable = staticAccounts.size() - view.countAccountsUnsignedReadOnly();
+            int countLookupWritable = 0;
+            final List<? extends MessageVisitor.InstructionView> instructions;
+            if (view instanceof MessageVisitor.Version0MessageView)
+            {
+                final MessageVisitor.Version0MessageView v0View = (MessageVisitor.Version0MessageView) view;
+                for (final MessageVisitor.AccountLookupView accountLookup : v0View.accountLookups())
+                {
+                    countLookupWritable += accountLookup.readWriteTableIndexes().size();
+                }
+                instructions = v0View.instructions();
+            }
+            else
+            {
+                instructions = ((MessageVisitor.LegacyMessageView) view).instructions();
+            }
+
+            // every account reference costs at least a byte of the transaction, every program a key of the shape
+            final ByteBuffer shape = ByteBuffer.allocate(instructions.size() * (PublicKey.PUBLIC_KEY_LENGTH + 1) + transaction.remaining());
+            for (final MessageVisitor.InstructionView instruction : instructions)
+            {
+                final PublicKey program = staticAccounts.get(instruction.programIndex());
+                if (program.equals(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT))
+                {
+                    continue;
+                }
+                program.write(shape);
+                shape.put((byte) instruction.accountIndexes().size());
+                for (final int index : instruction.accountIndexes())
+                {
+                    final boolean signer = index < countSigned;
+                    final boolean writable = index < staticAccounts.size()
+                            ? signer ? index < countSignedWritable : index < countStaticWritable
+                            : index < staticAccounts.size() + countLookupWritable;
+                    shape.put((byte) ((signer ? SIGNER_ROLE : 0) | (writable ? WRITABLE_ROLE : 0)));
+                }
+            }
+            shape.flip();
+
+            final ByteBuffer key = ByteBuffer.allocate(shape.remaining());
+            key.put(shape).flip();
+            return key;
+        });
+    }
+
+    /**
+     * Builder for {@link ComputeUnitSizer}.
+     */
+    public static final class Builder
+    {
+        private final SolanaApi api;
+        private double margin = 1.1;
+        private int maxCachedShapes = 4096;
+        private Commitment commitment = Commitment.CONFIRMED;
+
+        private Builder(final SolanaApi api)
+        {
+            this.api = requireNonNull(api);
+        }
+
+        /**
+         * Sets the factor applied to the units consumed in simulation.
+         *
+         * @param margin the margin, at least one; 1.1 unless set
+         * @return this builder
+         */
+        public Builder margin(final double margin)
+        {
+            if (!(margin >= 1.0))
+            {
+                throw new IllegalArgumentException("margin must be at least 1 but was " + margin);
+            }
+            this.margin = margin;
+            return this;
+        }
+
+        /**
+         * Sets how many instruction shapes are remembered; shapes seen once the cache is full are simulated every time.
+         *
+         * @param maxCachedShapes the cache capacity, or zero to always simulate; 4096 unless set
+         * @return this builder
+         */
+        public Builder maxCachedShapes(final int maxCachedShapes)
+        {
+            if (maxCachedShapes < 0)
+            {
+                throw new IllegalArgumentException("maxCachedShapes must not be negative but was " + maxCachedShapes);
+            }
+            this.maxCachedShapes = maxCachedShapes;
+            return this;
+        }
+
+        /**
+         * Sets the commitment of the bank the transaction is simulated against.
+         *
+         * @param commitment the commitment; {@link Commitment#CONFIRMED} unless set
+         * @return this builder
+         */
+        public Builder commitment(final Commitment commitment)
+        {
+            this.commitment = requireNonNull(commitment);
+            return this;
+        }
+
+        /**
+         * Builds the sizer.
+         *
+         * @return a new {@link ComputeUnitSizer}
+         */
+        public ComputeUnitSizer build()
+        {
+            return new ComputeUnitSizer(this);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.valeamoris.solana4j.client.fees;
+
+/**
+ * A fixed-size, log-bucketed histogram estimating quantiles of non-negative fees to within a relative error.
+ *
+ * <p>Values are counted in buckets whose bounds grow geometrically by {@link #GAMMA}, so any quantile is returned to
+ * within about one percent of the true sample value however widely the fees range. Unlike most streaming sketches the
+ * counts can also be decremented, which lets a sliding window remove the samples of slots that have fallen out of it.
+ * A dedicated bucket holds zero, by far the most common fee on a quiet chain.</p>
+ */
+final class FeeQuantileSketch
+{
+    private static final double GAMMA = 1.02;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKET_COUNT = bucketOf(Long.MAX_VALUE) + 1;
+
+    private final int[] counts = new int[BUCKET_COUNT];
+    private long total;
+
+    void add(final long value)
+    {
+        counts[bucketOf(value)]++;
+        total++;
+    }
+
+    void remove(final long value)
+    {
+        final int bucket = bucketOf(value);
+        if (counts[bucket] > 0)
+        {
+            counts[bucket]--;
+            total--;
+        }
+    }
+
+    long count()
+    {
+        return total;
+    }
+
+    /**
+     * Returns the nearest-rank estimate of the given quantile.
+     *
+     * @param quantile the quantile, between zero and one inclusive
+     * @return the estimated value, or -1 if the sketch is empty
+     */
+    long quantile(final double quantile)
+    {
+        if (total == 0)
+        {
+            return -1;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        int bucket = 0;
+        while (bucket < BUCKET_COUNT - 1)
+        {
+            seen += counts[bucket];
+            if (seen >= rank)
+            {
+                break;
+            }
+            bucket++;
+        }
+        return valueOf(bucket);
+    }
+
+    /**
+     * Bucket zero holds zero; bucket {@code b > 0} holds values in {@code (GAMMA^(b-2), GAMMA^(b-1)]}.
+     */
+    static int bucketOf(final long value)
+    {
+        return value <= 0 ? 0 : 1 + (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * Returns the value that minimises the worst relative error across the bucket's range.
+     */
+    static long valueOf(final int bucket)
+    {
+        return bucket == 0 ? 0 : Math.max(1, Math.round(2 * Math.pow(GAMMA, bucket - 1) / (1 + GAMMA)));
+    }
+}
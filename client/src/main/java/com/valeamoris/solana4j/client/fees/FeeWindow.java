@@ -0,0 +1,106 @@
+package com.valeamoris.solana4j.client.fees;
+
+import com.valeamoris.solana4j.client.api.PrioritizationFee;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The prioritization fees observed for one account set over the most recent slots.
+ *
+ * <p>Samples are held in a ring ordered by slot and mirrored in a {@link FeeQuantileSketch}. Recording a refresh adds
+ * only slots newer than any seen before, then evicts slots that have fallen out of the window.</p>
+ */
+final class FeeWindow
+{
+    private static final Comparator<PrioritizationFee> BY_SLOT = Comparator.comparingLong(PrioritizationFee::getSlot);
+
+    private final int windowSlots;
+    private final long[] slots;
+    private final long[] fees;
+    private final FeeQuantileSketch sketch = new FeeQuantileSketch();
+    private int head;
+    private int size;
+    private long newestSlot = -1;
+
+    private volatile boolean primed;
+    private volatile long lastUsedNanos;
+
+    FeeWindow(final int windowSlots, final long nowNanos)
+    {
+        this.windowSlots = windowSlots;
+        this.slots = new long[windowSlots];
+        this.fees = new long[windowSlots];
+        this.lastUsedNanos = nowNanos;
+    }
+
+    synchronized void record(final List<PrioritizationFee> prioritizationFees)
+    {
+        final List<PrioritizationFee> bySlot = new ArrayList<>(prioritizationFees);
+        bySlot.sort(BY_SLOT);
+        for (final PrioritizationFee prioritizationFee : bySlot)
+        {
+            if (prioritizationFee.getSlot() > newestSlot)
+            {
+                append(prioritizationFee.getSlot(), prioritizationFee.getPrioritizationFee());
+            }
+        }
+        while (size > 0 && slots[head] <= newestSlot - windowSlots)
+        {
+            evictOldest();
+        }
+        primed = true;
+    }
+
+    synchronized long quantile(final double quantile)
+    {
+        return sketch.quantile(quantile);
+    }
+
+    synchronized int size()
+    {
+        return size;
+    }
+
+    boolean isPrimed()
+    {
+        return primed;
+    }
+
+    void markPrimed()
+    {
+        primed = true;
+    }
+
+    void touch(final long nowNanos)
+    {
+        lastUsedNanos = nowNanos;
+    }
+
+    boolean isIdle(final long nowNanos, final long idleExpiryNanos)
+    {
+        return nowNanos - lastUsedNanos > idleExpiryNanos;
+    }
+
+    private void append(final long slot, final long fee)
+    {
+        if (size == windowSlots)
+        {
+            evictOldest();
+        }
+        final int tail = (head + size) % windowSlots;
+        slots[tail] = slot;
+        fees[tail] = fee;
+        size++;
+        sketch.add(fee);
+        newestSlot = slot;
+    }
+
+    private void evictOldest()
+    {
+        sketch.remove(fees[head]);
+        head = (head + 1) % windowSlots;
+        size--;
+    }
+}
@@ -0,0 +1,425 @@
+package com.valeamoris.solana4j.client.fees;
+
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.Message;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.client.api.PrioritizationFee;
+import com.valeamoris.solana4j.client.api.SolanaApi;
+import com.valeamoris.solana4j.client.api.SolanaClientResponse;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientException;
+import com.valeamoris.solana4j.programs.ComputeBudgetProgram;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates compute unit prices from the prioritization fees recently paid to write-lock a set of accounts.
+ *
+ * <p>Each distinct set of writable accounts gets its own sliding window of per-slot fees taken from
+ * {@link SolanaApi#getRecentPrioritizationFees(List)}, summarised by a log-bucketed quantile sketch. The first estimate
+ * for an account set fetches its fees in the calling thread. After that every tracked set is refreshed in the
+ * background, and sets that have not been asked about for a while are dropped.</p>
+ *
+ * <p>The estimator is a {@link ComputeBudgetProgram.ComputeUnitPricer} quoting at its default percentile, so it can be
+ * handed straight to {@link ComputeBudgetProgram.ComputeBudgetProgramFactory#setComputeUnitPrice(ComputeBudgetProgram.ComputeUnitPricer, List)}.
+ * Use {@link #atPercentile(double)} to quote at another percentile.</p>
+ */
+public final class PriorityFeeEstimator implements ComputeBudgetProgram.ComputeUnitPricer, AutoCloseable
+{
+    /**
+     * The most accounts {@code getRecentPrioritizationFees} accepts in one request.
+     */
+    public static final int MAX_ACCOUNTS_PER_REQUEST = 128;
+
+    private final SolanaApi api;
+    private final double defaultPercentile;
+    private final int windowSlots;
+    private final long minMicroLamports;
+    private final long maxMicroLamports;
+    private final long fallbackMicroLamports;
+    private final long idleExpiryNanos;
+    private final Map<List<String>, FeeWindow> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final ScheduledFuture<?> refreshTask;
+
+    private PriorityFeeEstimator(final Builder builder)
+    {
+        this.api = builder.api;
+        this.defaultPercentile = builder.percentile;
+        this.windowSlots = builder.windowSlots;
+        this.minMicroLamports = builder.minMicroLamports;
+        this.maxMicroLamports = builder.maxMicroLamports;
+        this.fallbackMicroLamports = builder.fallbackMicroLamports;
+        this.idleExpiryNanos = builder.idleExpiryNanos;
+
+        if (builder.refreshIntervalNanos > 0)
+        {
+            this.ownsScheduler = builder.scheduler == null;
+            this.scheduler = ownsScheduler ? newDaemonScheduler() : builder.scheduler;
+            this.refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, builder.refreshIntervalNanos, builder.refreshIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+        else
+        {
+            this.ownsScheduler = false;
+            this.scheduler = null;
+            this.refreshTask = null;
+        }
+    }
+
+    /**
+     * Creates a builder for an estimator reading fees through the given api.
+     *
+     * @param api the api used to fetch recent prioritization fees
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final SolanaApi api)
+    {
+        return new Builder(api);
+    }
+
+    /**
+     * Estimates the compute unit price at the given percentile for a transaction writing to the given accounts.
+     *
+     * @param percentile       the percentile of recent per-slot fees to quote, between 0 and 100
+     * @param writableAccounts the accounts the transaction write-locks
+     * @return the price in micro-lamports per compute unit, clamped to the configured bounds
+     */
+    public long estimate(final double percentile, final Collection<PublicKey> writableAccounts)
+    {
+        checkPercentile(percentile);
+        final List<String> accountSet = accountSet(writableAccounts);
+        final long now = System.nanoTime();
+        final FeeWindow window = windows.computeIfAbsent(accountSet, ignored -> new FeeWindow(windowSlots, now));
+        window.touch(now);
+        if (!window.isPrimed())
+        {
+            refresh(accountSet, window);
+        }
+
+        final long fee = window.quantile(percentile / 100.0);
+        return Math.min(maxMicroLamports, Math.max(minMicroLamports, fee < 0 ? fallbackMicroLamports : fee));
+    }
+
+    /**
+     * Estimates the compute unit price at the given percentile for the writable static accounts of a message.
+     *
+     * @param percentile the percentile of recent per-slot fees to quote, between 0 and 100
+     * @param message    the message to be priced
+     * @return the price in micro-lamports per compute unit, clamped to the configured bounds
+     */
+    public long estimate(final double percentile, final Message message)
+    {
+        return estimate(percentile, message, Collections.emptyList());
+    }
+
+    /**
+     * Estimates the compute unit price at the given percentile for the writable accounts of a message,
+     * including those it loads read-write from the given address lookup tables.
+     *
+     * @param percentile          the percentile of recent per-slot fees to quote, between 0 and 100
+     * @param message             the message to be priced
+     * @param addressLookupTables the lookup tables referenced by a version 0 message
+     * @return the price in micro-lamports per compute unit, clamped to the configured bounds
+     */
+    public long estimate(final double percentile, final Message message, final List<AddressLookupTable> addressLookupTables)
+    {
+        return estimate(percentile, writableAccounts(message, addressLookupTables));
+    }
+
+    /**
+     * Quotes at the estimator's default percentile.
+     *
+     * @param writableAccounts the accounts the transaction write-locks
+     * @return the price in micro-lamports per compute unit, clamped to the configured bounds
+     */
+    @Override
+    public long microLamports(final List<PublicKey> writableAccounts)
+    {
+        return estimate(defaultPercentile, writableAccounts);
+    }
+
+    /**
+     * Returns a pricer quoting at the given percentile, backed by this estimator's windows.
+     *
+     * @param percentile the percentile of recent per-slot fees to quote, between 0 and 100
+     * @return a {@link ComputeBudgetProgram.ComputeUnitPricer}
+     */
+    public ComputeBudgetProgram.ComputeUnitPricer atPercentile(final double percentile)
+    {
+        checkPercentile(percentile);
+        return writableAccounts -> estimate(percentile, writableAccounts);
+    }
+
+    /**
+     * Refreshes every tracked account set now, and stops tracking those that have been idle past the expiry.
+     * <p>
+     * A set whose refresh fails keeps its previous samples until the next refresh succeeds.
+     * </p>
+     */
+    public void refresh()
+    {
+        final long now = System.nanoTime();
+        windows.entrySet().removeIf(entry -> entry.getValue().isIdle(now, idleExpiryNanos));
+        windows.forEach(this::refresh);
+    }
+
+    /**
+     * Returns the number of account sets currently tracked.
+     *
+     * @return the tracked account set count
+     */
+    public int trackedAccountSets()
+    {
+        return windows.size();
+    }
+
+    /**
+     * Stops the background refresh, shutting down the scheduler if the estimator created it.
+     */
+    @Override
+    public void close()
+    {
+        if (refreshTask != null)
+        {
+            refreshTask.cancel(false);
+        }
+        if (ownsScheduler)
+        {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void refresh(final List<String> accountSet, final FeeWindow window)
+    {
+        try
+        {
+            final SolanaClientResponse<List<PrioritizationFee>> response = api.getRecentPrioritizationFees(accountSet);
+            if (response.isSuccess() && response.getResponse() != null)
+            {
+                window.record(response.getResponse());
+            }
+        }
+        catch (final SolanaJsonRpcClientException | RuntimeException e)
+        {
+            // keep quoting from the samples we already hold; the next refresh will try again
+        }
+        finally
+        {
+            window.markPrimed();
+        }
+    }
+
+    private static List<String> accountSet(final Collection<PublicKey> writableAccounts)
+    {
+        final TreeSet<String> sorted = new TreeSet<>();
+        for (final PublicKey writableAccount : writableAccounts)
+        {
+            sorted.add(writableAccount.base58());
+        }
+
+        final List<String> accountSet = new ArrayList<>(Math.min(sorted.size(), MAX_ACCOUNTS_PER_REQUEST));
+        for (final String account : sorted)
+        {
+            if (accountSet.size() == MAX_ACCOUNTS_PER_REQUEST)
+            {
+                break;
+            }
+            accountSet.add(account);
+        }
+        return Collections.unmodifiableList(accountSet);
+    }
+
+    private static List<PublicKey> writableAccounts(final Message message, final List<AddressLookupTable> addressLookupTables)
+    {
+        return message.accept(view ->
+        {
+            final List<PublicKey> staticAccounts = view.staticAccounts();
+            final int countSigned = view.countAccountsSigned();
+            final int countSignedWritable = countSigned - view.countAccountsSignedReadOnly();
+            final int countWritable = staticAccounts.size() - view.countAccountsUnsignedReadOnly();
+
+            final List<PublicKey> writableAccounts = new ArrayList<>();
+            for (int i = 0; i < staticAccounts.size(); i++)
+            {
+                if (i < countSigned ? i < countSignedWritable : i < countWritable)
+                {
+                    writableAccounts.add(staticAccounts.get(i));
+                }
+            }
+
+            if (view instanceof MessageVisitor.Version0MessageView)
+            {
+                for (final MessageVisitor.AccountLookupView accountLookup : ((MessageVisitor.Version0MessageView) view).accountLookups())
+                {
+                    accountLookup.findAddressLookupTable(addressLookupTables).ifPresent(addressLookupTable ->
+                    {
+                        for (final Integer index : accountLookup.readWriteTableIndexes())
+                        {
+                            writableAccounts.add(addressLookupTable.getAddresses().get(index));
+                        }
+                    });
+                }
+            }
+            return writableAccounts;
+        });
+    }
+
+    private static void checkPercentile(final double percentile)
+    {
+        if (!(percentile >= 0 && percentile <= 100))
+        {
+            throw new IllegalArgumentException("percentile must be between 0 and 100 but was " + percentile);
+        }
+    }
+
+    private static ScheduledExecutorService newDaemonScheduler()
+    {
+        return Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            final Thread thread = new Thread(runnable, "priority-fee-estimator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builder for {@link PriorityFeeEstimator}.
+     */
+    public static final class Builder
+    {
+        private final SolanaApi api;
+        private double percentile = 75;
+        private int windowSlots = 150;
+        private long minMicroLamports;
+        private long maxMicroLamports = Long.MAX_VALUE;
+        private long fallbackMicroLamports;
+        private long refreshIntervalNanos = TimeUnit.SECONDS.toNanos(10);
+        private long idleExpiryNanos = TimeUnit.MINUTES.toNanos(5);
+        private ScheduledExecutorService scheduler;
+
+        private Builder(final SolanaApi api)
+        {
+            this.api = requireNonNull(api);
+        }
+
+        /**
+         * Sets the percentile quoted when the estimator is used as a {@link ComputeBudgetProgram.ComputeUnitPricer}.
+         *
+         * @param percentile the default percentile, between 0 and 100; 75 unless set
+         * @return this builder
+         */
+        public Builder percentile(final double percentile)
+        {
+            checkPercentile(percentile);
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets how many of the most recent slots each window covers.
+         *
+         * @param windowSlots the window length in slots; 150 unless set, matching the node's fee cache
+         * @return this builder
+         */
+        public Builder windowSlots(final int windowSlots)
+        {
+            if (windowSlots <= 0)
+            {
+                throw new IllegalArgumentException("windowSlots must be positive but was " + windowSlots);
+            }
+            this.windowSlots = windowSlots;
+            return this;
+        }
+
+        /**
+         * Sets the bounds every estimate is clamped to.
+         *
+         * @param minMicroLamports the lowest price to quote
+         * @param maxMicroLamports the highest price to quote
+         * @return this builder
+         */
+        public Builder bounds(final long minMicroLamports, final long maxMicroLamports)
+        {
+            if (minMicroLamports < 0 || maxMicroLamports < minMicroLamports)
+            {
+                throw new IllegalArgumentException("invalid bounds [" + minMicroLamports + ", " + maxMicroLamports + "]");
+            }
+            this.minMicroLamports = minMicroLamports;
+            this.maxMicroLamports = maxMicroLamports;
+            return this;
+        }
+
+        /**
+         * Sets the price quoted while no fees are known for an account set, for example when the node cannot be reached.
+         *
+         * @param fallbackMicroLamports the fallback price; zero unless set
+         * @return this builder
+         */
+        public Builder fallback(final long fallbackMicroLamports)
+        {
+            this.fallbackMicroLamports = fallbackMicroLamports;
+            return this;
+        }
+
+        /**
+         * Sets the delay between background refreshes of the tracked account sets.
+         *
+         * @param interval the delay, or zero to only refresh when {@link #refresh()} is called; 10 seconds unless set
+         * @param unit     the unit of {@code interval}
+         * @return this builder
+         */
+        public Builder refreshInterval(final long interval, final TimeUnit unit)
+        {
+            this.refreshIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * Sets how long an account set is tracked after it was last asked about.
+         *
+         * @param idleExpiry the expiry; 5 minutes unless set
+         * @param unit       the unit of {@code idleExpiry}
+         * @return this builder
+         */
+        public Builder idleExpiry(final long idleExpiry, final TimeUnit unit)
+        {
+            this.idleExpiryNanos = unit.toNanos(idleExpiry);
+            return this;
+        }
+
+        /**
+         * Runs background refreshes on the given scheduler instead of a daemon thread owned by the estimator.
+         *
+         * @param scheduler the scheduler; it is not shut down when the estimator is closed
+         * @return this builder
+         */
+        public Builder scheduler(final ScheduledExecutorService scheduler)
+        {
+            this.scheduler = requireNonNull(scheduler);
+            return this;
+        }
+
+        /**
+         * Builds the estimator and starts its background refresh.
+         *
+         * @return a new {@link PriorityFeeEstimator}
+         */
+        public PriorityFeeEstimator build()
+        {
+            return new PriorityFeeEstimator(this);
+        }
+    }
+}
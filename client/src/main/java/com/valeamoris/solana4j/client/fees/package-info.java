@@ -0,0 +1,4 @@
+/**
+ * This package contains helpers that use the solana client library's API to price and size transactions.
+ */
+package com.valeamoris.solana4j.client.fees;
@@ -3,15 +3,21 @@ package com.valeamoris.solana4j.client.jsonrpc;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.valeamoris.solana4j.client.api.AccountInfo;
+import com.valeamoris.solana4j.client.api.ParsedAccount;
+import com.valeamoris.solana4j.client.api.ParsedAccountView;
 import com.valeamoris.solana4j.client.api.SolanaRpcResponse;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -129,6 +135,8 @@ final class AccountInfoDTO implements SolanaRpcResponse<AccountInfo>
     @JsonDeserialize(using = AccountInfoDataDTO.AccountInfoDataDeserializer.class)
     static final class AccountInfoDataDTO implements AccountInfo.AccountInfoData
     {
+        private static final JavaType PARSED_DATA_TYPE = TypeFactory.defaultInstance().constructMapType(LinkedHashMap.class, String.class, Object.class);
+
         private final List<String> accountInfoEncoded;
         private final AccountInfoParsedData accountInfoParsed;
 
@@ -155,18 +163,19 @@ final class AccountInfoDTO implements SolanaRpcResponse<AccountInfo>
             @Override
             public AccountInfo.AccountInfoData deserialize(final JsonParser parser, final DeserializationContext ctxt) throws IOException
             {
-                final ObjectMapper mapper = (ObjectMapper) parser.getCodec();
-                final JsonNode node = mapper.readTree(parser);
-
-                if (node.isArray())
+                if (parser.isExpectedStartArrayToken())
                 {
-                    final List<String> accountInfoEncoded = mapper.convertValue(node, mapper.getTypeFactory().constructCollectionType(List.class, String.class));
+                    final List<String> accountInfoEncoded = new ArrayList<>(2);
+                    while (parser.nextToken() != JsonToken.END_ARRAY)
+                    {
+                        accountInfoEncoded.add(parser.getValueAsString());
+                    }
                     return new AccountInfoDataDTO(accountInfoEncoded, null);
                 }
-                else if (node.isObject())
+                else if (parser.currentToken() == JsonToken.START_OBJECT)
                 {
-                    final AccountInfoParsedDataDTO accountInfoParsedData = mapper.convertValue(node, AccountInfoParsedDataDTO.class);
-                    return new AccountInfoDataDTO(null, accountInfoParsedData);
+                    final ParsedAccountView parsedAccountView = (ParsedAccountView) ctxt.getAttribute(ParsedAccountView.class);
+                    return new AccountInfoDataDTO(null, AccountInfoParsedDataDTO.decode(parser, ctxt, parsedAccountView == ParsedAccountView.TYPED));
                 }
                 throw new IOException("Unable to deserialize Transaction Data.");
             }
@@ -178,15 +187,161 @@ final class AccountInfoDTO implements SolanaRpcResponse<AccountInfo>
             private final int space;
             // encoding attempts to use program-specific state parsers - we do not know what these are upfront
             private final Map<String, Object> parsedData;
+            private final ParsedAccount parsedAccount;
 
             AccountInfoParsedDataDTO(
-                    final @JsonProperty("program") String program,
-                    final @JsonProperty("space") int space,
-                    final @JsonProperty("parsed") Map<String, Object> parsedData)
+                    final String program,
+                    final int space,
+                    final Map<String, Object> parsedData,
+                    final ParsedAccount parsedAccount)
             {
                 this.program = program;
                 this.space = space;
                 this.parsedData = parsedData;
+                this.parsedAccount = parsedAccount;
+            }
+
+            static AccountInfoParsedDataDTO decode(
+                    final JsonParser parser,
+                    final DeserializationContext ctxt,
+                    final boolean typed) throws IOException
+            {
+                String program = null;
+                int space = 0;
+                Object parsed = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME)
+                {
+                    final String field = parser.currentName();
+                    parser.nextToken();
+                    if ("program".equals(field))
+                    {
+                        program = parser.getValueAsString();
+                    }
+                    else if ("space".equals(field))
+                    {
+                        space = parser.getValueAsInt();
+                    }
+                    else if ("parsed".equals(field) && typed)
+                    {
+                        parsed = decodeParsed(program, parser, ctxt);
+                    }
+                    else if ("parsed".equals(field))
+                    {
+                        parsed = ctxt.readValue(parser, PARSED_DATA_TYPE);
+                    }
+                    else
+                    {
+                        parser.skipChildren();
+                    }
+                }
+
+                if (parsed instanceof DeferredParsedData)
+                {
+                    parsed = ((DeferredParsedData) parsed).resolve(program, parser, ctxt);
+                }
+
+                return parsed instanceof ParsedAccount
+                        ? new AccountInfoParsedDataDTO(program, space, null, (ParsedAccount) parsed)
+                        : new AccountInfoParsedDataDTO(program, space, castToParsedData(parsed), null);
+            }
+
+            /**
+             * Decodes the {@code parsed} object into a {@link ParsedAccount} when the layout is supported,
+             * falling back to the generic map otherwise.
+             *
+             * <p>The node sorts keys, so both {@code program} and {@code type} usually arrive after the {@code info} object they
+             * describe. Only {@code info} is then buffered, and the decision is left to a {@link DeferredParsedData}.</p>
+             */
+            private static Object decodeParsed(
+                    final String program,
+                    final JsonParser parser,
+                    final DeserializationContext ctxt) throws IOException
+            {
+                if (parser.currentToken() != JsonToken.START_OBJECT)
+                {
+                    return ctxt.readValue(parser, PARSED_DATA_TYPE);
+                }
+
+                final DeferredParsedData deferred = new DeferredParsedData();
+                while (parser.nextToken() == JsonToken.FIELD_NAME)
+                {
+                    final String field = parser.currentName();
+                    parser.nextToken();
+                    final ParsedAccount.Type parsedAccountType = ParsedAccountDTO.typeOf(program, deferred.type);
+                    if ("type".equals(field))
+                    {
+                        deferred.type = parser.getValueAsString();
+                    }
+                    else if ("info".equals(field) && parsedAccountType != null)
+                    {
+                        deferred.parsedAccount = ParsedAccountDTO.decode(parsedAccountType, parser);
+                    }
+                    else if ("info".equals(field))
+                    {
+                        deferred.info = ctxt.bufferAsCopyOfValue(parser);
+                    }
+                    else
+                    {
+                        deferred.otherFields = deferred.otherFields == null ? new LinkedHashMap<>() : deferred.otherFields;
+                        deferred.otherFields.put(field, ctxt.readValue(parser, Object.class));
+                    }
+                }
+
+                return program != null ? deferred.resolve(program, parser, ctxt) : deferred;
+            }
+
+            /**
+             * The fields of a {@code parsed} object read before the {@code program} needed to interpret them was known.
+             */
+            private static final class DeferredParsedData
+            {
+                private String type;
+                private ParsedAccount parsedAccount;
+                private TokenBuffer info;
+                private Map<String, Object> otherFields;
+
+                Object resolve(final String program, final JsonParser parser, final DeserializationContext ctxt) throws IOException
+                {
+                    final ParsedAccount.Type parsedAccountType = ParsedAccountDTO.typeOf(program, type);
+                    if (parsedAccount == null && info != null && parsedAccountType != null)
+                    {
+                        try (JsonParser replay = info.asParser(parser.getCodec()))
+                        {
+                            replay.nextToken();
+                            parsedAccount = ParsedAccountDTO.decode(parsedAccountType, replay);
+                        }
+                    }
+                    return parsedAccount != null ? parsedAccount : toParsedData(parser, ctxt);
+                }
+
+                private Map<String, Object> toParsedData(final JsonParser parser, final DeserializationContext ctxt) throws IOException
+                {
+                    final Map<String, Object> parsedData = new LinkedHashMap<>();
+                    if (info != null)
+                    {
+                        try (JsonParser replay = info.asParser(parser.getCodec()))
+                        {
+                            replay.nextToken();
+                            parsedData.put("info", ctxt.readValue(replay, Object.class));
+                        }
+                    }
+                    if (type != null)
+                    {
+                        parsedData.put("type", type);
+                    }
+                    if (otherFields != null)
+                    {
+                        parsedData.putAll(otherFields);
+                    }
+                    return parsedData;
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            private static Map<String, Object> castToParsedData(final Object parsed)
+            {
+                return (Map<String, Object>) parsed;
             }
 
             @Override
@@ -206,6 +361,12 @@ final class AccountInfoDTO implements SolanaRpcResponse<AccountInfo>
             {
                 return parsedData;
             }
+
+            @Override
+            public ParsedAccount getParsedAccount()
+            {
+                return parsedAccount;
+            }
         }
     }
 }
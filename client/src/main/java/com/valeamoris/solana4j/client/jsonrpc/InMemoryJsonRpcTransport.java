@@ -0,0 +1,102 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link JsonRpcTransport} that answers requests in-process with a {@link Handler}, without any networking.
+ *
+ * <p>Intended for tests and benchmarks of the codec and API layers. The handler is invoked on the calling thread, so
+ * it must be safe for concurrent use if the client is shared.</p>
+ */
+public final class InMemoryJsonRpcTransport implements JsonRpcTransport
+{
+    private final Handler handler;
+
+    /**
+     * Creates a transport delegating every request to the given handler.
+     *
+     * @param handler the handler producing responses
+     */
+    public InMemoryJsonRpcTransport(final Handler handler)
+    {
+        this.handler = requireNonNull(handler);
+    }
+
+    /**
+     * Creates a response with the given status code and body.
+     *
+     * @param statusCode the status code
+     * @param body       the response body
+     * @return the response
+     */
+    public static Response response(final int statusCode, final byte[] body)
+    {
+        return new ByteArrayResponse(statusCode, requireNonNull(body));
+    }
+
+    /**
+     * Creates a successful response with the given body.
+     *
+     * @param body the response body
+     * @return the response, with status code {@code 200}
+     */
+    public static Response ok(final byte[] body)
+    {
+        return response(200, body);
+    }
+
+    @Override
+    public Response send(final byte[] request) throws IOException
+    {
+        return handler.handle(request);
+    }
+
+    /**
+     * Produces the response for a request.
+     */
+    @FunctionalInterface
+    public interface Handler
+    {
+        /**
+         * Handles a request.
+         *
+         * @param request the encoded JSON-RPC request body
+         * @return the response
+         * @throws IOException to simulate a communication failure
+         */
+        Response handle(byte[] request) throws IOException;
+    }
+
+    private static final class ByteArrayResponse implements Response
+    {
+        private final int statusCode;
+        private final byte[] body;
+
+        ByteArrayResponse(final int statusCode, final byte[] body)
+        {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode()
+        {
+            return statusCode;
+        }
+
+        @Override
+        public InputStream body()
+        {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Transport used by {@link SolanaJsonRpcClient} to exchange encoded JSON-RPC requests for responses.
+ *
+ * <p>A transport knows nothing about JSON-RPC semantics: it is handed the UTF-8 request body and returns the HTTP
+ * status code together with a stream over the response body. This allows the HTTP stack to be swapped
+ * (OkHttp, the JDK {@code HttpClient}, Netty, ...) or replaced entirely in tests. Implementations must be safe
+ * for concurrent use.</p>
+ */
+public interface JsonRpcTransport
+{
+    /**
+     * Sends a request and blocks until the response headers are available.
+     *
+     * @param request the encoded JSON-RPC request body; must not be modified by the transport
+     * @return the response, which the caller must close
+     * @throws IOException if the request could not be sent or the response could not be received
+     */
+    Response send(byte[] request) throws IOException;
+
+    /**
+     * A response received by a {@link JsonRpcTransport}.
+     */
+    interface Response extends Closeable
+    {
+        /**
+         * Returns the HTTP status code, or the equivalent for non-HTTP transports.
+         *
+         * @return the status code, {@code 200} on success
+         */
+        int statusCode();
+
+        /**
+         * Returns the response body.
+         *
+         * <p>The stream is owned by the response and is released by {@link #close()}. A response without a body
+         * decodes as a result of null, while an empty body fails to decode.</p>
+         *
+         * @return the body stream, or null if the response has no body
+         */
+        InputStream body();
+    }
+}
@@ -0,0 +1,45 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.valeamoris.solana4j.client.api.AccountInfo;
+import com.valeamoris.solana4j.client.api.SolanaRpcResponse;
+
+import java.util.List;
+
+final class MultipleAccountsDTO implements SolanaRpcResponse<List<AccountInfo>>
+{
+    private final ContextDTO context;
+    private final List<AccountInfoDTO.AccountInfoValueDTO> value;
+
+    @JsonCreator
+    MultipleAccountsDTO(
+            final @JsonProperty("context") ContextDTO context,
+            final @JsonProperty("value") List<AccountInfoDTO.AccountInfoValueDTO> value)
+    {
+        this.context = context;
+        this.value = value;
+    }
+
+    @Override
+    public Context getContext()
+    {
+        return context;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<AccountInfo> getValue()
+    {
+        return (List) value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MultipleAccountsDTO{" +
+               "context=" + context +
+               ", value=" + value +
+               '}';
+    }
+}
@@ -0,0 +1,91 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The default {@link JsonRpcTransport}, posting requests to a JSON-RPC endpoint with an {@link OkHttpClient}.
+ */
+public final class OkHttpJsonRpcTransport implements JsonRpcTransport
+{
+    /**
+     * The media type of JSON-RPC requests.
+     */
+    public static final MediaType JSON = MediaType.get("application/json");
+
+    private final OkHttpClient httpClient;
+    private final String rpcUrl;
+
+    /**
+     * Creates a transport posting to the given endpoint.
+     *
+     * @param httpClient the {@link OkHttpClient} to send requests with, allowing customisation of connection
+     *                   pooling, SSL context and timeouts
+     * @param rpcUrl     the URL of the Solana JSON-RPC node
+     */
+    public OkHttpJsonRpcTransport(final OkHttpClient httpClient, final String rpcUrl)
+    {
+        this.httpClient = requireNonNull(httpClient);
+        this.rpcUrl = requireNonNull(rpcUrl);
+    }
+
+    @Override
+    public Response send(final byte[] request) throws IOException
+    {
+        return new OkHttpResponse(newCall(request).execute());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OkHttpJsonRpcTransport{" +
+               "rpcUrl='" + rpcUrl + '\'' +
+               '}';
+    }
+
+    private Call newCall(final byte[] request)
+    {
+        return httpClient.newCall(new Request.Builder()
+                .url(rpcUrl)
+                .post(RequestBody.create(request, JSON))
+                .build());
+    }
+
+    private static final class OkHttpResponse implements Response
+    {
+        private final okhttp3.Response response;
+
+        OkHttpResponse(final okhttp3.Response response)
+        {
+            this.response = response;
+        }
+
+        @Override
+        public int statusCode()
+        {
+            return response.code();
+        }
+
+        @Override
+        public InputStream body()
+        {
+            final ResponseBody body = response.body();
+            return body != null ? body.byteStream() : null;
+        }
+
+        @Override
+        public void close()
+        {
+            response.close();
+        }
+    }
+}
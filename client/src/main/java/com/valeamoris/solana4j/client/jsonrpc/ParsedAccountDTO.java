@@ -0,0 +1,657 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.valeamoris.solana4j.client.api.ParsedAccount;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Flat decoders binding the {@code info} object of {@code jsonParsed} account data straight from the token stream
+ * into compact {@link ParsedAccount} views, without building an intermediate {@code Map} tree.
+ */
+final class ParsedAccountDTO
+{
+    private ParsedAccountDTO()
+    {
+    }
+
+    static ParsedAccount.Type typeOf(final String program, final String type)
+    {
+        if (program == null || type == null)
+        {
+            return null;
+        }
+
+        final ParsedAccount.Type parsedAccountType;
+        switch (program)
+        {
+            case "spl-token":
+            case "spl-token-2022":
+                parsedAccountType = "account".equals(type) ? ParsedAccount.Type.TOKEN_ACCOUNT : "mint".equals(type) ? ParsedAccount.Type.MINT : null;
+                break;
+            case "nonce":
+                parsedAccountType = "initialized".equals(type) ? ParsedAccount.Type.NONCE : null;
+                break;
+            case "address-lookup-table":
+                parsedAccountType = "lookupTable".equals(type) ? ParsedAccount.Type.ADDRESS_LOOKUP_TABLE : null;
+                break;
+            default:
+                parsedAccountType = null;
+                break;
+        }
+        return parsedAccountType;
+    }
+
+    /**
+     * Decodes the {@code info} object the parser is positioned on, leaving the parser on its closing token.
+     */
+    static ParsedAccount decode(final ParsedAccount.Type type, final JsonParser parser) throws IOException
+    {
+        expect(parser, JsonToken.START_OBJECT);
+
+        final ParsedAccount parsedAccount;
+        switch (type)
+        {
+            case TOKEN_ACCOUNT:
+                parsedAccount = TokenAccountStateDTO.decode(parser);
+                break;
+            case MINT:
+                parsedAccount = MintStateDTO.decode(parser);
+                break;
+            case NONCE:
+                parsedAccount = NonceStateDTO.decode(parser);
+                break;
+            case ADDRESS_LOOKUP_TABLE:
+                parsedAccount = AddressLookupTableStateDTO.decode(parser);
+                break;
+            default:
+                throw new IOException("Unsupported parsed account type " + type);
+        }
+        return parsedAccount;
+    }
+
+    private static void expect(final JsonParser parser, final JsonToken token) throws IOException
+    {
+        if (parser.currentToken() != token)
+        {
+            throw new IOException(String.format("Expected %s but found %s while decoding parsed account data.", token, parser.currentToken()));
+        }
+    }
+
+    private static String nextString(final JsonParser parser) throws IOException
+    {
+        final JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING)
+        {
+            throw new IOException(String.format("Expected a string but found %s while decoding parsed account data.", token));
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Reads an unsigned 64-bit value the node encodes either as a JSON number or, for u64 fields, as a string.
+     */
+    private static long nextUnsignedLong(final JsonParser parser) throws IOException
+    {
+        final JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_STRING)
+        {
+            return Long.parseUnsignedLong(parser.getText());
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT)
+        {
+            return parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? parser.getBigIntegerValue().longValue() : parser.getLongValue();
+        }
+        throw new IOException(String.format("Expected an unsigned integer but found %s while decoding parsed account data.", token));
+    }
+
+    /**
+     * Reads the raw {@code amount} of a UiTokenAmount object, skipping the derived ui fields.
+     */
+    private static long nextTokenAmount(final JsonParser parser, final int[] decimals) throws IOException
+    {
+        parser.nextToken();
+        if (parser.currentToken() == JsonToken.VALUE_NULL)
+        {
+            return 0;
+        }
+        expect(parser, JsonToken.START_OBJECT);
+
+        long amount = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            final String field = parser.currentName();
+            if ("amount".equals(field))
+            {
+                amount = nextUnsignedLong(parser);
+            }
+            else if ("decimals".equals(field) && decimals != null)
+            {
+                parser.nextToken();
+                decimals[0] = parser.getIntValue();
+            }
+            else
+            {
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        }
+        return amount;
+    }
+
+    static final class TokenAccountStateDTO implements ParsedAccount.TokenAccountState
+    {
+        private final String mint;
+        private final String owner;
+        private final long amount;
+        private final int decimals;
+        private final State state;
+        private final boolean isNative;
+        private final String delegate;
+        private final long delegatedAmount;
+        private final String closeAuthority;
+        private final long rentExemptReserve;
+
+        TokenAccountStateDTO(
+                final String mint,
+                final String owner,
+                final long amount,
+                final int decimals,
+                final State state,
+                final boolean isNative,
+                final String delegate,
+                final long delegatedAmount,
+                final String closeAuthority,
+                final long rentExemptReserve)
+        {
+            this.mint = mint;
+            this.owner = owner;
+            this.amount = amount;
+            this.decimals = decimals;
+            this.state = state;
+            this.isNative = isNative;
+            this.delegate = delegate;
+            this.delegatedAmount = delegatedAmount;
+            this.closeAuthority = closeAuthority;
+            this.rentExemptReserve = rentExemptReserve;
+        }
+
+        static TokenAccountStateDTO decode(final JsonParser parser) throws IOException
+        {
+            String mint = null;
+            String owner = null;
+            long amount = 0;
+            final int[] decimals = new int[1];
+            State state = State.UNINITIALIZED;
+            boolean isNative = false;
+            String delegate = null;
+            long delegatedAmount = 0;
+            String closeAuthority = null;
+            long rentExemptReserve = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                switch (parser.currentName())
+                {
+                    case "mint":
+                        mint = nextString(parser);
+                        break;
+                    case "owner":
+                        owner = nextString(parser);
+                        break;
+                    case "tokenAmount":
+                        amount = nextTokenAmount(parser, decimals);
+                        break;
+                    case "state":
+                        state = stateOf(nextString(parser));
+                        break;
+                    case "isNative":
+                        parser.nextToken();
+                        isNative = parser.getValueAsBoolean();
+                        break;
+                    case "delegate":
+                        delegate = nextString(parser);
+                        break;
+                    case "delegatedAmount":
+                        delegatedAmount = nextTokenAmount(parser, null);
+                        break;
+                    case "closeAuthority":
+                        closeAuthority = nextString(parser);
+                        break;
+                    case "rentExemptReserve":
+                        rentExemptReserve = nextTokenAmount(parser, null);
+                        break;
+                    default:
+                        parser.nextToken();
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            return new TokenAccountStateDTO(mint, owner, amount, decimals[0], state, isNative, delegate, delegatedAmount, closeAuthority, rentExemptReserve);
+        }
+
+        private static State stateOf(final String state)
+        {
+            if (state == null)
+            {
+                return null;
+            }
+            for (final State value : State.values())
+            {
+                if (value.name().equalsIgnoreCase(state))
+                {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Type getType()
+        {
+            return Type.TOKEN_ACCOUNT;
+        }
+
+        @Override
+        public String getMint()
+        {
+            return mint;
+        }
+
+        @Override
+        public String getOwner()
+        {
+            return owner;
+        }
+
+        @Override
+        public long getAmount()
+        {
+            return amount;
+        }
+
+        @Override
+        public int getDecimals()
+        {
+            return decimals;
+        }
+
+        @Override
+        public State getState()
+        {
+            return state;
+        }
+
+        @Override
+        public boolean isNative()
+        {
+            return isNative;
+        }
+
+        @Override
+        public String getDelegate()
+        {
+            return delegate;
+        }
+
+        @Override
+        public long getDelegatedAmount()
+        {
+            return delegatedAmount;
+        }
+
+        @Override
+        public String getCloseAuthority()
+        {
+            return closeAuthority;
+        }
+
+        @Override
+        public long getRentExemptReserve()
+        {
+            return rentExemptReserve;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "TokenAccountStateDTO{" +
+                   "mint='" + mint + '\'' +
+                   ", owner='" + owner + '\'' +
+                   ", amount=" + Long.toUnsignedString(amount) +
+                   ", decimals=" + decimals +
+                   ", state=" + state +
+                   ", isNative=" + isNative +
+                   ", delegate='" + delegate + '\'' +
+                   ", delegatedAmount=" + Long.toUnsignedString(delegatedAmount) +
+                   ", closeAuthority='" + closeAuthority + '\'' +
+                   ", rentExemptReserve=" + Long.toUnsignedString(rentExemptReserve) +
+                   '}';
+        }
+    }
+
+    static final class MintStateDTO implements ParsedAccount.MintState
+    {
+        private final String mintAuthority;
+        private final long supply;
+        private final int decimals;
+        private final boolean isInitialized;
+        private final String freezeAuthority;
+
+        MintStateDTO(
+                final String mintAuthority,
+                final long supply,
+                final int decimals,
+                final boolean isInitialized,
+                final String freezeAuthority)
+        {
+            this.mintAuthority = mintAuthority;
+            this.supply = supply;
+            this.decimals = decimals;
+            this.isInitialized = isInitialized;
+            this.freezeAuthority = freezeAuthority;
+        }
+
+        static MintStateDTO decode(final JsonParser parser) throws IOException
+        {
+            String mintAuthority = null;
+            long supply = 0;
+            int decimals = 0;
+            boolean isInitialized = false;
+            String freezeAuthority = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                switch (parser.currentName())
+                {
+                    case "mintAuthority":
+                        mintAuthority = nextString(parser);
+                        break;
+                    case "supply":
+                        supply = nextUnsignedLong(parser);
+                        break;
+                    case "decimals":
+                        parser.nextToken();
+                        decimals = parser.getIntValue();
+                        break;
+                    case "isInitialized":
+                        parser.nextToken();
+                        isInitialized = parser.getValueAsBoolean();
+                        break;
+                    case "freezeAuthority":
+                        freezeAuthority = nextString(parser);
+                        break;
+                    default:
+                        parser.nextToken();
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            return new MintStateDTO(mintAuthority, supply, decimals, isInitialized, freezeAuthority);
+        }
+
+        @Override
+        public Type getType()
+        {
+            return Type.MINT;
+        }
+
+        @Override
+        public String getMintAuthority()
+        {
+            return mintAuthority;
+        }
+
+        @Override
+        public long getSupply()
+        {
+            return supply;
+        }
+
+        @Override
+        public int getDecimals()
+        {
+            return decimals;
+        }
+
+        @Override
+        public boolean isInitialized()
+        {
+            return isInitialized;
+        }
+
+        @Override
+        public String getFreezeAuthority()
+        {
+            return freezeAuthority;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "MintStateDTO{" +
+                   "mintAuthority='" + mintAuthority + '\'' +
+                   ", supply=" + Long.toUnsignedString(supply) +
+                   ", decimals=" + decimals +
+                   ", isInitialized=" + isInitialized +
+                   ", freezeAuthority='" + freezeAuthority + '\'' +
+                   '}';
+        }
+    }
+
+    static final class NonceStateDTO implements ParsedAccount.NonceState
+    {
+        private final String authority;
+        private final String blockhash;
+        private final long lamportsPerSignature;
+
+        NonceStateDTO(final String authority, final String blockhash, final long lamportsPerSignature)
+        {
+            this.authority = authority;
+            this.blockhash = blockhash;
+            this.lamportsPerSignature = lamportsPerSignature;
+        }
+
+        static NonceStateDTO decode(final JsonParser parser) throws IOException
+        {
+            String authority = null;
+            String blockhash = null;
+            long lamportsPerSignature = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                switch (parser.currentName())
+                {
+                    case "authority":
+                        authority = nextString(parser);
+                        break;
+                    case "blockhash":
+                        blockhash = nextString(parser);
+                        break;
+                    case "feeCalculator":
+                        parser.nextToken();
+                        expect(parser, JsonToken.START_OBJECT);
+                        while (parser.nextToken() == JsonToken.FIELD_NAME)
+                        {
+                            if ("lamportsPerSignature".equals(parser.currentName()))
+                            {
+                                lamportsPerSignature = nextUnsignedLong(parser);
+                            }
+                            else
+                            {
+                                parser.nextToken();
+                                parser.skipChildren();
+                            }
+                        }
+                        break;
+                    default:
+                        parser.nextToken();
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            return new NonceStateDTO(authority, blockhash, lamportsPerSignature);
+        }
+
+        @Override
+        public Type getType()
+        {
+            return Type.NONCE;
+        }
+
+        @Override
+        public String getAuthority()
+        {
+            return authority;
+        }
+
+        @Override
+        public String getBlockhash()
+        {
+            return blockhash;
+        }
+
+        @Override
+        public long getLamportsPerSignature()
+        {
+            return lamportsPerSignature;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "NonceStateDTO{" +
+                   "authority='" + authority + '\'' +
+                   ", blockhash='" + blockhash + '\'' +
+                   ", lamportsPerSignature=" + lamportsPerSignature +
+                   '}';
+        }
+    }
+
+    static final class AddressLookupTableStateDTO implements ParsedAccount.AddressLookupTableState
+    {
+        private final String authority;
+        private final long deactivationSlot;
+        private final long lastExtendedSlot;
+        private final int lastExtendedSlotStartIndex;
+        private final List<String> addresses;
+
+        AddressLookupTableStateDTO(
+                final String authority,
+                final long deactivationSlot,
+                final long lastExtendedSlot,
+                final int lastExtendedSlotStartIndex,
+                final List<String> addresses)
+        {
+            this.authority = authority;
+            this.deactivationSlot = deactivationSlot;
+            this.lastExtendedSlot = lastExtendedSlot;
+            this.lastExtendedSlotStartIndex = lastExtendedSlotStartIndex;
+            this.addresses = addresses;
+        }
+
+        static AddressLookupTableStateDTO decode(final JsonParser parser) throws IOException
+        {
+            String authority = null;
+            long deactivationSlot = -1L;
+            long lastExtendedSlot = 0;
+            int lastExtendedSlotStartIndex = 0;
+            List<String> addresses = Collections.emptyList();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                switch (parser.currentName())
+                {
+                    case "authority":
+                        authority = nextString(parser);
+                        break;
+                    case "deactivationSlot":
+                        deactivationSlot = nextUnsignedLong(parser);
+                        break;
+                    case "lastExtendedSlot":
+                        lastExtendedSlot = nextUnsignedLong(parser);
+                        break;
+                    case "lastExtendedSlotStartIndex":
+                        parser.nextToken();
+                        lastExtendedSlotStartIndex = parser.getIntValue();
+                        break;
+                    case "addresses":
+                        parser.nextToken();
+                        expect(parser, JsonToken.START_ARRAY);
+                        addresses = new ArrayList<>();
+                        while (parser.nextToken() == JsonToken.VALUE_STRING)
+                        {
+                            addresses.add(parser.getText());
+                        }
+                        expect(parser, JsonToken.END_ARRAY);
+                        break;
+                    default:
+                        parser.nextToken();
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            return new AddressLookupTableStateDTO(authority, deactivationSlot, lastExtendedSlot, lastExtendedSlotStartIndex, Collections.unmodifiableList(addresses));
+        }
+
+        @Override
+        public Type getType()
+        {
+            return Type.ADDRESS_LOOKUP_TABLE;
+        }
+
+        @Override
+        public String getAuthority()
+        {
+            return authority;
+        }
+
+        @Override
+        public long getDeactivationSlot()
+        {
+            return deactivationSlot;
+        }
+
+        @Override
+        public long getLastExtendedSlot()
+        {
+            return lastExtendedSlot;
+        }
+
+        @Override
+        public int getLastExtendedSlotStartIndex()
+        {
+            return lastExtendedSlotStartIndex;
+        }
+
+        @Override
+        public List<String> getAddresses()
+        {
+            return addresses;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "AddressLookupTableStateDTO{" +
+                   "authority='" + authority + '\'' +
+                   ", deactivationSlot=" + Long.toUnsignedString(deactivationSlot) +
+                   ", lastExtendedSlot=" + Long.toUnsignedString(lastExtendedSlot) +
+                   ", lastExtendedSlotStartIndex=" + lastExtendedSlotStartIndex +
+                   ", addresses=" + addresses +
+                   '}';
+        }
+    }
+}
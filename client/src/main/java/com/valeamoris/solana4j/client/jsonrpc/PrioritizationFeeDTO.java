@@ -0,0 +1,41 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.valeamoris.solana4j.client.api.PrioritizationFee;
+
+final class PrioritizationFeeDTO implements PrioritizationFee
+{
+    private final long slot;
+    private final long prioritizationFee;
+
+    @JsonCreator
+    PrioritizationFeeDTO(
+            final @JsonProperty("slot") long slot,
+            final @JsonProperty("prioritizationFee") long prioritizationFee)
+    {
+        this.slot = slot;
+        this.prioritizationFee = prioritizationFee;
+    }
+
+    @Override
+    public long getSlot()
+    {
+        return slot;
+    }
+
+    @Override
+    public long getPrioritizationFee()
+    {
+        return prioritizationFee;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PrioritizationFeeDTO{" +
+               "slot=" + slot +
+               ", prioritizationFee=" + prioritizationFee +
+               '}';
+    }
+}
@@ -10,8 +10,10 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.valeamoris.solana4j.client.api.ParsedAccountView;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.atomic.AtomicLong;
 
 final class SolanaCodec
@@ -33,7 +35,7 @@ final class SolanaCodec
                 .build();
     }
 
-    String encodeRequest(final String method, final Object[] params) throws JsonProcessingException
+    byte[] encodeRequest(final String method, final Object[] params) throws JsonProcessingException
     {
         final long id = requestId.incrementAndGet();
 
@@ -44,15 +46,16 @@ final class SolanaCodec
 
         requestNode.put(ID, id);
 
-        return mapper.writeValueAsString(requestNode);
+        return mapper.writeValueAsBytes(requestNode);
     }
 
     <T> RpcWrapperDTO<T> decodeResponse(
-            final byte[] bytes,
-            final TypeReference<RpcWrapperDTO<T>> type) throws IOException
+            final InputStream body,
+            final TypeReference<RpcWrapperDTO<T>> type,
+            final ParsedAccountView parsedAccountView) throws IOException
     {
-        final ObjectReader objectReader = mapper.readerFor(type);
-        return objectReader.readValue(bytes);
+        final ObjectReader objectReader = mapper.readerFor(type).withAttribute(ParsedAccountView.class, parsedAccountView);
+        return objectReader.readValue(body);
     }
 
     private ArrayNode arrayParams(final Object[] values)
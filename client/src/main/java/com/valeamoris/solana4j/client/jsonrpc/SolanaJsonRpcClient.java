@@ -3,16 +3,18 @@ package com.valeamoris.solana4j.client.jsonrpc;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.valeamoris.solana4j.client.api.*;
-import okhttp3.*;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
 
-import java.io.*;
-import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 import static com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientOptionalParams.defaultOptionalParams;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Implementation of the {@link SolanaApi} interface for interacting with the Solana blockchain via JSON-RPC.
@@ -20,10 +22,9 @@ import static com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientOptional
  * retrieving account information, and more.
  */
 public class SolanaJsonRpcClient implements SolanaApi {
-    private final String rpcUrl;
-    private final OkHttpClient httpClient;
+    private final JsonRpcTransport transport;
     private final SolanaCodec solanaCodec;
-    public static final MediaType JSON = MediaType.get("application/json");
+    public static final MediaType JSON = OkHttpJsonRpcTransport.JSON;
 
     /**
      * Constructs a new {@code SolanaJsonRpcClient} with the specified HTTP client and RPC URL.
@@ -36,17 +37,30 @@ public class SolanaJsonRpcClient implements SolanaApi {
     public SolanaJsonRpcClient(
             final OkHttpClient httpClient,
             final String rpcUrl) {
-        this.rpcUrl = rpcUrl;
-        this.httpClient = httpClient;
-        this.solanaCodec = new SolanaCodec(false);
+        this(new OkHttpJsonRpcTransport(httpClient, rpcUrl));
+    }
+
+    /**
+     * Constructs a new {@code SolanaJsonRpcClient} sending requests over the specified transport.
+     *
+     * @param transport the {@link JsonRpcTransport} used to exchange encoded requests for responses,
+     *                  for example an {@link OkHttpJsonRpcTransport} or an {@link InMemoryJsonRpcTransport}.
+     */
+    public SolanaJsonRpcClient(final JsonRpcTransport transport) {
+        this(transport, false);
     }
 
     SolanaJsonRpcClient(
             final OkHttpClient httpClient,
             final String rpcUrl,
             final boolean failOnUnknownProperties) {
-        this.rpcUrl = rpcUrl;
-        this.httpClient = httpClient;
+        this(new OkHttpJsonRpcTransport(httpClient, rpcUrl), failOnUnknownProperties);
+    }
+
+    SolanaJsonRpcClient(
+            final JsonRpcTransport transport,
+            final boolean failOnUnknownProperties) {
+        this.transport = requireNonNull(transport);
         this.solanaCodec = new SolanaCodec(failOnUnknownProperties);
     }
 
@@ -147,7 +161,25 @@ public class SolanaJsonRpcClient implements SolanaApi {
     public SolanaClientResponse<AccountInfo> getAccountInfo(final String address, final SolanaClientOptionalParams solanaClientOptionalParams) throws SolanaJsonRpcClientException {
         return queryForObject(new TypeReference<RpcWrapperDTO<AccountInfoDTO>>() {
                               },
-                AccountInfoDTO::getValue, "getAccountInfo", address,
+                AccountInfoDTO::getValue, solanaClientOptionalParams.getParsedAccountView(), "getAccountInfo", address,
+                solanaClientOptionalParams.getParams()
+        );
+    }
+
+    @Override
+    public SolanaClientResponse<List<AccountInfo>> getMultipleAccounts(final List<String> addresses) throws SolanaJsonRpcClientException {
+        return queryForObject(new TypeReference<RpcWrapperDTO<MultipleAccountsDTO>>() {
+                              },
+                MultipleAccountsDTO::getValue, "getMultipleAccounts", addresses,
+                defaultOptionalParams()
+        );
+    }
+
+    @Override
+    public SolanaClientResponse<List<AccountInfo>> getMultipleAccounts(final List<String> addresses, final SolanaClientOptionalParams solanaClientOptionalParams) throws SolanaJsonRpcClientException {
+        return queryForObject(new TypeReference<RpcWrapperDTO<MultipleAccountsDTO>>() {
+                              },
+                MultipleAccountsDTO::getValue, solanaClientOptionalParams.getParsedAccountView(), "getMultipleAccounts", addresses,
                 solanaClientOptionalParams.getParams()
         );
     }
@@ -284,7 +316,7 @@ public class SolanaJsonRpcClient implements SolanaApi {
             final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException {
         return queryForObject(new TypeReference<RpcWrapperDTO<TokenAccountsByOwnerDTO>>() {
                               },
-                TokenAccountsByOwnerDTO::getValue, "getTokenAccountsByOwner", accountDelegate, filter,
+                TokenAccountsByOwnerDTO::getValue, optionalParams.getParsedAccountView(), "getTokenAccountsByOwner", accountDelegate, filter,
                 optionalParams.getParams());
     }
 
@@ -300,7 +332,7 @@ public class SolanaJsonRpcClient implements SolanaApi {
     public SolanaClientResponse<SimulateTransactionResponse> simulateTransaction(final String transaction, final SolanaClientOptionalParams optionalParams) throws SolanaJsonRpcClientException {
         return queryForObject(new TypeReference<RpcWrapperDTO<SimulateTransactionResponseDTO>>() {
                               },
-                SimulateTransactionResponseDTO::getValue, "simulateTransaction", transaction,
+                SimulateTransactionResponseDTO::getValue, optionalParams.getParsedAccountView(), "simulateTransaction", transaction,
                 optionalParams.getParams());
     }
 
@@ -320,15 +352,37 @@ public class SolanaJsonRpcClient implements SolanaApi {
                 optionalParams.getParams());
     }
 
+    @Override
+    public SolanaClientResponse<List<PrioritizationFee>> getRecentPrioritizationFees(final List<String> addresses) throws SolanaJsonRpcClientException {
+        return queryForObject(new TypeReference<RpcWrapperDTO<List<PrioritizationFeeDTO>>>() {
+                              },
+                ArrayList::new, "getRecentPrioritizationFees", addresses);
+    }
+
+    private <S, T> SolanaClientResponse<S> queryForObject(
+            final TypeReference<RpcWrapperDTO<T>> type,
+            final Function<T, S> dtoMapper,
+            final String method,
+            final Object... params) throws SolanaJsonRpcClientException {
+        return queryForObject(type, dtoMapper, ParsedAccountView.MAP, method, params);
+    }
+
     private <S, T> SolanaClientResponse<S> queryForObject(
             final TypeReference<RpcWrapperDTO<T>> type,
             final Function<T, S> dtoMapper,
+            final ParsedAccountView parsedAccountView,
             final String method,
             final Object... params) throws SolanaJsonRpcClientException {
-        final Request request = prepareRequest(method, params);
-        final Response httpResponse = sendRequest(request);
+        final byte[] request = encodeRequest(method, params);
+
+        final JsonRpcTransport.Response transportResponse = sendRequest(method, request);
+        final Result<SolanaClientResponse.SolanaClientError, T> response;
+        try {
+            response = decodeResponse(method, type, parsedAccountView, transportResponse);
+        } finally {
+            closeQuietly(transportResponse);
+        }
 
-        final Result<SolanaClientResponse.SolanaClientError, T> response = decodeResponse(type, httpResponse);
         if (response.isError()) {
             return SolanaJsonRpcClientResponse.creatErrorResponse(response.getError());
         }
@@ -336,52 +390,55 @@ public class SolanaJsonRpcClient implements SolanaApi {
         return SolanaJsonRpcClientResponse.createSuccessResponse(dtoMapper.apply(response.getSuccess()));
     }
 
-    private Request prepareRequest(final String method, final Object[] params) throws SolanaJsonRpcClientException {
+    private byte[] encodeRequest(final String method, final Object[] params) throws SolanaJsonRpcClientException {
         try {
-            return buildPostRequest(solanaCodec.encodeRequest(method, params));
+            return solanaCodec.encodeRequest(method, params);
         } catch (final JsonProcessingException e) {
             throw new SolanaJsonRpcClientException(String.format("An error occurred building the JSON RPC request for method %s.", method), e);
         }
     }
 
-    private Response sendRequest(final Request request) throws SolanaJsonRpcClientException {
+    private JsonRpcTransport.Response sendRequest(final String method, final byte[] request) throws SolanaJsonRpcClientException {
+        final JsonRpcTransport.Response transportResponse;
         try {
-            final Response httpResponse = httpClient.newCall(request).execute();
-            if (httpResponse.code() != 200) {
-                throw new SolanaJsonRpcClientException(String.format("Unexpected status code %s returned from the JSON RPC for request %s.", httpResponse.code(), request));
-            } else {
-                return httpResponse;
-            }
+            transportResponse = transport.send(request);
         } catch (final IOException e) {
-            throw new SolanaJsonRpcClientException(String.format("Unable to communicate with the JSON RPC for request %s.", request), e, true);
+            throw new SolanaJsonRpcClientException(String.format("Unable to communicate with the JSON RPC %s for method %s.", transport, method), e, true);
         }
+
+        if (transportResponse.statusCode() != 200) {
+            final int statusCode = transportResponse.statusCode();
+            closeQuietly(transportResponse);
+            throw new SolanaJsonRpcClientException(String.format("Unexpected status code %s returned from the JSON RPC %s for method %s.", statusCode, transport, method));
+        }
+        return transportResponse;
     }
 
     private <T> Result<SolanaClientResponse.SolanaClientError, T> decodeResponse(
+            final String method,
             final TypeReference<RpcWrapperDTO<T>> type,
-            final Response httpResponse) throws SolanaJsonRpcClientException {
+            final ParsedAccountView parsedAccountView,
+            final JsonRpcTransport.Response transportResponse) throws SolanaJsonRpcClientException {
         try {
-            final ResponseBody body = httpResponse.body();
-            // copy body to avoid closing it
-            final byte[] bytes = body != null ? body.bytes() : null;
-            RpcWrapperDTO<T> rpcResult = new RpcWrapperDTO<>(null, null, 0, null);
-            if (body != null) {
-                rpcResult = solanaCodec.decodeResponse(bytes, type);
+            final InputStream body = transportResponse.body();
+            if (body == null) {
+                return Result.success(null);
             }
+            final RpcWrapperDTO<T> rpcResult = solanaCodec.decodeResponse(body, type, parsedAccountView);
             if (rpcResult.getError() != null) {
                 return Result.error(new SolanaJsonRpcClientError(rpcResult.getError().getCode(), rpcResult.getError().getMessage()));
             }
             return Result.success(rpcResult.getResult());
         } catch (final IOException e) {
-            throw new SolanaJsonRpcClientException(String.format("Unable to decode JSON RPC response %s.", httpResponse), e);
+            throw new SolanaJsonRpcClientException(String.format("Unable to decode JSON RPC response for method %s.", method), e);
         }
     }
 
-    private Request buildPostRequest(final String payload) {
-        RequestBody body = RequestBody.create(payload, JSON);
-        Request.Builder builder = new Request.Builder();
-        builder.url(rpcUrl)
-                .post(body);
-        return builder.build();
+    private static void closeQuietly(final JsonRpcTransport.Response transportResponse) {
+        try {
+            transportResponse.close();
+        } catch (final IOException e) {
+            // nothing more to read from the response, a failure to release it is not worth failing the call
+        }
     }
 }
@@ -1,11 +1,14 @@
 package com.valeamoris.solana4j.client.jsonrpc;
 
 import com.valeamoris.solana4j.client.api.Commitment;
+import com.valeamoris.solana4j.client.api.ParsedAccountView;
 import com.valeamoris.solana4j.client.api.SolanaClientOptionalParams;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Implementation of {@link SolanaClientOptionalParams} that provides support for adding
  * and retrieving optional parameters to be used in Solana JSON-RPC requests.
@@ -13,6 +16,7 @@ import java.util.Map;
 public final class SolanaJsonRpcClientOptionalParams implements SolanaClientOptionalParams
 {
     private final Map<String, Object> optionalParams = new HashMap<>();
+    private ParsedAccountView parsedAccountView = ParsedAccountView.MAP;
 
     @Override
     public void addParam(final String key, final Object value)
@@ -26,6 +30,18 @@ public final class SolanaJsonRpcClientOptionalParams implements SolanaClientOpti
         return optionalParams;
     }
 
+    @Override
+    public void setParsedAccountView(final ParsedAccountView parsedAccountView)
+    {
+        this.parsedAccountView = requireNonNull(parsedAccountView);
+    }
+
+    @Override
+    public ParsedAccountView getParsedAccountView()
+    {
+        return parsedAccountView;
+    }
+
     /**
      * Creates and returns a default instance of {@link SolanaClientOptionalParams} as a {@link Map}.
      * This instance contains a set of commonly used default parameters for JSON-RPC requests.
@@ -0,0 +1,716 @@
+package com.valeamoris.solana4j.client.lookup;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.ProgramDerivedAddress;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.client.api.AccountInfo;
+import com.valeamoris.solana4j.client.api.Commitment;
+import com.valeamoris.solana4j.client.api.SolanaApi;
+import com.valeamoris.solana4j.client.api.SolanaClientOptionalParams;
+import com.valeamoris.solana4j.client.api.SolanaClientResponse;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientException;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientOptionalParams;
+import com.valeamoris.solana4j.programs.AddressLookupTableProgram;
+import com.valeamoris.solana4j.programs.AddressLookupTableView;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps address lookup tables cached locally so that version 0 messages can be built without touching the network.
+ *
+ * <p>Tables are read in batches of up to {@link #MAX_ACCOUNTS_PER_REQUEST} with
+ * {@link SolanaApi#getMultipleAccounts(List, SolanaClientOptionalParams)}, either in the background or when
+ * {@link #refresh()} is called, together with the current slot. A table is only deserialised again when its last
+ * extended slot or address count has changed. Addresses appended in the slot a table was last extended are withheld
+ * until a later slot has been observed, as the runtime does not resolve them before then, and deactivated tables are
+ * not served at all.</p>
+ *
+ * <p>With {@link Builder#autoExtend(PublicKey, PublicKey, Consumer)} the manager also maintains tables of its own.
+ * Accounts passed to {@link #lookupTablesFor(Collection)} or referenced by instructions passed to
+ * {@link #lookupTablesFor(List)} that no table holds are counted, and once an account has been
+ * asked for often enough the next refresh adds it to an owned table with room, creating one first if needed. The
+ * create and extend instructions are handed to a sink that signs and sends them; each batch is one transaction that
+ * the table authority and payer must sign.</p>
+ */
+public final class AddressLookupTableManager implements AutoCloseable
+{
+    /**
+     * The most accounts {@code getMultipleAccounts} accepts in one request.
+     */
+    public static final int MAX_ACCOUNTS_PER_REQUEST = 100;
+
+    /**
+     * The most addresses a lookup table can hold.
+     */
+    public static final int MAX_TABLE_ADDRESSES = 256;
+
+    /**
+     * The most addresses added by one extend instruction, leaving room in its transaction for compute budget instructions.
+     */
+    public static final int MAX_ADDRESSES_PER_EXTENSION = 20;
+
+    private static final AddressLookupTableSnapshot EMPTY_SNAPSHOT = new AddressLookupTableSnapshot(Collections.emptyList());
+
+    private final SolanaApi api;
+    private final Commitment commitment;
+    private final PublicKey authority;
+    private final PublicKey payer;
+    private final Consumer<List<TransactionInstruction>> sink;
+    private final int hotThreshold;
+    private final int maxTrackedAccounts;
+    private final long pendingTimeoutSlots;
+    private final Map<PublicKey, TableState> tables = new LinkedHashMap<>();
+    private final Map<PublicKey, Integer> misses = new ConcurrentHashMap<>();
+    private final AddressLookupTableView addressLookupTableView = new AddressLookupTableView();
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final ScheduledFuture<?> refreshTask;
+    private volatile AddressLookupTableSnapshot snapshot = EMPTY_SNAPSHOT;
+    private volatile long slot = -1;
+
+    private AddressLookupTableManager(final Builder builder)
+    {
+        this.api = builder.api;
+        this.commitment = builder.commitment;
+        this.authority = builder.authority;
+        this.payer = builder.payer;
+        this.sink = builder.sink;
+        this.hotThreshold = builder.hotThreshold;
+        this.maxTrackedAccounts = builder.maxTrackedAccounts;
+        this.pendingTimeoutSlots = builder.pendingTimeoutSlots;
+        for (final PublicKey table : builder.tables)
+        {
+            tables.put(table, new TableState(table));
+        }
+
+        if (builder.refreshIntervalNanos > 0)
+        {
+            this.ownsScheduler = builder.scheduler == null;
+            this.scheduler = ownsScheduler ? newDaemonScheduler() : builder.scheduler;
+            this.refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, 0, builder.refreshIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+        else
+        {
+            this.ownsScheduler = false;
+            this.scheduler = null;
+            this.refreshTask = null;
+        }
+    }
+
+    /**
+     * Creates a builder for a manager reading tables through the given api.
+     *
+     * @param api the api used to read tables and the current slot
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final SolanaApi api)
+    {
+        return new Builder(api);
+    }
+
+    /**
+     * Returns every table that can be used at the last observed slot, from the cache.
+     *
+     * @return the usable tables, in the order they were added to the manager
+     */
+    public List<AddressLookupTable> lookupTables()
+    {
+        return snapshot.lookupTables;
+    }
+
+    /**
+     * Returns the cached table at the given address, restricted to the addresses usable at the last observed slot.
+     *
+     * @param lookupTableAddress the address of the table
+     * @return the table, or null if it is unknown, not yet read or deactivated
+     */
+    public AddressLookupTable lookupTable(final PublicKey lookupTableAddress)
+    {
+        return snapshot.lookupTableByAddress.get(lookupTableAddress);
+    }
+
+    /**
+     * Returns the cached tables holding any of the given accounts, and counts the accounts none of them hold.
+     * <p>
+     * Only accounts that may be loaded from a table should be passed, which excludes the signers of the message and the
+     * programs its instructions invoke; {@link #lookupTablesFor(List)} leaves them out for you.
+     * </p>
+     *
+     * @param accounts the accounts a message is about to reference
+     * @return the tables holding at least one of the accounts, in the order they were added to the manager
+     */
+    public List<AddressLookupTable> lookupTablesFor(final Collection<PublicKey> accounts)
+    {
+        final AddressLookupTableSnapshot current = snapshot;
+        final Set<AddressLookupTable> used = new LinkedHashSet<>();
+        for (final PublicKey account : accounts)
+        {
+            final AddressLookupTable lookupTable = current.lookupTableByAccount.get(account);
+            if (lookupTable != null)
+            {
+                used.add(lookupTable);
+            }
+            else if (sink != null && (misses.size() < maxTrackedAccounts || misses.containsKey(account)))
+            {
+                misses.merge(account, 1, Integer::sum);
+            }
+        }
+
+        if (used.size() <= 1)
+        {
+            return new ArrayList<>(used);
+        }
+        final List<AddressLookupTable> ordered = new ArrayList<>(used.size());
+        for (final AddressLookupTable lookupTable : current.lookupTables)
+        {
+            if (used.contains(lookupTable))
+            {
+                ordered.add(lookupTable);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the cached tables holding any account the given instructions reference, and counts the accounts none of them hold.
+     * <p>
+     * Signers and the instructions' program ids cannot be loaded from a table, so they are neither looked up nor counted
+     * as misses.
+     * </p>
+     *
+     * @param instructions the instructions of a message about to be built
+     * @return the tables holding at least one of the accounts, in the order they were added to the manager
+     */
+    public List<AddressLookupTable> lookupTablesFor(final List<TransactionInstruction> instructions)
+    {
+        final Set<PublicKey> accounts = new LinkedHashSet<>();
+        final Set<PublicKey> excluded = new HashSet<>();
+        for (final TransactionInstruction instruction : instructions)
+        {
+            excluded.add(instruction.program());
+            for (final TransactionInstruction.AccountReference reference : instruction.accountReferences())
+            {
+                if (reference.isSigner())
+                {
+                    excluded.add(reference.account());
+                }
+                else
+                {
+                    accounts.add(reference.account());
+                }
+            }
+        }
+        accounts.removeAll(excluded);
+        return lookupTablesFor(accounts);
+    }
+
+    /**
+     * Starts tracking an existing table, which is read by the next refresh.
+     *
+     * @param lookupTableAddress the address of the table
+     */
+    public synchronized void track(final PublicKey lookupTableAddress)
+    {
+        tables.computeIfAbsent(requireNonNull(lookupTableAddress), TableState::new);
+    }
+
+    /**
+     * Marks a table as changed at the given slot, so that the next refresh deserialises it again if the cached copy is older.
+     *
+     * @param lookupTableAddress the address of the table
+     * @param changedSlot        the slot at which the table was extended, deactivated or closed
+     */
+    public synchronized void invalidate(final PublicKey lookupTableAddress, final long changedSlot)
+    {
+        final TableState table = tables.get(lookupTableAddress);
+        if (table != null && table.lastExtendedSlot < changedSlot)
+        {
+            table.lastExtendedSlot = -1;
+        }
+    }
+
+    /**
+     * Returns the last slot observed by a refresh.
+     *
+     * @return the slot, or -1 before the first successful refresh
+     */
+    public long slot()
+    {
+        return slot;
+    }
+
+    /**
+     * Reads the current slot and every tracked table now, then creates or extends owned tables for frequently missed
+     * accounts if automatic extension is enabled.
+     * <p>
+     * Tables whose batch cannot be read keep their cached copy until the next refresh succeeds.
+     * </p>
+     */
+    public synchronized void refresh()
+    {
+        final SolanaClientOptionalParams slotParams = new SolanaJsonRpcClientOptionalParams();
+        slotParams.addParam("commitment", commitment.name().toLowerCase());
+        try
+        {
+            final SolanaClientResponse<Long> response = api.getSlot(slotParams);
+            if (!response.isSuccess() || response.getResponse() == null)
+            {
+                return;
+            }
+            slot = Math.max(slot, response.getResponse());
+        }
+        catch (final SolanaJsonRpcClientException | RuntimeException e)
+        {
+            // without a slot the warmup of recent extensions cannot be judged, so keep serving the current snapshot
+            return;
+        }
+
+        final List<TableState> batch = new ArrayList<>(MAX_ACCOUNTS_PER_REQUEST);
+        for (final TableState table : tables.values())
+        {
+            batch.add(table);
+            if (batch.size() == MAX_ACCOUNTS_PER_REQUEST)
+            {
+                read(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            read(batch);
+        }
+
+        publish();
+        if (sink != null)
+        {
+            extend();
+        }
+    }
+
+    /**
+     * Stops the background refresh, shutting down the scheduler if the manager created it.
+     */
+    @Override
+    public void close()
+    {
+        if (refreshTask != null)
+        {
+            refreshTask.cancel(false);
+        }
+        if (ownsScheduler)
+        {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void read(final List<TableState> batch)
+    {
+        final List<String> addresses = new ArrayList<>(batch.size());
+        for (final TableState table : batch)
+        {
+            addresses.add(table.address.base58());
+        }
+
+        final SolanaClientOptionalParams params = new SolanaJsonRpcClientOptionalParams();
+        params.addParam("encoding", "base64");
+        params.addParam("commitment", commitment.name().toLowerCase());
+
+        final List<AccountInfo> accountInfos;
+        try
+        {
+            final SolanaClientResponse<List<AccountInfo>> response = api.getMultipleAccounts(addresses, params);
+            accountInfos = response.isSuccess() ? response.getResponse() : null;
+        }
+        catch (final SolanaJsonRpcClientException | RuntimeException e)
+        {
+            // serve the cached copies; the next refresh will read them again
+            return;
+        }
+        if (accountInfos == null || accountInfos.size() != batch.size())
+        {
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++)
+        {
+            update(batch.get(i), accountInfos.get(i));
+        }
+    }
+
+    private void update(final TableState table, final AccountInfo accountInfo)
+    {
+        if (accountInfo == null
+                || !AddressLookupTableProgram.PROGRAM_ACCOUNT.base58().equals(accountInfo.getOwner())
+                || accountInfo.getData() == null
+                || accountInfo.getData().getAccountInfoEncoded() == null
+                || accountInfo.getData().getAccountInfoEncoded().isEmpty())
+        {
+            table.exists = false;
+            return;
+        }
+
+        final byte[] data = Base64.getDecoder().decode(accountInfo.getData().getAccountInfoEncoded().get(0));
+        if (data.length < AddressLookupTableProgram.LOOKUP_TABLE_META_SIZE)
+        {
+            table.exists = false;
+            return;
+        }
+        addressLookupTableView.wrap(ByteBuffer.wrap(data));
+        table.exists = true;
+        table.active = addressLookupTableView.isActive();
+        table.owned = authority != null && authority.equals(addressLookupTableView.authority());
+
+        final long lastExtendedSlot = addressLookupTableView.lastExtendedSlot();
+        final int addressCount = addressLookupTableView.addressCount();
+        if (table.lastExtendedSlot != lastExtendedSlot || table.addresses.size() != addressCount)
+        {
+            table.lastExtendedSlot = lastExtendedSlot;
+            table.lastExtendedSlotStartIndex = addressLookupTableView.lastExtendedSlotStartIndex();
+            table.addresses = Collections.unmodifiableList(addressLookupTableView.addresses());
+            table.lookupTable = Solana.addressLookupTable(table.address, table.addresses);
+            table.warmingUp = null;
+        }
+    }
+
+    private void publish()
+    {
+        final List<AddressLookupTable> lookupTables = new ArrayList<>(tables.size());
+        for (final TableState table : tables.values())
+        {
+            if (!table.exists || !table.active || table.addresses.isEmpty())
+            {
+                continue;
+            }
+            if (slot > table.lastExtendedSlot || table.lastExtendedSlotStartIndex >= table.addresses.size())
+            {
+                lookupTables.add(table.lookupTable);
+            }
+            else if (table.lastExtendedSlotStartIndex > 0)
+            {
+                if (table.warmingUp == null)
+                {
+                    table.warmingUp = Solana.addressLookupTable(table.address, table.addresses.subList(0, table.lastExtendedSlotStartIndex));
+                }
+                lookupTables.add(table.warmingUp);
+            }
+        }
+        snapshot = new AddressLookupTableSnapshot(lookupTables);
+    }
+
+    private void extend()
+    {
+        final Set<PublicKey> held = new LinkedHashSet<>();
+        for (final TableState table : tables.values())
+        {
+            table.expirePending(slot, pendingTimeoutSlots);
+            held.addAll(table.addresses);
+            held.addAll(table.pending.keySet());
+        }
+
+        final List<PublicKey> hot = new ArrayList<>();
+        for (final Iterator<Map.Entry<PublicKey, Integer>> it = misses.entrySet().iterator(); it.hasNext(); )
+        {
+            final Map.Entry<PublicKey, Integer> miss = it.next();
+            if (held.contains(miss.getKey()))
+            {
+                it.remove();
+            }
+            else if (miss.getValue() >= hotThreshold)
+            {
+                hot.add(miss.getKey());
+            }
+        }
+
+        int next = 0;
+        for (final TableState table : tables.values())
+        {
+            if (next == hot.size())
+            {
+                return;
+            }
+            if (!table.exists || !table.active || !table.owned)
+            {
+                continue;
+            }
+            while (next < hot.size() && table.room() > 0)
+            {
+                final List<PublicKey> extension = new ArrayList<>(hot.subList(next, Math.min(hot.size(), next + Math.min(table.room(), MAX_ADDRESSES_PER_EXTENSION))));
+                sink.accept(Collections.singletonList(AddressLookupTableProgram.extendLookupTable(table.address, authority, payer, extension)));
+                for (final PublicKey address : extension)
+                {
+                    table.pending.put(address, slot);
+                    misses.remove(address);
+                }
+                next += extension.size();
+            }
+        }
+
+        if (next < hot.size() && !creating())
+        {
+            final ProgramDerivedAddress programDerivedAddress = AddressLookupTableProgram.deriveAddress(authority, Solana.slot(slot));
+            if (!tables.containsKey(programDerivedAddress.address()))
+            {
+                sink.accept(Collections.singletonList(AddressLookupTableProgram.createLookupTable(programDerivedAddress, authority, payer, Solana.slot(slot))));
+                final TableState created = new TableState(programDerivedAddress.address());
+                created.createdSlot = slot;
+                tables.put(created.address, created);
+            }
+        }
+    }
+
+    private boolean creating()
+    {
+        for (final TableState table : tables.values())
+        {
+            if (!table.exists && table.createdSlot >= 0)
+            {
+                if (slot - table.createdSlot <= pendingTimeoutSlots)
+                {
+                    return true;
+                }
+                // the create transaction never landed, let the next table be created in its place
+                table.createdSlot = -1;
+            }
+        }
+        return false;
+    }
+
+    private static ScheduledExecutorService newDaemonScheduler()
+    {
+        return Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            final Thread thread = new Thread(runnable, "address-lookup-table-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The cached state of one tracked table, guarded by the manager.
+     */
+    private static final class TableState
+    {
+        private final PublicKey address;
+        private final Map<PublicKey, Long> pending = new LinkedHashMap<>();
+        private boolean exists;
+        private boolean active;
+        private boolean owned;
+        private long lastExtendedSlot = -1;
+        private int lastExtendedSlotStartIndex;
+        private List<PublicKey> addresses = Collections.emptyList();
+        private AddressLookupTable lookupTable;
+        private AddressLookupTable warmingUp;
+        private long createdSlot = -1;
+
+        private TableState(final PublicKey address)
+        {
+            this.address = address;
+        }
+
+        private int room()
+        {
+            return MAX_TABLE_ADDRESSES - addresses.size() - pending.size();
+        }
+
+        private void expirePending(final long slot, final long pendingTimeoutSlots)
+        {
+            final Set<PublicKey> landed = new LinkedHashSet<>(addresses);
+            pending.entrySet().removeIf(entry -> landed.contains(entry.getKey()) || slot - entry.getValue() > pendingTimeoutSlots);
+        }
+    }
+
+    /**
+     * An immutable view of the usable tables, swapped in whole by each refresh.
+     */
+    private static final class AddressLookupTableSnapshot
+    {
+        private final List<AddressLookupTable> lookupTables;
+        private final Map<PublicKey, AddressLookupTable> lookupTableByAddress = new HashMap<>();
+        private final Map<PublicKey, AddressLookupTable> lookupTableByAccount = new HashMap<>();
+
+        private AddressLookupTableSnapshot(final List<AddressLookupTable> lookupTables)
+        {
+            this.lookupTables = Collections.unmodifiableList(lookupTables);
+            for (final AddressLookupTable lookupTable : lookupTables)
+            {
+                lookupTableByAddress.put(lookupTable.getLookupTableAddress(), lookupTable);
+                for (final PublicKey address : lookupTable.getAddresses())
+                {
+                    // the message builders load an account from the first table that holds it
+                    lookupTableByAccount.putIfAbsent(address, lookupTable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link AddressLookupTableManager}.
+     */
+    public static final class Builder
+    {
+        private final SolanaApi api;
+        private final Set<PublicKey> tables = new LinkedHashSet<>();
+        private Commitment commitment = Commitment.CONFIRMED;
+        private PublicKey authority;
+        private PublicKey payer;
+        private Consumer<List<TransactionInstruction>> sink;
+        private int hotThreshold = 8;
+        private int maxTrackedAccounts = 10_000;
+        private long pendingTimeoutSlots = 150;
+        private long refreshIntervalNanos = TimeUnit.SECONDS.toNanos(2);
+        private ScheduledExecutorService scheduler;
+
+        private Builder(final SolanaApi api)
+        {
+            this.api = requireNonNull(api);
+        }
+
+        /**
+         * Adds existing tables to cache.
+         *
+         * @param lookupTableAddresses the addresses of the tables
+         * @return this builder
+         */
+        public Builder tables(final Collection<PublicKey> lookupTableAddresses)
+        {
+            for (final PublicKey lookupTableAddress : lookupTableAddresses)
+            {
+                tables.add(requireNonNull(lookupTableAddress));
+            }
+            return this;
+        }
+
+        /**
+         * Creates and extends tables owned by the given authority for accounts that are frequently missed.
+         *
+         * @param authority the authority of the tables the manager creates and extends
+         * @param payer     the account paying for table creation and rent
+         * @param sink      receives the instructions of each table transaction, to be signed by authority and payer and sent
+         * @return this builder
+         */
+        public Builder autoExtend(final PublicKey authority, final PublicKey payer, final Consumer<List<TransactionInstruction>> sink)
+        {
+            this.authority = requireNonNull(authority);
+            this.payer = requireNonNull(payer);
+            this.sink = requireNonNull(sink);
+            return this;
+        }
+
+        /**
+         * Sets how many times an account must be missed before it is added to a table.
+         *
+         * @param hotThreshold the number of misses; 8 unless set
+         * @return this builder
+         */
+        public Builder hotThreshold(final int hotThreshold)
+        {
+            if (hotThreshold <= 0)
+            {
+                throw new IllegalArgumentException("hotThreshold must be positive but was " + hotThreshold);
+            }
+            this.hotThreshold = hotThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how many missed accounts are counted at once; accounts missed once the limit is reached are ignored.
+         *
+         * @param maxTrackedAccounts the limit; 10000 unless set
+         * @return this builder
+         */
+        public Builder maxTrackedAccounts(final int maxTrackedAccounts)
+        {
+            if (maxTrackedAccounts <= 0)
+            {
+                throw new IllegalArgumentException("maxTrackedAccounts must be positive but was " + maxTrackedAccounts);
+            }
+            this.maxTrackedAccounts = maxTrackedAccounts;
+            return this;
+        }
+
+        /**
+         * Sets how many slots a submitted create or extend transaction is given to land before it is tried again.
+         *
+         * @param pendingTimeoutSlots the timeout in slots; 150 unless set, matching the blockhash expiry
+         * @return this builder
+         */
+        public Builder pendingTimeoutSlots(final long pendingTimeoutSlots)
+        {
+            if (pendingTimeoutSlots <= 0)
+            {
+                throw new IllegalArgumentException("pendingTimeoutSlots must be positive but was " + pendingTimeoutSlots);
+            }
+            this.pendingTimeoutSlots = pendingTimeoutSlots;
+            return this;
+        }
+
+        /**
+         * Sets the commitment at which tables and the current slot are read.
+         *
+         * @param commitment the commitment; {@link Commitment#CONFIRMED} unless set
+         * @return this builder
+         */
+        public Builder commitment(final Commitment commitment)
+        {
+            this.commitment = requireNonNull(commitment);
+            return this;
+        }
+
+        /**
+         * Sets the delay between background refreshes.
+         *
+         * @param interval the delay, or zero to only refresh when {@link #refresh()} is called; 2 seconds unless set
+         * @param unit     the unit of {@code interval}
+         * @return this builder
+         */
+        public Builder refreshInterval(final long interval, final TimeUnit unit)
+        {
+            this.refreshIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * Runs background refreshes on the given scheduler instead of a daemon thread owned by the manager.
+         *
+         * @param scheduler the scheduler; it is not shut down when the manager is closed
+         * @return this builder
+         */
+        public Builder scheduler(final ScheduledExecutorService scheduler)
+        {
+            this.scheduler = requireNonNull(scheduler);
+            return this;
+        }
+
+        /**
+         * Builds the manager and starts its background refresh.
+         *
+         * @return a new {@link AddressLookupTableManager}
+         */
+        public AddressLookupTableManager build()
+        {
+            return new AddressLookupTableManager(this);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains helpers that use the solana client library's API to cache and maintain address lookup tables.
+ */
+package com.valeamoris.solana4j.client.lookup;
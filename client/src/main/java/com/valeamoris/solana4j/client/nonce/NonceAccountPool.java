@@ -0,0 +1,567 @@
+package com.valeamoris.solana4j.client.nonce;
+
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.client.api.AccountInfo;
+import com.valeamoris.solana4j.client.api.Commitment;
+import com.valeamoris.solana4j.client.api.SolanaApi;
+import com.valeamoris.solana4j.client.api.SolanaClientOptionalParams;
+import com.valeamoris.solana4j.client.api.SolanaClientResponse;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientException;
+import com.valeamoris.solana4j.client.jsonrpc.SolanaJsonRpcClientOptionalParams;
+import com.valeamoris.solana4j.programs.NonceAccountView;
+import com.valeamoris.solana4j.programs.SystemProgram;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Hands out durable nonce accounts so that transactions can be built and signed without a recent blockhash.
+ *
+ * <p>A transaction built from a {@link Lease} starts with the nonce advance instruction of the leased account and uses
+ * the stored nonce as its recent blockhash. It does not expire after the usual 150 blocks, so signed transactions can be
+ * queued and sent at whatever rate and parallelism the caller likes, as long as each one holds its own lease.</p>
+ *
+ * <p>An account released after its transaction was sent is stale until a nonce other than the one it was leased with
+ * has been read back, so that a lagging read cannot lease a nonce that has already been used. Stale accounts are read in
+ * batches of up to {@link #MAX_ACCOUNTS_PER_REQUEST} with
+ * {@link SolanaApi#getMultipleAccounts(List, SolanaClientOptionalParams)}, either in the background or when
+ * {@link #refresh()} is called. Accounts that are missing, not initialized or advanced by another authority are set
+ * aside instead of being leased, and read again by every later refresh in case they have since become usable.</p>
+ *
+ * <p>A sent transaction that is dropped before it lands never advances its nonce. Once the
+ * {@linkplain Builder#dropTimeout(long, TimeUnit) drop timeout} has passed since its release, an account still holding the
+ * nonce it was leased with is taken to have lost its transaction and is leased again with that nonce. Should the dropped
+ * transaction land after all, it advances the nonce first and the transaction of the new lease fails instead, as only
+ * one transaction can use a nonce.</p>
+ */
+public final class NonceAccountPool implements AutoCloseable
+{
+    /**
+     * The most accounts {@code getMultipleAccounts} accepts in one request.
+     */
+    public static final int MAX_ACCOUNTS_PER_REQUEST = 100;
+
+    private final SolanaApi api;
+    private final PublicKey authority;
+    private final Commitment commitment;
+    private final BlockingQueue<Lease> available = new LinkedBlockingQueue<>();
+    private final Queue<PublicKey> stale = new ConcurrentLinkedQueue<>();
+    private final Set<PublicKey> unusable = ConcurrentHashMap.newKeySet();
+    private final Map<PublicKey, UsedNonce> usedNonces = new ConcurrentHashMap<>();
+    private final NonceAccountView nonceAccountView = new NonceAccountView();
+    private final long dropTimeoutNanos;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private volatile ScheduledFuture<?> refreshTask;
+
+    private NonceAccountPool(final Builder builder)
+    {
+        this.api = builder.api;
+        this.authority = builder.authority;
+        this.commitment = builder.commitment;
+        this.dropTimeoutNanos = builder.dropTimeoutNanos;
+        this.stale.addAll(builder.nonceAccounts);
+
+        if (builder.refreshIntervalNanos > 0)
+        {
+            this.ownsScheduler = builder.scheduler == null;
+            this.scheduler = ownsScheduler ? newDaemonScheduler() : builder.scheduler;
+        }
+        else
+        {
+            this.ownsScheduler = false;
+            this.scheduler = null;
+        }
+    }
+
+    private NonceAccountPool start(final long refreshIntervalNanos)
+    {
+        // scheduled only once the pool is fully constructed, as the first refresh may run straight away on another thread
+        if (scheduler != null)
+        {
+            refreshTask = scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Creates a builder for a pool of nonce accounts advanced by the given authority.
+     *
+     * @param api       the api used to read the nonce accounts
+     * @param authority the nonce authority of every account in the pool, which must sign each transaction
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final SolanaApi api, final PublicKey authority)
+    {
+        return new Builder(api, authority);
+    }
+
+    /**
+     * Returns the instructions that create and initialize a nonce account for the pool.
+     * <p>
+     * The transaction carrying them must be signed by the payer and the new nonce account. The lamports should cover
+     * {@link SolanaApi#getMinimumBalanceForRentExemption(int)} of {@link SystemProgram#NONCE_ACCOUNT_LENGTH} bytes.
+     * </p>
+     *
+     * @param payer        the account funding the nonce account
+     * @param nonceAccount the new nonce account
+     * @param authority    the nonce authority of the pool
+     * @param lamports     the balance of the new nonce account
+     * @return the create account and initialize nonce instructions
+     */
+    public static List<TransactionInstruction> provisioningInstructions(
+            final PublicKey payer,
+            final PublicKey nonceAccount,
+            final PublicKey authority,
+            final long lamports)
+    {
+        final List<TransactionInstruction> instructions = new ArrayList<>(2);
+        instructions.add(SystemProgram.createAccount(payer, nonceAccount, lamports, SystemProgram.NONCE_ACCOUNT_LENGTH, SystemProgram.SYSTEM_PROGRAM_ACCOUNT));
+        instructions.add(SystemProgram.nonceInitialize(nonceAccount, authority));
+        return instructions;
+    }
+
+    /**
+     * Leases a nonce account if one is available.
+     *
+     * @return the lease, or null if every account is leased or stale
+     */
+    public Lease tryLease()
+    {
+        return available.poll();
+    }
+
+    /**
+     * Leases a nonce account, waiting for one to become available.
+     *
+     * @param timeout how long to wait
+     * @param unit    the unit of {@code timeout}
+     * @return the lease, or null if none became available in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Lease lease(final long timeout, final TimeUnit unit) throws InterruptedException
+    {
+        return available.poll(timeout, unit);
+    }
+
+    /**
+     * Returns a leased account whose transaction was sent to the pool, to be leased again once its nonce has advanced.
+     * <p>
+     * Equivalent to {@link #release(Lease, boolean) release(lease, true)}.
+     * </p>
+     *
+     * @param lease the lease to release
+     */
+    public void release(final Lease lease)
+    {
+        release(lease, true);
+    }
+
+    /**
+     * Returns a leased account to the pool.
+     * <p>
+     * A transaction using a durable nonce stays valid until the nonce is advanced, so release a lease only once its
+     * transaction has been confirmed, or when it is known that the transaction was never sent. The account of a sent
+     * transaction stays stale until a nonce other than the leased one has been read, or until the drop timeout has passed
+     * with the leased nonce still in place, while that of an unsent one can be leased again straight away with the same
+     * nonce. Releasing a lease more than once has no effect.
+     * </p>
+     *
+     * @param lease the lease to release
+     * @param sent  whether the lease's transaction was sent, and so may have advanced the nonce
+     */
+    public void release(final Lease lease, final boolean sent)
+    {
+        if (lease.released.compareAndSet(false, true))
+        {
+            if (sent)
+            {
+                usedNonces.put(lease.account, new UsedNonce(lease.nonce, System.nanoTime()));
+                stale.add(lease.account);
+            }
+            else
+            {
+                available.add(new Lease(lease.account, lease.nonce, lease.blockhash, lease.nonceAdvance));
+            }
+        }
+    }
+
+    /**
+     * Reads the nonce of every stale or unusable account now and makes the usable ones available for lease.
+     * <p>
+     * Accounts whose batch cannot be read, and sent accounts still holding the nonce they were leased with until the drop
+     * timeout has passed, stay stale until the next refresh.
+     * </p>
+     */
+    public synchronized void refresh()
+    {
+        final List<PublicKey> batch = new ArrayList<>(MAX_ACCOUNTS_PER_REQUEST);
+        final List<PublicKey> failed = new ArrayList<>();
+        for (final PublicKey account : unusable)
+        {
+            if (unusable.remove(account))
+            {
+                stale.add(account);
+            }
+        }
+        PublicKey account;
+        while ((account = stale.poll()) != null)
+        {
+            batch.add(account);
+            if (batch.size() == MAX_ACCOUNTS_PER_REQUEST)
+            {
+                refresh(batch, failed);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            refresh(batch, failed);
+        }
+        stale.addAll(failed);
+    }
+
+    /**
+     * Returns the number of accounts that can be leased right now.
+     *
+     * @return the available account count
+     */
+    public int available()
+    {
+        return available.size();
+    }
+
+    /**
+     * Returns the number of released accounts whose new nonce has not been read yet.
+     *
+     * @return the stale account count
+     */
+    public int stale()
+    {
+        return stale.size();
+    }
+
+    /**
+     * Returns the accounts set aside because they do not exist, are not initialized nonce accounts or have another
+     * nonce authority when last read; each refresh reads them again.
+     *
+     * @return a snapshot of the unusable accounts
+     */
+    public Set<PublicKey> unusable()
+    {
+        return Collections.unmodifiableSet(new HashSet<>(unusable));
+    }
+
+    /**
+     * Stops the background refresh, shutting down the scheduler if the pool created it.
+     */
+    @Override
+    public void close()
+    {
+        if (refreshTask != null)
+        {
+            refreshTask.cancel(false);
+        }
+        if (ownsScheduler)
+        {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void refresh(final List<PublicKey> batch, final List<PublicKey> failed)
+    {
+        final List<String> addresses = new ArrayList<>(batch.size());
+        for (final PublicKey account : batch)
+        {
+            addresses.add(account.base58());
+        }
+
+        final SolanaClientOptionalParams params = new SolanaJsonRpcClientOptionalParams();
+        params.addParam("encoding", "base64");
+        params.addParam("commitment", commitment.name().toLowerCase());
+
+        final List<AccountInfo> accountInfos;
+        try
+        {
+            final SolanaClientResponse<List<AccountInfo>> response = api.getMultipleAccounts(addresses, params);
+            accountInfos = response.isSuccess() ? response.getResponse() : null;
+        }
+        catch (final SolanaJsonRpcClientException | RuntimeException e)
+        {
+            // the accounts stay stale and are read again by the next refresh
+            failed.addAll(batch);
+            return;
+        }
+        if (accountInfos == null || accountInfos.size() != batch.size())
+        {
+            failed.addAll(batch);
+            return;
+        }
+
+        final long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++)
+        {
+            final PublicKey account = batch.get(i);
+            final Lease lease = lease(account, accountInfos.get(i));
+            final UsedNonce used = usedNonces.get(account);
+            if (lease == null)
+            {
+                unusable.add(account);
+            }
+            else if (used != null && lease.nonce.equals(used.nonce) && now - used.releasedAtNanos < dropTimeoutNanos)
+            {
+                // the read lags the transaction that used this nonce, or that transaction has yet to land
+                failed.add(account);
+            }
+            else
+            {
+                usedNonces.remove(account);
+                available.add(lease);
+            }
+        }
+    }
+
+    private Lease lease(final PublicKey account, final AccountInfo accountInfo)
+    {
+        if (accountInfo == null
+                || !SystemProgram.SYSTEM_PROGRAM_ACCOUNT.base58().equals(accountInfo.getOwner())
+                || accountInfo.getData() == null
+                || accountInfo.getData().getAccountInfoEncoded() == null
+                || accountInfo.getData().getAccountInfoEncoded().isEmpty())
+        {
+            return null;
+        }
+
+        final byte[] data = Base64.getDecoder().decode(accountInfo.getData().getAccountInfoEncoded().get(0));
+        if (data.length < SystemProgram.NONCE_ACCOUNT_LENGTH)
+        {
+            return null;
+        }
+        nonceAccountView.wrap(ByteBuffer.wrap(data));
+        if (!nonceAccountView.isInitialized() || !nonceAccountView.authority().equals(authority))
+        {
+            return null;
+        }
+        return new Lease(account, nonceAccountView.nonce(), nonceAccountView.blockhash(), SystemProgram.nonceAdvance(account, authority));
+    }
+
+    private static ScheduledExecutorService newDaemonScheduler()
+    {
+        return Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            final Thread thread = new Thread(runnable, "nonce-account-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class UsedNonce
+    {
+        private final PublicKey nonce;
+        private final long releasedAtNanos;
+
+        private UsedNonce(final PublicKey nonce, final long releasedAtNanos)
+        {
+            this.nonce = nonce;
+            this.releasedAtNanos = releasedAtNanos;
+        }
+    }
+
+    /**
+     * A nonce account leased to a single transaction, together with the nonce read for it.
+     */
+    public static final class Lease
+    {
+        private final PublicKey account;
+        private final PublicKey nonce;
+        private final Blockhash blockhash;
+        private final TransactionInstruction nonceAdvance;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(final PublicKey account, final PublicKey nonce, final Blockhash blockhash, final TransactionInstruction nonceAdvance)
+        {
+            this.account = account;
+            this.nonce = nonce;
+            this.blockhash = blockhash;
+            this.nonceAdvance = nonceAdvance;
+        }
+
+        /**
+         * Returns the leased nonce account.
+         *
+         * @return the nonce account
+         */
+        public PublicKey account()
+        {
+            return account;
+        }
+
+        /**
+         * Returns the nonce stored in the account when it was last read.
+         *
+         * @return the nonce value
+         */
+        public PublicKey nonce()
+        {
+            return nonce;
+        }
+
+        /**
+         * Returns the nonce to use as the recent blockhash of the transaction.
+         *
+         * @return the nonce as a {@link Blockhash}
+         */
+        public Blockhash blockhash()
+        {
+            return blockhash;
+        }
+
+        /**
+         * Returns the instruction advancing the leased nonce, which must be the first of the transaction.
+         *
+         * @return the nonce advance instruction
+         */
+        public TransactionInstruction nonceAdvance()
+        {
+            return nonceAdvance;
+        }
+
+        /**
+         * Returns the given instructions preceded by the nonce advance instruction.
+         *
+         * @param instructions the instructions of the transaction
+         * @return a new list starting with {@link #nonceAdvance()}
+         */
+        public List<TransactionInstruction> withNonceAdvance(final List<TransactionInstruction> instructions)
+        {
+            final List<TransactionInstruction> withNonceAdvance = new ArrayList<>(instructions.size() + 1);
+            withNonceAdvance.add(nonceAdvance);
+            withNonceAdvance.addAll(instructions);
+            return withNonceAdvance;
+        }
+    }
+
+    /**
+     * Builder for {@link NonceAccountPool}.
+     */
+    public static final class Builder
+    {
+        private final SolanaApi api;
+        private final PublicKey authority;
+        private final Set<PublicKey> nonceAccounts = new LinkedHashSet<>();
+        private Commitment commitment = Commitment.CONFIRMED;
+        private long refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(500);
+        private long dropTimeoutNanos = TimeUnit.MINUTES.toNanos(2);
+        private ScheduledExecutorService scheduler;
+
+        private Builder(final SolanaApi api, final PublicKey authority)
+        {
+            this.api = requireNonNull(api);
+            this.authority = requireNonNull(authority);
+        }
+
+        /**
+         * Adds nonce accounts to the pool.
+         *
+         * @param nonceAccounts initialized nonce accounts advanced by the pool's authority
+         * @return this builder
+         */
+        public Builder nonceAccounts(final Collection<PublicKey> nonceAccounts)
+        {
+            for (final PublicKey nonceAccount : nonceAccounts)
+            {
+                this.nonceAccounts.add(requireNonNull(nonceAccount));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the commitment at which nonces are read.
+         *
+         * @param commitment the commitment; {@link Commitment#CONFIRMED} unless set
+         * @return this builder
+         */
+        public Builder commitment(final Commitment commitment)
+        {
+            this.commitment = requireNonNull(commitment);
+            return this;
+        }
+
+        /**
+         * Sets the delay between background refreshes of stale accounts.
+         *
+         * @param interval the delay, or zero to only refresh when {@link #refresh()} is called; 500 milliseconds unless set
+         * @param unit     the unit of {@code interval}
+         * @return this builder
+         */
+        public Builder refreshInterval(final long interval, final TimeUnit unit)
+        {
+            this.refreshIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * Sets how long after its release a sent account still holding the nonce it was leased with is taken to have lost
+         * its transaction, and is leased again with that nonce.
+         *
+         * @param timeout the timeout; two minutes unless set, well past the 150 blocks in which a transaction with a recent
+         *                blockhash would have expired
+         * @param unit    the unit of {@code timeout}
+         * @return this builder
+         */
+        public Builder dropTimeout(final long timeout, final TimeUnit unit)
+        {
+            this.dropTimeoutNanos = unit.toNanos(timeout);
+            return this;
+        }
+
+        /**
+         * Runs background refreshes on the given scheduler instead of a daemon thread owned by the pool.
+         *
+         * @param scheduler the scheduler; it is not shut down when the pool is closed
+         * @return this builder
+         */
+        public Builder scheduler(final ScheduledExecutorService scheduler)
+        {
+            this.scheduler = requireNonNull(scheduler);
+            return this;
+        }
+
+        /**
+         * Builds the pool and starts its background refresh, which first reads every account.
+         *
+         * @return a new {@link NonceAccountPool}
+         * @throws IllegalArgumentException if no nonce accounts were added
+         */
+        public NonceAccountPool build()
+        {
+            if (nonceAccounts.isEmpty())
+            {
+                throw new IllegalArgumentException("at least one nonce account is required");
+            }
+            return new NonceAccountPool(this).start(refreshIntervalNanos);
+        }
+    }
+}
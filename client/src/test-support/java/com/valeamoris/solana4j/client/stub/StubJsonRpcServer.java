@@ -0,0 +1,426 @@
+package com.valeamoris.solana4j.client.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-process stand-in for a Solana JSON-RPC node that answers every request from canned fixtures.
+ *
+ * <p>Fixtures are the raw JSON of the {@code result} member of a JSON-RPC response, registered per method or loaded
+ * from {@code fixtures/<method>.json} on the classpath. Latency, JSON-RPC error injection and HTTP 429 throttling
+ * can be configured so that client-side behaviour (connection pooling, decoding, retries) can be exercised without
+ * a validator.</p>
+ */
+public final class StubJsonRpcServer implements AutoCloseable
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte[] METHOD_NOT_FOUND = "{\"code\":-32601,\"message\":\"Method not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INVALID_REQUEST = "{\"code\":-32600,\"message\":\"Invalid request\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOO_MANY_REQUESTS = "Too many requests for a specific RPC call".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> fixtures;
+    private final boolean classpathFixtures;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double errorRate;
+    private final byte[] injectedError;
+    private final double throttleRate;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+
+    private StubJsonRpcServer(final Builder builder) throws IOException
+    {
+        this.fixtures = new ConcurrentHashMap<>(builder.fixtures);
+        this.classpathFixtures = builder.classpathFixtures;
+        this.latencyNanos = builder.latencyNanos;
+        this.jitterNanos = builder.jitterNanos;
+        this.errorRate = builder.errorRate;
+        this.injectedError = String.format("{\"code\":%d,\"message\":%s}", builder.errorCode, OBJECT_MAPPER.writeValueAsString(builder.errorMessage))
+                .getBytes(StandardCharsets.UTF_8);
+        this.throttleRate = builder.throttleRate;
+        this.executor = Executors.newFixedThreadPool(builder.threads, runnable ->
+        {
+            final Thread thread = new Thread(runnable, "stub-json-rpc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), builder.port), builder.backlog);
+        this.httpServer.createContext("/", this::handle);
+        this.httpServer.setExecutor(executor);
+    }
+
+    /**
+     * Creates a builder for a stub server.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Returns the URL clients should use to reach this server.
+     *
+     * @return the RPC URL, e.g. {@code http://127.0.0.1:54321/}
+     */
+    public String url()
+    {
+        final InetSocketAddress address = httpServer.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort() + "/";
+    }
+
+    /**
+     * Replaces, or adds, the canned result for a method while the server is running.
+     *
+     * @param method     the JSON-RPC method name
+     * @param resultJson the raw JSON of the {@code result} member
+     */
+    public void fixture(final String method, final String resultJson)
+    {
+        fixtures.put(requireNonNull(method), resultJson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the number of HTTP requests received.
+     *
+     * @return the request count
+     */
+    public long requestCount()
+    {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of requests answered with an injected JSON-RPC error.
+     *
+     * @return the error count
+     */
+    public long errorCount()
+    {
+        return errorCount.get();
+    }
+
+    /**
+     * Returns the number of requests answered with HTTP 429.
+     *
+     * @return the throttled count
+     */
+    public long throttledCount()
+    {
+        return throttledCount.get();
+    }
+
+    @Override
+    public void close()
+    {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            requestCount.incrementAndGet();
+            final byte[] request = readFully(exchange.getRequestBody());
+
+            simulateLatency();
+
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (throttleRate > 0 && random.nextDouble() < throttleRate)
+            {
+                throttledCount.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, TOO_MANY_REQUESTS);
+                return;
+            }
+
+            final JsonNode requestNode = OBJECT_MAPPER.readTree(request);
+            final JsonNode id = requestNode == null ? null : requestNode.get("id");
+            final JsonNode method = requestNode == null ? null : requestNode.get("method");
+            if (method == null || !method.isTextual())
+            {
+                respond(exchange, 200, envelope("error", INVALID_REQUEST, id));
+            }
+            else if (errorRate > 0 && random.nextDouble() < errorRate)
+            {
+                errorCount.incrementAndGet();
+                respond(exchange, 200, envelope("error", injectedError, id));
+            }
+            else
+            {
+                final byte[] result = lookupFixture(method.asText());
+                respond(exchange, 200, result == null ? envelope("error", METHOD_NOT_FOUND, id) : envelope("result", result, id));
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private byte[] lookupFixture(final String method)
+    {
+        final byte[] fixture = fixtures.get(method);
+        if (fixture != null || !classpathFixtures)
+        {
+            return fixture;
+        }
+
+        final InputStream resource = StubJsonRpcServer.class.getClassLoader().getResourceAsStream("fixtures/" + method + ".json");
+        if (resource == null)
+        {
+            return null;
+        }
+        try (InputStream input = resource)
+        {
+            final byte[] loaded = new String(readFully(input), StandardCharsets.UTF_8).trim().getBytes(StandardCharsets.UTF_8);
+            fixtures.putIfAbsent(method, loaded);
+            return loaded;
+        }
+        catch (final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void simulateLatency()
+    {
+        if (latencyNanos == 0 && jitterNanos == 0)
+        {
+            return;
+        }
+
+        final long delay = latencyNanos + (jitterNanos == 0 ? 0 : ThreadLocalRandom.current().nextLong(jitterNanos + 1));
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] envelope(final String member, final byte[] value, final JsonNode id)
+    {
+        final byte[] idBytes = (id == null ? "null" : id.toString()).getBytes(StandardCharsets.UTF_8);
+        final byte[] prefix = ("{\"jsonrpc\":\"2.0\",\"" + member + "\":").getBytes(StandardCharsets.UTF_8);
+        final byte[] infix = ",\"id\":".getBytes(StandardCharsets.UTF_8);
+
+        final byte[] response = new byte[prefix.length + value.length + infix.length + idBytes.length + 1];
+        int position = 0;
+        System.arraycopy(prefix, 0, response, position, prefix.length);
+        position += prefix.length;
+        System.arraycopy(value, 0, response, position, value.length);
+        position += value.length;
+        System.arraycopy(infix, 0, response, position, infix.length);
+        position += infix.length;
+        System.arraycopy(idBytes, 0, response, position, idBytes.length);
+        response[response.length - 1] = '}';
+        return response;
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final byte[] body) throws IOException
+    {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(body);
+        }
+    }
+
+    private static byte[] readFully(final InputStream input) throws IOException
+    {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(512);
+        final byte[] chunk = new byte[4096];
+        int read;
+        while ((read = input.read(chunk)) != -1)
+        {
+            output.write(chunk, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Builder for {@link StubJsonRpcServer}.
+     */
+    public static final class Builder
+    {
+        private final Map<String, byte[]> fixtures = new HashMap<>();
+        private boolean classpathFixtures = true;
+        private int port;
+        private int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        private int backlog = 1024;
+        private long latencyNanos;
+        private long jitterNanos;
+        private double errorRate;
+        private int errorCode = -32005;
+        private String errorMessage = "Node is unhealthy";
+        private double throttleRate;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Registers the canned result for a method, taking precedence over any classpath fixture.
+         *
+         * @param method     the JSON-RPC method name
+         * @param resultJson the raw JSON of the {@code result} member
+         * @return this builder
+         */
+        public Builder fixture(final String method, final String resultJson)
+        {
+            fixtures.put(requireNonNull(method), resultJson.getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+
+        /**
+         * Controls whether unregistered methods fall back to {@code fixtures/<method>.json} on the classpath.
+         *
+         * @param enabled true to load classpath fixtures (the default)
+         * @return this builder
+         */
+        public Builder classpathFixtures(final boolean enabled)
+        {
+            this.classpathFixtures = enabled;
+            return this;
+        }
+
+        /**
+         * Sets the port to listen on; zero (the default) picks an ephemeral port.
+         *
+         * @param port the port
+         * @return this builder
+         */
+        public Builder port(final int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the number of server threads handling requests.
+         *
+         * @param threads the thread count
+         * @return this builder
+         */
+        public Builder threads(final int threads)
+        {
+            if (threads <= 0)
+            {
+                throw new IllegalArgumentException("threads must be positive");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the TCP accept backlog.
+         *
+         * @param backlog the backlog
+         * @return this builder
+         */
+        public Builder backlog(final int backlog)
+        {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Adds a fixed delay, plus a uniformly distributed jitter, before every response.
+         *
+         * @param latency the fixed latency
+         * @param jitter  the maximum additional random latency
+         * @param unit    the unit of both values
+         * @return this builder
+         */
+        public Builder latency(final long latency, final long jitter, final TimeUnit unit)
+        {
+            if (latency < 0 || jitter < 0)
+            {
+                throw new IllegalArgumentException("latency and jitter must not be negative");
+            }
+            this.latencyNanos = unit.toNanos(latency);
+            this.jitterNanos = unit.toNanos(jitter);
+            return this;
+        }
+
+        /**
+         * Answers the given fraction of requests with a JSON-RPC error instead of the fixture.
+         *
+         * @param rate    the fraction of requests, between 0 and 1
+         * @param code    the JSON-RPC error code
+         * @param message the JSON-RPC error message
+         * @return this builder
+         */
+        public Builder errorRate(final double rate, final int code, final String message)
+        {
+            this.errorRate = checkRate(rate);
+            this.errorCode = code;
+            this.errorMessage = requireNonNull(message);
+            return this;
+        }
+
+        /**
+         * Answers the given fraction of requests with HTTP 429 Too Many Requests.
+         *
+         * @param rate the fraction of requests, between 0 and 1
+         * @return this builder
+         */
+        public Builder throttleRate(final double rate)
+        {
+            this.throttleRate = checkRate(rate);
+            return this;
+        }
+
+        /**
+         * Binds and starts the server.
+         *
+         * @return the running server
+         * @throws IOException if the server socket cannot be bound
+         */
+        public StubJsonRpcServer start() throws IOException
+        {
+            final StubJsonRpcServer server = new StubJsonRpcServer(this);
+            server.httpServer.start();
+            return server;
+        }
+
+        private static double checkRate(final double rate)
+        {
+            if (rate < 0 || rate > 1)
+            {
+                throw new IllegalArgumentException("rate must be between 0 and 1");
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.valeamoris.solana4j.client;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The client's counterpart of the message encoding tests' {@code Solana4jTestHelper}, whose test sources the client
+ * tests do not see.
+ */
+public class SolanaClientTestHelper
+{
+    public static PublicKey randomAccount(final Random random)
+    {
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+
+        return Solana.account(bytes);
+    }
+
+    public static List<PublicKey> randomAccounts(final Random random, final int count)
+    {
+        final List<PublicKey> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            accounts.add(randomAccount(random));
+        }
+
+        return accounts;
+    }
+}
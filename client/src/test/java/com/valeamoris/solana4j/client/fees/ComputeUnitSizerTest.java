@@ -0,0 +1,191 @@
+package com.valeamoris.solana4j.client.fees;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.client.SolanaClient;
+import com.valeamoris.solana4j.client.jsonrpc.InMemoryJsonRpcTransport;
+import com.valeamoris.solana4j.programs.ComputeBudgetProgram;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ComputeUnitSizerTest
+{
+    private static final PublicKey PAYER = Solana.account("7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1");
+    private static final PublicKey ALICE = Solana.account("2nEP4PGvFRNEo3LTdJtuaUxKXfjffYtTq5WxVzCkASZd");
+    private static final PublicKey BOB = Solana.account("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC");
+    private static final String BLOCKHASH = "EkSnNWid2cvwEVnVx9aBqawnmiCNiDgp3gUdkDPTKN1N";
+
+    private final List<JsonNode> simulations = new ArrayList<>();
+    private String simulationResult = "{\"err\":null,\"logs\":[],\"unitsConsumed\":1000}";
+
+    @Test
+    void shouldSimulateAndWriteLimitWithMargin() throws Exception
+    {
+        final var sizer = sizer().margin(1.2).build();
+        final var transaction = transfer(ALICE, 10);
+
+        final int limit = sizer.size(transaction);
+
+        assertThat(limit).isEqualTo(1200);
+        assertThat(computeUnitLimit(transaction)).isEqualTo(1200);
+        assertThat(simulations).hasSize(1);
+
+        final var params = simulations.get(0);
+        assertThat(params.get(1).get("encoding").asText()).isEqualTo("base64");
+        assertThat(params.get(1).get("replaceRecentBlockhash").asBoolean()).isTrue();
+        assertThat(params.get(1).get("sigVerify").asBoolean()).isFalse();
+        assertThat(params.get(1).get("commitment").asText()).isEqualTo("confirmed");
+    }
+
+    @Test
+    void shouldSimulateWithMaximumLimit() throws Exception
+    {
+        sizer().build().size(transfer(ALICE, 10));
+
+        final var simulated = ByteBuffer.wrap(Base64.getDecoder().decode(simulations.get(0).get(0).asText()));
+        assertThat(computeUnitLimit(simulated)).isEqualTo(ComputeBudgetProgram.MAX_COMPUTE_UNIT_LIMIT);
+    }
+
+    @Test
+    void shouldSkipSimulationForRepeatedShape() throws Exception
+    {
+        final var sizer = sizer().build();
+
+        sizer.size(transfer(ALICE, 10));
+        simulationResult = "{\"err\":null,\"logs\":[],\"unitsConsumed\":5000}";
+        final var repeat = transfer(ALICE, 999);
+        final int limit = sizer.size(repeat);
+
+        assertThat(limit).isEqualTo(1100);
+        assertThat(computeUnitLimit(repeat)).isEqualTo(1100);
+        assertThat(simulations).hasSize(1);
+        assertThat(sizer.cachedShapes()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTreatSameAccountRolesAsSameShape() throws Exception
+    {
+        final var sizer = sizer().build();
+
+        sizer.size(transfer(ALICE, 10));
+        sizer.size(transfer(BOB, 10));
+
+        assertThat(simulations).hasSize(1);
+    }
+
+    @Test
+    void shouldIgnoreComputeBudgetInstructionsInShape() throws Exception
+    {
+        final var sizer = sizer().build();
+
+        sizer.size(transfer(ALICE, 10));
+        final var priced = transfer(ALICE, 10);
+        ComputeBudgetProgram.setComputeUnitPrice(priced, 5_000L);
+        sizer.size(priced);
+
+        assertThat(simulations).hasSize(1);
+        assertThat(computeUnitLimit(priced)).isEqualTo(1100);
+    }
+
+    @Test
+    void shouldSimulateDifferentShapes() throws Exception
+    {
+        final var sizer = sizer().build();
+
+        sizer.size(transfer(ALICE, 10));
+        final var twoTransfers = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(twoTransfers)
+                .legacy()
+                .payer(PAYER)
+                .recent(Solana.blockhash(BLOCKHASH))
+                .instructions(tb -> SystemProgram.factory(tb)
+                        .transfer(PAYER, ALICE, 10)
+                        .transfer(PAYER, BOB, 10))
+                .seal()
+                .unsigned()
+                .build();
+        sizer.size(twoTransfers);
+
+        assertThat(simulations).hasSize(2);
+        assertThat(sizer.cachedShapes()).isEqualTo(2);
+
+        sizer.invalidate();
+
+        assertThat(sizer.cachedShapes()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldNotCacheFailedSimulation() throws Exception
+    {
+        final var sizer = sizer().build();
+        simulationResult = "{\"err\":{\"InstructionError\":[0,{\"Custom\":1}]},\"logs\":[],\"unitsConsumed\":450}";
+
+        assertThrows(IllegalStateException.class, () -> sizer.size(transfer(ALICE, 10)));
+        assertThat(sizer.cachedShapes()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldCapLimitAtMaximum() throws Exception
+    {
+        simulationResult = "{\"err\":null,\"logs\":[],\"unitsConsumed\":1350000}";
+
+        assertThat(sizer().build().size(transfer(ALICE, 10))).isEqualTo(ComputeBudgetProgram.MAX_COMPUTE_UNIT_LIMIT);
+    }
+
+    private ComputeUnitSizer.Builder sizer()
+    {
+        final var mapper = new ObjectMapper();
+        return ComputeUnitSizer.builder(SolanaClient.create(new InMemoryJsonRpcTransport(request ->
+        {
+            final var json = mapper.readTree(request);
+            assertThat(json.get("method").asText()).isEqualTo("simulateTransaction");
+            simulations.add(json.get("params"));
+            return InMemoryJsonRpcTransport.ok(("{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":" + simulationResult + "},\"id\":1}")
+                    .getBytes(StandardCharsets.UTF_8));
+        })));
+    }
+
+    private static ByteBuffer transfer(final PublicKey to, final long lamports)
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer)
+                .legacy()
+                .payer(PAYER)
+                .recent(Solana.blockhash(BLOCKHASH))
+                .instructions(tb -> SystemProgram.factory(tb).transfer(PAYER, to, lamports))
+                .seal()
+                .unsigned()
+                .build();
+        return buffer;
+    }
+
+    private static int computeUnitLimit(final ByteBuffer transaction)
+    {
+        return Solana.read(transaction).accept(message ->
+        {
+            for (final var instruction : ((MessageVisitor.LegacyMessageView) message).instructions())
+            {
+                final var data = instruction.data().order(ByteOrder.LITTLE_ENDIAN);
+                if (instruction.program().equals(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT)
+                        && data.get(0) == ComputeBudgetProgram.SET_COMPUTE_UNIT_LIMIT_INSTRUCTION)
+                {
+                    return data.getInt(1);
+                }
+            }
+            return -1;
+        });
+    }
+}
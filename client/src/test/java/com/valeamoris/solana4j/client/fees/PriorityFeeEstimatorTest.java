@@ -0,0 +1,257 @@
+package com.valeamoris.solana4j.client.fees;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.client.SolanaClient;
+import com.valeamoris.solana4j.client.jsonrpc.InMemoryJsonRpcTransport;
+import com.valeamoris.solana4j.programs.ComputeBudgetProgram;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriorityFeeEstimatorTest
+{
+    private static final PublicKey PAYER = Solana.account("7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1");
+    private static final PublicKey MARKET = Solana.account("2nEP4PGvFRNEo3LTdJtuaUxKXfjffYtTq5WxVzCkASZd");
+    private static final PublicKey VAULT = Solana.account("So11111111111111111111111111111111111111112");
+
+    private final FeeNode node = new FeeNode();
+
+    @Test
+    void shouldQuotePercentilesOfRecentFees()
+    {
+        final var fees = new long[100];
+        for (int i = 0; i < fees.length; i++)
+        {
+            fees[i] = (i + 1) * 1_000L;
+        }
+        node.fees(List.of(MARKET), 1, fees);
+
+        try (final var estimator = estimator().build())
+        {
+            assertThat(estimator.estimate(50, List.of(MARKET))).isBetween(49_000L, 51_000L);
+            assertThat(estimator.estimate(90, List.of(MARKET))).isBetween(89_000L, 91_000L);
+            assertThat(estimator.estimate(100, List.of(MARKET))).isBetween(99_000L, 101_000L);
+            assertThat(node.requests()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldRollWindowForwardOnRefresh()
+    {
+        node.fees(List.of(MARKET), 1, repeat(100, 10));
+
+        try (final var estimator = estimator().windowSlots(10).build())
+        {
+            assertThat(estimator.estimate(100, List.of(MARKET))).isBetween(99L, 101L);
+
+            node.fees(List.of(MARKET), 6, repeat(1_000, 10));
+            estimator.refresh();
+
+            assertThat(estimator.estimate(50, List.of(MARKET))).isBetween(99L, 101L);
+            assertThat(estimator.estimate(60, List.of(MARKET))).isBetween(990L, 1_010L);
+
+            node.fees(List.of(MARKET), 11, repeat(1_000, 10));
+            estimator.refresh();
+
+            assertThat(estimator.estimate(0, List.of(MARKET))).isBetween(990L, 1_010L);
+        }
+    }
+
+    @Test
+    void shouldTrackEachAccountSetIndependentlyRegardlessOfOrder()
+    {
+        node.fees(List.of(MARKET, VAULT), 1, repeat(7_000, 5));
+        node.fees(List.of(VAULT), 1, repeat(3_000, 5));
+
+        try (final var estimator = estimator().build())
+        {
+            assertThat(estimator.estimate(50, List.of(VAULT, MARKET))).isBetween(6_930L, 7_070L);
+            assertThat(estimator.estimate(50, List.of(MARKET, VAULT))).isBetween(6_930L, 7_070L);
+            assertThat(estimator.estimate(50, List.of(VAULT))).isBetween(2_970L, 3_030L);
+            assertThat(estimator.trackedAccountSets()).isEqualTo(2);
+            assertThat(node.requests()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldFallBackAndClampWhenFeesAreUnavailable()
+    {
+        node.failing(true);
+
+        try (final var estimator = estimator().fallback(5_000).bounds(1_000, 50_000).build())
+        {
+            assertThat(estimator.estimate(75, List.of(MARKET))).isEqualTo(5_000L);
+
+            node.failing(false);
+            node.fees(List.of(MARKET), 1, repeat(90_000, 5));
+            estimator.refresh();
+
+            assertThat(estimator.estimate(75, List.of(MARKET))).isEqualTo(50_000L);
+        }
+    }
+
+    @Test
+    void shouldDropIdleAccountSetsOnRefresh()
+    {
+        node.fees(List.of(MARKET), 1, repeat(100, 5));
+
+        try (final var estimator = estimator().idleExpiry(0, TimeUnit.NANOSECONDS).build())
+        {
+            estimator.estimate(50, List.of(MARKET));
+            estimator.refresh();
+
+            assertThat(estimator.trackedAccountSets()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void shouldPriceComputeBudgetInstructionFromWritableAccounts()
+    {
+        node.fees(List.of(MARKET, PAYER), 1, repeat(12_000, 5));
+
+        try (final var estimator = estimator().percentile(75).build())
+        {
+            final List<TransactionInstruction> instructions = List.of(SystemProgram.transfer(PAYER, MARKET, 10));
+
+            final var priceInstruction = ComputeBudgetProgram.setComputeUnitPrice(estimator, instructions);
+
+            final var data = ByteBuffer.allocate(priceInstruction.datasize()).order(ByteOrder.LITTLE_ENDIAN);
+            priceInstruction.data().accept(data);
+            assertThat(data.get(0)).isEqualTo((byte) ComputeBudgetProgram.SET_COMPUTE_UNIT_PRICE_INSTRUCTION);
+            assertThat(data.getLong(1)).isBetween(11_880L, 12_120L);
+        }
+    }
+
+    @Test
+    void shouldPriceMessageFromItsWritableStaticAccounts()
+    {
+        node.fees(List.of(MARKET, PAYER), 1, repeat(4_000, 5));
+
+        try (final var estimator = estimator().build())
+        {
+            final var message = Solana.builder(ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE))
+                    .legacy()
+                    .payer(PAYER)
+                    .recent(Solana.blockhash("EkSnNWid2cvwEVnVx9aBqawnmiCNiDgp3gUdkDPTKN1N"))
+                    .instructions(tb -> SystemProgram.factory(tb).transfer(PAYER, MARKET, 10))
+                    .seal()
+                    .unsigned()
+                    .build();
+
+            assertThat(estimator.estimate(50, message)).isBetween(3_960L, 4_040L);
+            assertThat(estimator.atPercentile(50).microLamports(List.of(PAYER, MARKET))).isBetween(3_960L, 4_040L);
+        }
+    }
+
+    @Test
+    void shouldRejectPercentilesOutOfRange()
+    {
+        try (final var estimator = estimator().build())
+        {
+            assertThrows(IllegalArgumentException.class, () -> estimator.estimate(101, List.of(MARKET)));
+            assertThrows(IllegalArgumentException.class, () -> estimator.atPercentile(-1));
+        }
+    }
+
+    @Test
+    void shouldEstimateQuantilesWithinOnePercent()
+    {
+        final var sketch = new FeeQuantileSketch();
+        for (long value = 1; value <= 1_000_000; value += 7)
+        {
+            sketch.add(value);
+        }
+
+        assertThat(sketch.quantile(0.5)).isBetween(495_000L, 505_000L);
+        assertThat(sketch.quantile(0.99)).isBetween(980_100L, 999_900L);
+
+        sketch.add(0);
+        sketch.remove(0);
+        sketch.remove(12345);
+
+        assertThat(FeeQuantileSketch.valueOf(FeeQuantileSketch.bucketOf(0))).isEqualTo(0L);
+        assertThat(FeeQuantileSketch.valueOf(FeeQuantileSketch.bucketOf(1))).isEqualTo(1L);
+        assertThat(FeeQuantileSketch.valueOf(FeeQuantileSketch.bucketOf(3))).isEqualTo(3L);
+        assertThat(new FeeQuantileSketch().quantile(0.5)).isEqualTo(-1L);
+    }
+
+    private PriorityFeeEstimator.Builder estimator()
+    {
+        return PriorityFeeEstimator.builder(SolanaClient.create(new InMemoryJsonRpcTransport(node::handle)))
+                .refreshInterval(0, TimeUnit.SECONDS);
+    }
+
+    private static long[] repeat(final long fee, final int slots)
+    {
+        final var fees = new long[slots];
+        Arrays.fill(fees, fee);
+        return fees;
+    }
+
+    private static final class FeeNode
+    {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Map<List<String>, String> results = new ConcurrentHashMap<>();
+        private volatile boolean failing;
+        private int requests;
+
+        void fees(final List<PublicKey> accounts, final long firstSlot, final long[] fees)
+        {
+            final var result = new StringBuilder("[");
+            for (int i = 0; i < fees.length; i++)
+            {
+                result.append(i == 0 ? "" : ",").append("{\"prioritizationFee\":").append(fees[i]).append(",\"slot\":").append(firstSlot + i).append('}');
+            }
+            results.put(key(accounts), result.append(']').toString());
+        }
+
+        void failing(final boolean failing)
+        {
+            this.failing = failing;
+        }
+
+        synchronized int requests()
+        {
+            return requests;
+        }
+
+        synchronized InMemoryJsonRpcTransport.Response handle(final byte[] request) throws java.io.IOException
+        {
+            requests++;
+            if (failing)
+            {
+                return InMemoryJsonRpcTransport.response(503, new byte[0]);
+            }
+
+            final JsonNode params = mapper.readTree(request).get("params").get(0);
+            final var accounts = new ArrayList<String>();
+            params.forEach(account -> accounts.add(account.asText()));
+            final var result = results.getOrDefault(accounts, "[]");
+            return InMemoryJsonRpcTransport.ok(("{\"jsonrpc\":\"2.0\",\"result\":" + result + ",\"id\":1}").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static List<String> key(final List<PublicKey> accounts)
+        {
+            final var key = new ArrayList<String>();
+            accounts.forEach(account -> key.add(account.base58()));
+            key.sort(null);
+            return key;
+        }
+    }
+}
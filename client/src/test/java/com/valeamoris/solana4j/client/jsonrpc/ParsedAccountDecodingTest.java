@@ -0,0 +1,279 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import com.valeamoris.solana4j.client.api.AccountInfo;
+import com.valeamoris.solana4j.client.api.ParsedAccount;
+import com.valeamoris.solana4j.client.api.ParsedAccountView;
+import com.valeamoris.solana4j.client.api.SolanaClientOptionalParams;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParsedAccountDecodingTest
+{
+    private static final String ADDRESS = "CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC";
+
+    @Test
+    void shouldDecodeTokenAccountWhenKeysAreSorted() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"parsed\":{\"info\":{\"closeAuthority\":\"9E7Z5oSAiwBvchbUjm3E9x2BTn8RzXyyZdaAjpBJvuUc\"," +
+                "\"delegate\":\"6Q6XBfRrdf6jrK2DraQ8XnYzkGsFz9c15DdUKS5aJHoJ\"," +
+                "\"delegatedAmount\":{\"amount\":\"5\",\"decimals\":18,\"uiAmount\":5.0E-18,\"uiAmountString\":\"0.000000000000000005\"}," +
+                "\"extensions\":[{\"extension\":\"immutableOwner\"},{\"extension\":\"transferFeeAmount\",\"state\":{\"withheldAmount\":0}}]," +
+                "\"isNative\":false,\"mint\":\"2tokpcExDmewsSNRKuTLVLMUseiSkEdBQWBjeQLmuFaS\"," +
+                "\"owner\":\"7H1itW7F72uJbaXK2R4gP7J18HrQ2M683kL9YgUeeUHr\",\"state\":\"frozen\"," +
+                "\"tokenAmount\":{\"amount\":\"18446744073709551615\",\"decimals\":18,\"uiAmount\":18.446744073709553,\"uiAmountString\":\"18.446744073709551615\"}}," +
+                "\"type\":\"account\"},\"program\":\"spl-token-2022\",\"space\":182}",
+                ParsedAccountView.TYPED);
+
+        assertThat(parsed.getProgram()).isEqualTo("spl-token-2022");
+        assertThat(parsed.getSpace()).isEqualTo(182);
+        assertThat(parsed.getParsedData()).isNull();
+        assertThat(parsed.getParsedAccount().getType()).isEqualTo(ParsedAccount.Type.TOKEN_ACCOUNT);
+
+        final var tokenAccount = (ParsedAccount.TokenAccountState) parsed.getParsedAccount();
+        assertThat(tokenAccount.getMint()).isEqualTo("2tokpcExDmewsSNRKuTLVLMUseiSkEdBQWBjeQLmuFaS");
+        assertThat(tokenAccount.getOwner()).isEqualTo("7H1itW7F72uJbaXK2R4gP7J18HrQ2M683kL9YgUeeUHr");
+        assertThat(Long.toUnsignedString(tokenAccount.getAmount())).isEqualTo("18446744073709551615");
+        assertThat(tokenAccount.getDecimals()).isEqualTo(18);
+        assertThat(tokenAccount.getState()).isEqualTo(ParsedAccount.TokenAccountState.State.FROZEN);
+        assertThat(tokenAccount.isNative()).isFalse();
+        assertThat(tokenAccount.getDelegate()).isEqualTo("6Q6XBfRrdf6jrK2DraQ8XnYzkGsFz9c15DdUKS5aJHoJ");
+        assertThat(tokenAccount.getDelegatedAmount()).isEqualTo(5L);
+        assertThat(tokenAccount.getCloseAuthority()).isEqualTo("9E7Z5oSAiwBvchbUjm3E9x2BTn8RzXyyZdaAjpBJvuUc");
+        assertThat(tokenAccount.getRentExemptReserve()).isZero();
+    }
+
+    @Test
+    void shouldDecodeTokenAccountWhenProgramPrecedesParsed() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"program\":\"spl-token\",\"parsed\":{\"type\":\"account\",\"info\":{\"isNative\":true," +
+                "\"mint\":\"So11111111111111111111111111111111111111112\",\"owner\":\"7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1\"," +
+                "\"rentExemptReserve\":{\"amount\":\"2039280\",\"decimals\":9,\"uiAmount\":0.00203928,\"uiAmountString\":\"0.00203928\"}," +
+                "\"state\":\"initialized\",\"tokenAmount\":{\"amount\":\"1500000000\",\"decimals\":9,\"uiAmount\":1.5,\"uiAmountString\":\"1.5\"}}}," +
+                "\"space\":165}",
+                ParsedAccountView.TYPED);
+
+        final var tokenAccount = (ParsedAccount.TokenAccountState) parsed.getParsedAccount();
+        assertThat(tokenAccount.getAmount()).isEqualTo(1_500_000_000L);
+        assertThat(tokenAccount.getDecimals()).isEqualTo(9);
+        assertThat(tokenAccount.isNative()).isTrue();
+        assertThat(tokenAccount.getRentExemptReserve()).isEqualTo(2_039_280L);
+        assertThat(tokenAccount.getState()).isEqualTo(ParsedAccount.TokenAccountState.State.INITIALIZED);
+        assertThat(tokenAccount.getDelegate()).isNull();
+    }
+
+    @Test
+    void shouldLeaveTheStateOfATokenAccountNullWhenItIsNullOrUnknown() throws Exception
+    {
+        for (final String state : new String[]{"null", "\"closing\""})
+        {
+            final var parsed = getParsedAccountInfo(
+                    "{\"program\":\"spl-token\",\"parsed\":{\"type\":\"account\",\"info\":{\"isNative\":false," +
+                    "\"mint\":\"So11111111111111111111111111111111111111112\",\"owner\":\"7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1\"," +
+                    "\"state\":" + state + ",\"tokenAmount\":{\"amount\":\"1\",\"decimals\":9,\"uiAmount\":1.0E-9,\"uiAmountString\":\"0.000000001\"}}}," +
+                    "\"space\":165}",
+                    ParsedAccountView.TYPED);
+
+            final var tokenAccount = (ParsedAccount.TokenAccountState) parsed.getParsedAccount();
+            assertThat(tokenAccount.getState()).isNull();
+            assertThat(tokenAccount.getAmount()).isEqualTo(1L);
+            assertThat(tokenAccount.getOwner()).isEqualTo("7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1");
+        }
+    }
+
+    @Test
+    void shouldDecodeMint() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"parsed\":{\"info\":{\"decimals\":6,\"freezeAuthority\":null,\"isInitialized\":true," +
+                "\"mintAuthority\":\"6Q6XBfRrdf6jrK2DraQ8XnYzkGsFz9c15DdUKS5aJHoJ\",\"supply\":\"999999999999\"}," +
+                "\"type\":\"mint\"},\"program\":\"spl-token\",\"space\":82}",
+                ParsedAccountView.TYPED);
+
+        final var mint = (ParsedAccount.MintState) parsed.getParsedAccount();
+        assertThat(mint.getType()).isEqualTo(ParsedAccount.Type.MINT);
+        assertThat(mint.getDecimals()).isEqualTo(6);
+        assertThat(mint.getSupply()).isEqualTo(999_999_999_999L);
+        assertThat(mint.isInitialized()).isTrue();
+        assertThat(mint.getMintAuthority()).isEqualTo("6Q6XBfRrdf6jrK2DraQ8XnYzkGsFz9c15DdUKS5aJHoJ");
+        assertThat(mint.getFreezeAuthority()).isNull();
+    }
+
+    @Test
+    void shouldDecodeNonce() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"parsed\":{\"info\":{\"authority\":\"2dY4b9YdnHaURDVJj339q7eczTdxnVyiGifA5yXG4yQN\"," +
+                "\"blockhash\":\"Hb4pM3V4j9ipCsFNpymzViHZPiDMUH2KwLzrpSchiYVU\",\"feeCalculator\":{\"lamportsPerSignature\":\"5000\"}}," +
+                "\"type\":\"initialized\"},\"program\":\"nonce\",\"space\":80}",
+                ParsedAccountView.TYPED);
+
+        final var nonce = (ParsedAccount.NonceState) parsed.getParsedAccount();
+        assertThat(nonce.getType()).isEqualTo(ParsedAccount.Type.NONCE);
+        assertThat(nonce.getAuthority()).isEqualTo("2dY4b9YdnHaURDVJj339q7eczTdxnVyiGifA5yXG4yQN");
+        assertThat(nonce.getBlockhash()).isEqualTo("Hb4pM3V4j9ipCsFNpymzViHZPiDMUH2KwLzrpSchiYVU");
+        assertThat(nonce.getLamportsPerSignature()).isEqualTo(5000L);
+    }
+
+    @Test
+    void shouldDecodeAddressLookupTable() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"parsed\":{\"info\":{\"addresses\":[\"11111111111111111111111111111111\",\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\"]," +
+                "\"authority\":\"2dY4b9YdnHaURDVJj339q7eczTdxnVyiGifA5yXG4yQN\",\"deactivationSlot\":\"18446744073709551615\"," +
+                "\"lastExtendedSlot\":\"341197001\",\"lastExtendedSlotStartIndex\":0},\"type\":\"lookupTable\"}," +
+                "\"program\":\"address-lookup-table\",\"space\":120}",
+                ParsedAccountView.TYPED);
+
+        final var lookupTable = (ParsedAccount.AddressLookupTableState) parsed.getParsedAccount();
+        assertThat(lookupTable.getType()).isEqualTo(ParsedAccount.Type.ADDRESS_LOOKUP_TABLE);
+        assertThat(lookupTable.getAddresses()).containsExactly("11111111111111111111111111111111", "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+        assertThat(lookupTable.getAuthority()).isEqualTo("2dY4b9YdnHaURDVJj339q7eczTdxnVyiGifA5yXG4yQN");
+        assertThat(lookupTable.getDeactivationSlot()).isEqualTo(-1L);
+        assertThat(lookupTable.getLastExtendedSlot()).isEqualTo(341197001L);
+        assertThat(lookupTable.getLastExtendedSlotStartIndex()).isZero();
+    }
+
+    @Test
+    void shouldFallBackToMapForUnsupportedLayouts() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"parsed\":{\"info\":{\"meta\":{\"rentExemptReserve\":\"2282880\"}},\"type\":\"initialized\"},\"program\":\"stake\",\"space\":200}",
+                ParsedAccountView.TYPED);
+
+        assertThat(parsed.getParsedAccount()).isNull();
+        assertThat(parsed.getParsedData().get("type")).isEqualTo("initialized");
+        assertThat(parsed.getParsedData().get("info")).isEqualTo(Map.of("meta", Map.of("rentExemptReserve", "2282880")));
+    }
+
+    @Test
+    void shouldDecodeIntoMapByDefault() throws Exception
+    {
+        final var parsed = getParsedAccountInfo(
+                "{\"parsed\":{\"info\":{\"decimals\":6,\"freezeAuthority\":null,\"isInitialized\":true," +
+                "\"mintAuthority\":null,\"supply\":\"10\"},\"type\":\"mint\"},\"program\":\"spl-token\",\"space\":82}",
+                ParsedAccountView.MAP);
+
+        assertThat(parsed.getParsedAccount()).isNull();
+        assertThat(parsed.getParsedData().get("type")).isEqualTo("mint");
+        final var expectedInfo = new HashMap<String, Object>();
+        expectedInfo.put("decimals", 6);
+        expectedInfo.put("freezeAuthority", null);
+        expectedInfo.put("isInitialized", true);
+        expectedInfo.put("mintAuthority", null);
+        expectedInfo.put("supply", "10");
+        assertThat(parsed.getParsedData().get("info")).usingRecursiveComparison().isEqualTo(expectedInfo);
+    }
+
+    @Test
+    void shouldDecodeIntoMapForParamsImplementedBeforeParsedAccountViews() throws Exception
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request -> InMemoryJsonRpcTransport.ok(bytes(
+                "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":{\"data\":" +
+                "{\"parsed\":{\"info\":{\"supply\":\"10\"},\"type\":\"mint\"},\"program\":\"spl-token\",\"space\":82}," +
+                "\"executable\":false,\"lamports\":1461600,\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\"," +
+                "\"rentEpoch\":18446744073709551615,\"space\":82}},\"id\":1}"))), true);
+        final var params = new HashMap<String, Object>();
+        final SolanaClientOptionalParams optionalParams = new SolanaClientOptionalParams()
+        {
+            @Override
+            public void addParam(final String key, final Object value)
+            {
+                params.put(key, value);
+            }
+
+            @Override
+            public Map<String, Object> getParams()
+            {
+                return params;
+            }
+        };
+        optionalParams.addParam("encoding", "jsonParsed");
+        optionalParams.setParsedAccountView(ParsedAccountView.TYPED);
+
+        final var parsed = client.getAccountInfo(ADDRESS, optionalParams).getResponse().getData().getAccountInfoParsed();
+
+        assertThat(optionalParams.getParsedAccountView()).isEqualTo(ParsedAccountView.MAP);
+        assertThat(parsed.getParsedAccount()).isNull();
+        assertThat(parsed.getParsedData().get("type")).isEqualTo("mint");
+    }
+
+    @Test
+    void shouldDecodeTokenAccountsByOwnerIntoTypedViews() throws Exception
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request -> InMemoryJsonRpcTransport.ok(bytes(
+                "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":[{\"account\":{\"data\":" +
+                "{\"parsed\":{\"info\":{\"isNative\":false,\"mint\":\"2nEP4PGvFRNEo3LTdJtuaUxKXfjffYtTq5WxVzCkASZd\"," +
+                "\"owner\":\"7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1\",\"state\":\"initialized\"," +
+                "\"tokenAmount\":{\"amount\":\"9864\",\"decimals\":2,\"uiAmount\":98.64,\"uiAmountString\":\"98.64\"}},\"type\":\"account\"}," +
+                "\"program\":\"spl-token\",\"space\":165},\"executable\":false,\"lamports\":2039280," +
+                "\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\",\"rentEpoch\":18446744073709551615,\"space\":165}," +
+                "\"pubkey\":\"" + ADDRESS + "\"}]},\"id\":1}"))), true);
+
+        final var response = client.getTokenAccountsByOwner(
+                "7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1",
+                new AbstractMap.SimpleEntry<>("programId", "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA"),
+                typedParams());
+
+        final var tokenAccounts = response.getResponse();
+        assertThat(tokenAccounts).hasSize(1);
+        final var tokenAccount = (ParsedAccount.TokenAccountState) tokenAccounts.get(0).getAccountInfo().getData().getAccountInfoParsed().getParsedAccount();
+        assertThat(tokenAccount.getAmount()).isEqualTo(9864L);
+        assertThat(tokenAccount.getDecimals()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotSendParsedAccountViewToTheNode() throws Exception
+    {
+        final var requests = new ArrayList<String>();
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request ->
+        {
+            requests.add(new String(request, StandardCharsets.UTF_8));
+            return InMemoryJsonRpcTransport.ok(bytes("{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":null},\"id\":1}"));
+        }), true);
+
+        client.getAccountInfo(ADDRESS, typedParams());
+
+        assertThat(requests).hasSize(1);
+        assertThat(requests.get(0)).contains("jsonParsed").doesNotContain("TYPED").doesNotContain("parsedAccountView");
+    }
+
+    private static AccountInfo.AccountInfoData.AccountInfoParsedData getParsedAccountInfo(
+            final String data,
+            final ParsedAccountView parsedAccountView) throws Exception
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request -> InMemoryJsonRpcTransport.ok(bytes(
+                "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"apiVersion\":\"2.0.15\",\"slot\":1},\"value\":{\"data\":" + data +
+                ",\"executable\":false,\"lamports\":1461600,\"owner\":\"TokenzQdBNbLqP5VEhdkAS6EPFLC1PHnBqCXEpPxuEb\"," +
+                "\"rentEpoch\":18446744073709551615,\"space\":165}},\"id\":1}"))), true);
+
+        final SolanaClientOptionalParams optionalParams = new SolanaJsonRpcClientOptionalParams();
+        optionalParams.addParam("encoding", "jsonParsed");
+        optionalParams.setParsedAccountView(parsedAccountView);
+
+        final var accountInfo = client.getAccountInfo(ADDRESS, optionalParams).getResponse();
+        assertThat(accountInfo.getData().getAccountInfoEncoded()).isNull();
+        return accountInfo.getData().getAccountInfoParsed();
+    }
+
+    private static SolanaClientOptionalParams typedParams()
+    {
+        final SolanaClientOptionalParams optionalParams = new SolanaJsonRpcClientOptionalParams();
+        optionalParams.addParam("encoding", "jsonParsed");
+        optionalParams.setParsedAccountView(ParsedAccountView.TYPED);
+        return optionalParams;
+    }
+
+    private static byte[] bytes(final String value)
+    {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
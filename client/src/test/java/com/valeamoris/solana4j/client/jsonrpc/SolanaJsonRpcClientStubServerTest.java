@@ -0,0 +1,97 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import com.valeamoris.solana4j.client.api.PrioritizationFee;
+import com.valeamoris.solana4j.client.stub.StubJsonRpcServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolanaJsonRpcClientStubServerTest
+{
+    @Test
+    void shouldDecodeCannedFixtures() throws Exception
+    {
+        try (final var server = StubJsonRpcServer.builder().start())
+        {
+            final var client = new SolanaJsonRpcClient(new OkHttpClient(), server.url(), true);
+
+            assertThat(client.getBalance("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC").getResponse()).isEqualTo(400000L);
+            assertThat(client.getSlot().getResponse()).isEqualTo(341197053L);
+            assertThat(client.getLatestBlockhash().getResponse().getBlockhashBase58()).isEqualTo("EkSnNWid2cvwEVnVx9aBqawnmiCNiDgp3gUdkDPTKN1N");
+            assertThat(client.getAccountInfo("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC").getResponse().getSpace()).isEqualTo(165);
+            assertThat(client.getTokenAccountsByOwner(
+                    "7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1",
+                    new AbstractMap.SimpleEntry<>("programId", "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA")).getResponse()).hasSize(2);
+            assertThat(client.simulateTransaction("AQ==").getResponse().getUnitsConsumed()).isEqualTo(150);
+            assertThat(client.getRecentPrioritizationFees(List.of()).getResponse().stream().map(PrioritizationFee::getPrioritizationFee))
+                    .containsExactly(0L, 1000L, 5000L, 25000L, 120000L);
+            final var accounts = client.getMultipleAccounts(List.of("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC", "2nEP4PGvFRNEo3LTdJtuaUxKXfjffYtTq5WxVzCkASZd")).getResponse();
+            assertThat(accounts).hasSize(2);
+            assertThat(accounts.get(0).getSpace()).isEqualTo(80);
+            assertThat(accounts.get(1)).isNull();
+            assertThat(server.requestCount()).isEqualTo(8);
+        }
+    }
+
+    @Test
+    void shouldPreferRegisteredFixtureOverClasspathFixture() throws Exception
+    {
+        try (final var server = StubJsonRpcServer.builder().fixture("getSlot", "42").start())
+        {
+            final var client = new SolanaJsonRpcClient(new OkHttpClient(), server.url(), true);
+
+            assertThat(client.getSlot().getResponse()).isEqualTo(42L);
+
+            server.fixture("getSlot", "43");
+
+            assertThat(client.getSlot().getResponse()).isEqualTo(43L);
+        }
+    }
+
+    @Test
+    void shouldReturnMethodNotFoundForMissingFixture() throws Exception
+    {
+        try (final var server = StubJsonRpcServer.builder().classpathFixtures(false).start())
+        {
+            final var client = new SolanaJsonRpcClient(new OkHttpClient(), server.url(), true);
+
+            final var response = client.getSlot();
+
+            assertThat(response.isSuccess()).isFalse();
+            assertThat(response.getError().getErrorCode()).isEqualTo(-32601L);
+        }
+    }
+
+    @Test
+    void shouldInjectJsonRpcErrors() throws Exception
+    {
+        try (final var server = StubJsonRpcServer.builder().errorRate(1.0, -32005, "Node is behind").start())
+        {
+            final var client = new SolanaJsonRpcClient(new OkHttpClient(), server.url(), true);
+
+            final var response = client.getBalance("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC");
+
+            assertThat(response.isSuccess()).isFalse();
+            assertThat(response.getError().getErrorCode()).isEqualTo(-32005L);
+            assertThat(response.getError().getErrorMessage()).isEqualTo("Node is behind");
+            assertThat(server.errorCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldSurfaceTooManyRequestsAsException() throws Exception
+    {
+        try (final var server = StubJsonRpcServer.builder().throttleRate(1.0).start())
+        {
+            final var client = new SolanaJsonRpcClient(new OkHttpClient(), server.url(), true);
+
+            assertThrows(SolanaJsonRpcClientException.class, client::getSlot);
+            assertThat(server.throttledCount()).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.valeamoris.solana4j.client.jsonrpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolanaJsonRpcClientTransportTest
+{
+    @Test
+    void shouldEncodeRequestAndDecodeResponseThroughTransport() throws Exception
+    {
+        final var requests = new ArrayList<byte[]>();
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request ->
+        {
+            requests.add(request);
+            return InMemoryJsonRpcTransport.ok(bytes("{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":12345},\"id\":1}"));
+        }), true);
+
+        final var response = client.getBalance("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC");
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getResponse()).isEqualTo(12345L);
+        assertThat(requests).hasSize(1);
+
+        final var request = new ObjectMapper().readTree(requests.get(0));
+        assertThat(request.get("jsonrpc").asText()).isEqualTo("2.0");
+        assertThat(request.get("method").asText()).isEqualTo("getBalance");
+        assertThat(request.get("params").get(0).asText()).isEqualTo("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC");
+    }
+
+    @Test
+    void shouldReturnJsonRpcErrorAsErrorResponse() throws Exception
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request ->
+                InMemoryJsonRpcTransport.ok(bytes("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32602,\"message\":\"Invalid param\"},\"id\":1}"))));
+
+        final var response = client.getSlot();
+
+        assertThat(response.isSuccess()).isFalse();
+        assertThat(response.getError().getErrorCode()).isEqualTo(-32602L);
+        assertThat(response.getError().getErrorMessage()).isEqualTo("Invalid param");
+    }
+
+    @Test
+    void shouldThrowOnUnexpectedStatusCode()
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request ->
+                InMemoryJsonRpcTransport.response(503, bytes("Service Unavailable"))));
+
+        final var exception = assertThrows(SolanaJsonRpcClientException.class, client::getSlot);
+
+        assertThat(exception.getMessage()).contains("503").contains("getSlot");
+        assertThat(exception.isRecoverable()).isFalse();
+    }
+
+    @Test
+    void shouldThrowRecoverableExceptionOnCommunicationFailure()
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request ->
+        {
+            throw new IOException("connection reset");
+        }));
+
+        final var exception = assertThrows(SolanaJsonRpcClientException.class, client::getSlot);
+
+        assertThat(exception.isRecoverable()).isTrue();
+        assertThat(exception.getCause()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldThrowOnUndecodableBody()
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request ->
+                InMemoryJsonRpcTransport.ok(bytes("<html>not json</html>"))));
+
+        assertThrows(SolanaJsonRpcClientException.class, client::getSlot);
+    }
+
+    @Test
+    void shouldReturnNullResultWhenResponseHasNoBody() throws Exception
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request -> new JsonRpcTransport.Response()
+        {
+            @Override
+            public int statusCode()
+            {
+                return 200;
+            }
+
+            @Override
+            public InputStream body()
+            {
+                return null;
+            }
+
+            @Override
+            public void close()
+            {
+            }
+        }));
+
+        final var response = client.getSlot();
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getResponse()).isNull();
+    }
+
+    @Test
+    void shouldThrowOnEmptyBody()
+    {
+        final var client = new SolanaJsonRpcClient(new InMemoryJsonRpcTransport(request -> InMemoryJsonRpcTransport.ok(new byte[0])));
+
+        assertThrows(SolanaJsonRpcClientException.class, client::getSlot);
+    }
+
+    private static byte[] bytes(final String value)
+    {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,393 @@
+package com.valeamoris.solana4j.client.lookup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.client.SolanaClient;
+import com.valeamoris.solana4j.client.jsonrpc.InMemoryJsonRpcTransport;
+import com.valeamoris.solana4j.programs.AddressLookupTableProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.valeamoris.solana4j.client.SolanaClientTestHelper.randomAccount;
+import static com.valeamoris.solana4j.client.SolanaClientTestHelper.randomAccounts;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AddressLookupTableManagerTest
+{
+    private final Random random = new Random(34);
+    private final PublicKey authority = randomAccount(random);
+    private final PublicKey payer = randomAccount(random);
+    private final LookupTableNode node = new LookupTableNode();
+    private final List<List<TransactionInstruction>> submitted = new ArrayList<>();
+
+    @Test
+    void shouldServeCachedTablesWithoutTouchingTheNetwork()
+    {
+        final var accounts = randomAccounts(random, 10);
+        final var table = node.create(randomAccount(random), authority, accounts);
+
+        try (final var manager = manager().tables(List.of(table)).build())
+        {
+            manager.refresh();
+            final int requests = node.requests();
+
+            for (int i = 0; i < 100; i++)
+            {
+                assertThat(manager.lookupTables()).hasSize(1);
+                assertThat(manager.lookupTable(table).getAddresses()).isEqualTo(accounts);
+                assertThat(manager.lookupTablesFor(accounts.subList(2, 4))).hasSize(1);
+            }
+
+            assertThat(node.requests()).isEqualTo(requests);
+        }
+    }
+
+    @Test
+    void shouldOnlyDeserialiseTablesThatChanged()
+    {
+        final var table = node.create(randomAccount(random), authority, randomAccounts(random, 5));
+        final var unchanged = node.create(randomAccount(random), authority, randomAccounts(random, 5));
+
+        try (final var manager = manager().tables(List.of(table, unchanged)).build())
+        {
+            manager.refresh();
+            final var before = manager.lookupTable(unchanged);
+
+            node.slot(20);
+            node.extend(table, randomAccounts(random, 3));
+            node.slot(21);
+            manager.refresh();
+
+            assertThat(manager.lookupTable(unchanged)).isSameAs(before);
+            assertThat(manager.lookupTable(table).getAddresses()).hasSize(8);
+        }
+    }
+
+    @Test
+    void shouldWithholdAddressesUntilTheirExtensionHasWarmedUp()
+    {
+        final var original = randomAccounts(random, 4);
+        final var table = node.create(randomAccount(random), authority, original);
+
+        try (final var manager = manager().tables(List.of(table)).build())
+        {
+            node.slot(50);
+            node.extend(table, randomAccounts(random, 2));
+            manager.refresh();
+
+            assertThat(manager.slot()).isEqualTo(50);
+            assertThat(manager.lookupTable(table).getAddresses()).isEqualTo(original);
+
+            node.slot(51);
+            manager.refresh();
+
+            assertThat(manager.lookupTable(table).getAddresses()).hasSize(6);
+        }
+    }
+
+    @Test
+    void shouldNotServeDeactivatedOrMissingTables()
+    {
+        final var deactivated = node.create(randomAccount(random), authority, randomAccounts(random, 3));
+        node.deactivate(deactivated);
+        final var missing = randomAccount(random);
+
+        try (final var manager = manager().tables(List.of(deactivated, missing)).build())
+        {
+            manager.refresh();
+
+            assertThat(manager.lookupTables()).isEmpty();
+            assertThat(manager.lookupTable(deactivated)).isNull();
+            assertThat(manager.lookupTable(missing)).isNull();
+        }
+    }
+
+    @Test
+    void shouldRefreshTablesInBatchesOfOneHundred()
+    {
+        final var tables = new ArrayList<PublicKey>();
+        for (int i = 0; i < 150; i++)
+        {
+            tables.add(node.create(randomAccount(random), authority, randomAccounts(random, 1)));
+        }
+
+        try (final var manager = manager().tables(tables).build())
+        {
+            manager.refresh();
+
+            assertThat(manager.lookupTables()).hasSize(150);
+            assertThat(node.batchSizes()).isEqualTo(List.of(100, 50));
+        }
+    }
+
+    @Test
+    void shouldCreateAndExtendTableForFrequentlyMissedAccounts()
+    {
+        final var hot = randomAccounts(random, 25);
+        final var cold = randomAccount(random);
+
+        try (final var manager = manager().autoExtend(authority, payer, submitted::add).hotThreshold(3).build())
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                assertThat(manager.lookupTablesFor(hot)).isEmpty();
+            }
+            manager.lookupTablesFor(List.of(cold));
+
+            node.slot(100);
+            manager.refresh();
+
+            assertThat(submitted).hasSize(1);
+            final var create = submitted.get(0).get(0);
+            assertThat(create.program()).isEqualTo(AddressLookupTableProgram.PROGRAM_ACCOUNT);
+            final var table = AddressLookupTableProgram.deriveAddress(authority, Solana.slot(100)).address();
+            assertThat(create.accountReferences().get(0).account()).isEqualTo(table);
+            node.apply(submitted.get(0));
+
+            node.slot(101);
+            manager.refresh();
+
+            // 25 hot accounts take two extensions of at most MAX_ADDRESSES_PER_EXTENSION
+            assertThat(submitted).hasSize(3);
+            node.apply(submitted.get(1));
+            node.apply(submitted.get(2));
+
+            node.slot(102);
+            manager.refresh();
+
+            assertThat(submitted).hasSize(3);
+            assertThat(new HashSet<>(manager.lookupTable(table).getAddresses())).isEqualTo(new HashSet<>(hot));
+            assertThat(manager.lookupTablesFor(hot.subList(0, 5))).containsExactly(manager.lookupTable(table));
+            assertThat(manager.lookupTable(table).getAddresses()).doesNotContain(cold);
+        }
+    }
+
+    @Test
+    void shouldNotLookUpOrCountSignersAndProgramsOfInstructions()
+    {
+        final var program = randomAccount(random);
+        final var signer = randomAccount(random);
+        final var account = randomAccount(random);
+        final var held = node.create(randomAccount(random), randomAccount(random), List.of(program, signer));
+        final var instructions = List.of(
+                Solana.instruction(ib -> ib.program(program).account(signer, true, true).account(account, false, true).data(0, bb -> { })),
+                Solana.instruction(ib -> ib.program(program).account(program, false, false).account(signer, false, false).data(0, bb -> { })));
+
+        try (final var manager = manager().tables(List.of(held)).autoExtend(authority, payer, submitted::add).hotThreshold(1).build())
+        {
+            manager.refresh();
+            assertThat(manager.lookupTablesFor(instructions)).isEmpty();
+
+            node.slot(100);
+            manager.refresh();
+            assertThat(submitted).hasSize(1);
+            node.apply(submitted.get(0));
+
+            node.slot(101);
+            manager.refresh();
+            assertThat(submitted).hasSize(2);
+            assertThat(extendedAddresses(submitted.get(1).get(0))).isEqualTo(List.of(account));
+        }
+    }
+
+    @Test
+    void shouldRetryExtensionThatNeverLanded()
+    {
+        final var table = node.create(randomAccount(random), authority, randomAccounts(random, 1));
+        final var hot = randomAccounts(random, 2);
+
+        try (final var manager = manager().tables(List.of(table)).autoExtend(authority, payer, submitted::add)
+                .hotThreshold(1).pendingTimeoutSlots(10).build())
+        {
+            manager.lookupTablesFor(hot);
+            node.slot(10);
+            manager.refresh();
+            assertThat(submitted).hasSize(1);
+
+            node.slot(15);
+            manager.refresh();
+            assertThat(submitted).hasSize(1);
+
+            manager.lookupTablesFor(hot);
+            node.slot(25);
+            manager.refresh();
+            assertThat(submitted).hasSize(2);
+            assertThat(new HashSet<>(extendedAddresses(submitted.get(1).get(0)))).isEqualTo(new HashSet<>(hot));
+        }
+    }
+
+    @Test
+    void shouldNotExtendTablesOfAnotherAuthority()
+    {
+        final var foreign = node.create(randomAccount(random), randomAccount(random), randomAccounts(random, 1));
+
+        try (final var manager = manager().tables(List.of(foreign)).autoExtend(authority, payer, submitted::add).hotThreshold(1).build())
+        {
+            manager.lookupTablesFor(randomAccounts(random, 1));
+            manager.refresh();
+
+            assertThat(submitted).hasSize(1);
+            final var data = ByteBuffer.allocate(submitted.get(0).get(0).datasize()).order(ByteOrder.LITTLE_ENDIAN);
+            submitted.get(0).get(0).data().accept(data);
+            assertThat(data.getInt(0)).isEqualTo(AddressLookupTableProgram.CREATE_LOOKUP_TABLE_INSTRUCTION);
+        }
+    }
+
+    private AddressLookupTableManager.Builder manager()
+    {
+        return AddressLookupTableManager.builder(SolanaClient.create(new InMemoryJsonRpcTransport(node::handle)))
+                .refreshInterval(0, TimeUnit.SECONDS);
+    }
+
+    private static List<PublicKey> extendedAddresses(final TransactionInstruction extend)
+    {
+        final var data = ByteBuffer.allocate(extend.datasize()).order(ByteOrder.LITTLE_ENDIAN);
+        extend.data().accept(data);
+        data.flip();
+        assertThat(data.getInt()).isEqualTo(AddressLookupTableProgram.EXTEND_LOOKUP_TABLE_INSTRUCTION);
+        final int count = (int) data.getLong();
+        final var addresses = new ArrayList<PublicKey>();
+        for (int i = 0; i < count; i++)
+        {
+            final byte[] address = new byte[32];
+            data.get(address);
+            addresses.add(Solana.account(address));
+        }
+        return addresses;
+    }
+
+    private static final class LookupTableNode
+    {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Map<String, Table> tables = new ConcurrentHashMap<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private long slot = 1;
+        private int requests;
+
+        PublicKey create(final PublicKey address, final PublicKey authority, final List<PublicKey> addresses)
+        {
+            final var table = new Table(authority);
+            table.addresses.addAll(addresses);
+            tables.put(address.base58(), table);
+            return address;
+        }
+
+        void extend(final PublicKey address, final List<PublicKey> addresses)
+        {
+            final var table = tables.get(address.base58());
+            table.lastExtendedSlotStartIndex = table.addresses.size();
+            table.lastExtendedSlot = slot;
+            table.addresses.addAll(addresses);
+        }
+
+        void deactivate(final PublicKey address)
+        {
+            tables.get(address.base58()).deactivationSlot = slot;
+        }
+
+        void apply(final List<TransactionInstruction> instructions)
+        {
+            for (final var instruction : instructions)
+            {
+                final var data = ByteBuffer.allocate(instruction.datasize()).order(ByteOrder.LITTLE_ENDIAN);
+                instruction.data().accept(data);
+                final var table = instruction.accountReferences().get(0).account();
+                if (data.getInt(0) == AddressLookupTableProgram.CREATE_LOOKUP_TABLE_INSTRUCTION)
+                {
+                    create(table, instruction.accountReferences().get(1).account(), List.of());
+                }
+                else
+                {
+                    extend(table, extendedAddresses(instruction));
+                }
+            }
+        }
+
+        synchronized void slot(final long slot)
+        {
+            this.slot = slot;
+        }
+
+        synchronized int requests()
+        {
+            return requests;
+        }
+
+        synchronized List<Integer> batchSizes()
+        {
+            return new ArrayList<>(batchSizes);
+        }
+
+        synchronized InMemoryJsonRpcTransport.Response handle(final byte[] request) throws java.io.IOException
+        {
+            requests++;
+            final JsonNode json = mapper.readTree(request);
+            final String result;
+            if ("getSlot".equals(json.get("method").asText()))
+            {
+                result = Long.toString(slot);
+            }
+            else
+            {
+                assertThat(json.get("method").asText()).isEqualTo("getMultipleAccounts");
+                batchSizes.add(json.get("params").get(0).size());
+                final var value = new StringBuilder("{\"context\":{\"slot\":").append(slot).append("},\"value\":[");
+                boolean first = true;
+                for (final JsonNode address : json.get("params").get(0))
+                {
+                    final var table = tables.get(address.asText());
+                    value.append(first ? "" : ",");
+                    first = false;
+                    if (table == null)
+                    {
+                        value.append("null");
+                        continue;
+                    }
+                    value.append("{\"data\":[\"").append(Base64.getEncoder().encodeToString(table.serialize())).append("\",\"base64\"],")
+                            .append("\"executable\":false,\"lamports\":1000,\"owner\":\"").append(AddressLookupTableProgram.PROGRAM_ACCOUNT.base58()).append("\",")
+                            .append("\"rentEpoch\":18446744073709551615,\"space\":").append(table.serialize().length).append('}');
+                }
+                result = value.append("]}").toString();
+            }
+            return InMemoryJsonRpcTransport.ok(("{\"jsonrpc\":\"2.0\",\"result\":" + result + ",\"id\":1}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class Table
+    {
+        private final PublicKey authority;
+        private final List<PublicKey> addresses = new ArrayList<>();
+        private long deactivationSlot = -1L;
+        private long lastExtendedSlot;
+        private int lastExtendedSlotStartIndex;
+
+        Table(final PublicKey authority)
+        {
+            this.authority = authority;
+        }
+
+        byte[] serialize()
+        {
+            final var data = ByteBuffer.allocate(AddressLookupTableProgram.LOOKUP_TABLE_META_SIZE + 32 * addresses.size()).order(ByteOrder.LITTLE_ENDIAN);
+            data.putInt(1).putLong(deactivationSlot).putLong(lastExtendedSlot).put((byte) lastExtendedSlotStartIndex).put((byte) 1);
+            authority.write(data);
+            data.position(AddressLookupTableProgram.LOOKUP_TABLE_META_SIZE);
+            addresses.forEach(address -> address.write(data));
+            return data.array();
+        }
+    }
+}
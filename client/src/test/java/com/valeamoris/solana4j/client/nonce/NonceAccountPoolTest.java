@@ -0,0 +1,419 @@
+package com.valeamoris.solana4j.client.nonce;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.client.SolanaClient;
+import com.valeamoris.solana4j.client.jsonrpc.InMemoryJsonRpcTransport;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.valeamoris.solana4j.client.SolanaClientTestHelper.randomAccount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NonceAccountPoolTest
+{
+    private static final PublicKey PAYER = Solana.account("7Hmc7Q7Pe2F4W3ad6nSUgbwAE6bDBu8BxxKh1pb8wzc1");
+    private static final PublicKey AUTHORITY = Solana.account("2nEP4PGvFRNEo3LTdJtuaUxKXfjffYtTq5WxVzCkASZd");
+    private static final PublicKey OTHER_AUTHORITY = Solana.account("CZJWrh6o1tchnKB1UkGn2f65DDD7BbA1u6Nz6bZfTTNC");
+
+    private final Random random = new Random(33);
+    private final NonceNode node = new NonceNode();
+
+    @Test
+    void shouldLeaseEachAccountOnceWithItsNonce() throws Exception
+    {
+        final var accounts = nonceAccounts(3);
+
+        try (final var pool = pool(accounts))
+        {
+            pool.refresh();
+
+            final var leased = new HashSet<PublicKey>();
+            for (int i = 0; i < accounts.size(); i++)
+            {
+                final var lease = pool.tryLease();
+                assertThat(lease.nonce()).isEqualTo(node.nonce(lease.account()));
+                leased.add(lease.account());
+            }
+
+            assertThat(leased).isEqualTo(new HashSet<>(accounts));
+            assertThat(pool.tryLease()).isNull();
+            assertThat(pool.lease(10, TimeUnit.MILLISECONDS)).isNull();
+        }
+    }
+
+    @Test
+    void shouldStartTransactionWithNonceAdvanceAndUseNonceAsBlockhash()
+    {
+        try (final var pool = pool(nonceAccounts(1)))
+        {
+            pool.refresh();
+            final var lease = pool.tryLease();
+
+            final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+            Solana.builder(buffer)
+                    .legacy()
+                    .payer(PAYER)
+                    .recent(lease.blockhash())
+                    .prebuiltInstructions(lease.withNonceAdvance(List.of(SystemProgram.transfer(PAYER, OTHER_AUTHORITY, 10))))
+                    .seal()
+                    .unsigned()
+                    .build();
+
+            final var view = (MessageVisitor.LegacyMessageView) Solana.read(buffer).accept(message -> message);
+            assertThat(bytes(view.recentBlockHash())).isEqualTo(lease.nonce().bytes());
+            assertThat(view.instructions()).hasSize(2);
+            final var nonceAdvance = view.instructions().get(0);
+            assertThat(nonceAdvance.program()).isEqualTo(SystemProgram.SYSTEM_PROGRAM_ACCOUNT);
+            assertThat(nonceAdvance.accounts().get(0)).isEqualTo(lease.account());
+            assertThat(nonceAdvance.accounts().get(2)).isEqualTo(AUTHORITY);
+            assertThat(nonceAdvance.data().order(ByteOrder.LITTLE_ENDIAN).getInt(0)).isEqualTo(SystemProgram.ADVANCE_NONCE_INSTRUCTION);
+            assertThat(view.isSigner(AUTHORITY)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldLeaseReleasedAccountAgainWithAdvancedNonce()
+    {
+        final var account = nonceAccounts(1).get(0);
+
+        try (final var pool = pool(List.of(account)))
+        {
+            pool.refresh();
+            final var lease = pool.tryLease();
+            final var firstNonce = lease.nonce();
+
+            node.advance(account);
+            pool.release(lease);
+            pool.release(lease);
+
+            assertThat(pool.stale()).isEqualTo(1);
+            assertThat(pool.tryLease()).isNull();
+
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(1);
+            final var next = pool.tryLease();
+            assertThat(next.account()).isEqualTo(account);
+            assertThat(next.nonce()).isNotEqualTo(firstNonce);
+            assertThat(next.nonce()).isEqualTo(node.nonce(account));
+        }
+    }
+
+    @Test
+    void shouldKeepSentAccountStaleUntilItsNonceHasAdvanced()
+    {
+        final var account = nonceAccounts(1).get(0);
+
+        try (final var pool = pool(List.of(account)))
+        {
+            pool.refresh();
+            final var lease = pool.tryLease();
+
+            pool.release(lease, true);
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(0);
+            assertThat(pool.stale()).isEqualTo(1);
+
+            node.advance(account);
+            pool.refresh();
+
+            assertThat(pool.stale()).isEqualTo(0);
+            assertThat(pool.tryLease().nonce()).isNotEqualTo(lease.nonce());
+        }
+    }
+
+    @Test
+    void shouldLeaseSentAccountAgainWithTheSameNonceOnceItsTransactionIsTakenAsDropped() throws Exception
+    {
+        final var account = nonceAccounts(1).get(0);
+
+        try (final var pool = NonceAccountPool.builder(SolanaClient.create(new InMemoryJsonRpcTransport(node::handle)), AUTHORITY)
+                .nonceAccounts(List.of(account))
+                .refreshInterval(0, TimeUnit.SECONDS)
+                .dropTimeout(50, TimeUnit.MILLISECONDS)
+                .build())
+        {
+            pool.refresh();
+            final var lease = pool.tryLease();
+
+            pool.release(lease, true);
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(0);
+            assertThat(pool.stale()).isEqualTo(1);
+
+            Thread.sleep(100);
+            pool.refresh();
+
+            assertThat(pool.stale()).isEqualTo(0);
+            final var next = pool.tryLease();
+            assertThat(next.account()).isEqualTo(account);
+            assertThat(next.nonce()).isEqualTo(lease.nonce());
+
+            node.advance(account);
+            pool.release(next, true);
+            pool.refresh();
+
+            assertThat(pool.tryLease().nonce()).isEqualTo(node.nonce(account));
+        }
+    }
+
+    @Test
+    void shouldLeaseUnsentAccountAgainWithTheSameNonce()
+    {
+        try (final var pool = pool(nonceAccounts(1)))
+        {
+            pool.refresh();
+            final var lease = pool.tryLease();
+
+            pool.release(lease, false);
+            pool.release(lease, false);
+
+            assertThat(pool.available()).isEqualTo(1);
+            assertThat(pool.stale()).isEqualTo(0);
+            final var next = pool.tryLease();
+            assertThat(next.account()).isEqualTo(lease.account());
+            assertThat(next.nonce()).isEqualTo(lease.nonce());
+        }
+    }
+
+    @Test
+    void shouldRefreshInBatchesOfOneHundred()
+    {
+        try (final var pool = pool(nonceAccounts(250)))
+        {
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(250);
+            assertThat(node.batchSizes()).isEqualTo(List.of(100, 100, 50));
+            assertThat(node.params().get(1).get("encoding").asText()).isEqualTo("base64");
+            assertThat(node.params().get(1).get("commitment").asText()).isEqualTo("confirmed");
+        }
+    }
+
+    @Test
+    void shouldSetAsideUnusableAccounts()
+    {
+        final var accounts = nonceAccounts(4);
+        final var missing = randomAccount(random);
+        node.authority(accounts.get(1), OTHER_AUTHORITY);
+        node.uninitialized(accounts.get(2));
+
+        final var all = new ArrayList<>(accounts);
+        all.add(missing);
+        try (final var pool = pool(all))
+        {
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(2);
+            assertThat(pool.unusable()).isEqualTo(new HashSet<>(List.of(accounts.get(1), accounts.get(2), missing)));
+        }
+    }
+
+    @Test
+    void shouldReadmitUnusableAccountsOnceTheyBecomeUsable()
+    {
+        final var account = randomAccount(random);
+
+        try (final var pool = pool(List.of(account)))
+        {
+            pool.refresh();
+
+            assertThat(pool.unusable()).isEqualTo(Set.of(account));
+
+            node.create(account, AUTHORITY, randomAccount(random));
+            pool.refresh();
+
+            assertThat(pool.unusable()).isEmpty();
+            assertThat(pool.tryLease().account()).isEqualTo(account);
+        }
+    }
+
+    @Test
+    void shouldKeepAccountsStaleWhileRefreshFails()
+    {
+        try (final var pool = pool(nonceAccounts(5)))
+        {
+            node.failing(true);
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(0);
+            assertThat(pool.stale()).isEqualTo(5);
+
+            node.failing(false);
+            pool.refresh();
+
+            assertThat(pool.available()).isEqualTo(5);
+            assertThat(pool.stale()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void shouldRefreshInBackground() throws Exception
+    {
+        try (final var pool = NonceAccountPool.builder(SolanaClient.create(new InMemoryJsonRpcTransport(node::handle)), AUTHORITY)
+                .nonceAccounts(nonceAccounts(2))
+                .refreshInterval(10, TimeUnit.MILLISECONDS)
+                .build())
+        {
+            assertThat(pool.lease(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(pool.lease(5, TimeUnit.SECONDS)).isNotNull();
+        }
+    }
+
+    @Test
+    void shouldProvisionNonceAccounts()
+    {
+        final var nonceAccount = randomAccount(random);
+
+        final var instructions = NonceAccountPool.provisioningInstructions(PAYER, nonceAccount, AUTHORITY, 1_447_680);
+
+        assertThat(instructions).hasSize(2);
+        assertThat(instructions.get(0).accountReferences().get(1).account()).isEqualTo(nonceAccount);
+        final var createAccount = ByteBuffer.allocate(instructions.get(0).datasize()).order(ByteOrder.LITTLE_ENDIAN);
+        instructions.get(0).data().accept(createAccount);
+        assertThat(createAccount.getLong(4)).isEqualTo(1_447_680);
+        assertThat(createAccount.getLong(12)).isEqualTo(SystemProgram.NONCE_ACCOUNT_LENGTH);
+        assertThat(instructions.get(1).accountReferences().get(0).account()).isEqualTo(nonceAccount);
+        assertThrows(IllegalArgumentException.class, () -> NonceAccountPool.builder(SolanaClient.create(new InMemoryJsonRpcTransport(node::handle)), AUTHORITY).build());
+    }
+
+    private NonceAccountPool pool(final List<PublicKey> accounts)
+    {
+        return NonceAccountPool.builder(SolanaClient.create(new InMemoryJsonRpcTransport(node::handle)), AUTHORITY)
+                .nonceAccounts(accounts)
+                .refreshInterval(0, TimeUnit.SECONDS)
+                .build();
+    }
+
+    private List<PublicKey> nonceAccounts(final int count)
+    {
+        final var accounts = new ArrayList<PublicKey>();
+        for (int i = 0; i < count; i++)
+        {
+            final var account = randomAccount(random);
+            node.create(account, AUTHORITY, randomAccount(random));
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    private static byte[] bytes(final Blockhash blockhash)
+    {
+        final var buffer = ByteBuffer.allocate(32);
+        blockhash.write(buffer);
+        return buffer.array();
+    }
+
+    private final class NonceNode
+    {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final Map<String, byte[]> accounts = new ConcurrentHashMap<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<JsonNode> params = new ArrayList<>();
+        private volatile boolean failing;
+
+        void create(final PublicKey account, final PublicKey authority, final PublicKey nonce)
+        {
+            final var data = ByteBuffer.allocate(SystemProgram.NONCE_ACCOUNT_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+            data.putInt(1).putInt(1);
+            authority.write(data);
+            nonce.write(data);
+            data.putLong(5_000);
+            accounts.put(account.base58(), data.array());
+        }
+
+        void advance(final PublicKey account)
+        {
+            final var data = ByteBuffer.wrap(accounts.get(account.base58()));
+            data.position(40);
+            randomAccount(random).write(data);
+        }
+
+        void authority(final PublicKey account, final PublicKey authority)
+        {
+            final var data = ByteBuffer.wrap(accounts.get(account.base58()));
+            data.position(8);
+            authority.write(data);
+        }
+
+        void uninitialized(final PublicKey account)
+        {
+            ByteBuffer.wrap(accounts.get(account.base58())).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 0);
+        }
+
+        PublicKey nonce(final PublicKey account)
+        {
+            final byte[] nonce = new byte[32];
+            ByteBuffer.wrap(accounts.get(account.base58()), 40, 32).get(nonce);
+            return Solana.account(nonce);
+        }
+
+        void failing(final boolean failing)
+        {
+            this.failing = failing;
+        }
+
+        synchronized List<Integer> batchSizes()
+        {
+            return new ArrayList<>(batchSizes);
+        }
+
+        synchronized JsonNode params()
+        {
+            return params.get(params.size() - 1);
+        }
+
+        synchronized InMemoryJsonRpcTransport.Response handle(final byte[] request) throws java.io.IOException
+        {
+            if (failing)
+            {
+                return InMemoryJsonRpcTransport.response(503, new byte[0]);
+            }
+
+            final JsonNode json = mapper.readTree(request);
+            assertThat(json.get("method").asText()).isEqualTo("getMultipleAccounts");
+            params.add(json.get("params"));
+            batchSizes.add(json.get("params").get(0).size());
+
+            final var result = new StringBuilder("{\"context\":{\"slot\":1},\"value\":[");
+            boolean first = true;
+            for (final JsonNode address : json.get("params").get(0))
+            {
+                final byte[] data = accounts.get(address.asText());
+                result.append(first ? "" : ",");
+                first = false;
+                if (data == null)
+                {
+                    result.append("null");
+                    continue;
+                }
+                result.append("{\"data\":[\"").append(Base64.getEncoder().encodeToString(data)).append("\",\"base64\"],")
+                        .append("\"executable\":false,\"lamports\":1447680,\"owner\":\"11111111111111111111111111111111\",")
+                        .append("\"rentEpoch\":18446744073709551615,\"space\":80}");
+            }
+            result.append("]}");
+            return InMemoryJsonRpcTransport.ok(("{\"jsonrpc\":\"2.0\",\"result\":" + result + ",\"id\":1}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -7,12 +7,14 @@ import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.Throughput)
@@ -26,6 +28,35 @@ public class Base58EncodingBenchmark
 {
     private static final String BASE58_STRING = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
     private static final byte[] BYTES = BASE58_STRING.getBytes(StandardCharsets.UTF_8);
+    private static final int KEY_COUNT = 1024;
+
+    // random keys and signatures, one in eight with a leading zero byte, as real traffic mixes in a few of those
+    private final byte[][] keys = new byte[KEY_COUNT][];
+    private final String[] encodedKeys = new String[KEY_COUNT];
+    private final byte[][] signatures = new byte[KEY_COUNT][];
+    private final String[] encodedSignatures = new String[KEY_COUNT];
+    private final byte[] decoded = new byte[64];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        final Random random = new Random(45);
+        for (int i = 0; i < KEY_COUNT; i++)
+        {
+            keys[i] = new byte[32];
+            signatures[i] = new byte[64];
+            random.nextBytes(keys[i]);
+            random.nextBytes(signatures[i]);
+            if (i % 8 == 0)
+            {
+                keys[i][0] = 0;
+                signatures[i][0] = 0;
+            }
+            encodedKeys[i] = Base58.encode(keys[i]);
+            encodedSignatures[i] = Base58.encode(signatures[i]);
+        }
+    }
 
     @Benchmark
     public void base58DecodeSolana4jImplementation(final Blackhole bh)
@@ -50,4 +81,72 @@ public class Base58EncodingBenchmark
     {
         bh.consume(org.bitcoinj.core.Base58.encode(BYTES));
     }
-}
\ No newline at end of file
+
+    @Benchmark
+    public void encodePublicKeyGeneric(final Blackhole bh)
+    {
+        bh.consume(Base58.encode(keys[nextIndex()]));
+    }
+
+    @Benchmark
+    public void encodePublicKeyFixedWidth(final Blackhole bh)
+    {
+        bh.consume(FixedWidthBase58.PUBLIC_KEY.encode(keys[nextIndex()]));
+    }
+
+    @Benchmark
+    public void decodePublicKeyGeneric(final Blackhole bh)
+    {
+        bh.consume(Base58.decode(encodedKeys[nextIndex()]));
+    }
+
+    @Benchmark
+    public void decodePublicKeyFixedWidth(final Blackhole bh)
+    {
+        bh.consume(FixedWidthBase58.PUBLIC_KEY.decode(encodedKeys[nextIndex()]));
+    }
+
+    @Benchmark
+    public void decodePublicKeyFixedWidthIntoArray(final Blackhole bh)
+    {
+        FixedWidthBase58.PUBLIC_KEY.decode(encodedKeys[nextIndex()], decoded, 0);
+        bh.consume(decoded);
+    }
+
+    @Benchmark
+    public boolean validatePublicKeyFixedWidth()
+    {
+        return FixedWidthBase58.PUBLIC_KEY.isValid(encodedKeys[nextIndex()]);
+    }
+
+    @Benchmark
+    public void encodeSignatureGeneric(final Blackhole bh)
+    {
+        bh.consume(Base58.encode(signatures[nextIndex()]));
+    }
+
+    @Benchmark
+    public void encodeSignatureFixedWidth(final Blackhole bh)
+    {
+        bh.consume(FixedWidthBase58.SIGNATURE.encode(signatures[nextIndex()]));
+    }
+
+    @Benchmark
+    public void decodeSignatureGeneric(final Blackhole bh)
+    {
+        bh.consume(Base58.decode(encodedSignatures[nextIndex()]));
+    }
+
+    @Benchmark
+    public void decodeSignatureFixedWidthIntoArray(final Blackhole bh)
+    {
+        FixedWidthBase58.SIGNATURE.decode(encodedSignatures[nextIndex()], decoded, 0);
+        bh.consume(decoded);
+    }
+
+    private int nextIndex()
+    {
+        next = (next + 1) & (KEY_COUNT - 1);
+        return next;
+    }
+}
@@ -0,0 +1,82 @@
+package com.valeamoris.solana4j.encoding;
+
+import net.i2p.crypto.eddsa.EdDSAEngine;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable.ED_25519_CURVE_SPEC;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(1)
+@State(Scope.Thread)
+public class Ed25519SigningBenchmark
+{
+    // about the size of a transfer with a compute budget instruction or two
+    private static final int TRANSACTION_LENGTH = 256;
+
+    private final byte[] seed = new byte[Ed25519Signer.SEED_LENGTH];
+    private final byte[] publicKey = new byte[Ed25519.PUBLIC_KEY_SIZE];
+    private final byte[] transaction = new byte[TRANSACTION_LENGTH];
+    private final byte[] signature = new byte[Ed25519Signer.SIGNATURE_LENGTH];
+    private final ByteBuffer transactionBuffer = ByteBuffer.wrap(transaction);
+    private final ByteBuffer signatureBuffer = ByteBuffer.wrap(signature);
+    private Ed25519Signer signer;
+    private EdDSAEngine engine;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        final Random random = new Random(40);
+        random.nextBytes(seed);
+        random.nextBytes(transaction);
+
+        signer = Ed25519Signer.fromSeed(seed);
+        Ed25519.generatePublicKey(seed, 0, publicKey, 0);
+        engine = new EdDSAEngine(MessageDigest.getInstance("SHA-512"));
+        engine.initSign(new EdDSAPrivateKey(new EdDSAPrivateKeySpec(seed, ED_25519_CURVE_SPEC)));
+    }
+
+    @Benchmark
+    public void signSolana4jImplementation(final Blackhole bh)
+    {
+        signatureBuffer.clear();
+        signer.sign(transactionBuffer, signatureBuffer);
+        bh.consume(signature);
+    }
+
+    @Benchmark
+    public void signBouncyCastleImplementation(final Blackhole bh)
+    {
+        Ed25519.sign(seed, 0, publicKey, 0, transaction, 0, transaction.length, signature, 0);
+        bh.consume(signature);
+    }
+
+    @Benchmark
+    public void signEddsaImplementation(final Blackhole bh) throws Exception
+    {
+        engine.update(transaction);
+        bh.consume(engine.sign());
+    }
+}
@@ -9,11 +9,13 @@ import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import static net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable.ED_25519_CURVE_SPEC;
@@ -37,6 +39,20 @@ public class EddsaPointOnCurveBenchmark
 
     private static final byte[] POINT_ON_CURVE = KeyPairGenerator.generateKeyPair().getPublicKey();
 
+    // deriving a program address hashes to candidates that are on the curve about half the time
+    private final byte[][] candidates = new byte[256][32];
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        final Random random = new Random(42);
+        for (final byte[] candidate : candidates)
+        {
+            random.nextBytes(candidate);
+        }
+    }
+
     @Benchmark
     public void pointOnCurveSolana4jImplementation(final Blackhole bh)
     {
@@ -49,6 +65,30 @@ public class EddsaPointOnCurveBenchmark
         bh.consume(Ed25519.isOnCurve(POINT_NOT_ON_CURVE));
     }
 
+    @Benchmark
+    public void randomCandidatesSolana4jImplementation(final Blackhole bh)
+    {
+        bh.consume(Ed25519.isOnCurve(candidates[next++ & 255]));
+    }
+
+    @Benchmark
+    public void pointOnCurveBouncyCastleImplementation(final Blackhole bh)
+    {
+        bh.consume(org.bouncycastle.math.ec.rfc8032.Ed25519.validatePublicKeyPartial(POINT_ON_CURVE, 0));
+    }
+
+    @Benchmark
+    public void pointNotOnCurveBouncyCastleImplementation(final Blackhole bh)
+    {
+        bh.consume(org.bouncycastle.math.ec.rfc8032.Ed25519.validatePublicKeyPartial(POINT_NOT_ON_CURVE, 0));
+    }
+
+    @Benchmark
+    public void randomCandidatesBouncyCastleImplementation(final Blackhole bh)
+    {
+        bh.consume(org.bouncycastle.math.ec.rfc8032.Ed25519.validatePublicKeyPartial(candidates[next++ & 255], 0));
+    }
+
     @Benchmark
     public void pointOnCurveEddsaImplementation(final Blackhole bh)
     {
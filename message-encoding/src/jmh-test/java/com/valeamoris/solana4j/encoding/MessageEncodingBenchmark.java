@@ -0,0 +1,152 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building complete messages; run with {@code -prof gc} to report the bytes allocated per message
+ * ({@code gc.alloc.rate.norm}), which for the {@link ReusableMessageEncoder} should be zero.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(1)
+@State(Scope.Thread)
+public class MessageEncodingBenchmark
+{
+    private static final int ACCOUNTS_PER_INSTRUCTION = 6;
+    private static final int ACCOUNTS_PER_LOOKUP_TABLE = 64;
+
+    @Param({"1", "10", "30"})
+    private int instructionCount;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(4 * Solana.MAX_MESSAGE_SIZE);
+    private final List<TransactionInstruction> instructions = new ArrayList<>();
+    private final List<AddressLookupTable> lookupTables = new ArrayList<>();
+    private final ReusableMessageEncoder encoder = ReusableMessageEncoder.builder().build();
+    private PublicKey payer;
+    private Blockhash blockhash;
+    private TransactionTemplate template;
+    private TransactionTemplate.Field amount;
+
+    @Setup
+    public void setUp()
+    {
+        final Random random = new Random(36);
+        payer = randomAccount(random);
+        blockhash = Solana.blockhash(randomAccount(random).bytes());
+
+        final List<PublicKey> accounts = new ArrayList<>();
+        for (int i = 0; i < 2 * ACCOUNTS_PER_LOOKUP_TABLE; i++)
+        {
+            accounts.add(randomAccount(random));
+        }
+        lookupTables.add(Solana.addressLookupTable(randomAccount(random), accounts.subList(0, ACCOUNTS_PER_LOOKUP_TABLE)));
+        lookupTables.add(Solana.addressLookupTable(randomAccount(random), accounts.subList(ACCOUNTS_PER_LOOKUP_TABLE, accounts.size())));
+
+        final List<PublicKey> programs = Arrays.asList(randomAccount(random), randomAccount(random), randomAccount(random));
+        for (int i = 0; i < instructionCount; i++)
+        {
+            instructions.add(Solana.instruction(ib ->
+            {
+                ib.program(programs.get(random.nextInt(programs.size())));
+                for (int account = 0; account < ACCOUNTS_PER_INSTRUCTION; account++)
+                {
+                    ib.account(accounts.get(random.nextInt(accounts.size())), false, random.nextBoolean());
+                }
+                ib.data(8, bb -> bb.putLong(random.nextLong()));
+            }));
+        }
+
+        Solana.builder(buffer).v0().payer(payer).recent(blockhash).prebuiltInstructions(instructions).lookups(lookupTables).seal().unsigned().build();
+        template = TransactionTemplate.of(buffer);
+        amount = template.field(0, 0, 8);
+    }
+
+    @Benchmark
+    public void buildLegacyMessage(final Blackhole bh)
+    {
+        buffer.clear();
+        bh.consume(Solana.builder(buffer)
+                .legacy()
+                .payer(payer)
+                .recent(blockhash)
+                .prebuiltInstructions(instructions)
+                .seal()
+                .unsigned()
+                .build());
+    }
+
+    @Benchmark
+    public void buildV0MessageWithTwoLookupTables(final Blackhole bh)
+    {
+        buffer.clear();
+        bh.consume(Solana.builder(buffer)
+                .v0()
+                .payer(payer)
+                .recent(blockhash)
+                .prebuiltInstructions(instructions)
+                .lookups(lookupTables)
+                .seal()
+                .unsigned()
+                .build());
+    }
+
+    @Benchmark
+    public int encodeV0MessageWithTwoLookupTablesReusingEncoder()
+    {
+        encoder.reset().payer(payer).recent(blockhash);
+        for (int i = 0; i < lookupTables.size(); i++)
+        {
+            encoder.lookup(lookupTables.get(i));
+        }
+        for (int i = 0; i < instructions.size(); i++)
+        {
+            encoder.instruction(instructions.get(i));
+        }
+        buffer.clear();
+        return encoder.encode(buffer);
+    }
+
+    @Benchmark
+    public ByteBuffer patchV0MessageWithTwoLookupTablesFromTemplate()
+    {
+        buffer.clear();
+        template.copyTo(buffer);
+        template.blockhash(buffer, blockhash);
+        amount.putLong(buffer, instructionCount);
+        return buffer;
+    }
+
+    private static PublicKey randomAccount(final Random random)
+    {
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Solana.account(bytes);
+    }
+}
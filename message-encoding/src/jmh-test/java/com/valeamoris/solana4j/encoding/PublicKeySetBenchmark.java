@@ -0,0 +1,108 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.PublicKeySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares watchlist membership tests of a {@link PublicKeySet} against a {@code HashSet<PublicKey>}, for keys that are
+ * already objects and for keys read from a received transaction's buffer; half of the probed keys are in the watchlist.
+ * Run with {@code -prof gc} to see the allocation of decoding a key before looking it up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(1)
+@State(Scope.Thread)
+public class PublicKeySetBenchmark
+{
+    private static final int PROBE_COUNT = 4096;
+
+    @Param({"1000", "300000"})
+    private int watchlistSize;
+
+    private final PublicKey[] probes = new PublicKey[PROBE_COUNT];
+    private final ByteBuffer probeBuffer = ByteBuffer.allocate(PROBE_COUNT * 32);
+    private final Set<PublicKey> hashSet = new HashSet<>();
+    private PublicKeySet publicKeySet;
+    private int next;
+
+    @Setup
+    public void setUp()
+    {
+        final Random random = new Random(47);
+        publicKeySet = PublicKeySet.withExpectedSize(watchlistSize);
+        final PublicKey[] watched = new PublicKey[watchlistSize];
+        for (int i = 0; i < watchlistSize; i++)
+        {
+            watched[i] = randomKey(random);
+            hashSet.add(watched[i]);
+            publicKeySet.add(watched[i]);
+        }
+        for (int i = 0; i < PROBE_COUNT; i++)
+        {
+            probes[i] = i % 2 == 0 ? watched[random.nextInt(watchlistSize)] : randomKey(random);
+            probes[i].write(probeBuffer);
+        }
+    }
+
+    @Benchmark
+    public boolean hashSetContainsKey()
+    {
+        return hashSet.contains(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean publicKeySetContainsKey()
+    {
+        return publicKeySet.contains(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean hashSetContainsKeyReadFromBuffer()
+    {
+        final byte[] bytes = new byte[32];
+        probeBuffer.position(nextIndex() * 32);
+        probeBuffer.get(bytes);
+        return hashSet.contains(Solana.account(bytes));
+    }
+
+    @Benchmark
+    public boolean publicKeySetContainsKeyInBuffer()
+    {
+        return publicKeySet.contains(probeBuffer, nextIndex() * 32);
+    }
+
+    private int nextIndex()
+    {
+        next = (next + 1) & (PROBE_COUNT - 1);
+        return next;
+    }
+
+    private static PublicKey randomKey(final Random random)
+    {
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Solana.account(bytes);
+    }
+}
@@ -0,0 +1,133 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading every instruction's accounts and data from a signed transaction, through the message view and
+ * through a reused {@link TransactionView}; run with {@code -prof gc} to compare the bytes allocated per transaction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(1)
+@State(Scope.Thread)
+public class TransactionViewBenchmark
+{
+    private static final int ACCOUNTS_PER_INSTRUCTION = 6;
+    private static final int ACCOUNTS_PER_LOOKUP_TABLE = 64;
+
+    @Param({"1", "10"})
+    private int instructionCount;
+
+    private final ByteBuffer transaction = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+    private final TransactionView view = new TransactionView();
+
+    @Setup
+    public void setUp()
+    {
+        final Random random = new Random(48);
+        final List<PublicKey> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS_PER_LOOKUP_TABLE; i++)
+        {
+            accounts.add(randomAccount(random));
+        }
+        final AddressLookupTable lookupTable = Solana.addressLookupTable(randomAccount(random), accounts);
+        final PublicKey program = randomAccount(random);
+        final byte[] signature = new byte[64];
+        random.nextBytes(signature);
+
+        Solana.builder(transaction)
+                .v0()
+                .payer(accounts.get(0))
+                .recent(Solana.blockhash(randomAccount(random).bytes()))
+                .instructions(tb ->
+                {
+                    for (int i = 0; i < instructionCount; i++)
+                    {
+                        tb.append(ib ->
+                        {
+                            ib.program(program);
+                            for (int account = 0; account < ACCOUNTS_PER_INSTRUCTION; account++)
+                            {
+                                ib.account(accounts.get(1 + random.nextInt(accounts.size() - 1)), false, random.nextBoolean());
+                            }
+                            ib.data(8, bb -> bb.putLong(random.nextLong()));
+                        });
+                    }
+                })
+                .lookups(Collections.singletonList(lookupTable))
+                .seal()
+                .signed()
+                .by(accounts.get(0), (message, output) -> output.put(signature))
+                .build();
+    }
+
+    @Benchmark
+    public long readWithMessageView()
+    {
+        return Solana.read(transaction.duplicate()).accept(new MessageVisitor<Long>()
+        {
+            @Override
+            public Long visit(final MessageView message)
+            {
+                long sum = 0;
+                for (final MessageVisitor.V0InstructionView instruction : ((Version0MessageView) message).instructions())
+                {
+                    for (final Integer index : instruction.accountIndexes())
+                    {
+                        sum += index;
+                    }
+                    sum += instruction.data().getLong(0);
+                }
+                return sum;
+            }
+        });
+    }
+
+    @Benchmark
+    public long readWithTransactionView()
+    {
+        view.wrap(transaction);
+        long sum = 0;
+        for (int ix = 0; ix < view.instructionCount(); ix++)
+        {
+            for (int i = 0; i < view.instructionAccountCount(ix); i++)
+            {
+                sum += view.accountIndex(ix, i);
+            }
+            sum += view.buffer().getLong(view.instructionDataOffset(ix));
+        }
+        return sum;
+    }
+
+    private static PublicKey randomAccount(final Random random)
+    {
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Solana.account(bytes);
+    }
+}
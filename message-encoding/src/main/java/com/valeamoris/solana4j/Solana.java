@@ -83,11 +83,22 @@ public final class Solana
         return SolanaEncoding.read(message);
     }
 
+    /**
+     * Verifies every Ed25519 signature of a message.
+     *
+     * @param message the {@link Message} to verify, as returned by {@link #read(ByteBuffer)}
+     * @return true if every signature is valid
+     */
+    public static boolean verifySignatures(final Message message)
+    {
+        return SolanaEncoding.verifySignatures(message);
+    }
+
     /**
      * Creates a new public key from the given byte array.
      *
      * @param bytes the byte array representing the public key
-     * @return a new instance of {@link PublicKey}
+     * @return a new instance of {@link PublicKey}, or the shared instance of a well-known program
      */
     public static PublicKey account(final byte[] bytes)
     {
@@ -98,7 +109,7 @@ public final class Solana
      * Creates a new public key from the given string.
      *
      * @param accountBase58 the base58 string representing the public key
-     * @return a new instance of {@link PublicKey}
+     * @return a new instance of {@link PublicKey}, or the shared instance of a well-known program
      */
     public static PublicKey account(final String accountBase58)
     {
@@ -129,6 +140,20 @@ public final class Solana
         return SolanaEncoding.deriveProgramAddress(seeds, programId);
     }
 
+    /**
+     * Creates the program address of the given seeds, bump seed and program ID, without searching for the bump seed.
+     *
+     * @param seeds     the list of byte arrays representing the seeds
+     * @param bumpSeed  the bump seed, between 0 and 255
+     * @param programId the public key of the program ID
+     * @return a new instance of {@link ProgramDerivedAddress}
+     * @throws IllegalArgumentException if the bump seed is out of range or the address lies on the curve
+     */
+    public static ProgramDerivedAddress createProgramAddress(final List<byte[]> seeds, final int bumpSeed, final PublicKey programId)
+    {
+        return SolanaEncoding.createProgramAddress(seeds, bumpSeed, programId);
+    }
+
     /**
      * Creates a new Blockhash from the given byte array.
      *
@@ -10,8 +10,11 @@ public interface Accounts
 
     /**
      * Returns a flattened list of all public keys in the account collection.
+     * <p>
+     * The list is built once and the same unmodifiable list is returned by every call; copy it before changing it.
+     * </p>
      *
-     * @return a list of {@link PublicKey} objects representing all accounts
+     * @return an unmodifiable list of {@link PublicKey} objects representing all accounts
      */
     List<PublicKey> getFlattenedAccountList();
 
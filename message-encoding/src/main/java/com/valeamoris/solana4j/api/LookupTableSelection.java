@@ -0,0 +1,28 @@
+package com.valeamoris.solana4j.api;
+
+/**
+ * How a version 0 message chooses the address lookup tables its accounts are loaded from.
+ */
+public enum LookupTableSelection
+{
+    /**
+     * Loads every account that is not a signer from the first table holding it, in the order the tables were given.
+     * <p>
+     * The message's lookup table entries also follow the order the tables were given. They used to follow the iteration
+     * order of a hash map keyed by table address, so a message drawing on several tables may encode differently from
+     * earlier releases, though it loads the same accounts from the same tables.
+     * </p>
+     */
+    FIRST_MATCH,
+
+    /**
+     * Loads accounts from the subset of tables that gives the smallest encoded message.
+     * <p>
+     * Each table used costs its 32 byte address and two length prefixes, each account loaded from it one index byte, and
+     * each account left static its 32 byte key. A table is therefore only worth using for two or more accounts that no
+     * other chosen table holds. The best subset is searched exhaustively for up to a dozen candidate tables and
+     * approximated with a greedy weighted set cover beyond that.
+     * </p>
+     */
+    MINIMUM_SIZE
+}
@@ -54,6 +54,15 @@ public interface MessageBuilderV0
      */
     MessageBuilderV0 lookups(List<AddressLookupTable> accountLookups);
 
+    /**
+     * Sets the account lookups for the V0 message and how accounts are assigned to them.
+     *
+     * @param accountLookups a list of {@link AddressLookupTable} objects representing the account lookups
+     * @param selection      how the tables accounts are loaded from are chosen
+     * @return this {@code MessageBuilderV0} instance for method chaining
+     */
+    MessageBuilderV0 lookups(List<AddressLookupTable> accountLookups, LookupTableSelection selection);
+
     /**
      * Seals the V0 message and returns a sealed message builder.
      * <p>
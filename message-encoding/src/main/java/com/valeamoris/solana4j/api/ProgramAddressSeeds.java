@@ -0,0 +1,26 @@
+package com.valeamoris.solana4j.api;
+
+/**
+ * Interface representing the seeds of many program derived addresses, written out one address at a time.
+ * <p>
+ * Deriving addresses in bulk asks for the seeds of each address in turn, so implementations can read them from wherever
+ * they are held without creating a list of arrays per address.
+ * </p>
+ */
+@FunctionalInterface
+public interface ProgramAddressSeeds
+{
+    /**
+     * The most seed bytes an address may have, sixteen seeds of at most 32 bytes each.
+     */
+    int MAX_SEEDS_LENGTH = 16 * 32;
+
+    /**
+     * Writes the seeds of an address, concatenated, at the start of the given array.
+     *
+     * @param index the index of the address
+     * @param seeds the array to write the seeds to, {@link #MAX_SEEDS_LENGTH} bytes long
+     * @return the number of bytes written
+     */
+    int write(int index, byte[] seeds);
+}
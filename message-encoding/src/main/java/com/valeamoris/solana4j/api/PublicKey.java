@@ -33,6 +33,27 @@ public interface PublicKey
      */
     byte[] bytes();
 
+    /**
+     * Returns one of the four 64 bit words of the public key, read big-endian from its bytes.
+     * <p>
+     * Collections that hold keys inline, such as {@link PublicKeySet}, read keys a word at a time; implementations that
+     * hold their key as words can return them without going through {@link #bytes()}.
+     * </p>
+     *
+     * @param index the index of the word, from 0 to 3
+     * @return the word
+     */
+    default long word(final int index)
+    {
+        final byte[] bytes = bytes();
+        long word = 0;
+        for (int i = index * 8; i < index * 8 + 8; i++)
+        {
+            word = word << 8 | (bytes[i] & 0xff);
+        }
+        return word;
+    }
+
     /**
      * Writes the public key to the provided byte buffer.
      *
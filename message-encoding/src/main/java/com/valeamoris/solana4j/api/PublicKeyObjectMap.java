@@ -0,0 +1,188 @@
+package com.valeamoris.solana4j.api;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A map from public keys to values, with the keys held inline in primitive arrays.
+ * <p>
+ * Like {@link PublicKeySet}, each key is four {@code long}s in an open addressing table rather than an entry, a key
+ * object and its bytes, and values can be looked up straight from a 32 byte key at an offset of a {@link ByteBuffer}.
+ * Values must not be null, so that {@link #get(PublicKey)} returning null means the key is absent.
+ * </p>
+ * <p>
+ * A map is not thread safe for writes, but may be read from many threads once it is no longer written to.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+public final class PublicKeyObjectMap<V>
+{
+    private final PublicKeyTable table;
+
+    private PublicKeyObjectMap(final int expectedSize)
+    {
+        this.table = new PublicKeyTable(expectedSize, true);
+    }
+
+    /**
+     * Creates an empty map sized to hold the given number of keys before it grows.
+     *
+     * @param expectedSize the number of keys expected
+     * @param <V>          the type of the values
+     * @return a new {@link PublicKeyObjectMap}
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public static <V> PublicKeyObjectMap<V> withExpectedSize(final int expectedSize)
+    {
+        return new PublicKeyObjectMap<>(expectedSize);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key to look up
+     * @return the value, or null if the key is absent
+     */
+    public V get(final PublicKey key)
+    {
+        return valueAt(table.find(requireNonNull(key)));
+    }
+
+    /**
+     * Returns the value of the 32 byte key at the given absolute offset of a buffer, leaving the buffer's position as it
+     * is.
+     *
+     * @param buffer the buffer holding the key
+     * @param offset the offset of the key's first byte
+     * @return the value, or null if the key is absent
+     */
+    public V get(final ByteBuffer buffer, final int offset)
+    {
+        return valueAt(table.find(buffer, offset));
+    }
+
+    /**
+     * Returns whether the given key is present.
+     *
+     * @param key the key to look for
+     * @return true if the key is present
+     */
+    public boolean containsKey(final PublicKey key)
+    {
+        return table.find(requireNonNull(key)) >= 0;
+    }
+
+    /**
+     * Returns whether the 32 byte key at the given absolute offset of a buffer is present, leaving the buffer's position
+     * as it is.
+     *
+     * @param buffer the buffer holding the key
+     * @param offset the offset of the key's first byte
+     * @return true if the key is present
+     */
+    public boolean containsKey(final ByteBuffer buffer, final int offset)
+    {
+        return table.find(buffer, offset) >= 0;
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @param key   the key
+     * @param value the value, not null
+     * @return the value previously associated with the key, or null if it was absent
+     */
+    public V put(final PublicKey key, final V value)
+    {
+        return put(table.insert(requireNonNull(key)), requireNonNull(value));
+    }
+
+    /**
+     * Associates the given value with the 32 byte key at the given absolute offset of a buffer, leaving the buffer's
+     * position as it is.
+     *
+     * @param buffer the buffer holding the key
+     * @param offset the offset of the key's first byte
+     * @param value  the value, not null
+     * @return the value previously associated with the key, or null if it was absent
+     */
+    public V put(final ByteBuffer buffer, final int offset, final V value)
+    {
+        requireNonNull(value);
+        return put(table.insert(buffer, offset), value);
+    }
+
+    /**
+     * Removes the given key and its value.
+     *
+     * @param key the key to remove
+     * @return the value of the key, or null if it was absent
+     */
+    public V remove(final PublicKey key)
+    {
+        final int slot = table.find(requireNonNull(key));
+        final V value = valueAt(slot);
+        if (slot >= 0)
+        {
+            table.remove(slot);
+        }
+        return value;
+    }
+
+    /**
+     * Calls the given action with every value, in no particular order.
+     *
+     * @param action the action to call
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(final Consumer<? super V> action)
+    {
+        table.forEachValue(value -> action.accept((V) value));
+    }
+
+    /**
+     * Returns the number of keys present.
+     *
+     * @return the number of keys
+     */
+    public int size()
+    {
+        return table.size();
+    }
+
+    /**
+     * Returns whether no keys are present.
+     *
+     * @return true if the map is empty
+     */
+    public boolean isEmpty()
+    {
+        return table.size() == 0;
+    }
+
+    /**
+     * Removes every key and value, keeping the capacity.
+     */
+    public void clear()
+    {
+        table.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int slot)
+    {
+        return slot >= 0 ? (V) table.value(slot) : null;
+    }
+
+    private V put(final int slot, final V value)
+    {
+        // a newly inserted key's slot holds no value yet
+        final int index = slot < 0 ? -slot - 1 : slot;
+        final V previous = valueAt(index);
+        table.value(index, value);
+        return previous;
+    }
+}
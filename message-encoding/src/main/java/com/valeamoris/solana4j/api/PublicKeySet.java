@@ -0,0 +1,157 @@
+package com.valeamoris.solana4j.api;
+
+import java.nio.ByteBuffer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A set of public keys held inline in primitive arrays, for watchlists and account tables of many keys.
+ * <p>
+ * A {@code HashSet<PublicKey>} costs an entry, a key object and its bytes per key; this set holds each key as four
+ * {@code long}s and an {@code int} hash in an open addressing table, 36 bytes a slot and no objects per key. Keys can be
+ * added, found and removed straight from a 32 byte key at an offset of a {@link ByteBuffer}, such as an account key in a
+ * received transaction, without creating a {@link PublicKey}.
+ * </p>
+ * <p>
+ * A set is not thread safe for writes, but may be read from many threads once it is no longer written to.
+ * </p>
+ */
+public final class PublicKeySet
+{
+    private final PublicKeyTable table;
+
+    private PublicKeySet(final int expectedSize)
+    {
+        this.table = new PublicKeyTable(expectedSize, false);
+    }
+
+    /**
+     * Creates an empty set sized to hold the given number of keys before it grows.
+     *
+     * @param expectedSize the number of keys expected
+     * @return a new {@link PublicKeySet}
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public static PublicKeySet withExpectedSize(final int expectedSize)
+    {
+        return new PublicKeySet(expectedSize);
+    }
+
+    /**
+     * Adds the given key.
+     *
+     * @param key the key to add
+     * @return true if the key was not already present
+     */
+    public boolean add(final PublicKey key)
+    {
+        return table.insert(requireNonNull(key)) < 0;
+    }
+
+    /**
+     * Adds the 32 byte key at the given absolute offset of a buffer, leaving the buffer's position as it is.
+     *
+     * @param buffer the buffer holding the key
+     * @param offset the offset of the key's first byte
+     * @return true if the key was not already present
+     */
+    public boolean add(final ByteBuffer buffer, final int offset)
+    {
+        return table.insert(buffer, offset) < 0;
+    }
+
+    /**
+     * Returns whether the given key is present.
+     *
+     * @param key the key to look for
+     * @return true if the key is present
+     */
+    public boolean contains(final PublicKey key)
+    {
+        return table.find(requireNonNull(key)) >= 0;
+    }
+
+    /**
+     * Returns whether the 32 byte key at the given absolute offset of a buffer is present, leaving the buffer's position
+     * as it is.
+     *
+     * @param buffer the buffer holding the key
+     * @param offset the offset of the key's first byte
+     * @return true if the key is present
+     */
+    public boolean contains(final ByteBuffer buffer, final int offset)
+    {
+        return table.find(buffer, offset) >= 0;
+    }
+
+    /**
+     * Removes the given key.
+     *
+     * @param key the key to remove
+     * @return true if the key was present
+     */
+    public boolean remove(final PublicKey key)
+    {
+        return remove(table.find(requireNonNull(key)));
+    }
+
+    /**
+     * Removes the 32 byte key at the given absolute offset of a buffer, leaving the buffer's position as it is.
+     *
+     * @param buffer the buffer holding the key
+     * @param offset the offset of the key's first byte
+     * @return true if the key was present
+     */
+    public boolean remove(final ByteBuffer buffer, final int offset)
+    {
+        return remove(table.find(buffer, offset));
+    }
+
+    /**
+     * Writes every key at the buffer's position, advancing it by 32 bytes a key, in no particular order.
+     *
+     * @param buffer the buffer to write the keys to
+     * @throws java.nio.BufferOverflowException if the buffer has no room for every key
+     */
+    public void writeKeys(final ByteBuffer buffer)
+    {
+        table.writeKeys(buffer);
+    }
+
+    /**
+     * Returns the number of keys present.
+     *
+     * @return the number of keys
+     */
+    public int size()
+    {
+        return table.size();
+    }
+
+    /**
+     * Returns whether no keys are present.
+     *
+     * @return true if the set is empty
+     */
+    public boolean isEmpty()
+    {
+        return table.size() == 0;
+    }
+
+    /**
+     * Removes every key, keeping the capacity.
+     */
+    public void clear()
+    {
+        table.clear();
+    }
+
+    private boolean remove(final int slot)
+    {
+        if (slot >= 0)
+        {
+            table.remove(slot);
+        }
+        return slot >= 0;
+    }
+}
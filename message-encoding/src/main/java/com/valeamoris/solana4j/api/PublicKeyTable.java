@@ -0,0 +1,275 @@
+package com.valeamoris.solana4j.api;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The open addressing table behind {@link PublicKeySet} and {@link PublicKeyObjectMap}.
+ * <p>
+ * Each key is held inline as four big-endian {@code long} words, next to a tag holding its hash with the top bit set, so
+ * that an empty slot is a zero tag and most mismatches are rejected on the tag alone. Collisions probe linearly, and
+ * removal shifts the following entries back rather than leaving tombstones.
+ * </p>
+ */
+final class PublicKeyTable
+{
+    private static final int WORDS_PER_KEY = 4;
+    private static final int OCCUPIED = 0x80000000;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 8;
+
+    private final boolean hasValues;
+    private int[] tags;
+    private long[] words;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    PublicKeyTable(final int expectedSize, final boolean hasValues)
+    {
+        if (expectedSize < 0)
+        {
+            throw new IllegalArgumentException("expected size must not be negative but was " + expectedSize);
+        }
+        this.hasValues = hasValues;
+        allocate(capacityFor(expectedSize));
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    void clear()
+    {
+        Arrays.fill(tags, 0);
+        if (hasValues)
+        {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    Object value(final int slot)
+    {
+        return values[slot];
+    }
+
+    void value(final int slot, final Object value)
+    {
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the slot of the key, or -1 if it is absent.
+     */
+    int find(final PublicKey key)
+    {
+        return find(key.word(0), key.word(1), key.word(2), key.word(3));
+    }
+
+    /**
+     * Returns the slot of the 32 byte key at the given absolute offset, or -1 if it is absent.
+     */
+    int find(final ByteBuffer buffer, final int offset)
+    {
+        final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        return find(word(buffer, offset, bigEndian), word(buffer, offset + 8, bigEndian), word(buffer, offset + 16, bigEndian), word(buffer, offset + 24, bigEndian));
+    }
+
+    /**
+     * Returns the slot of the key, inserting it if it is absent; the slot is negated, less one, if it was inserted.
+     */
+    int insert(final PublicKey key)
+    {
+        return insert(key.word(0), key.word(1), key.word(2), key.word(3));
+    }
+
+    int insert(final ByteBuffer buffer, final int offset)
+    {
+        final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        return insert(word(buffer, offset, bigEndian), word(buffer, offset + 8, bigEndian), word(buffer, offset + 16, bigEndian), word(buffer, offset + 24, bigEndian));
+    }
+
+    private int find(final long word0, final long word1, final long word2, final long word3)
+    {
+        final int tag = tag(word0, word1, word2, word3);
+        int slot = tag & mask;
+        while (tags[slot] != 0)
+        {
+            if (tags[slot] == tag && matches(slot, word0, word1, word2, word3))
+            {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(final long word0, final long word1, final long word2, final long word3)
+    {
+        int slot = find(word0, word1, word2, word3);
+        if (slot < 0)
+        {
+            if (size >= resizeAt)
+            {
+                grow();
+            }
+            final int tag = tag(word0, word1, word2, word3);
+            slot = tag & mask;
+            while (tags[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            tags[slot] = tag;
+            final int base = slot * WORDS_PER_KEY;
+            words[base] = word0;
+            words[base + 1] = word1;
+            words[base + 2] = word2;
+            words[base + 3] = word3;
+            size++;
+            slot = -slot - 1;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the entry in the given slot, shifting back any entries that probed past it.
+     */
+    void remove(final int slot)
+    {
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (tags[next] != 0)
+        {
+            final int home = tags[next] & mask;
+            // the entry may fill the hole if its home slot is not cyclically between the hole and itself
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                move(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        tags[hole] = 0;
+        if (hasValues)
+        {
+            values[hole] = null;
+        }
+        size--;
+    }
+
+    /**
+     * Writes every key at the buffer's position, advancing it.
+     */
+    void writeKeys(final ByteBuffer buffer)
+    {
+        if (buffer.remaining() < size * PublicKey.PUBLIC_KEY_LENGTH)
+        {
+            throw new BufferOverflowException();
+        }
+        final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        for (int slot = 0; slot < tags.length; slot++)
+        {
+            if (tags[slot] != 0)
+            {
+                for (int i = slot * WORDS_PER_KEY; i < (slot + 1) * WORDS_PER_KEY; i++)
+                {
+                    buffer.putLong(bigEndian ? words[i] : Long.reverseBytes(words[i]));
+                }
+            }
+        }
+    }
+
+    void forEachValue(final Consumer<Object> action)
+    {
+        for (int slot = 0; slot < tags.length; slot++)
+        {
+            if (tags[slot] != 0)
+            {
+                action.accept(values[slot]);
+            }
+        }
+    }
+
+    private void move(final int from, final int to)
+    {
+        tags[to] = tags[from];
+        System.arraycopy(words, from * WORDS_PER_KEY, words, to * WORDS_PER_KEY, WORDS_PER_KEY);
+        if (hasValues)
+        {
+            values[to] = values[from];
+        }
+    }
+
+    private boolean matches(final int slot, final long word0, final long word1, final long word2, final long word3)
+    {
+        final int base = slot * WORDS_PER_KEY;
+        return words[base] == word0 && words[base + 1] == word1 && words[base + 2] == word2 && words[base + 3] == word3;
+    }
+
+    private static int tag(final long word0, final long word1, final long word2, final long word3)
+    {
+        long h = word0;
+        h = h * MULTIPLIER + word1;
+        h = h * MULTIPLIER + word2;
+        h = h * MULTIPLIER + word3;
+        h *= MULTIPLIER;
+        return (int) (h >>> 32) | OCCUPIED;
+    }
+
+    private static long word(final ByteBuffer buffer, final int index, final boolean bigEndian)
+    {
+        final long word = buffer.getLong(index);
+        return bigEndian ? word : Long.reverseBytes(word);
+    }
+
+    private void grow()
+    {
+        final int[] oldTags = tags;
+        final long[] oldWords = words;
+        final Object[] oldValues = values;
+        allocate(oldTags.length * 2);
+        for (int slot = 0; slot < oldTags.length; slot++)
+        {
+            if (oldTags[slot] != 0)
+            {
+                int target = oldTags[slot] & mask;
+                while (tags[target] != 0)
+                {
+                    target = (target + 1) & mask;
+                }
+                tags[target] = oldTags[slot];
+                System.arraycopy(oldWords, slot * WORDS_PER_KEY, words, target * WORDS_PER_KEY, WORDS_PER_KEY);
+                if (hasValues)
+                {
+                    values[target] = oldValues[slot];
+                }
+            }
+        }
+    }
+
+    private void allocate(final int capacity)
+    {
+        tags = new int[capacity];
+        words = new long[capacity * WORDS_PER_KEY];
+        values = hasValues ? new Object[capacity] : null;
+        mask = capacity - 1;
+        // at most three quarters full, keeping linear probes short
+        resizeAt = capacity - capacity / 4;
+    }
+
+    private static int capacityFor(final int expectedSize)
+    {
+        int capacity = MIN_CAPACITY;
+        while (capacity - capacity / 4 < expectedSize)
+        {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
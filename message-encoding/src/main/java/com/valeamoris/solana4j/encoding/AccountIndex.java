@@ -0,0 +1,69 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.References;
+
+import java.util.List;
+
+/**
+ * Resolves accounts to their position in a message's flattened account list in constant time.
+ * <p>
+ * Built once per message as an open addressing table of parallel key and index arrays, so that writing each program
+ * and account reference is a hash probe rather than a scan of the account list.
+ * </p>
+ */
+final class AccountIndex implements References
+{
+    private final PublicKey[] keys;
+    private final int[] indexes;
+    private final int mask;
+
+    AccountIndex(final List<PublicKey> accounts)
+    {
+        int capacity = 4;
+        while (capacity < accounts.size() * 2)
+        {
+            capacity <<= 1;
+        }
+        this.keys = new PublicKey[capacity];
+        this.indexes = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < accounts.size(); i++)
+        {
+            final PublicKey account = accounts.get(i);
+            int slot = slot(account);
+            while (keys[slot] != null && !keys[slot].equals(account))
+            {
+                slot = (slot + 1) & mask;
+            }
+            // keep the first position, matching List.indexOf
+            if (keys[slot] == null)
+            {
+                keys[slot] = account;
+                indexes[slot] = i;
+            }
+        }
+    }
+
+    @Override
+    public int indexOfAccount(final PublicKey account)
+    {
+        int slot = slot(account);
+        while (keys[slot] != null)
+        {
+            if (keys[slot].equals(account))
+            {
+                return indexes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(final PublicKey account)
+    {
+        final int hash = account.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
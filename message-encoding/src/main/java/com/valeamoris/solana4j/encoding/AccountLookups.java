@@ -2,25 +2,36 @@ package com.valeamoris.solana4j.encoding;
 
 import com.valeamoris.solana4j.api.AccountLookupEntry;
 import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.LookupTableSelection;
 import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.PublicKeySet;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static com.valeamoris.solana4j.api.TransactionInstruction.AccountReference;
 
 final class AccountLookups
 {
+    // encoded bytes: a table costs its address and two length prefixes, a loaded account its index, a static account its key
+    private static final int TABLE_COST = PublicKey.PUBLIC_KEY_LENGTH + 2;
+    private static final int LOADED_ACCOUNT_COST = 1;
+    private static final int STATIC_ACCOUNT_COST = PublicKey.PUBLIC_KEY_LENGTH;
+    private static final int LOADED_ACCOUNT_SAVING = STATIC_ACCOUNT_COST - LOADED_ACCOUNT_COST;
+
+    // beyond this many candidate tables the subset search gives way to a greedy set cover
+    private static final int EXACT_SELECTION_MAX_TABLES = 12;
+
     private final List<AccountLookupEntry> accountLookupEntries;
-    private final Set<PublicKey> accountsInLookupTables;
+    private final PublicKeySet accountsInLookupTables;
 
     AccountLookups(
             final List<AccountLookupEntry> accountLookupEntries,
-            final Set<PublicKey> accountsInLookupTables)
+            final PublicKeySet accountsInLookupTables)
     {
         this.accountLookupEntries = accountLookupEntries;
         this.accountsInLookupTables = accountsInLookupTables;
@@ -29,54 +40,225 @@ final class AccountLookups
     public static AccountLookups create(
             final List<AccountReference> accountReferences,
             final List<AddressLookupTable> addressLookupTables)
+    {
+        return create(accountReferences, addressLookupTables, LookupTableSelection.FIRST_MATCH);
+    }
+
+    public static AccountLookups create(
+            final List<AccountReference> accountReferences,
+            final List<AddressLookupTable> addressLookupTables,
+            final LookupTableSelection selection)
+    {
+        final List<SolanaAddressLookupTable.AddressIndex> indexes = new ArrayList<>(addressLookupTables.size());
+        for (final AddressLookupTable addressLookupTable : addressLookupTables)
+        {
+            indexes.add(SolanaAddressLookupTable.indexOf(addressLookupTable));
+        }
+
+        if (selection == LookupTableSelection.MINIMUM_SIZE)
+        {
+            return minimumSize(accountReferences, addressLookupTables, indexes);
+        }
+        return firstMatch(accountReferences, addressLookupTables, indexes);
+    }
+
+    private static AccountLookups firstMatch(
+            final List<AccountReference> accountReferences,
+            final List<AddressLookupTable> addressLookupTables,
+            final List<SolanaAddressLookupTable.AddressIndex> indexes)
     {
         final Map<PublicKey, AccountLookupEntry> addressLookupTableEntrys = new HashMap<>();
-        final Set<PublicKey> addressesFoundInLookupTables = new HashSet<>();
+        final PublicKeySet addressesFoundInLookupTables = PublicKeySet.withExpectedSize(accountReferences.size());
 
         for (final AccountReference accountReference : accountReferences)
         {
-            for (final AddressLookupTable addressLookupTable : addressLookupTables)
+            if (accountReference.isSigner() || addressesFoundInLookupTables.contains(accountReference.account()))
             {
-                if (addressesFoundInLookupTables.contains(accountReference.account()))
+                continue;
+            }
+
+            for (int table = 0; table < addressLookupTables.size(); table++)
+            {
+                final int index = indexes.get(table).indexOf(accountReference.account());
+                if (index >= 0)
                 {
+                    addressesFoundInLookupTables.add(accountReference.account());
+                    addEntry(
+                            addressLookupTableEntrys.computeIfAbsent(addressLookupTables.get(table).getLookupTableAddress(), SolanaAccountLookupEntry::new),
+                            accountReference,
+                            index);
                     break;
                 }
+            }
+        }
+
+        // entries follow the order the tables were given, not the order of the map, which hangs on the keys' hashes
+        final List<AccountLookupEntry> entries = new ArrayList<>(addressLookupTableEntrys.size());
+        for (final AddressLookupTable addressLookupTable : addressLookupTables)
+        {
+            final AccountLookupEntry entry = addressLookupTableEntrys.remove(addressLookupTable.getLookupTableAddress());
+            if (entry != null)
+            {
+                entries.add(entry);
+            }
+        }
+        return new AccountLookups(entries, addressesFoundInLookupTables);
+    }
+
+    private static AccountLookups minimumSize(
+            final List<AccountReference> accountReferences,
+            final List<AddressLookupTable> addressLookupTables,
+            final List<SolanaAddressLookupTable.AddressIndex> indexes)
+    {
+        // accounts that could be loaded at all, and for each table the set of those it holds
+        final List<AccountReference> candidates = new ArrayList<>();
+        final PublicKeySet seen = PublicKeySet.withExpectedSize(accountReferences.size());
+        final BitSet[] holdings = new BitSet[addressLookupTables.size()];
+        for (int table = 0; table < holdings.length; table++)
+        {
+            holdings[table] = new BitSet();
+        }
+
+        for (final AccountReference accountReference : accountReferences)
+        {
+            if (accountReference.isSigner() || !seen.add(accountReference.account()))
+            {
+                continue;
+            }
+
+            boolean held = false;
+            for (int table = 0; table < holdings.length; table++)
+            {
+                if (indexes.get(table).indexOf(accountReference.account()) >= 0)
+                {
+                    holdings[table].set(candidates.size());
+                    held = true;
+                }
+            }
+            if (held)
+            {
+                candidates.add(accountReference);
+            }
+        }
+
+        final List<Integer> usefulTables = new ArrayList<>();
+        for (int table = 0; table < holdings.length; table++)
+        {
+            if (!holdings[table].isEmpty())
+            {
+                usefulTables.add(table);
+            }
+        }
 
-                final List<PublicKey> addresses = addressLookupTable.getAddresses();
-                for (int i = 0; i < addresses.size(); i++)
+        final BitSet chosen = usefulTables.size() <= EXACT_SELECTION_MAX_TABLES
+                ? exactSelection(usefulTables, holdings)
+                : greedySelection(usefulTables, holdings);
+
+        // each account is loaded from the first chosen table holding it; entries follow the order the tables were given
+        final Map<PublicKey, AccountLookupEntry> addressLookupTableEntrys = new LinkedHashMap<>();
+        final PublicKeySet addressesFoundInLookupTables = PublicKeySet.withExpectedSize(accountReferences.size());
+        for (int table = chosen.nextSetBit(0); table >= 0; table = chosen.nextSetBit(table + 1))
+        {
+            final PublicKey lookupTableAddress = addressLookupTables.get(table).getLookupTableAddress();
+            for (int candidate = holdings[table].nextSetBit(0); candidate >= 0; candidate = holdings[table].nextSetBit(candidate + 1))
+            {
+                final AccountReference accountReference = candidates.get(candidate);
+                if (addressesFoundInLookupTables.add(accountReference.account()))
                 {
-                    final PublicKey addressInLookupTable = addresses.get(i);
-                    if (addressInLookupTable.equals(accountReference.account()) && !accountReference.isSigner())
-                    {
-
-                        addressesFoundInLookupTables.add(addressInLookupTable);
-
-                        final AccountLookupEntry accountLookupTableIndex = addressLookupTableEntrys.computeIfAbsent(
-                                addressLookupTable.getLookupTableAddress(),
-                                SolanaAccountLookupEntry::new);
-
-                        if (accountReference.isWriter())
-                        {
-                            accountLookupTableIndex.addReadWriteEntry(accountReference.account(), i);
-                        }
-                        else
-                        {
-                            accountLookupTableIndex.addReadOnlyEntry(accountReference.account(), i);
-                        }
-                        break;
-                    }
+                    addEntry(
+                            addressLookupTableEntrys.computeIfAbsent(lookupTableAddress, SolanaAccountLookupEntry::new),
+                            accountReference,
+                            indexes.get(table).indexOf(accountReference.account()));
                 }
             }
         }
         return new AccountLookups(new ArrayList<>(addressLookupTableEntrys.values()), addressesFoundInLookupTables);
     }
 
+    private static BitSet exactSelection(final List<Integer> usefulTables, final BitSet[] holdings)
+    {
+        final int subsets = 1 << usefulTables.size();
+        final BitSet[] covered = new BitSet[subsets];
+        covered[0] = new BitSet();
+
+        int bestSubset = 0;
+        int bestCost = 0;
+        for (int subset = 1; subset < subsets; subset++)
+        {
+            final int lowest = Integer.numberOfTrailingZeros(subset);
+            covered[subset] = (BitSet) covered[subset & (subset - 1)].clone();
+            covered[subset].or(holdings[usefulTables.get(lowest)]);
+
+            final int cost = TABLE_COST * Integer.bitCount(subset) - LOADED_ACCOUNT_SAVING * covered[subset].cardinality();
+            if (cost < bestCost || (cost == bestCost && Integer.bitCount(subset) < Integer.bitCount(bestSubset)))
+            {
+                bestSubset = subset;
+                bestCost = cost;
+            }
+        }
+
+        final BitSet chosen = new BitSet();
+        for (int i = 0; i < usefulTables.size(); i++)
+        {
+            if ((bestSubset & (1 << i)) != 0)
+            {
+                chosen.set(usefulTables.get(i));
+            }
+        }
+        return chosen;
+    }
+
+    private static BitSet greedySelection(final List<Integer> usefulTables, final BitSet[] holdings)
+    {
+        final BitSet chosen = new BitSet();
+        final BitSet covered = new BitSet();
+        while (true)
+        {
+            int bestTable = -1;
+            int bestGain = 0;
+            for (final int table : usefulTables)
+            {
+                if (chosen.get(table))
+                {
+                    continue;
+                }
+                final BitSet uncovered = (BitSet) holdings[table].clone();
+                uncovered.andNot(covered);
+                final int gain = LOADED_ACCOUNT_SAVING * uncovered.cardinality() - TABLE_COST;
+                if (gain > bestGain)
+                {
+                    bestTable = table;
+                    bestGain = gain;
+                }
+            }
+
+            if (bestTable < 0)
+            {
+                return chosen;
+            }
+            chosen.set(bestTable);
+            covered.or(holdings[bestTable]);
+        }
+    }
+
+    private static void addEntry(final AccountLookupEntry accountLookupEntry, final AccountReference accountReference, final int index)
+    {
+        if (accountReference.isWriter())
+        {
+            accountLookupEntry.addReadWriteEntry(accountReference.account(), index);
+        }
+        else
+        {
+            accountLookupEntry.addReadOnlyEntry(accountReference.account(), index);
+        }
+    }
+
     public List<AccountLookupEntry> getAccountLookupEntrys()
     {
         return accountLookupEntries;
     }
 
-    public Set<PublicKey> getAccountsInLookupTables()
+    public PublicKeySet getAccountsInLookupTables()
     {
         return accountsInLookupTables;
     }
@@ -0,0 +1,248 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.ByteBufferSigner;
+import com.valeamoris.solana4j.api.Message;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Signs many encoded messages at once, spreading the work across an executor.
+ * <p>
+ * Each message is read only as far as its header and its signing accounts, which is enough to find the signature slot of
+ * every signer, and is then signed in place exactly as {@link com.valeamoris.solana4j.api.SignedMessageBuilder} would.
+ * Messages are split into contiguous chunks, one task per chunk, and the signed messages are returned in the order they
+ * were given whatever order the chunks complete in.
+ * </p>
+ * <p>
+ * Signers are commonly not thread safe, so each signer is registered as a factory and every thread signing for the batch
+ * signer creates its own instance the first time it needs one. A batch signer is thread safe; the messages of concurrent
+ * calls must not overlap.
+ * </p>
+ */
+public final class BatchSigner
+{
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final byte[][] accounts;
+    private final List<Supplier<? extends ByteBufferSigner>> signerFactories;
+    private final Executor executor;
+    private final int parallelism;
+    private final ThreadLocal<ByteBufferSigner[]> signers;
+
+    private BatchSigner(final Builder builder)
+    {
+        this.accounts = builder.accounts.toArray(new byte[0][]);
+        this.signerFactories = new ArrayList<>(builder.signerFactories);
+        this.executor = builder.executor;
+        this.parallelism = builder.parallelism;
+        this.signers = ThreadLocal.withInitial(() -> new ByteBufferSigner[accounts.length]);
+    }
+
+    /**
+     * Creates a builder for a {@link BatchSigner}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Signs every message with the registered signers, leaving the slots of any other signing account untouched.
+     * <p>
+     * Each message lies between its buffer's position and limit, which are left as they are. The call returns once every
+     * message is signed.
+     * </p>
+     *
+     * @param messages the encoded messages
+     * @return the signed messages, in the order they were given
+     * @throws IllegalStateException if a message is malformed
+     */
+    public List<Message> sign(final List<ByteBuffer> messages)
+    {
+        final Message[] signed = new Message[messages.size()];
+        final int chunks = Math.min(messages.size(), parallelism * CHUNKS_PER_THREAD);
+        if (chunks <= 1)
+        {
+            signRange(messages, signed, 0, messages.size());
+            return Arrays.asList(signed);
+        }
+
+        final CompletableFuture<?>[] tasks = new CompletableFuture<?>[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++)
+        {
+            final int from = (int) ((long) messages.size() * chunk / chunks);
+            final int to = (int) ((long) messages.size() * (chunk + 1) / chunks);
+            tasks[chunk] = CompletableFuture.runAsync(() -> signRange(messages, signed, from, to), executor);
+        }
+        try
+        {
+            CompletableFuture.allOf(tasks).join();
+        }
+        catch (final CompletionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return Arrays.asList(signed);
+    }
+
+    private void signRange(final List<ByteBuffer> messages, final Message[] signed, final int from, final int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            final ByteBuffer message = messages.get(i);
+            signOne(message);
+            signed[i] = new SolanaMessage(message);
+        }
+    }
+
+    private void signOne(final ByteBuffer buffer)
+    {
+        final int accountsOffset = TransactionHeaders.signerAccountsOffset(buffer);
+        final int signaturesOffset = TransactionHeaders.signaturesOffset(buffer);
+        final int signatureCount = TransactionHeaders.signatureCount(buffer);
+        final int messageOffset = signaturesOffset + signatureCount * TransactionHeaders.SIGNATURE_LENGTH;
+
+        for (int slot = 0; slot < signatureCount; slot++)
+        {
+            final int signer = signerOf(buffer, accountsOffset + slot * PublicKey.PUBLIC_KEY_LENGTH);
+            if (signer >= 0)
+            {
+                final int signatureOffset = signaturesOffset + slot * TransactionHeaders.SIGNATURE_LENGTH;
+                final ByteBuffer signature = buffer.duplicate();
+                signature.limit(signatureOffset + TransactionHeaders.SIGNATURE_LENGTH);
+                signature.position(signatureOffset);
+
+                final ByteBuffer transaction = buffer.duplicate();
+                transaction.position(messageOffset);
+
+                signer(signer).sign(transaction.slice(), signature.slice());
+            }
+        }
+    }
+
+    private int signerOf(final ByteBuffer buffer, final int keyOffset)
+    {
+        for (int signer = 0; signer < accounts.length; signer++)
+        {
+            final byte[] account = accounts[signer];
+            int i = 0;
+            while (i < PublicKey.PUBLIC_KEY_LENGTH && buffer.get(keyOffset + i) == account[i])
+            {
+                i++;
+            }
+            if (i == PublicKey.PUBLIC_KEY_LENGTH)
+            {
+                return signer;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBufferSigner signer(final int index)
+    {
+        final ByteBufferSigner[] threadSigners = signers.get();
+        ByteBufferSigner signer = threadSigners[index];
+        if (signer == null)
+        {
+            signer = requireNonNull(signerFactories.get(index).get(), "signer factory returned null");
+            threadSigners[index] = signer;
+        }
+        return signer;
+    }
+
+    /**
+     * Builder for {@link BatchSigner}.
+     */
+    public static final class Builder
+    {
+        private final List<byte[]> accounts = new ArrayList<>();
+        private final List<Supplier<? extends ByteBufferSigner>> signerFactories = new ArrayList<>();
+        private Executor executor = ForkJoinPool.commonPool();
+        private int parallelism = ForkJoinPool.commonPool().getParallelism();
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Registers the signer for an account; a later registration for the same account replaces it.
+         *
+         * @param account       the {@link PublicKey} of the signing account
+         * @param signerFactory creates a {@link ByteBufferSigner} for the account, called at most once per thread
+         * @return this builder
+         */
+        public Builder by(final PublicKey account, final Supplier<? extends ByteBufferSigner> signerFactory)
+        {
+            final byte[] bytes = account.bytes();
+            requireNonNull(signerFactory);
+            for (int i = 0; i < accounts.size(); i++)
+            {
+                if (Arrays.equals(accounts.get(i), bytes))
+                {
+                    signerFactories.set(i, signerFactory);
+                    return this;
+                }
+            }
+            accounts.add(bytes);
+            signerFactories.add(signerFactory);
+            return this;
+        }
+
+        /**
+         * Sets the executor that signs chunks of messages, by default the common {@link ForkJoinPool}.
+         *
+         * @param executor    the executor
+         * @param parallelism the number of threads the executor signs with, used to size the chunks
+         * @return this builder
+         * @throws IllegalArgumentException if the parallelism is not positive
+         */
+        public Builder executor(final Executor executor, final int parallelism)
+        {
+            if (parallelism <= 0)
+            {
+                throw new IllegalArgumentException("parallelism must be positive but was " + parallelism);
+            }
+            this.executor = requireNonNull(executor);
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Signs chunks of messages on a {@link ForkJoinPool}.
+         *
+         * @param pool the pool
+         * @return this builder
+         */
+        public Builder executor(final ForkJoinPool pool)
+        {
+            return executor(pool, pool.getParallelism());
+        }
+
+        /**
+         * Builds the {@link BatchSigner}.
+         *
+         * @return a new {@link BatchSigner}
+         */
+        public BatchSigner build()
+        {
+            return new BatchSigner(this);
+        }
+    }
+}
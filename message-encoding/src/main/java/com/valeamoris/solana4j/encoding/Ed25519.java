@@ -8,16 +8,19 @@ import java.nio.ByteBuffer;
  * <p>
  * This class provides a method to check whether a given public key, represented as a 32-byte array,
  * lies on the Ed25519 elliptic curve. It handles key validation by leveraging the curve equation
- * and modular arithmetic.
+ * and modular arithmetic, in the limbs of {@link Ed25519Field}.
  * </p>
  * The Ed25519 curve equation is:
  * dx^2y^2 + x^2 = y^2 - 1 (mod P), where d is a curve constant.
  */
 final class Ed25519
 {
-    private static final BigInteger P = new BigInteger("7fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffed", 16);
     private static final BigInteger D = new BigInteger("52036cee2b6ffe738cc740797779e89800700a4d4141d8ab75eb4dca135978a3", 16);
-    private static final BigInteger PM5D8 = P.subtract(BigInteger.valueOf(5)).divide(BigInteger.valueOf(8));
+    private static final long[] D_FIELD = Ed25519Field.fromInteger(D);
+    private static final long[] ONE = oneElement();
+
+    // deriving a program address may check up to 255 candidates, so each thread keeps its field elements
+    private static final ThreadLocal<long[][]> SCRATCH = ThreadLocal.withInitial(() -> new long[9][Ed25519Field.LIMBS]);
 
     private Ed25519()
     {
@@ -25,6 +28,9 @@ final class Ed25519
 
     /**
      * Checks if the public key represented by a 32-byte array is on the Ed25519 curve.
+     * <p>
+     * The arithmetic is done on fixed width limbs, without allocating, in the same time whatever the key.
+     * </p>
      *
      * @param publicKeyBytes The 32-byte array representing the public key.
      * @return true if the point is on the curve, false otherwise.
@@ -36,55 +42,57 @@ final class Ed25519
         {
             throw new IllegalArgumentException("Public key must be 32 bytes long");
         }
+        final long[][] scratch = SCRATCH.get();
+        final long[] y = scratch[0];
+        final long[] u = scratch[1];
+        final long[] v = scratch[2];
+        final long[] v3 = scratch[3];
+        final long[] x = scratch[4];
+        final long[] t0 = scratch[5];
+        final long[] t1 = scratch[6];
+        final long[] t2 = scratch[7];
+        final long[] check = scratch[8];
 
         // Elliptic curve equation: dx^2y^2 + x^2 = y^2 - 1 (mod P)
         // Let x^2 = u/v where u = y^2 - 1 and v = dy^2 + 1 (mod P)
-        byte[] yBytes = publicKeyBytes.clone();
-        yBytes[31] &= 0x7F; // Mask the most significant bit to ensure y is positive
-
-        // publicKey is in little endian encoding, so we must reverse the byte array before we "math"
-        final BigInteger y = new BigInteger(1, reverse(yBytes));
-        final BigInteger y2 = y.multiply(y).mod(P);
-
-        final BigInteger u = y2.subtract(BigInteger.ONE).mod(P);
-        final BigInteger v = D.multiply(y2).add(BigInteger.ONE).mod(P);
-
-        final BigInteger x1 = calculateCandidateRoot(u, v);
-
-        return isCandidateRootValid(x1, v, u);
-    }
-
-    private static BigInteger calculateCandidateRoot(final BigInteger u, final BigInteger v)
-    {
-        final BigInteger v3 = v.multiply(v).multiply(v).mod(P);
-        final BigInteger v7 = v3.multiply(v3).multiply(v).mod(P);
-
-        final BigInteger uv3 = u.multiply(v3).mod(P);
-
-        final BigInteger uv7 = u.multiply(v7).mod(P);
-        final BigInteger uv7Pm5d8 = uv7.modPow(PM5D8, P);
+        // the most significant bit holds the sign of x, which reading the element ignores
+        Ed25519Field.fromBytes(y, publicKeyBytes, 0);
+        Ed25519Field.square(u, y);
+        Ed25519Field.mul(v, u, D_FIELD);
+        Ed25519Field.sub(u, u, ONE);
+        Ed25519Field.add(v, v, ONE);
 
         // after some transformations, given the properties of the ed25519 curve we can say
-        // x^2 = (u/v)
         // x1 = (u/v)^(P+3/8) where x1 is the candidate root
         // x1 = uv^3(uv^7)^(P-5/8)
-        return uv3.multiply(uv7Pm5d8).mod(P);
-    }
-
-    private static boolean isCandidateRootValid(final BigInteger x1, final BigInteger v, final BigInteger u)
-    {
-        // given x1 = uv^3(uv^7)^(P-5/8) we can check to see if the candidate root satisfies
+        Ed25519Field.square(v3, v);
+        Ed25519Field.mul(v3, v3, v);
+        Ed25519Field.square(x, v3);
+        Ed25519Field.mul(x, x, v);
+        Ed25519Field.mul(x, x, u);
+        Ed25519Field.pow22523(x, x, t0, t1, t2);
+        Ed25519Field.mul(x, x, v3);
+        Ed25519Field.mul(x, x, u);
+
+        // given x1 we can check to see if the candidate root satisfies
         // vx^2 = u (mod P) for x = x1 is a candidate root
         // vx^2 = -u (mod P) for x = x1 is a candidate root
         // if no roots then the point does not lie on the curve
-        final BigInteger vx12 = v.multiply(x1).multiply(x1).mod(P);
-
-        if (vx12.equals(u))
-        {
-            return true;
-        }
+        Ed25519Field.square(t0, x);
+        Ed25519Field.mul(t0, t0, v);
+        Ed25519Field.sub(t1, t0, u);
+        final boolean root = Ed25519Field.isZero(t1, check);
+        Ed25519Field.add(t1, t0, u);
+        final boolean negatedRoot = Ed25519Field.isZero(t1, check);
+
+        return root | negatedRoot;
+    }
 
-        return vx12.equals(u.negate().mod(P));
+    private static long[] oneElement()
+    {
+        final long[] one = Ed25519Field.create();
+        Ed25519Field.one(one);
+        return one;
     }
 
     static byte[] reverse(final byte[] array)
@@ -0,0 +1,504 @@
+package com.valeamoris.solana4j.encoding;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic in the field of integers modulo p = 2^255 - 19 on which Ed25519 is built.
+ * <p>
+ * A field element is a {@code long[10]} of limbs alternately 26 and 25 bits wide, so element i is worth 2^ceil(25.5 i).
+ * Products of two limbs, and the sums of the ten of them a multiplication needs, fit in a signed 64 bit long, and every
+ * operation leaves its result carried so that its limbs are non negative and below 2^26, roughly. Results may be
+ * written over either operand. Nothing branches on the values of the limbs.
+ * </p>
+ */
+final class Ed25519Field
+{
+    static final int LIMBS = 10;
+
+    private static final long MASK_26 = (1L << 26) - 1;
+    private static final long MASK_25 = (1L << 25) - 1;
+
+    private Ed25519Field()
+    {
+    }
+
+    static long[] create()
+    {
+        return new long[LIMBS];
+    }
+
+    static void zero(final long[] h)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = 0;
+        }
+    }
+
+    static void one(final long[] h)
+    {
+        zero(h);
+        h[0] = 1;
+    }
+
+    static void copy(final long[] h, final long[] f)
+    {
+        System.arraycopy(f, 0, h, 0, LIMBS);
+    }
+
+    static void add(final long[] h, final long[] f, final long[] g)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = f[i] + g[i];
+        }
+        carry(h);
+    }
+
+    static void sub(final long[] h, final long[] f, final long[] g)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = f[i] - g[i];
+        }
+        carry(h);
+    }
+
+    /**
+     * Adds without carrying, leaving limbs up to twice as wide. Only for operands that feed a multiplication whose other
+     * operand is narrow enough for the products to fit, as the fixed base multiplication works out for each use.
+     */
+    static void addNoCarry(final long[] h, final long[] f, final long[] g)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = f[i] + g[i];
+        }
+    }
+
+    /**
+     * Subtracts without carrying, leaving limbs that may be negative, on the terms of {@link #addNoCarry(long[], long[], long[])}.
+     */
+    static void subNoCarry(final long[] h, final long[] f, final long[] g)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = f[i] - g[i];
+        }
+    }
+
+    static void negate(final long[] h, final long[] f)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = -f[i];
+        }
+        carry(h);
+    }
+
+    static void mul(final long[] h, final long[] f, final long[] g)
+    {
+        final long f0 = f[0];
+        final long f1 = f[1];
+        final long f2 = f[2];
+        final long f3 = f[3];
+        final long f4 = f[4];
+        final long f5 = f[5];
+        final long f6 = f[6];
+        final long f7 = f[7];
+        final long f8 = f[8];
+        final long f9 = f[9];
+        final long g0 = g[0];
+        final long g1 = g[1];
+        final long g2 = g[2];
+        final long g3 = g[3];
+        final long g4 = g[4];
+        final long g5 = g[5];
+        final long g6 = g[6];
+        final long g7 = g[7];
+        final long g8 = g[8];
+        final long g9 = g[9];
+
+        // limbs past the tenth wrap around multiplied by 19, as 2^255 = 19; two odd limbs multiply to twice the weight
+        final long g1x19 = 19 * g1;
+        final long g2x19 = 19 * g2;
+        final long g3x19 = 19 * g3;
+        final long g4x19 = 19 * g4;
+        final long g5x19 = 19 * g5;
+        final long g6x19 = 19 * g6;
+        final long g7x19 = 19 * g7;
+        final long g8x19 = 19 * g8;
+        final long g9x19 = 19 * g9;
+        final long f1x2 = 2 * f1;
+        final long f3x2 = 2 * f3;
+        final long f5x2 = 2 * f5;
+        final long f7x2 = 2 * f7;
+        final long f9x2 = 2 * f9;
+
+        final long h0 = f0 * g0 + f1x2 * g9x19 + f2 * g8x19 + f3x2 * g7x19 + f4 * g6x19 + f5x2 * g5x19 + f6 * g4x19 + f7x2 * g3x19 + f8 * g2x19 + f9x2 * g1x19;
+        final long h1 = f0 * g1 + f1 * g0 + f2 * g9x19 + f3 * g8x19 + f4 * g7x19 + f5 * g6x19 + f6 * g5x19 + f7 * g4x19 + f8 * g3x19 + f9 * g2x19;
+        final long h2 = f0 * g2 + f1x2 * g1 + f2 * g0 + f3x2 * g9x19 + f4 * g8x19 + f5x2 * g7x19 + f6 * g6x19 + f7x2 * g5x19 + f8 * g4x19 + f9x2 * g3x19;
+        final long h3 = f0 * g3 + f1 * g2 + f2 * g1 + f3 * g0 + f4 * g9x19 + f5 * g8x19 + f6 * g7x19 + f7 * g6x19 + f8 * g5x19 + f9 * g4x19;
+        final long h4 = f0 * g4 + f1x2 * g3 + f2 * g2 + f3x2 * g1 + f4 * g0 + f5x2 * g9x19 + f6 * g8x19 + f7x2 * g7x19 + f8 * g6x19 + f9x2 * g5x19;
+        final long h5 = f0 * g5 + f1 * g4 + f2 * g3 + f3 * g2 + f4 * g1 + f5 * g0 + f6 * g9x19 + f7 * g8x19 + f8 * g7x19 + f9 * g6x19;
+        final long h6 = f0 * g6 + f1x2 * g5 + f2 * g4 + f3x2 * g3 + f4 * g2 + f5x2 * g1 + f6 * g0 + f7x2 * g9x19 + f8 * g8x19 + f9x2 * g7x19;
+        final long h7 = f0 * g7 + f1 * g6 + f2 * g5 + f3 * g4 + f4 * g3 + f5 * g2 + f6 * g1 + f7 * g0 + f8 * g9x19 + f9 * g8x19;
+        final long h8 = f0 * g8 + f1x2 * g7 + f2 * g6 + f3x2 * g5 + f4 * g4 + f5x2 * g3 + f6 * g2 + f7x2 * g1 + f8 * g0 + f9x2 * g9x19;
+        final long h9 = f0 * g9 + f1 * g8 + f2 * g7 + f3 * g6 + f4 * g5 + f5 * g4 + f6 * g3 + f7 * g2 + f8 * g1 + f9 * g0;
+        carry(h, h0, h1, h2, h3, h4, h5, h6, h7, h8, h9);
+    }
+
+    static void square(final long[] h, final long[] f)
+    {
+        final long f0 = f[0];
+        final long f1 = f[1];
+        final long f2 = f[2];
+        final long f3 = f[3];
+        final long f4 = f[4];
+        final long f5 = f[5];
+        final long f6 = f[6];
+        final long f7 = f[7];
+        final long f8 = f[8];
+        final long f9 = f[9];
+
+        // as for mul, with the products of distinct limbs appearing twice
+        final long f0x2 = 2 * f0;
+        final long f1x2 = 2 * f1;
+        final long f2x2 = 2 * f2;
+        final long f3x2 = 2 * f3;
+        final long f4x2 = 2 * f4;
+        final long f5x2 = 2 * f5;
+        final long f6x2 = 2 * f6;
+        final long f7x2 = 2 * f7;
+        final long f5x38 = 38 * f5;
+        final long f6x19 = 19 * f6;
+        final long f7x38 = 38 * f7;
+        final long f8x19 = 19 * f8;
+        final long f9x38 = 38 * f9;
+
+        final long h0 = f0 * f0 + f1x2 * f9x38 + f2x2 * f8x19 + f3x2 * f7x38 + f4x2 * f6x19 + f5 * f5x38;
+        final long h1 = f0x2 * f1 + f2 * f9x38 + f3x2 * f8x19 + f4 * f7x38 + f5x2 * f6x19;
+        final long h2 = f0x2 * f2 + f1x2 * f1 + f3x2 * f9x38 + f4x2 * f8x19 + f5x2 * f7x38 + f6 * f6x19;
+        final long h3 = f0x2 * f3 + f1x2 * f2 + f4 * f9x38 + f5x2 * f8x19 + f6 * f7x38;
+        final long h4 = f0x2 * f4 + f1x2 * f3x2 + f2 * f2 + f5x2 * f9x38 + f6x2 * f8x19 + f7 * f7x38;
+        final long h5 = f0x2 * f5 + f1x2 * f4 + f2x2 * f3 + f6 * f9x38 + f7x2 * f8x19;
+        final long h6 = f0x2 * f6 + f1x2 * f5x2 + f2x2 * f4 + f3x2 * f3 + f7x2 * f9x38 + f8 * f8x19;
+        final long h7 = f0x2 * f7 + f1x2 * f6 + f2x2 * f5 + f3x2 * f4 + f8 * f9x38;
+        final long h8 = f0x2 * f8 + f1x2 * f7x2 + f2x2 * f6 + f3x2 * f5x2 + f4 * f4 + f9 * f9x38;
+        final long h9 = f0x2 * f9 + f1x2 * f8 + f2x2 * f7 + f3x2 * f6 + f4x2 * f5;
+        carry(h, h0, h1, h2, h3, h4, h5, h6, h7, h8, h9);
+    }
+
+    static void squareTimes(final long[] h, final long[] f, final int times)
+    {
+        square(h, f);
+        for (int i = 1; i < times; i++)
+        {
+            square(h, h);
+        }
+    }
+
+    static void mulSmall(final long[] h, final long[] f, final long small)
+    {
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] = f[i] * small;
+        }
+        carry(h);
+    }
+
+    /**
+     * Computes 1/z as z^(p - 2).
+     */
+    static void invert(final long[] out, final long[] z)
+    {
+        final long[] t0 = create();
+        final long[] t1 = create();
+        final long[] t2 = create();
+        final long[] t3 = create();
+
+        square(t0, z);                  // 2
+        squareTimes(t1, t0, 2);         // 8
+        mul(t1, z, t1);                 // 9
+        mul(t0, t0, t1);                // 11
+        square(t2, t0);                 // 22
+        mul(t1, t1, t2);                // 2^5 - 1
+        squareTimes(t2, t1, 5);
+        mul(t1, t2, t1);                // 2^10 - 1
+        squareTimes(t2, t1, 10);
+        mul(t2, t2, t1);                // 2^20 - 1
+        squareTimes(t3, t2, 20);
+        mul(t2, t3, t2);                // 2^40 - 1
+        squareTimes(t2, t2, 10);
+        mul(t1, t2, t1);                // 2^50 - 1
+        squareTimes(t2, t1, 50);
+        mul(t2, t2, t1);                // 2^100 - 1
+        squareTimes(t3, t2, 100);
+        mul(t2, t3, t2);                // 2^200 - 1
+        squareTimes(t2, t2, 50);
+        mul(t1, t2, t1);                // 2^250 - 1
+        squareTimes(t1, t1, 5);         // 2^255 - 32
+        mul(out, t1, t0);               // 2^255 - 21
+    }
+
+    /**
+     * Computes z^((p - 5) / 8), the heart of a square root modulo p.
+     */
+    static void pow22523(final long[] out, final long[] z)
+    {
+        pow22523(out, z, create(), create(), create());
+    }
+
+    /**
+     * Computes z^((p - 5) / 8) as {@link #pow22523(long[], long[])} does, in the scratch elements given.
+     */
+    static void pow22523(final long[] out, final long[] z, final long[] t0, final long[] t1, final long[] t2)
+    {
+        square(t0, z);                  // 2
+        squareTimes(t1, t0, 2);         // 8
+        mul(t1, z, t1);                 // 9
+        mul(t0, t0, t1);                // 11
+        square(t0, t0);                 // 22
+        mul(t0, t1, t0);                // 2^5 - 1
+        squareTimes(t1, t0, 5);
+        mul(t0, t1, t0);                // 2^10 - 1
+        squareTimes(t1, t0, 10);
+        mul(t1, t1, t0);                // 2^20 - 1
+        squareTimes(t2, t1, 20);
+        mul(t1, t2, t1);                // 2^40 - 1
+        squareTimes(t1, t1, 10);
+        mul(t0, t1, t0);                // 2^50 - 1
+        squareTimes(t1, t0, 50);
+        mul(t1, t1, t0);                // 2^100 - 1
+        squareTimes(t2, t1, 100);
+        mul(t1, t2, t1);                // 2^200 - 1
+        squareTimes(t1, t1, 50);
+        mul(t0, t1, t0);                // 2^250 - 1
+        squareTimes(t0, t0, 2);         // 2^252 - 4
+        mul(out, t0, z);                // 2^252 - 3
+    }
+
+    /**
+     * Replaces h with f when {@code move} is 1 and leaves it when {@code move} is 0, in constant time.
+     */
+    static void conditionalMove(final long[] h, final long[] f, final long move)
+    {
+        final long mask = -move;
+        for (int i = 0; i < LIMBS; i++)
+        {
+            h[i] ^= mask & (h[i] ^ f[i]);
+        }
+    }
+
+    static boolean isZero(final long[] f)
+    {
+        return isZero(f, create());
+    }
+
+    /**
+     * Returns whether f is zero modulo p, reducing a copy of it in the scratch element given.
+     */
+    static boolean isZero(final long[] f, final long[] scratch)
+    {
+        System.arraycopy(f, 0, scratch, 0, LIMBS);
+        reduce(scratch);
+        long bits = 0;
+        for (int i = 0; i < LIMBS; i++)
+        {
+            bits |= scratch[i];
+        }
+        return bits == 0;
+    }
+
+    /**
+     * Returns 1 if the canonical encoding of f is odd, which the point encoding takes as the sign of x.
+     */
+    static int isNegative(final long[] f)
+    {
+        final byte[] s = new byte[32];
+        toBytes(s, 0, f);
+        return s[0] & 1;
+    }
+
+    /**
+     * Reads a little endian field element, ignoring the top bit of the last byte.
+     */
+    static void fromBytes(final long[] h, final byte[] s, final int offset)
+    {
+        int bit = 0;
+        for (int i = 0; i < LIMBS; i++)
+        {
+            final int width = (i & 1) == 0 ? 26 : 25;
+            h[i] = (load32(s, offset + (bit >>> 3)) >>> (bit & 7)) & ((1L << width) - 1);
+            bit += width;
+        }
+    }
+
+    /**
+     * Writes the canonical little endian encoding of f, fully reduced modulo p.
+     */
+    static void toBytes(final byte[] s, final int offset, final long[] f)
+    {
+        final long[] h = new long[LIMBS];
+        System.arraycopy(f, 0, h, 0, LIMBS);
+        reduce(h);
+
+        long accumulator = 0;
+        int bits = 0;
+        int out = offset;
+        for (int i = 0; i < LIMBS; i++)
+        {
+            accumulator |= h[i] << bits;
+            bits += (i & 1) == 0 ? 26 : 25;
+            while (bits >= 8)
+            {
+                s[out++] = (byte) accumulator;
+                accumulator >>>= 8;
+                bits -= 8;
+            }
+        }
+        // 255 bits leave the last seven in the accumulator
+        s[out] = (byte) accumulator;
+    }
+
+    /**
+     * Reduces h fully modulo p, leaving each limb within its width.
+     */
+    private static void reduce(final long[] h)
+    {
+        carry(h);
+        carry(h);
+
+        // h is below 2^255 but may not be below p; h + 19 overflows 2^255 exactly when h >= p
+        long c = (h[0] + 19) >> 26;
+        for (int i = 1; i < LIMBS; i++)
+        {
+            c = (h[i] + c) >> ((i & 1) == 0 ? 26 : 25);
+        }
+        h[0] += 19 * c;
+        long carry = 0;
+        for (int i = 0; i < LIMBS; i++)
+        {
+            final int width = (i & 1) == 0 ? 26 : 25;
+            h[i] += carry;
+            carry = h[i] >> width;
+            h[i] &= (1L << width) - 1;
+        }
+    }
+
+    /**
+     * Creates a field element from a non negative integer below p.
+     */
+    static long[] fromInteger(final BigInteger value)
+    {
+        final byte[] bytes = new byte[32];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = value.shiftRight(8 * i).byteValue();
+        }
+        final long[] h = create();
+        fromBytes(h, bytes, 0);
+        return h;
+    }
+
+    /**
+     * Carries the limbs given and stores them in h, as {@link #carry(long[])} does, without first storing them uncarried.
+     */
+    private static void carry(
+            final long[] h,
+            final long h0,
+            final long h1,
+            final long h2,
+            final long h3,
+            final long h4,
+            final long h5,
+            final long h6,
+            final long h7,
+            final long h8,
+            final long h9)
+    {
+        final long c0 = h0 >> 26;
+        final long c4 = h4 >> 26;
+        final long r1 = h1 + c0;
+        final long r5 = h5 + c4;
+        final long c1 = r1 >> 25;
+        final long c5 = r5 >> 25;
+        final long r2 = h2 + c1;
+        final long r6 = h6 + c5;
+        final long c2 = r2 >> 26;
+        final long c6 = r6 >> 26;
+        final long r3 = h3 + c2;
+        final long r7 = h7 + c6;
+        final long c3 = r3 >> 25;
+        final long c7 = r7 >> 25;
+        final long r4 = (h4 & MASK_26) + c3;
+        final long r8 = h8 + c7;
+        final long c8 = r8 >> 26;
+        final long r9 = h9 + c8;
+        final long c9 = r9 >> 25;
+        final long r0 = (h0 & MASK_26) + 19 * c9;
+        final long d0 = r0 >> 26;
+        final long d4 = r4 >> 26;
+        h[0] = r0 & MASK_26;
+        h[1] = (r1 & MASK_25) + d0;
+        h[2] = r2 & MASK_26;
+        h[3] = r3 & MASK_25;
+        h[4] = r4 & MASK_26;
+        h[5] = (r5 & MASK_25) + d4;
+        h[6] = r6 & MASK_26;
+        h[7] = r7 & MASK_25;
+        h[8] = r8 & MASK_26;
+        h[9] = r9 & MASK_25;
+    }
+
+    private static void carry(final long[] h)
+    {
+        // two interleaved chains, from limb 0 and from limb 4, so that each waits half as long on the one before
+        long c0 = h[0] >> 26;
+        long c4 = h[4] >> 26;
+        h[0] &= MASK_26;
+        h[4] &= MASK_26;
+        h[1] += c0;
+        h[5] += c4;
+        final long c1 = h[1] >> 25;
+        final long c5 = h[5] >> 25;
+        h[1] &= MASK_25;
+        h[5] &= MASK_25;
+        h[2] += c1;
+        h[6] += c5;
+        final long c2 = h[2] >> 26;
+        final long c6 = h[6] >> 26;
+        h[2] &= MASK_26;
+        h[6] &= MASK_26;
+        h[3] += c2;
+        h[7] += c6;
+        final long c3 = h[3] >> 25;
+        final long c7 = h[7] >> 25;
+        h[3] &= MASK_25;
+        h[7] &= MASK_25;
+        h[4] += c3;
+        h[8] += c7;
+        c4 = h[4] >> 26;
+        final long c8 = h[8] >> 26;
+        h[4] &= MASK_26;
+        h[8] &= MASK_26;
+        h[5] += c4;
+        h[9] += c8;
+        final long c9 = h[9] >> 25;
+        h[9] &= MASK_25;
+        h[0] += 19 * c9;
+        c0 = h[0] >> 26;
+        h[0] &= MASK_26;
+        h[1] += c0;
+    }
+
+    private static long load32(final byte[] s, final int offset)
+    {
+        long value = 0;
+        for (int i = 0; i < 4; i++)
+        {
+            value |= (s[offset + i] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+}
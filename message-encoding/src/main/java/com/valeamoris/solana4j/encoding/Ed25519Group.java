@@ -0,0 +1,667 @@
+package com.valeamoris.solana4j.encoding;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import static com.valeamoris.solana4j.encoding.Ed25519Field.LIMBS;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.add;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.addNoCarry;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.copy;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.create;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.isNegative;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.mul;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.negate;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.one;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.square;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.sub;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.subNoCarry;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.toBytes;
+import static com.valeamoris.solana4j.encoding.Ed25519Field.zero;
+
+/**
+ * Operations on the Ed25519 curve -x^2 + y^2 = 1 + dx^2y^2 over the field of {@link Ed25519Field}.
+ * <p>
+ * Multiples of the base point B are computed from a table fixed at class initialisation. The scalar is recoded into 64
+ * signed radix 16 digits in [-8, 8], and the table holds the identity and 1B to 8B for each power 256^i B, as
+ * (y + x, y - x, 2dxy) so that adding an entry costs three multiplications. Summing the odd digits' entries, multiplying
+ * by 16 and then summing the even digits' entries takes 64 additions and 4 doublings in all. Entries are selected by
+ * scanning all nine of a row with masks, so neither the time taken nor the memory touched depends on the scalar, and
+ * are stored two limbs to a long to halve the memory scanned.
+ * </p>
+ * <p>
+ * A wider table does not pay: a comb with more teeth saves additions only in proportion to the extra entries each
+ * constant time select has to scan.
+ * </p>
+ */
+final class Ed25519Group
+{
+    static final int ENCODED_LENGTH = 32;
+
+    static final BigInteger P = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+    static final BigInteger D = BigInteger.valueOf(-121665).multiply(BigInteger.valueOf(121666).modInverse(P)).mod(P);
+
+    private static final int ROWS = 32;
+    // column 0 holds the identity, so that a digit of zero is selected like any other
+    private static final int COLUMNS = 9;
+    // two limbs, each below 2^26, to a long
+    private static final int ENTRY_LENGTH = 3 * LIMBS / 2;
+    private static final long[] BASE_TABLE = baseTable();
+    private static final long[] D2 = Ed25519Field.fromInteger(D.shiftLeft(1).mod(P));
+    private static final long[] D_FIELD = Ed25519Field.fromInteger(D);
+    private static final long[] SQRT_MINUS_ONE = Ed25519Field.fromInteger(BigInteger.valueOf(2).modPow(P.subtract(BigInteger.ONE).shiftRight(2), P));
+    private static final Point BASE_POINT = basePoint();
+
+    private Ed25519Group()
+    {
+    }
+
+    /**
+     * Scratch space for the group operations, so that they allocate nothing; not thread safe.
+     */
+    static final class Workspace
+    {
+        // extended coordinates (X : Y : Z : T) with x = X/Z, y = Y/Z and xy = T/Z
+        private final long[] x = create();
+        private final long[] y = create();
+        private final long[] z = create();
+        private final long[] t = create();
+
+        // completed coordinates ((X : Z), (Y : T)) that additions and doublings produce
+        private final long[] completedX = create();
+        private final long[] completedY = create();
+        private final long[] completedZ = create();
+        private final long[] completedT = create();
+
+        private final long[] yPlusX = create();
+        private final long[] yMinusX = create();
+        private final long[] xy2d = create();
+
+        private final long[] t0 = create();
+        private final long[] t1 = create();
+        private final long[] t2 = create();
+        private final long[] t3 = create();
+        private final long[] packed = new long[ENTRY_LENGTH];
+        private final byte[] digits = new byte[64];
+    }
+
+    /**
+     * Computes scalar * B and writes its 32 byte encoding.
+     *
+     * @param scalar the little endian scalar, whose top bit must be clear
+     */
+    static void scalarMultiplyBase(final Workspace w, final byte[] scalar, final int offset, final byte[] out, final int outOffset)
+    {
+        final byte[] e = w.digits;
+        for (int i = 0; i < 32; i++)
+        {
+            e[2 * i] = (byte) (scalar[offset + i] & 15);
+            e[2 * i + 1] = (byte) ((scalar[offset + i] >>> 4) & 15);
+        }
+        int carry = 0;
+        for (int i = 0; i < 63; i++)
+        {
+            e[i] += carry;
+            carry = (e[i] + 8) >> 4;
+            e[i] -= carry << 4;
+        }
+        e[63] += carry;
+
+        zero(w.x);
+        one(w.y);
+        one(w.z);
+        zero(w.t);
+        for (int i = 1; i < 64; i += 2)
+        {
+            select(w, i / 2, e[i]);
+            addPrecomputed(w);
+            completedToExtended(w);
+        }
+
+        doubleProjective(w);
+        completedToProjective(w);
+        doubleProjective(w);
+        completedToProjective(w);
+        doubleProjective(w);
+        completedToProjective(w);
+        doubleProjective(w);
+        completedToExtended(w);
+
+        for (int i = 0; i < 64; i += 2)
+        {
+            select(w, i / 2, e[i]);
+            addPrecomputed(w);
+            completedToExtended(w);
+        }
+
+        encode(w, out, outOffset);
+    }
+
+    /**
+     * A point in extended coordinates (X : Y : Z : T), with x = X/Z, y = Y/Z and xy = T/Z.
+     */
+    static final class Point
+    {
+        private final long[] x = create();
+        private final long[] y = create();
+        private final long[] z = create();
+        private final long[] t = create();
+
+        void negate()
+        {
+            Ed25519Field.negate(x, x);
+            Ed25519Field.negate(t, t);
+        }
+    }
+
+    /**
+     * Sums scalar multiples of points in variable time, for verifying signatures, which are public.
+     * <p>
+     * Each scalar is recoded into signed sliding window digits, odd and below 16 in magnitude, and each point's odd
+     * multiples 1P to 15P are precomputed. The multiples of all points are then summed together, Straus' way, sharing
+     * one doubling per bit among them all. Points may also be decoded here, using the same scratch space. Not thread
+     * safe.
+     * </p>
+     */
+    static final class MultiScalar
+    {
+        private static final int BITS = 256;
+        private static final int MULTIPLES = 8;
+        private static final int CACHED_LENGTH = 4 * LIMBS;
+
+        private final byte[][] digits;
+        private final long[][] multiples;
+        private int count;
+
+        private final long[] x = create();
+        private final long[] y = create();
+        private final long[] z = create();
+        private final long[] t = create();
+        private final long[] completedX = create();
+        private final long[] completedY = create();
+        private final long[] completedZ = create();
+        private final long[] completedT = create();
+        private final long[] cachedYPlusX = create();
+        private final long[] cachedYMinusX = create();
+        private final long[] cachedZ = create();
+        private final long[] cachedT2d = create();
+        private final long[] t0 = create();
+        private final long[] t1 = create();
+        private final long[] t2 = create();
+        private final long[] t3 = create();
+        private final Point doubled = new Point();
+        private final byte[] encoded = new byte[ENCODED_LENGTH];
+
+        MultiScalar(final int capacity)
+        {
+            this.digits = new byte[capacity][BITS];
+            this.multiples = new long[capacity][MULTIPLES * CACHED_LENGTH];
+        }
+
+        void clear()
+        {
+            count = 0;
+        }
+
+        /**
+         * Adds the base point times a scalar to the sum.
+         */
+        void addBaseMultiple(final byte[] scalar, final int offset)
+        {
+            addMultiple(BASE_POINT, scalar, offset);
+        }
+
+        /**
+         * Adds a point times a scalar to the sum.
+         *
+         * @param scalar the little endian scalar, below 2^255
+         */
+        void addMultiple(final Point point, final byte[] scalar, final int offset)
+        {
+            slide(digits[count], scalar, offset);
+
+            final long[] table = multiples[count];
+            toCached(table, 0, point.x, point.y, point.z, point.t);
+            copy(x, point.x);
+            copy(y, point.y);
+            copy(z, point.z);
+            doubleProjective();
+            completedToExtended(doubled);
+            for (int i = 1; i < MULTIPLES; i++)
+            {
+                loadCached(table, i - 1);
+                addCached(doubled.x, doubled.y, doubled.z, doubled.t, false);
+                completedToExtended(x, y, z, t);
+                toCached(table, i, x, y, z, t);
+            }
+            count++;
+        }
+
+        /**
+         * Returns whether the sum, multiplied by the cofactor 8, is the identity.
+         */
+        boolean sumHasSmallOrder()
+        {
+            int top = BITS - 1;
+            while (top >= 0 && !anyDigitAt(top))
+            {
+                top--;
+            }
+
+            zero(x);
+            one(y);
+            one(z);
+            for (int i = top; i >= 0; i--)
+            {
+                doubleProjective();
+                for (int point = 0; point < count; point++)
+                {
+                    final int digit = digits[point][i];
+                    if (digit != 0)
+                    {
+                        completedToExtended(x, y, z, t);
+                        loadCached(multiples[point], Math.abs(digit) >> 1);
+                        addCached(x, y, z, t, digit < 0);
+                    }
+                }
+                completedToProjective();
+            }
+            return timesCofactorIsIdentity();
+        }
+
+        /**
+         * Returns whether a point has small order, that is whether the point multiplied by the cofactor 8 is the identity.
+         */
+        boolean hasSmallOrder(final Point point)
+        {
+            copy(x, point.x);
+            copy(y, point.y);
+            copy(z, point.z);
+            return timesCofactorIsIdentity();
+        }
+
+        /**
+         * Decodes a point from 32 bytes at an absolute index of the buffer.
+         *
+         * @return false if the bytes do not encode a point, canonically
+         */
+        boolean decode(final Point point, final ByteBuffer buffer, final int index)
+        {
+            for (int i = 0; i < ENCODED_LENGTH; i++)
+            {
+                encoded[i] = buffer.get(index + i);
+            }
+            final int sign = (encoded[31] >> 7) & 1;
+
+            // x^2 = u / v with u = y^2 - 1 and v = dy^2 + 1, and a root of it is x = uv^3 (uv^7)^((p - 5) / 8)
+            Ed25519Field.fromBytes(point.y, encoded, 0);
+            one(point.z);
+            square(t0, point.y);
+            mul(t1, t0, D_FIELD);
+            sub(t0, t0, point.z);
+            add(t1, t1, point.z);
+            square(t2, t1);
+            mul(t2, t2, t1);
+            square(point.x, t2);
+            mul(point.x, point.x, t1);
+            mul(point.x, point.x, t0);
+            Ed25519Field.pow22523(point.x, point.x);
+            mul(point.x, point.x, t2);
+            mul(point.x, point.x, t0);
+
+            // that is a root of u / v or of -u / v, in which case sqrt(-1) times it is a root of u / v
+            square(t2, point.x);
+            mul(t2, t2, t1);
+            sub(t3, t2, t0);
+            if (!Ed25519Field.isZero(t3))
+            {
+                add(t3, t2, t0);
+                if (!Ed25519Field.isZero(t3))
+                {
+                    return false;
+                }
+                mul(point.x, point.x, SQRT_MINUS_ONE);
+            }
+            if (isNegative(point.x) != sign)
+            {
+                Ed25519Field.negate(point.x, point.x);
+            }
+            mul(point.t, point.x, point.y);
+
+            // y must be below p, and the sign of an x of zero must be positive
+            return isCanonical(encoded) && isNegative(point.x) == sign;
+        }
+
+        private boolean timesCofactorIsIdentity()
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                doubleProjective();
+                completedToProjective();
+            }
+
+            sub(t0, y, z);
+            return Ed25519Field.isZero(x) && Ed25519Field.isZero(t0);
+        }
+
+        private boolean anyDigitAt(final int i)
+        {
+            for (int point = 0; point < count; point++)
+            {
+                if (digits[point][i] != 0)
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addCached(final long[] px, final long[] py, final long[] pz, final long[] pt, final boolean subtract)
+        {
+            // subtracting the cached point is adding its negation, which swaps y + x with y - x and negates 2dT
+            add(completedX, py, px);
+            sub(completedY, py, px);
+            mul(completedZ, completedX, subtract ? cachedYMinusX : cachedYPlusX);
+            mul(completedY, completedY, subtract ? cachedYPlusX : cachedYMinusX);
+            mul(completedT, cachedT2d, pt);
+            mul(completedX, pz, cachedZ);
+            add(t0, completedX, completedX);
+            sub(completedX, completedZ, completedY);
+            add(completedY, completedZ, completedY);
+            if (subtract)
+            {
+                sub(completedZ, t0, completedT);
+                add(completedT, t0, completedT);
+            }
+            else
+            {
+                add(completedZ, t0, completedT);
+                sub(completedT, t0, completedT);
+            }
+        }
+
+        private void doubleProjective()
+        {
+            square(completedX, x);
+            square(completedZ, y);
+            square(completedT, z);
+            add(completedT, completedT, completedT);
+            add(completedY, x, y);
+            square(t0, completedY);
+            add(completedY, completedZ, completedX);
+            sub(completedZ, completedZ, completedX);
+            sub(completedX, t0, completedY);
+            sub(completedT, completedT, completedZ);
+        }
+
+        private void completedToProjective()
+        {
+            mul(x, completedX, completedT);
+            mul(y, completedY, completedZ);
+            mul(z, completedZ, completedT);
+        }
+
+        private void completedToExtended(final Point point)
+        {
+            completedToExtended(point.x, point.y, point.z, point.t);
+        }
+
+        private void completedToExtended(final long[] px, final long[] py, final long[] pz, final long[] pt)
+        {
+            mul(px, completedX, completedT);
+            mul(py, completedY, completedZ);
+            mul(pz, completedZ, completedT);
+            mul(pt, completedX, completedY);
+        }
+
+        private void toCached(final long[] table, final int index, final long[] px, final long[] py, final long[] pz, final long[] pt)
+        {
+            final int offset = index * CACHED_LENGTH;
+            add(t0, py, px);
+            System.arraycopy(t0, 0, table, offset, LIMBS);
+            sub(t0, py, px);
+            System.arraycopy(t0, 0, table, offset + LIMBS, LIMBS);
+            System.arraycopy(pz, 0, table, offset + 2 * LIMBS, LIMBS);
+            mul(t0, pt, D2);
+            System.arraycopy(t0, 0, table, offset + 3 * LIMBS, LIMBS);
+        }
+
+        private void loadCached(final long[] table, final int index)
+        {
+            final int offset = index * CACHED_LENGTH;
+            System.arraycopy(table, offset, cachedYPlusX, 0, LIMBS);
+            System.arraycopy(table, offset + LIMBS, cachedYMinusX, 0, LIMBS);
+            System.arraycopy(table, offset + 2 * LIMBS, cachedZ, 0, LIMBS);
+            System.arraycopy(table, offset + 3 * LIMBS, cachedT2d, 0, LIMBS);
+        }
+
+        private static boolean isCanonical(final byte[] s)
+        {
+            // y must be below p = 2^255 - 19, which only the encodings 0x7f..ff followed by ed..ff fail
+            if ((s[31] & 0x7f) != 0x7f)
+            {
+                return true;
+            }
+            for (int i = 30; i > 0; i--)
+            {
+                if (s[i] != (byte) 0xff)
+                {
+                    return true;
+                }
+            }
+            return (s[0] & 0xff) < 0xed;
+        }
+
+        private static void slide(final byte[] r, final byte[] a, final int offset)
+        {
+            for (int i = 0; i < BITS; i++)
+            {
+                r[i] = (byte) (1 & (a[offset + (i >> 3)] >> (i & 7)));
+            }
+
+            // merge runs of up to six following bits into odd digits in [-15, 15]
+            for (int i = 0; i < BITS; i++)
+            {
+                if (r[i] == 0)
+                {
+                    continue;
+                }
+                for (int b = 1; b <= 6 && i + b < BITS; b++)
+                {
+                    if (r[i + b] == 0)
+                    {
+                        continue;
+                    }
+                    if (r[i] + (r[i + b] << b) <= 15)
+                    {
+                        r[i] += r[i + b] << b;
+                        r[i + b] = 0;
+                    }
+                    else if (r[i] - (r[i + b] << b) >= -15)
+                    {
+                        r[i] -= r[i + b] << b;
+                        for (int k = i + b; k < BITS; k++)
+                        {
+                            if (r[k] == 0)
+                            {
+                                r[k] = 1;
+                                break;
+                            }
+                            r[k] = 0;
+                        }
+                    }
+                    else
+                    {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void encode(final Workspace w, final byte[] out, final int outOffset)
+    {
+        Ed25519Field.invert(w.t0, w.z);
+        mul(w.t1, w.x, w.t0);
+        mul(w.t2, w.y, w.t0);
+        toBytes(out, outOffset, w.t2);
+        out[outOffset + 31] ^= (byte) (isNegative(w.t1) << 7);
+    }
+
+    private static void addPrecomputed(final Workspace w)
+    {
+        // with carried x, y, z and t, no product below is of factors more than six times as wide as a carried element
+        addNoCarry(w.completedX, w.y, w.x);
+        subNoCarry(w.completedY, w.y, w.x);
+        mul(w.completedZ, w.completedX, w.yPlusX);
+        mul(w.completedY, w.completedY, w.yMinusX);
+        mul(w.completedT, w.xy2d, w.t);
+        addNoCarry(w.t0, w.z, w.z);
+        subNoCarry(w.completedX, w.completedZ, w.completedY);
+        addNoCarry(w.completedY, w.completedZ, w.completedY);
+        addNoCarry(w.completedZ, w.t0, w.completedT);
+        subNoCarry(w.completedT, w.t0, w.completedT);
+    }
+
+    private static void doubleProjective(final Workspace w)
+    {
+        square(w.completedX, w.x);
+        square(w.completedZ, w.y);
+        square(w.completedT, w.z);
+        addNoCarry(w.completedT, w.completedT, w.completedT);
+        addNoCarry(w.completedY, w.x, w.y);
+        square(w.t0, w.completedY);
+        addNoCarry(w.completedY, w.completedZ, w.completedX);
+        subNoCarry(w.completedZ, w.completedZ, w.completedX);
+        subNoCarry(w.completedX, w.t0, w.completedY);
+        subNoCarry(w.completedT, w.completedT, w.completedZ);
+    }
+
+    private static void completedToProjective(final Workspace w)
+    {
+        mul(w.x, w.completedX, w.completedT);
+        mul(w.y, w.completedY, w.completedZ);
+        mul(w.z, w.completedZ, w.completedT);
+    }
+
+    private static void completedToExtended(final Workspace w)
+    {
+        completedToProjective(w);
+        mul(w.t, w.completedX, w.completedY);
+    }
+
+    private static void select(final Workspace w, final int row, final byte digit)
+    {
+        final int negative = (digit >> 7) & 1;
+        final int magnitude = digit - ((-negative & digit) << 1);
+
+        final long[] packed = w.packed;
+        for (int i = 0; i < ENTRY_LENGTH; i++)
+        {
+            packed[i] = 0;
+        }
+        for (int column = 0; column < COLUMNS; column++)
+        {
+            final long mask = -(long) (((magnitude ^ column) - 1) >>> 31);
+            final int entry = (row * COLUMNS + column) * ENTRY_LENGTH;
+            for (int i = 0; i < ENTRY_LENGTH; i++)
+            {
+                packed[i] |= mask & BASE_TABLE[entry + i];
+            }
+        }
+        unpack(w.yPlusX, packed, 0);
+        unpack(w.yMinusX, packed, LIMBS / 2);
+        unpack(w.xy2d, packed, LIMBS);
+
+        // -(x, y) = (-x, y) swaps y + x with y - x and negates 2dxy
+        copy(w.t3, w.yPlusX);
+        Ed25519Field.conditionalMove(w.yPlusX, w.yMinusX, negative);
+        Ed25519Field.conditionalMove(w.yMinusX, w.t3, negative);
+        negate(w.t3, w.xy2d);
+        Ed25519Field.conditionalMove(w.xy2d, w.t3, negative);
+    }
+
+    private static void unpack(final long[] h, final long[] packed, final int offset)
+    {
+        for (int i = 0; i < LIMBS / 2; i++)
+        {
+            final long pair = packed[offset + i];
+            h[2 * i] = pair & 0xFFFFFFFFL;
+            h[2 * i + 1] = pair >>> 32;
+        }
+    }
+
+    private static void pack(final long[] table, final int offset, final long[] h)
+    {
+        for (int i = 0; i < LIMBS / 2; i++)
+        {
+            table[offset + i] = h[2 * i] | h[2 * i + 1] << 32;
+        }
+    }
+
+    private static long[] baseTable()
+    {
+        // the base point has y = 4/5 and the even x that puts it on the curve
+        final BigInteger by = BigInteger.valueOf(4).multiply(BigInteger.valueOf(5).modInverse(P)).mod(P);
+        final BigInteger bx = recoverX(by);
+
+        final long[] table = new long[ROWS * COLUMNS * ENTRY_LENGTH];
+        final long[] identity = Ed25519Field.create();
+        one(identity);
+        BigInteger[] rowBase = new BigInteger[]{bx, by};
+        for (int row = 0; row < ROWS; row++)
+        {
+            pack(table, row * COLUMNS * ENTRY_LENGTH, identity);
+            pack(table, row * COLUMNS * ENTRY_LENGTH + LIMBS / 2, identity);
+            BigInteger[] multiple = rowBase;
+            for (int column = 1; column < COLUMNS; column++)
+            {
+                final int entry = (row * COLUMNS + column) * ENTRY_LENGTH;
+                final BigInteger px = multiple[0];
+                final BigInteger py = multiple[1];
+                pack(table, entry, Ed25519Field.fromInteger(py.add(px).mod(P)));
+                pack(table, entry + LIMBS / 2, Ed25519Field.fromInteger(py.subtract(px).mod(P)));
+                pack(table, entry + LIMBS, Ed25519Field.fromInteger(D.shiftLeft(1).multiply(px).multiply(py).mod(P)));
+                multiple = affineAdd(multiple, rowBase);
+            }
+            for (int i = 0; i < 8; i++)
+            {
+                rowBase = affineAdd(rowBase, rowBase);
+            }
+        }
+        return table;
+    }
+
+    private static BigInteger recoverX(final BigInteger y)
+    {
+        final BigInteger y2 = y.multiply(y);
+        final BigInteger x2 = y2.subtract(BigInteger.ONE).multiply(D.multiply(y2).add(BigInteger.ONE).modInverse(P)).mod(P);
+        BigInteger x = x2.modPow(P.add(BigInteger.valueOf(3)).shiftRight(3), P);
+        if (!x.multiply(x).subtract(x2).mod(P).equals(BigInteger.ZERO))
+        {
+            x = x.multiply(BigInteger.valueOf(2).modPow(P.subtract(BigInteger.ONE).shiftRight(2), P)).mod(P);
+        }
+        return x.testBit(0) ? P.subtract(x) : x;
+    }
+
+    private static BigInteger[] affineAdd(final BigInteger[] p, final BigInteger[] q)
+    {
+        final BigInteger x1x2 = p[0].multiply(q[0]);
+        final BigInteger y1y2 = p[1].multiply(q[1]);
+        final BigInteger dxxyy = D.multiply(x1x2).multiply(y1y2).mod(P);
+        final BigInteger x3 = p[0].multiply(q[1]).add(p[1].multiply(q[0])).multiply(BigInteger.ONE.add(dxxyy).modInverse(P)).mod(P);
+        final BigInteger y3 = y1y2.add(x1x2).multiply(BigInteger.ONE.subtract(dxxyy).mod(P).modInverse(P)).mod(P);
+        return new BigInteger[]{x3, y3};
+    }
+
+    private static Point basePoint()
+    {
+        final BigInteger by = BigInteger.valueOf(4).multiply(BigInteger.valueOf(5).modInverse(P)).mod(P);
+        final BigInteger bx = recoverX(by);
+        final Point base = new Point();
+        copy(base.x, Ed25519Field.fromInteger(bx));
+        copy(base.y, Ed25519Field.fromInteger(by));
+        one(base.z);
+        copy(base.t, Ed25519Field.fromInteger(bx.multiply(by).mod(P)));
+        return base;
+    }
+}
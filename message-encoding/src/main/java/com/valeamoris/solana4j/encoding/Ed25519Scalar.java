@@ -0,0 +1,206 @@
+package com.valeamoris.solana4j.encoding;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo the order L = 2^252 + 27742317777372353535851937790883648493 of the Ed25519 base point.
+ * <p>
+ * Scalars are 32 byte little endian integers. Internally they are split into 21 bit limbs held in longs, and a limb at
+ * or above 2^252 is folded back into the lower limbs by subtracting its multiple of L - 2^252, which needs only six
+ * limbs. Nothing branches on the values of the limbs.
+ * </p>
+ */
+final class Ed25519Scalar
+{
+    static final int LENGTH = 32;
+
+    private static final int LIMB_BITS = 21;
+    private static final long LIMB_MASK = (1L << LIMB_BITS) - 1;
+    private static final BigInteger L_MINUS_2_252 = new BigInteger("27742317777372353535851937790883648493");
+    private static final long[] L_LOW = limbs(L_MINUS_2_252);
+    private static final byte[] L = toBytes(L_MINUS_2_252.add(BigInteger.ONE.shiftLeft(252)));
+
+    private Ed25519Scalar()
+    {
+    }
+
+    /**
+     * Reduces a 64 byte little endian integer, such as a SHA-512 digest, modulo L.
+     */
+    static void reduce(final byte[] out, final int outOffset, final byte[] wide, final int wideOffset)
+    {
+        final long[] s = new long[24];
+        for (int i = 0; i < 23; i++)
+        {
+            s[i] = limb(wide, wideOffset, i);
+        }
+        s[23] = load32(wide, wideOffset + 60) >>> 3;
+        reduceLimbs(s);
+        pack(out, outOffset, s);
+    }
+
+    /**
+     * Computes (a * b + c) modulo L, where a and b may be any 256 bit integers and c is below L.
+     */
+    static void mulAdd(
+            final byte[] out,
+            final int outOffset,
+            final byte[] a,
+            final int aOffset,
+            final byte[] b,
+            final int bOffset,
+            final byte[] c,
+            final int cOffset)
+    {
+        final long[] x = load(a, aOffset);
+        final long[] y = load(b, bOffset);
+        final long[] s = load(c, cOffset);
+        final long[] product = new long[24];
+        System.arraycopy(s, 0, product, 0, 12);
+        for (int i = 0; i < 12; i++)
+        {
+            for (int j = 0; j < 12; j++)
+            {
+                product[i + j] += x[i] * y[j];
+            }
+        }
+        carry(product, 0, 23);
+        reduceLimbs(product);
+        pack(out, outOffset, product);
+    }
+
+    /**
+     * Returns whether a 32 byte little endian integer is below L, as the S half of a signature must be.
+     */
+    static boolean isCanonical(final byte[] s, final int offset)
+    {
+        // compare from the most significant byte down, remembering the first difference without branching on it
+        int less = 0;
+        int equal = 1;
+        for (int i = LENGTH - 1; i >= 0; i--)
+        {
+            final int x = s[offset + i] & 0xFF;
+            final int y = L[i] & 0xFF;
+            less |= equal & ((x - y) >>> 31);
+            equal &= ((x ^ y) - 1) >>> 31;
+        }
+        return less == 1;
+    }
+
+    private static void reduceLimbs(final long[] s)
+    {
+        for (int i = 23; i >= 18; i--)
+        {
+            fold(s, i);
+        }
+        carry(s, 6, 17);
+        for (int i = 17; i >= 12; i--)
+        {
+            fold(s, i);
+        }
+        carry(s, 0, 12);
+
+        // twice more to bring the value within [-(L - 2^252), L)
+        fold(s, 12);
+        carry(s, 0, 12);
+        fold(s, 12);
+        carry(s, 0, 12);
+
+        // and add L when it is negative
+        final long negative = s[12] >> 63;
+        for (int j = 0; j < L_LOW.length; j++)
+        {
+            s[j] += L_LOW[j] & negative;
+        }
+        s[12] -= negative;
+        carry(s, 0, 12);
+    }
+
+    private static void fold(final long[] s, final int i)
+    {
+        final long limb = s[i];
+        s[i] = 0;
+        for (int j = 0; j < L_LOW.length; j++)
+        {
+            s[i - 12 + j] -= limb * L_LOW[j];
+        }
+    }
+
+    private static void carry(final long[] s, final int from, final int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            final long c = s[i] >> LIMB_BITS;
+            s[i] &= LIMB_MASK;
+            s[i + 1] += c;
+        }
+    }
+
+    private static long[] load(final byte[] bytes, final int offset)
+    {
+        final long[] limbs = new long[12];
+        for (int i = 0; i < 11; i++)
+        {
+            limbs[i] = limb(bytes, offset, i);
+        }
+        limbs[11] = load32(bytes, offset + 28) >>> 7;
+        return limbs;
+    }
+
+    private static long limb(final byte[] bytes, final int offset, final int i)
+    {
+        final int bit = LIMB_BITS * i;
+        return (load32(bytes, offset + (bit >>> 3)) >>> (bit & 7)) & LIMB_MASK;
+    }
+
+    private static void pack(final byte[] out, final int offset, final long[] s)
+    {
+        long accumulator = 0;
+        int bits = 0;
+        int index = offset;
+        for (int i = 0; i <= 12; i++)
+        {
+            accumulator |= s[i] << bits;
+            bits += LIMB_BITS;
+            while (bits >= 8 && index < offset + LENGTH)
+            {
+                out[index++] = (byte) accumulator;
+                accumulator >>>= 8;
+                bits -= 8;
+            }
+        }
+        while (index < offset + LENGTH)
+        {
+            out[index++] = (byte) accumulator;
+            accumulator >>>= 8;
+        }
+    }
+
+    private static long load32(final byte[] bytes, final int offset)
+    {
+        return (bytes[offset] & 0xFFL)
+                | (bytes[offset + 1] & 0xFFL) << 8
+                | (bytes[offset + 2] & 0xFFL) << 16
+                | (bytes[offset + 3] & 0xFFL) << 24;
+    }
+
+    private static long[] limbs(final BigInteger value)
+    {
+        final long[] limbs = new long[(value.bitLength() + LIMB_BITS - 1) / LIMB_BITS];
+        for (int i = 0; i < limbs.length; i++)
+        {
+            limbs[i] = value.shiftRight(LIMB_BITS * i).longValue() & LIMB_MASK;
+        }
+        return limbs;
+    }
+
+    private static byte[] toBytes(final BigInteger value)
+    {
+        final byte[] bytes = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++)
+        {
+            bytes[i] = value.shiftRight(8 * i).byteValue();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,191 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.ByteBufferSigner;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Signs transactions with an Ed25519 key pair, as RFC 8032 specifies, without any dependency beyond the JDK.
+ * <p>
+ * The secret scalar and nonce prefix are expanded from the seed once, when the signer is created, along with the public
+ * key, so a signature costs two SHA-512 passes over the transaction, one fixed base scalar multiplication and a little
+ * scalar arithmetic. The transaction is hashed straight from its buffer and the signature written straight to its buffer,
+ * and the working state lives in per thread scratch space, so signing allocates next to nothing.
+ * </p>
+ * <p>
+ * It is not faster than BouncyCastle's {@code Ed25519}, whose field multiplication takes fewer limb products than the
+ * 25.5 bit limbs here allow, so prefer BouncyCastle where it is already a dependency and use this signer where it cannot
+ * be. The JMH readme records how the two compare.
+ * </p>
+ * <p>
+ * A signer is immutable and may be shared between threads.
+ * </p>
+ */
+public final class Ed25519Signer implements ByteBufferSigner
+{
+    /**
+     * The length of the private seed a key pair is derived from.
+     */
+    public static final int SEED_LENGTH = 32;
+
+    /**
+     * The length of a secret key in the Solana keypair format, the seed followed by the public key.
+     */
+    public static final int SECRET_KEY_LENGTH = 64;
+
+    /**
+     * The length of a signature.
+     */
+    public static final int SIGNATURE_LENGTH = 64;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final byte[] scalar;
+    private final byte[] prefix;
+    private final byte[] publicKey;
+
+    private Ed25519Signer(final byte[] scalar, final byte[] prefix, final byte[] publicKey)
+    {
+        this.scalar = scalar;
+        this.prefix = prefix;
+        this.publicKey = publicKey;
+    }
+
+    /**
+     * Creates a signer from a 32 byte private seed.
+     *
+     * @param seed the seed
+     * @return a new {@link Ed25519Signer}
+     * @throws IllegalArgumentException if the seed is not 32 bytes long
+     */
+    public static Ed25519Signer fromSeed(final byte[] seed)
+    {
+        if (requireNonNull(seed).length != SEED_LENGTH)
+        {
+            throw new IllegalArgumentException("seed must be " + SEED_LENGTH + " bytes long but was " + seed.length);
+        }
+        final Scratch scratch = SCRATCH.get();
+        final byte[] hash = scratch.digest.digest(seed);
+
+        final byte[] scalar = Arrays.copyOf(hash, Ed25519Scalar.LENGTH);
+        scalar[0] &= (byte) 248;
+        scalar[31] &= 127;
+        scalar[31] |= 64;
+        final byte[] prefix = Arrays.copyOfRange(hash, Ed25519Scalar.LENGTH, hash.length);
+        Arrays.fill(hash, (byte) 0);
+
+        final byte[] publicKey = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        Ed25519Group.scalarMultiplyBase(scratch.workspace, scalar, 0, publicKey, 0);
+        return new Ed25519Signer(scalar, prefix, publicKey);
+    }
+
+    /**
+     * Creates a signer from a 64 byte secret key in the Solana keypair format, the seed followed by the public key.
+     *
+     * @param secretKey the secret key
+     * @return a new {@link Ed25519Signer}
+     * @throws IllegalArgumentException if the secret key is not 64 bytes long or its public key does not match its seed
+     */
+    public static Ed25519Signer fromSecretKey(final byte[] secretKey)
+    {
+        if (requireNonNull(secretKey).length != SECRET_KEY_LENGTH)
+        {
+            throw new IllegalArgumentException("secret key must be " + SECRET_KEY_LENGTH + " bytes long but was " + secretKey.length);
+        }
+        final Ed25519Signer signer = fromSeed(Arrays.copyOf(secretKey, SEED_LENGTH));
+        if (!MessageDigest.isEqual(signer.publicKey, Arrays.copyOfRange(secretKey, SEED_LENGTH, SECRET_KEY_LENGTH)))
+        {
+            throw new IllegalArgumentException("public key of the secret key does not match its seed");
+        }
+        return signer;
+    }
+
+    /**
+     * Returns the public key of the signer's key pair.
+     *
+     * @return the {@link PublicKey}
+     */
+    public PublicKey publicKey()
+    {
+        return new SolanaAccount(publicKey.clone());
+    }
+
+    /**
+     * Signs the transaction from its position to its limit, which are left as they are, and puts the 64 byte signature
+     * at the signature buffer's position, advancing it.
+     *
+     * @param transaction the {@link ByteBuffer} containing the transaction to be signed
+     * @param signature   the {@link ByteBuffer} where the generated signature will be written
+     */
+    @Override
+    public void sign(final ByteBuffer transaction, final ByteBuffer signature)
+    {
+        final Scratch scratch = SCRATCH.get();
+        final MessageDigest digest = scratch.digest;
+        final byte[] hash = scratch.hash;
+        final byte[] nonce = scratch.nonce;
+        final byte[] challenge = scratch.challenge;
+        final byte[] result = scratch.signature;
+        final int start = transaction.position();
+
+        // r = H(prefix || M) and R = rB
+        digest.update(prefix);
+        digest.update(transaction);
+        transaction.position(start);
+        finish(digest, hash);
+        Ed25519Scalar.reduce(nonce, 0, hash, 0);
+        Ed25519Group.scalarMultiplyBase(scratch.workspace, nonce, 0, result, 0);
+
+        // k = H(R || A || M) and S = r + ka
+        digest.update(result, 0, Ed25519Group.ENCODED_LENGTH);
+        digest.update(publicKey);
+        digest.update(transaction);
+        transaction.position(start);
+        finish(digest, hash);
+        Ed25519Scalar.reduce(challenge, 0, hash, 0);
+        Ed25519Scalar.mulAdd(result, Ed25519Group.ENCODED_LENGTH, challenge, 0, scalar, 0, nonce, 0);
+
+        signature.put(result, 0, SIGNATURE_LENGTH);
+    }
+
+    private static void finish(final MessageDigest digest, final byte[] hash)
+    {
+        try
+        {
+            digest.digest(hash, 0, hash.length);
+        }
+        catch (final DigestException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Scratch
+    {
+        private final MessageDigest digest;
+        private final Ed25519Group.Workspace workspace = new Ed25519Group.Workspace();
+        private final byte[] hash = new byte[64];
+        private final byte[] nonce = new byte[Ed25519Scalar.LENGTH];
+        private final byte[] challenge = new byte[Ed25519Scalar.LENGTH];
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+
+        private Scratch()
+        {
+            try
+            {
+                digest = MessageDigest.getInstance("SHA-512");
+            }
+            catch (final NoSuchAlgorithmException e)
+            {
+                throw new IllegalStateException("SHA-512 is not available", e);
+            }
+        }
+    }
+}
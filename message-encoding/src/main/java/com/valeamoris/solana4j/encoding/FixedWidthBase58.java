@@ -0,0 +1,364 @@
+package com.valeamoris.solana4j.encoding;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes and decodes Base58 for values of a fixed width, such as 32 byte public keys and blockhashes, and 64 byte
+ * signatures.
+ * <p>
+ * The generic {@code Base58} codec divides the whole value by 58 once per digit, a byte at a time. Knowing the width up
+ * front, these codecs instead treat the value as 32 bit words held in {@code long}s and convert it to and from limbs of
+ * five Base58 digits, a word at a time, which takes a small fraction of the divisions. The results are the same as the
+ * generic codec's, including leading zero bytes encoded as '1' characters.
+ * </p>
+ * <p>
+ * Scratch space is kept per thread, so decoding into a caller's array or buffer, or only validating, allocates nothing.
+ * A codec is thread safe.
+ * </p>
+ */
+public final class FixedWidthBase58
+{
+    /**
+     * The codec of 32 byte values, public keys and blockhashes.
+     */
+    public static final FixedWidthBase58 PUBLIC_KEY = new FixedWidthBase58(32, 44);
+
+    /**
+     * The codec of 64 byte values, signatures.
+     */
+    public static final FixedWidthBase58 SIGNATURE = new FixedWidthBase58(64, 88);
+
+    private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+    private static final char ENCODED_ZERO = ALPHABET[0];
+    private static final int[] INDEXES = new int[128];
+    private static final int DIGITS_PER_LIMB = 5;
+    private static final long LIMB_BASE = 58L * 58 * 58 * 58 * 58;
+    private static final long WORD_MASK = 0xffffffffL;
+
+    static
+    {
+        Arrays.fill(INDEXES, -1);
+        for (int i = 0; i < ALPHABET.length; i++)
+        {
+            INDEXES[ALPHABET[i]] = i;
+        }
+    }
+
+    private final int length;
+    private final int maxEncodedLength;
+    private final ThreadLocal<Scratch> scratches;
+
+    private FixedWidthBase58(final int length, final int maxEncodedLength)
+    {
+        this.length = length;
+        this.maxEncodedLength = maxEncodedLength;
+        this.scratches = ThreadLocal.withInitial(() -> new Scratch(length / 4, (maxEncodedLength + DIGITS_PER_LIMB - 1) / DIGITS_PER_LIMB));
+    }
+
+    /**
+     * Returns the number of bytes this codec encodes and decodes.
+     *
+     * @return the width in bytes
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+     * Returns the length of the longest Base58 string this codec produces.
+     *
+     * @return the maximum encoded length in characters
+     */
+    public int maxEncodedLength()
+    {
+        return maxEncodedLength;
+    }
+
+    /**
+     * Encodes the value held in the given array as a Base58 string.
+     *
+     * @param bytes the array holding exactly {@link #length()} bytes
+     * @return the Base58-encoded string
+     * @throws IllegalArgumentException if the array is not {@link #length()} bytes long
+     */
+    public String encode(final byte[] bytes)
+    {
+        if (requireNonNull(bytes).length != length)
+        {
+            throw new IllegalArgumentException("expected " + length + " bytes but was " + bytes.length);
+        }
+        return encode(bytes, 0);
+    }
+
+    /**
+     * Encodes the value at the given offset of an array as a Base58 string.
+     *
+     * @param bytes  the array holding the value
+     * @param offset the offset of the value's first byte
+     * @return the Base58-encoded string
+     */
+    public String encode(final byte[] bytes, final int offset)
+    {
+        final Scratch scratch = scratches.get();
+        final int start = encode(scratch.load(bytes, offset), scratch);
+        return new String(scratch.chars, start, scratch.chars.length - start);
+    }
+
+    /**
+     * Encodes the value at the given absolute offset of a buffer as a Base58 string, leaving the buffer's position as it
+     * is.
+     *
+     * @param buffer the buffer holding the value
+     * @param offset the offset of the value's first byte
+     * @return the Base58-encoded string
+     */
+    public String encode(final ByteBuffer buffer, final int offset)
+    {
+        final Scratch scratch = scratches.get();
+        final int start = encode(scratch.load(buffer, offset), scratch);
+        return new String(scratch.chars, start, scratch.chars.length - start);
+    }
+
+    /**
+     * Appends the Base58 encoding of the value at the given absolute offset of a buffer, leaving the buffer's position as
+     * it is.
+     *
+     * @param buffer the buffer holding the value
+     * @param offset the offset of the value's first byte
+     * @param out    the builder to append to
+     */
+    public void encode(final ByteBuffer buffer, final int offset, final StringBuilder out)
+    {
+        final Scratch scratch = scratches.get();
+        final int start = encode(scratch.load(buffer, offset), scratch);
+        out.append(scratch.chars, start, scratch.chars.length - start);
+    }
+
+    /**
+     * Decodes the given Base58 string into a new array.
+     *
+     * @param input the Base58 string to decode
+     * @return the decoded {@link #length()} bytes
+     * @throws IllegalArgumentException if the input is not the Base58 encoding of exactly {@link #length()} bytes
+     */
+    public byte[] decode(final CharSequence input)
+    {
+        final byte[] bytes = new byte[length];
+        decode(input, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Decodes the given Base58 string into an array at the given offset.
+     *
+     * @param input  the Base58 string to decode
+     * @param out    the array to write the decoded bytes to
+     * @param offset the offset to write the first byte at
+     * @throws IllegalArgumentException if the input is not the Base58 encoding of exactly {@link #length()} bytes
+     */
+    public void decode(final CharSequence input, final byte[] out, final int offset)
+    {
+        final long[] words = decodeWords(input);
+        for (int i = 0; i < words.length; i++)
+        {
+            final int word = (int) words[i];
+            final int index = offset + i * 4;
+            out[index] = (byte) (word >>> 24);
+            out[index + 1] = (byte) (word >>> 16);
+            out[index + 2] = (byte) (word >>> 8);
+            out[index + 3] = (byte) word;
+        }
+    }
+
+    /**
+     * Decodes the given Base58 string into a buffer at the given absolute offset, leaving the buffer's position as it is.
+     *
+     * @param input  the Base58 string to decode
+     * @param out    the buffer to write the decoded bytes to
+     * @param offset the offset to write the first byte at
+     * @throws IllegalArgumentException if the input is not the Base58 encoding of exactly {@link #length()} bytes
+     */
+    public void decode(final CharSequence input, final ByteBuffer out, final int offset)
+    {
+        final long[] words = decodeWords(input);
+        for (int i = 0; i < words.length; i++)
+        {
+            final int word = (int) words[i];
+            final int index = offset + i * 4;
+            out.put(index, (byte) (word >>> 24));
+            out.put(index + 1, (byte) (word >>> 16));
+            out.put(index + 2, (byte) (word >>> 8));
+            out.put(index + 3, (byte) word);
+        }
+    }
+
+    /**
+     * Returns whether the given string is the Base58 encoding of exactly {@link #length()} bytes.
+     *
+     * @param input the string to check
+     * @return true if {@link #decode(CharSequence)} would accept the string
+     */
+    public boolean isValid(final CharSequence input)
+    {
+        return toWords(requireNonNull(input), scratches.get().words);
+    }
+
+    private long[] decodeWords(final CharSequence input)
+    {
+        final long[] words = scratches.get().words;
+        if (!toWords(requireNonNull(input), words))
+        {
+            throw new IllegalArgumentException("not the Base58 encoding of " + length + " bytes: " + input);
+        }
+        return words;
+    }
+
+    /**
+     * Converts the words to limbs of five digits by repeated division, then writes the digits at the end of the scratch
+     * characters, returning the index of the first.
+     */
+    private int encode(final int leadingZeros, final Scratch scratch)
+    {
+        final long[] words = scratch.words;
+        final long[] limbs = scratch.limbs;
+        final char[] chars = scratch.chars;
+
+        int limbCount = 0;
+        int top = leadingZeros / 4;
+        while (top < words.length)
+        {
+            long remainder = 0;
+            for (int i = top; i < words.length; i++)
+            {
+                // the remainder is below 2^30, so the dividend fits in 62 bits
+                final long dividend = remainder << 32 | words[i];
+                final long quotient = dividend / LIMB_BASE;
+                words[i] = quotient;
+                remainder = dividend - quotient * LIMB_BASE;
+            }
+            limbs[limbCount++] = remainder;
+            while (top < words.length && words[top] == 0)
+            {
+                top++;
+            }
+        }
+
+        int start = chars.length;
+        for (int i = 0; i < limbCount; i++)
+        {
+            int limb = (int) limbs[i];
+            for (int j = 0; j < DIGITS_PER_LIMB; j++)
+            {
+                chars[--start] = ALPHABET[limb % 58];
+                limb /= 58;
+            }
+        }
+        while (start < chars.length && chars[start] == ENCODED_ZERO)
+        {
+            start++;
+        }
+        for (int i = 0; i < leadingZeros; i++)
+        {
+            chars[--start] = ENCODED_ZERO;
+        }
+        return start;
+    }
+
+    /**
+     * Converts the input to words, a limb of five digits at a time, returning whether it is a valid encoding: every
+     * character is Base58, the value fits and its leading zero bytes match the leading '1' characters.
+     */
+    private boolean toWords(final CharSequence input, final long[] words)
+    {
+        final int inputLength = input.length();
+        boolean valid = inputLength > 0 && inputLength <= maxEncodedLength;
+        Arrays.fill(words, 0);
+
+        // the first limb takes the digits left over, so that the last limb ends with the last digit
+        int chunk = (inputLength - 1) % DIGITS_PER_LIMB + 1;
+        int index = 0;
+        while (valid && index < inputLength)
+        {
+            long limb = 0;
+            for (final int end = index + chunk; index < end; index++)
+            {
+                final char c = input.charAt(index);
+                final int digit = c < 128 ? INDEXES[c] : -1;
+                valid &= digit >= 0;
+                limb = limb * 58 + digit;
+            }
+            chunk = DIGITS_PER_LIMB;
+
+            long carry = limb;
+            for (int i = words.length - 1; i >= 0; i--)
+            {
+                final long product = words[i] * LIMB_BASE + carry;
+                words[i] = product & WORD_MASK;
+                carry = product >>> 32;
+            }
+            valid &= carry == 0;
+        }
+        return valid && leadingOnes(input) == leadingZeroBytes(words);
+    }
+
+    private static int leadingOnes(final CharSequence input)
+    {
+        int ones = 0;
+        while (ones < input.length() && input.charAt(ones) == ENCODED_ZERO)
+        {
+            ones++;
+        }
+        return ones;
+    }
+
+    private static int leadingZeroBytes(final long[] words)
+    {
+        int i = 0;
+        while (i < words.length && words[i] == 0)
+        {
+            i++;
+        }
+        return i == words.length ? i * 4 : i * 4 + Integer.numberOfLeadingZeros((int) words[i]) / 8;
+    }
+
+    private static final class Scratch
+    {
+        private final long[] words;
+        private final long[] limbs;
+        private final char[] chars;
+
+        Scratch(final int wordCount, final int limbCount)
+        {
+            this.words = new long[wordCount];
+            this.limbs = new long[limbCount];
+            this.chars = new char[limbCount * DIGITS_PER_LIMB];
+        }
+
+        /**
+         * Loads the value into the words, returning its number of leading zero bytes.
+         */
+        int load(final byte[] bytes, final int offset)
+        {
+            for (int i = 0; i < words.length; i++)
+            {
+                final int index = offset + i * 4;
+                words[i] = ((bytes[index] & 0xffL) << 24) | ((bytes[index + 1] & 0xff) << 16) | ((bytes[index + 2] & 0xff) << 8) | (bytes[index + 3] & 0xff);
+            }
+            return leadingZeroBytes(words);
+        }
+
+        int load(final ByteBuffer buffer, final int offset)
+        {
+            for (int i = 0; i < words.length; i++)
+            {
+                final int index = offset + i * 4;
+                words[i] = ((buffer.get(index) & 0xffL) << 24) | ((buffer.get(index + 1) & 0xff) << 16) | ((buffer.get(index + 2) & 0xff) << 8) | (buffer.get(index + 3) & 0xff);
+            }
+            return leadingZeroBytes(words);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.ProgramDerivedAddress;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Remembers derived program addresses, so that deriving the same address again costs a lookup rather than a bump seed
+ * search.
+ * <p>
+ * Addresses are keyed by their seeds and program id, and the cache holds at most its capacity of them, evicting the least
+ * recently used first. Entries are spread over independently locked segments, each evicting on its own, so concurrent
+ * derivations seldom wait on one another. A lookup that hits allocates nothing: the seeds are only copied into a key when
+ * a derived address is added.
+ * </p>
+ * <p>
+ * A cache is thread safe.
+ * </p>
+ */
+public final class ProgramAddressCache
+{
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final ThreadLocal<Key> lookupKeys = ThreadLocal.withInitial(Key::new);
+
+    private ProgramAddressCache(final int capacity)
+    {
+        final int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(capacity));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++)
+        {
+            // the first segments take the remainder, so that the capacities sum to exactly the capacity
+            segments[i] = new Segment(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Creates a cache holding at most the given number of addresses.
+     *
+     * @param capacity the maximum number of addresses held
+     * @return a new {@link ProgramAddressCache}
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public static ProgramAddressCache withCapacity(final int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+        }
+        return new ProgramAddressCache(capacity);
+    }
+
+    /**
+     * Derives a program address from the given seeds and program id, as {@link SolanaEncoding#deriveProgramAddress(List, PublicKey)}
+     * does, unless it is cached.
+     *
+     * @param seeds     the list of byte arrays representing the seeds
+     * @param programId the public key of the program ID
+     * @return the {@link ProgramDerivedAddress}
+     */
+    public ProgramDerivedAddress deriveProgramAddress(final List<byte[]> seeds, final PublicKey programId)
+    {
+        final Key lookupKey = lookupKeys.get().wrap(seeds, requireNonNull(programId));
+        final Segment segment = segments[lookupKey.hash & (segments.length - 1)];
+        ProgramDerivedAddress address;
+        try
+        {
+            address = segment.get(lookupKey);
+        }
+        finally
+        {
+            lookupKey.release();
+        }
+
+        if (address == null)
+        {
+            address = SolanaProgramDerivedAddress.deriveProgramAddress(seeds, programId);
+            segment.put(new Key().copy(seeds, programId), address);
+        }
+        return address;
+    }
+
+    /**
+     * Returns the number of addresses held.
+     *
+     * @return the number of addresses
+     */
+    public int size()
+    {
+        int size = 0;
+        for (final Segment segment : segments)
+        {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Removes every address held.
+     */
+    public void clear()
+    {
+        for (final Segment segment : segments)
+        {
+            segment.clear();
+        }
+    }
+
+    private static final class Segment
+    {
+        private final Map<Key, ProgramDerivedAddress> addresses;
+
+        Segment(final int capacity)
+        {
+            this.addresses = new LinkedHashMap<Key, ProgramDerivedAddress>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Key, ProgramDerivedAddress> eldest)
+                {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized ProgramDerivedAddress get(final Key key)
+        {
+            return addresses.get(key);
+        }
+
+        synchronized void put(final Key key, final ProgramDerivedAddress address)
+        {
+            addresses.put(key, address);
+        }
+
+        synchronized int size()
+        {
+            return addresses.size();
+        }
+
+        synchronized void clear()
+        {
+            addresses.clear();
+        }
+    }
+
+    /**
+     * The seeds and program id of an address; lookups wrap the caller's seeds, while keys held by the cache own copies.
+     */
+    private static final class Key
+    {
+        private final long[] programId = new long[4];
+        private List<byte[]> seeds;
+        private int hash;
+
+        Key wrap(final List<byte[]> seeds, final PublicKey programId)
+        {
+            this.seeds = seeds;
+            // the program id is held as its words, which reading does not allocate
+            for (int i = 0; i < this.programId.length; i++)
+            {
+                this.programId[i] = programId.word(i);
+            }
+            int h = Arrays.hashCode(this.programId);
+            for (final byte[] seed : seeds)
+            {
+                h = 31 * h + Arrays.hashCode(seed);
+            }
+            // spread the high bits into the low ones that pick the segment
+            this.hash = h ^ (h >>> 16);
+            return this;
+        }
+
+        Key copy(final List<byte[]> seeds, final PublicKey programId)
+        {
+            final List<byte[]> copies = new ArrayList<>(seeds.size());
+            for (final byte[] seed : seeds)
+            {
+                copies.add(seed.clone());
+            }
+            return wrap(copies, programId);
+        }
+
+        void release()
+        {
+            seeds = null;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            final Key that = (Key) o;
+            return hash == that.hash && Arrays.equals(programId, that.programId) && seedsEqual(that.seeds);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        private boolean seedsEqual(final List<byte[]> others)
+        {
+            if (seeds.size() != others.size())
+            {
+                return false;
+            }
+            for (int i = 0; i < seeds.size(); i++)
+            {
+                if (!Arrays.equals(seeds.get(i), others.get(i)))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,740 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes messages over and over without allocating, for hot paths that send many transactions a second.
+ * <p>
+ * Where {@link com.valeamoris.solana4j.Solana#builder(ByteBuffer)} builds a fresh graph of builders, account references,
+ * maps and streams for every message, the encoder keeps preallocated, primitive backed tables of accounts, account
+ * references, instructions and instruction data sized up front by its {@link Builder}. Call {@link #reset()} between
+ * messages, describe the next message, and {@link #encode(ByteBuffer)} it into a buffer of your own; once the tables are
+ * warm nothing is allocated.
+ * </p>
+ * <p>
+ * Accounts are ordered and merged exactly as the message builders do, and each account that is not a signer is loaded
+ * from the first lookup table holding it, with the tables' entries in the order they were added, as
+ * {@link com.valeamoris.solana4j.api.LookupTableSelection#FIRST_MATCH} lays them out. Legacy and version 0 messages, with
+ * any number of lookup tables, are therefore byte for byte those of the builders. Lookup tables made with
+ * {@link com.valeamoris.solana4j.Solana#addressLookupTable} cache their address index; other implementations are indexed
+ * each time they are added. An encoder is not thread safe.
+ * </p>
+ */
+public final class ReusableMessageEncoder
+{
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int MAX_ACCOUNTS = 256;
+    private static final byte SIGNER = 1;
+    private static final byte WRITER = 2;
+    private static final int PROGRAM_CATEGORY = 3;
+
+    private final PublicKey[] accounts;
+    private final byte[] roles;
+    private final int[] categories;
+    private final int[] sequences;
+    private final int[] slots;
+    private final int[] slotGenerations;
+    private final int slotMask;
+    private int generation = 1;
+    private int accountCount;
+    private int sequence;
+
+    private final long[] order;
+    private final int[] merged;
+    private final int[] positions;
+    private final int[] loadedTables;
+    private final int[] loadedIndexes;
+
+    private final int[] programs;
+    private final int[] referenceStarts;
+    private final int[] referenceCounts;
+    private final int[] dataStarts;
+    private final int[] dataLengths;
+    private final TransactionInstruction[] prebuilt;
+    private int instructionCount;
+    private boolean instructionOpen;
+
+    private final int[] references;
+    private int referenceCount;
+
+    private final byte[] data;
+    private final ByteBuffer dataBuffer;
+    private int dataLength;
+
+    private final AddressLookupTable[] lookupTables;
+    private final SolanaAddressLookupTable.AddressIndex[] lookupIndexes;
+    private final int[] tableReadWriteCounts;
+    private final int[] tableReadOnlyCounts;
+    private int lookupTableCount;
+
+    private boolean v0;
+    private PublicKey payer;
+    private Blockhash recent;
+
+    private ReusableMessageEncoder(final Builder builder)
+    {
+        this.accounts = new PublicKey[builder.maxAccounts];
+        this.roles = new byte[builder.maxAccounts];
+        this.categories = new int[builder.maxAccounts];
+        this.sequences = new int[builder.maxAccounts];
+        int capacity = 4;
+        while (capacity < builder.maxAccounts * 2)
+        {
+            capacity <<= 1;
+        }
+        this.slots = new int[capacity];
+        this.slotGenerations = new int[capacity];
+        this.slotMask = capacity - 1;
+
+        this.order = new long[builder.maxAccounts];
+        this.merged = new int[builder.maxAccounts];
+        this.positions = new int[builder.maxAccounts];
+        this.loadedTables = new int[builder.maxAccounts];
+        this.loadedIndexes = new int[builder.maxAccounts];
+
+        this.programs = new int[builder.maxInstructions];
+        this.referenceStarts = new int[builder.maxInstructions];
+        this.referenceCounts = new int[builder.maxInstructions];
+        this.dataStarts = new int[builder.maxInstructions];
+        this.dataLengths = new int[builder.maxInstructions];
+        this.prebuilt = new TransactionInstruction[builder.maxInstructions];
+
+        this.references = new int[builder.maxAccountReferences];
+
+        this.data = new byte[builder.maxDataBytes];
+        this.dataBuffer = ByteBuffer.wrap(data);
+
+        this.lookupTables = new AddressLookupTable[builder.maxLookupTables];
+        this.lookupIndexes = new SolanaAddressLookupTable.AddressIndex[builder.maxLookupTables];
+        this.tableReadWriteCounts = new int[builder.maxLookupTables];
+        this.tableReadOnlyCounts = new int[builder.maxLookupTables];
+    }
+
+    /**
+     * Creates a builder for an encoder.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Clears the encoder ready for the next message, keeping its tables.
+     *
+     * @return this encoder
+     */
+    public ReusableMessageEncoder reset()
+    {
+        Arrays.fill(accounts, 0, accountCount, null);
+        Arrays.fill(prebuilt, 0, instructionCount, null);
+        Arrays.fill(lookupTables, 0, lookupTableCount, null);
+        Arrays.fill(lookupIndexes, 0, lookupTableCount, null);
+        accountCount = 0;
+        sequence = 0;
+        instructionCount = 0;
+        instructionOpen = false;
+        referenceCount = 0;
+        dataLength = 0;
+        lookupTableCount = 0;
+        v0 = false;
+        payer = null;
+        recent = null;
+
+        generation++;
+        if (generation == 0)
+        {
+            Arrays.fill(slotGenerations, 0);
+            generation = 1;
+        }
+        return this;
+    }
+
+    /**
+     * Encodes a legacy message; the default after {@link #reset()}.
+     *
+     * @return this encoder
+     */
+    public ReusableMessageEncoder legacy()
+    {
+        v0 = false;
+        return this;
+    }
+
+    /**
+     * Encodes a version 0 message.
+     *
+     * @return this encoder
+     */
+    public ReusableMessageEncoder v0()
+    {
+        v0 = true;
+        return this;
+    }
+
+    /**
+     * Adds a lookup table to load accounts from, making the message a version 0 message.
+     *
+     * @param addressLookupTable the lookup table, searched after those already added
+     * @return this encoder
+     * @throws IllegalArgumentException if the encoder already holds its maximum number of lookup tables
+     */
+    public ReusableMessageEncoder lookup(final AddressLookupTable addressLookupTable)
+    {
+        checkCapacity(lookupTableCount, lookupTables.length, "lookup tables");
+        lookupIndexes[lookupTableCount] = SolanaAddressLookupTable.indexOf(addressLookupTable);
+        lookupTables[lookupTableCount++] = addressLookupTable;
+        v0 = true;
+        return this;
+    }
+
+    /**
+     * Sets the fee payer of the message.
+     *
+     * @param payer the account that pays for and signs the transaction
+     * @return this encoder
+     */
+    public ReusableMessageEncoder payer(final PublicKey payer)
+    {
+        this.payer = requireNonNull(payer);
+        return this;
+    }
+
+    /**
+     * Sets the recent blockhash, or durable nonce, of the message.
+     *
+     * @param recent the blockhash
+     * @return this encoder
+     */
+    public ReusableMessageEncoder recent(final Blockhash recent)
+    {
+        this.recent = requireNonNull(recent);
+        return this;
+    }
+
+    /**
+     * Adds a prebuilt instruction, whose data is written straight into the message when it is encoded.
+     *
+     * @param instruction the instruction
+     * @return this encoder
+     * @throws IllegalArgumentException if the encoder has no room left for the instruction
+     */
+    public ReusableMessageEncoder instruction(final TransactionInstruction instruction)
+    {
+        openInstruction(instruction.program());
+        instructionOpen = false;
+
+        final List<TransactionInstruction.AccountReference> accountReferences = instruction.accountReferences();
+        for (int i = 0; i < accountReferences.size(); i++)
+        {
+            final TransactionInstruction.AccountReference accountReference = accountReferences.get(i);
+            addReference(accountReference.account(), accountReference.isSigner(), accountReference.isWriter());
+        }
+
+        final int ix = instructionCount - 1;
+        prebuilt[ix] = instruction;
+        dataLengths[ix] = instruction.datasize();
+        return this;
+    }
+
+    /**
+     * Starts an instruction whose accounts and data follow through {@link #account} and {@link #data}.
+     *
+     * @param program the program the instruction invokes
+     * @return this encoder
+     * @throws IllegalArgumentException if the encoder has no room left for the instruction
+     */
+    public ReusableMessageEncoder instruction(final PublicKey program)
+    {
+        openInstruction(program);
+        return this;
+    }
+
+    /**
+     * Adds an account to the instruction started by {@link #instruction(PublicKey)}.
+     *
+     * @param account  the account
+     * @param signer   whether the account signs the transaction
+     * @param writer   whether the instruction writes to the account
+     * @return this encoder
+     * @throws IllegalArgumentException if the encoder has no room left for the account
+     */
+    public ReusableMessageEncoder account(final PublicKey account, final boolean signer, final boolean writer)
+    {
+        checkInstructionOpen();
+        addReference(account, signer, writer);
+        return this;
+    }
+
+    /**
+     * Copies the data of the instruction started by {@link #instruction(PublicKey)}.
+     *
+     * @param bytes  the array holding the data
+     * @param offset the offset of the data in the array
+     * @param length the length of the data
+     * @return this encoder
+     * @throws IllegalArgumentException if the encoder has no room left for the data
+     */
+    public ReusableMessageEncoder data(final byte[] bytes, final int offset, final int length)
+    {
+        final int start = reserveData(length);
+        System.arraycopy(bytes, offset, data, start, length);
+        return this;
+    }
+
+    /**
+     * Writes the data of the instruction started by {@link #instruction(PublicKey)}.
+     * <p>
+     * The writer is handed the encoder's own data buffer with exactly {@code size} bytes remaining; a writer that
+     * captures nothing keeps the call free of allocation.
+     * </p>
+     *
+     * @param size   the length of the data
+     * @param writer writes the data
+     * @return this encoder
+     * @throws IllegalArgumentException if the encoder has no room left for the data
+     */
+    public ReusableMessageEncoder data(final int size, final Consumer<ByteBuffer> writer)
+    {
+        final int start = reserveData(size);
+        dataBuffer.limit(start + size);
+        dataBuffer.position(start);
+        writer.accept(dataBuffer);
+        return this;
+    }
+
+    /**
+     * Encodes the message at the position of the buffer, leaving space for the signatures.
+     * <p>
+     * On return the buffer's position is where the message starts and its limit where the message ends, as the message
+     * builders leave theirs.
+     * </p>
+     *
+     * @param buffer the buffer to encode into
+     * @return the length of the encoded message
+     * @throws IllegalStateException    if the payer or recent blockhash has not been set
+     * @throws IllegalArgumentException if the payer does not fit in the account table
+     */
+    public int encode(final ByteBuffer buffer)
+    {
+        if (payer == null || recent == null)
+        {
+            throw new IllegalStateException("Solana transaction incomplete; payer or recent blockhash has not been specified.");
+        }
+        instructionOpen = false;
+
+        // the payer leads the accounts, whatever instructions mention it
+        register(payer, (byte) (SIGNER | WRITER), 0, -1);
+
+        // order accounts as the builders do: by their strongest role, then by their first appearance in that role
+        for (int ordinal = 0; ordinal < accountCount; ordinal++)
+        {
+            order[ordinal] = ((long) categories[ordinal] << 40) | ((long) (sequences[ordinal] + 1) << 16) | ordinal;
+        }
+        Arrays.sort(order, 0, accountCount);
+        for (int i = 0; i < accountCount; i++)
+        {
+            merged[i] = (int) (order[i] & 0xFFFF);
+        }
+
+        final int staticCount = resolveLookups();
+        final int countSigned = assignPositions();
+
+        final int start = buffer.position();
+        writeHeader(buffer, staticCount, countSigned);
+        writeInstructions(buffer);
+        if (v0)
+        {
+            writeLookups(buffer);
+        }
+
+        buffer.limit(buffer.position());
+        buffer.position(start);
+        return buffer.remaining();
+    }
+
+    private int resolveLookups()
+    {
+        Arrays.fill(tableReadWriteCounts, 0, lookupTableCount, 0);
+        Arrays.fill(tableReadOnlyCounts, 0, lookupTableCount, 0);
+
+        int staticCount = 0;
+        for (int i = 0; i < accountCount; i++)
+        {
+            final int ordinal = merged[i];
+            loadedTables[ordinal] = -1;
+            if ((roles[ordinal] & SIGNER) == 0)
+            {
+                for (int table = 0; table < lookupTableCount; table++)
+                {
+                    final int index = lookupIndexes[table].indexOf(accounts[ordinal]);
+                    if (index >= 0)
+                    {
+                        loadedTables[ordinal] = table;
+                        loadedIndexes[ordinal] = index;
+                        if ((roles[ordinal] & WRITER) != 0)
+                        {
+                            tableReadWriteCounts[table]++;
+                        }
+                        else
+                        {
+                            tableReadOnlyCounts[table]++;
+                        }
+                        break;
+                    }
+                }
+            }
+            if (loadedTables[ordinal] < 0)
+            {
+                staticCount++;
+            }
+        }
+        return staticCount;
+    }
+
+    private int assignPositions()
+    {
+        int position = 0;
+        int countSigned = 0;
+        for (int i = 0; i < accountCount; i++)
+        {
+            final int ordinal = merged[i];
+            if (loadedTables[ordinal] < 0)
+            {
+                positions[ordinal] = position++;
+                countSigned += roles[ordinal] & SIGNER;
+            }
+        }
+
+        // loaded accounts follow table by table, writable before read only
+        for (int table = 0; table < lookupTableCount; table++)
+        {
+            position = assignLoadedPositions(table, WRITER, position);
+            position = assignLoadedPositions(table, 0, position);
+        }
+        return countSigned;
+    }
+
+    private int assignLoadedPositions(final int table, final int writer, final int from)
+    {
+        int position = from;
+        for (int i = 0; i < accountCount; i++)
+        {
+            final int ordinal = merged[i];
+            if (loadedTables[ordinal] == table && (roles[ordinal] & WRITER) == writer)
+            {
+                positions[ordinal] = position++;
+            }
+        }
+        return position;
+    }
+
+    private void writeHeader(final ByteBuffer buffer, final int staticCount, final int countSigned)
+    {
+        int countSignedReadOnly = 0;
+        int countUnsignedReadOnly = 0;
+        for (int i = 0; i < accountCount; i++)
+        {
+            final int ordinal = merged[i];
+            if (loadedTables[ordinal] < 0 && (roles[ordinal] & WRITER) == 0)
+            {
+                if ((roles[ordinal] & SIGNER) != 0)
+                {
+                    countSignedReadOnly++;
+                }
+                else
+                {
+                    countUnsignedReadOnly++;
+                }
+            }
+        }
+
+        SolanaShortVec.write(countSigned, buffer);
+        for (int i = 0; i < countSigned * SIGNATURE_LENGTH; i += Long.BYTES)
+        {
+            buffer.putLong(0L);
+        }
+
+        if (v0)
+        {
+            buffer.put((byte) 0x80);
+        }
+        buffer.put((byte) countSigned);
+        buffer.put((byte) countSignedReadOnly);
+        buffer.put((byte) countUnsignedReadOnly);
+
+        SolanaShortVec.write(staticCount, buffer);
+        for (int i = 0; i < accountCount; i++)
+        {
+            final int ordinal = merged[i];
+            if (loadedTables[ordinal] < 0)
+            {
+                accounts[ordinal].write(buffer);
+            }
+        }
+
+        recent.write(buffer);
+    }
+
+    private void writeInstructions(final ByteBuffer buffer)
+    {
+        SolanaShortVec.write(instructionCount, buffer);
+        for (int ix = 0; ix < instructionCount; ix++)
+        {
+            buffer.put((byte) positions[programs[ix]]);
+
+            SolanaShortVec.write(referenceCounts[ix], buffer);
+            final int end = referenceStarts[ix] + referenceCounts[ix];
+            for (int reference = referenceStarts[ix]; reference < end; reference++)
+            {
+                buffer.put((byte) positions[references[reference]]);
+            }
+
+            SolanaShortVec.write(dataLengths[ix], buffer);
+            if (prebuilt[ix] != null)
+            {
+                prebuilt[ix].data().accept(buffer);
+            }
+            else
+            {
+                buffer.put(data, dataStarts[ix], dataLengths[ix]);
+            }
+        }
+    }
+
+    private void writeLookups(final ByteBuffer buffer)
+    {
+        int tablesUsed = 0;
+        for (int table = 0; table < lookupTableCount; table++)
+        {
+            if (tableReadWriteCounts[table] + tableReadOnlyCounts[table] > 0)
+            {
+                tablesUsed++;
+            }
+        }
+
+        SolanaShortVec.write(tablesUsed, buffer);
+        for (int table = 0; table < lookupTableCount; table++)
+        {
+            if (tableReadWriteCounts[table] + tableReadOnlyCounts[table] > 0)
+            {
+                lookupTables[table].getLookupTableAddress().write(buffer);
+                SolanaShortVec.write(tableReadWriteCounts[table], buffer);
+                writeLoadedIndexes(buffer, table, WRITER);
+                SolanaShortVec.write(tableReadOnlyCounts[table], buffer);
+                writeLoadedIndexes(buffer, table, 0);
+            }
+        }
+    }
+
+    private void writeLoadedIndexes(final ByteBuffer buffer, final int table, final int writer)
+    {
+        for (int i = 0; i < accountCount; i++)
+        {
+            final int ordinal = merged[i];
+            if (loadedTables[ordinal] == table && (roles[ordinal] & WRITER) == writer)
+            {
+                SolanaShortVec.write(loadedIndexes[ordinal], buffer);
+            }
+        }
+    }
+
+    private void openInstruction(final PublicKey program)
+    {
+        checkCapacity(instructionCount, programs.length, "instructions");
+        final int ix = instructionCount++;
+        programs[ix] = register(program, (byte) 0, PROGRAM_CATEGORY, sequence++);
+        referenceStarts[ix] = referenceCount;
+        referenceCounts[ix] = 0;
+        dataStarts[ix] = 0;
+        dataLengths[ix] = 0;
+        prebuilt[ix] = null;
+        instructionOpen = true;
+    }
+
+    private void addReference(final PublicKey account, final boolean signer, final boolean writer)
+    {
+        checkCapacity(referenceCount, references.length, "account references");
+        final byte role = (byte) ((signer ? SIGNER : 0) | (writer ? WRITER : 0));
+        final int category = (signer ? 0 : 2) + (writer ? 0 : 1);
+        references[referenceCount++] = register(account, role, category, sequence++);
+        referenceCounts[instructionCount - 1]++;
+    }
+
+    private int reserveData(final int length)
+    {
+        checkInstructionOpen();
+        if (length < 0 || length > data.length - dataLength)
+        {
+            throw new IllegalArgumentException("encoder holds at most " + data.length + " instruction data bytes");
+        }
+        final int start = dataLength;
+        dataLength += length;
+        dataStarts[instructionCount - 1] = start;
+        dataLengths[instructionCount - 1] = length;
+        return start;
+    }
+
+    private int register(final PublicKey account, final byte role, final int category, final int occurrence)
+    {
+        requireNonNull(account);
+        int slot = slot(account);
+        while (slotGenerations[slot] == generation)
+        {
+            final int ordinal = slots[slot];
+            if (accounts[ordinal].equals(account))
+            {
+                roles[ordinal] |= role;
+                if (category < categories[ordinal] || (category == categories[ordinal] && occurrence < sequences[ordinal]))
+                {
+                    categories[ordinal] = category;
+                    sequences[ordinal] = occurrence;
+                }
+                return ordinal;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+
+        checkCapacity(accountCount, accounts.length, "accounts");
+        final int ordinal = accountCount++;
+        accounts[ordinal] = account;
+        roles[ordinal] = role;
+        categories[ordinal] = category;
+        sequences[ordinal] = occurrence;
+        slots[slot] = ordinal;
+        slotGenerations[slot] = generation;
+        return ordinal;
+    }
+
+    private int slot(final PublicKey account)
+    {
+        final int hash = account.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & slotMask;
+    }
+
+    private void checkInstructionOpen()
+    {
+        if (!instructionOpen)
+        {
+            throw new IllegalStateException("no instruction started; call instruction(program) first");
+        }
+    }
+
+    private static void checkCapacity(final int used, final int capacity, final String what)
+    {
+        if (used >= capacity)
+        {
+            throw new IllegalArgumentException("encoder holds at most " + capacity + " " + what);
+        }
+    }
+
+    /**
+     * Sizes the tables of a {@link ReusableMessageEncoder}.
+     */
+    public static final class Builder
+    {
+        private int maxAccounts = MAX_ACCOUNTS;
+        private int maxAccountReferences = 1024;
+        private int maxInstructions = 64;
+        private int maxDataBytes = SolanaEncoding.MAX_MESSAGE_SIZE;
+        private int maxLookupTables = 16;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Sets how many distinct accounts, lookup table accounts included, a message may mention.
+         *
+         * @param maxAccounts the limit, at most 256; 256 unless set
+         * @return this builder
+         */
+        public Builder maxAccounts(final int maxAccounts)
+        {
+            if (maxAccounts > MAX_ACCOUNTS)
+            {
+                throw new IllegalArgumentException("maxAccounts must be at most " + MAX_ACCOUNTS + " but was " + maxAccounts);
+            }
+            this.maxAccounts = positive("maxAccounts", maxAccounts);
+            return this;
+        }
+
+        /**
+         * Sets how many account references all the instructions of a message may hold between them.
+         *
+         * @param maxAccountReferences the limit; 1024 unless set
+         * @return this builder
+         */
+        public Builder maxAccountReferences(final int maxAccountReferences)
+        {
+            this.maxAccountReferences = positive("maxAccountReferences", maxAccountReferences);
+            return this;
+        }
+
+        /**
+         * Sets how many instructions a message may hold.
+         *
+         * @param maxInstructions the limit; 64 unless set
+         * @return this builder
+         */
+        public Builder maxInstructions(final int maxInstructions)
+        {
+            this.maxInstructions = positive("maxInstructions", maxInstructions);
+            return this;
+        }
+
+        /**
+         * Sets how many bytes of instruction data added through {@link ReusableMessageEncoder#data} a message may hold.
+         *
+         * @param maxDataBytes the limit; {@link SolanaEncoding#MAX_MESSAGE_SIZE} unless set
+         * @return this builder
+         */
+        public Builder maxDataBytes(final int maxDataBytes)
+        {
+            this.maxDataBytes = positive("maxDataBytes", maxDataBytes);
+            return this;
+        }
+
+        /**
+         * Sets how many lookup tables a message may load accounts from.
+         *
+         * @param maxLookupTables the limit; 16 unless set
+         * @return this builder
+         */
+        public Builder maxLookupTables(final int maxLookupTables)
+        {
+            this.maxLookupTables = positive("maxLookupTables", maxLookupTables);
+            return this;
+        }
+
+        /**
+         * Builds the encoder, allocating all of its tables.
+         *
+         * @return a new {@link ReusableMessageEncoder}
+         */
+        public ReusableMessageEncoder build()
+        {
+            return new ReusableMessageEncoder(this);
+        }
+
+        private static int positive(final String name, final int value)
+        {
+            if (value <= 0)
+            {
+                throw new IllegalArgumentException(name + " must be positive but was " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.Message;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Verifies the Ed25519 signatures of encoded transactions, many at a time.
+ * <p>
+ * Signatures are checked together in batches: each signature (R, S) by key A over message M is weighted by a random 128
+ * bit z, and the batch is valid when 8 * ((sum z * S) B - sum z * R - sum (z * H(R || A || M)) A) is the identity. A
+ * single multi-scalar multiplication over every point of the batch costs far less than one per signature, and a forged
+ * signature passes only if it guesses the weights. When a batch fails it is split in halves, and those in halves again,
+ * until the bad signatures are pinpointed.
+ * </p>
+ * <p>
+ * Every check, batched or not, uses the cofactored equation, so a signature's validity never depends on the batch it is
+ * checked in. As the validators' strict check does, S must be below the group order, and R and A must be canonical
+ * encodings of points that are not of small order, which would satisfy the cofactored equation for any message. Beyond
+ * that the two equations differ only for an R or A with a small order point added to one of the prime order, which no
+ * honest signer produces.
+ * </p>
+ * <p>
+ * Transactions are read in place, hashed straight from their buffers, and the working state lives in per thread scratch
+ * space. Large batches of transactions are split into contiguous chunks verified on an executor. A verifier is thread
+ * safe.
+ * </p>
+ */
+public final class SignatureVerifier
+{
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final int WEIGHT_LENGTH = 16;
+    private static final byte[] ZERO = new byte[Ed25519Scalar.LENGTH];
+
+    private final Executor executor;
+    private final int parallelism;
+    private final int batchSize;
+    private final ThreadLocal<Scratch> scratch;
+
+    private SignatureVerifier(final Builder builder)
+    {
+        this.executor = builder.executor;
+        this.parallelism = builder.parallelism;
+        this.batchSize = builder.batchSize;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(batchSize));
+    }
+
+    /**
+     * Creates a builder for a {@link SignatureVerifier}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Verifies every signature of a message read with {@link SolanaEncoding#read(ByteBuffer)}.
+     *
+     * @param message the message
+     * @return true if the message is well formed and every signature is valid
+     */
+    public boolean verifySignatures(final Message message)
+    {
+        return verifySignatures(((SolanaMessage) message).buffer());
+    }
+
+    /**
+     * Verifies every signature of the transaction between the buffer's position and limit, which are left as they are.
+     *
+     * @param transaction the encoded transaction
+     * @return true if the transaction is well formed and every signature is valid
+     */
+    public boolean verifySignatures(final ByteBuffer transaction)
+    {
+        final boolean[] valid = {true};
+        verifyRange(Arrays.asList(transaction), valid, 0, 1);
+        return valid[0];
+    }
+
+    /**
+     * Verifies every signature of each transaction, each lying between its buffer's position and limit, which are left as
+     * they are.
+     *
+     * @param transactions the encoded transactions
+     * @return for each transaction in the order given, true if it is well formed and every one of its signatures is valid
+     */
+    public boolean[] verifySignatures(final List<ByteBuffer> transactions)
+    {
+        final boolean[] valid = new boolean[transactions.size()];
+        Arrays.fill(valid, true);
+        final int chunks = Math.min(transactions.size(), parallelism * CHUNKS_PER_THREAD);
+        if (chunks <= 1)
+        {
+            verifyRange(transactions, valid, 0, transactions.size());
+            return valid;
+        }
+
+        final CompletableFuture<?>[] tasks = new CompletableFuture<?>[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++)
+        {
+            final int from = (int) ((long) transactions.size() * chunk / chunks);
+            final int to = (int) ((long) transactions.size() * (chunk + 1) / chunks);
+            tasks[chunk] = CompletableFuture.runAsync(() -> verifyRange(transactions, valid, from, to), executor);
+        }
+        try
+        {
+            CompletableFuture.allOf(tasks).join();
+        }
+        catch (final CompletionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return valid;
+    }
+
+    private void verifyRange(final List<ByteBuffer> transactions, final boolean[] valid, final int from, final int to)
+    {
+        final Scratch s = scratch.get();
+        s.count = 0;
+        for (int i = from; i < to; i++)
+        {
+            final ByteBuffer transaction = transactions.get(i).duplicate();
+            final int accountsOffset;
+            try
+            {
+                accountsOffset = TransactionHeaders.signerAccountsOffset(transaction);
+            }
+            catch (final IllegalStateException e)
+            {
+                valid[i] = false;
+                continue;
+            }
+            final int signaturesOffset = TransactionHeaders.signaturesOffset(transaction);
+            final int signatureCount = TransactionHeaders.signatureCount(transaction);
+            final int messageOffset = signaturesOffset + signatureCount * TransactionHeaders.SIGNATURE_LENGTH;
+
+            // hashing moves the duplicate's position and limit, so the end of the message is kept aside
+            final int limit = transaction.limit();
+            for (int signer = 0; signer < signatureCount; signer++)
+            {
+                if (s.count == batchSize)
+                {
+                    flush(s, valid);
+                }
+                final int item = s.count++;
+                s.transactions[item] = transaction;
+                s.owners[item] = i;
+                s.signatureOffsets[item] = signaturesOffset + signer * TransactionHeaders.SIGNATURE_LENGTH;
+                s.accountOffsets[item] = accountsOffset + signer * PublicKey.PUBLIC_KEY_LENGTH;
+                s.messageOffsets[item] = messageOffset;
+                s.limits[item] = limit;
+            }
+        }
+        flush(s, valid);
+    }
+
+    private static void flush(final Scratch s, final boolean[] valid)
+    {
+        pinpoint(s, valid, 0, s.count);
+        Arrays.fill(s.transactions, 0, s.count, null);
+        s.count = 0;
+    }
+
+    private static void pinpoint(final Scratch s, final boolean[] valid, final int from, final int to)
+    {
+        if (from < to && !verifyBatch(s, from, to))
+        {
+            if (to - from == 1)
+            {
+                valid[s.owners[from]] = false;
+            }
+            else
+            {
+                final int middle = (from + to) >>> 1;
+                pinpoint(s, valid, from, middle);
+                pinpoint(s, valid, middle, to);
+            }
+        }
+    }
+
+    private static boolean verifyBatch(final Scratch s, final int from, final int to)
+    {
+        s.sum.clear();
+        Arrays.fill(s.baseScalar, (byte) 0);
+
+        // a lone signature needs no weight, as there is nothing for a forgery to cancel against
+        Arrays.fill(s.weight, (byte) 0);
+        s.weight[0] = 1;
+        for (int item = from; item < to; item++)
+        {
+            if (to - from > 1)
+            {
+                s.random.nextBytes(s.randomBytes);
+                System.arraycopy(s.randomBytes, 0, s.weight, 0, WEIGHT_LENGTH);
+            }
+            if (!addSignature(s, item))
+            {
+                return false;
+            }
+        }
+        s.sum.addBaseMultiple(s.baseScalar, 0);
+        return s.sum.sumHasSmallOrder();
+    }
+
+    private static boolean addSignature(final Scratch s, final int item)
+    {
+        final Ed25519Group.MultiScalar sum = s.sum;
+        final Ed25519Group.Point point = s.point;
+        final byte[] signature = s.signature;
+        final byte[] weight = s.weight;
+        final ByteBuffer transaction = s.transactions[item];
+        final int signatureOffset = s.signatureOffsets[item];
+        final int accountOffset = s.accountOffsets[item];
+        for (int i = 0; i < Ed25519Signer.SIGNATURE_LENGTH; i++)
+        {
+            signature[i] = transaction.get(signatureOffset + i);
+        }
+
+        // z for -R, where R of small order would satisfy the cofactored equation whatever it was meant to commit to
+        if (!Ed25519Scalar.isCanonical(signature, Ed25519Group.ENCODED_LENGTH)
+                || !sum.decode(point, transaction, signatureOffset)
+                || sum.hasSmallOrder(point))
+        {
+            return false;
+        }
+        point.negate();
+        sum.addMultiple(point, weight, 0);
+
+        // k = H(R || A || M), z * k for -A and z * S towards the sum for B
+        final MessageDigest digest = s.digest;
+        digest.update(signature, 0, Ed25519Group.ENCODED_LENGTH);
+        transaction.limit(accountOffset + PublicKey.PUBLIC_KEY_LENGTH).position(accountOffset);
+        digest.update(transaction);
+        transaction.limit(s.limits[item]).position(s.messageOffsets[item]);
+        digest.update(transaction);
+        finish(digest, s.hash);
+        Ed25519Scalar.reduce(s.challenge, 0, s.hash, 0);
+        Ed25519Scalar.mulAdd(s.challenge, 0, weight, 0, s.challenge, 0, ZERO, 0);
+        Ed25519Scalar.mulAdd(s.baseScalar, 0, weight, 0, signature, Ed25519Group.ENCODED_LENGTH, s.baseScalar, 0);
+        if (!sum.decode(point, transaction, accountOffset) || sum.hasSmallOrder(point))
+        {
+            return false;
+        }
+        point.negate();
+        sum.addMultiple(point, s.challenge, 0);
+        return true;
+    }
+
+    private static void finish(final MessageDigest digest, final byte[] hash)
+    {
+        try
+        {
+            digest.digest(hash, 0, hash.length);
+        }
+        catch (final DigestException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Scratch
+    {
+        private final MessageDigest digest;
+        private final SecureRandom random = new SecureRandom();
+        private final Ed25519Group.MultiScalar sum;
+        private final Ed25519Group.Point point = new Ed25519Group.Point();
+        private final ByteBuffer[] transactions;
+        private final int[] owners;
+        private final int[] signatureOffsets;
+        private final int[] accountOffsets;
+        private final int[] messageOffsets;
+        private final int[] limits;
+        private final byte[] signature = new byte[Ed25519Signer.SIGNATURE_LENGTH];
+        private final byte[] weight = new byte[Ed25519Scalar.LENGTH];
+        private final byte[] randomBytes = new byte[WEIGHT_LENGTH];
+        private final byte[] baseScalar = new byte[Ed25519Scalar.LENGTH];
+        private final byte[] challenge = new byte[Ed25519Scalar.LENGTH];
+        private final byte[] hash = new byte[64];
+        private int count;
+
+        private Scratch(final int batchSize)
+        {
+            this.sum = new Ed25519Group.MultiScalar(2 * batchSize + 1);
+            this.transactions = new ByteBuffer[batchSize];
+            this.owners = new int[batchSize];
+            this.signatureOffsets = new int[batchSize];
+            this.accountOffsets = new int[batchSize];
+            this.messageOffsets = new int[batchSize];
+            this.limits = new int[batchSize];
+            try
+            {
+                digest = MessageDigest.getInstance("SHA-512");
+            }
+            catch (final NoSuchAlgorithmException e)
+            {
+                throw new IllegalStateException("SHA-512 is not available", e);
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link SignatureVerifier}.
+     */
+    public static final class Builder
+    {
+        private Executor executor = ForkJoinPool.commonPool();
+        private int parallelism = ForkJoinPool.commonPool().getParallelism();
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Sets the executor that verifies chunks of transactions, by default the common {@link ForkJoinPool}.
+         *
+         * @param executor    the executor
+         * @param parallelism the number of threads the executor verifies with, used to size the chunks
+         * @return this builder
+         * @throws IllegalArgumentException if the parallelism is not positive
+         */
+        public Builder executor(final Executor executor, final int parallelism)
+        {
+            if (parallelism <= 0)
+            {
+                throw new IllegalArgumentException("parallelism must be positive but was " + parallelism);
+            }
+            this.executor = requireNonNull(executor);
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Verifies chunks of transactions on a {@link ForkJoinPool}.
+         *
+         * @param pool the pool
+         * @return this builder
+         */
+        public Builder executor(final ForkJoinPool pool)
+        {
+            return executor(pool, pool.getParallelism());
+        }
+
+        /**
+         * Sets the number of signatures checked together, by default 64.
+         * <p>
+         * Larger batches amortise the shared doublings further but cost more to pinpoint a bad signature in.
+         * </p>
+         *
+         * @param batchSize the number of signatures in a batch
+         * @return this builder
+         * @throws IllegalArgumentException if the batch size is not positive
+         */
+        public Builder batchSize(final int batchSize)
+        {
+            if (batchSize <= 0)
+            {
+                throw new IllegalArgumentException("batch size must be positive but was " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Builds the {@link SignatureVerifier}.
+         *
+         * @return a new {@link SignatureVerifier}
+         */
+        public SignatureVerifier build()
+        {
+            return new SignatureVerifier(this);
+        }
+    }
+}
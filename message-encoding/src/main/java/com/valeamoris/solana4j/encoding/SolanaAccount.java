@@ -2,57 +2,200 @@ package com.valeamoris.solana4j.encoding;
 
 import com.valeamoris.solana4j.api.PublicKey;
 
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.nio.ByteOrder;
 
 import static java.util.Objects.requireNonNull;
 
+/**
+ * A public key held as four big-endian {@code long} words rather than an array, so that equality is four comparisons
+ * and the hash is computed once.
+ * <p>
+ * The Base58 form is only built when first asked for, then kept. {@link #bytes()} builds a new array on every call, so
+ * callers may modify it without touching the key; hot paths read {@link #word(int)} or {@link #write(ByteBuffer)}
+ * instead. Keys of the well-known programs are interned: reading or creating one through {@link #of(byte[])} or {@link #read(ByteBuffer)} returns the same instance
+ * every time, so decoded messages share them.
+ * </p>
+ */
 final class SolanaAccount implements PublicKey, Comparable<SolanaAccount>
 {
     private static final int PUBLIC_KEY_LENGTH = 32;
-    final byte[] bytes;
+    private static final SolanaAccount[] WELL_KNOWN = {
+            wellKnown("11111111111111111111111111111111"),
+            wellKnown("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA"),
+            wellKnown("TokenzQdBNbLqP5VEhdkAS6EPFLC1PHnBqCXEpPxuEb"),
+            wellKnown("ATokenGPvbdGVxr1b2hvZbsiqW5xWH25efTNsLJA8knL"),
+            wellKnown("ComputeBudget111111111111111111111111111111"),
+            wellKnown("AddressLookupTab1e1111111111111111111111111")
+    };
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    private final int hash;
+    // built on first use; a String is safe to share racily
+    private String base58;
 
     SolanaAccount(final byte[] bytes)
+    {
+        this(word(checkLength(bytes), 0), word(bytes, 8), word(bytes, 16), word(bytes, 24));
+    }
+
+    private SolanaAccount(final long word0, final long word1, final long word2, final long word3)
+    {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+        this.word3 = word3;
+        int h = Long.hashCode(word0);
+        h = 31 * h + Long.hashCode(word1);
+        h = 31 * h + Long.hashCode(word2);
+        this.hash = 31 * h + Long.hashCode(word3);
+    }
+
+    /**
+     * Returns the account of the given bytes, the interned instance if it is a well-known program.
+     */
+    static SolanaAccount of(final byte[] bytes)
+    {
+        checkLength(bytes);
+        return of(word(bytes, 0), word(bytes, 8), word(bytes, 16), word(bytes, 24));
+    }
+
+    /**
+     * Reads an account at the buffer's position, advancing it, the interned instance if it is a well-known program.
+     */
+    static SolanaAccount read(final ByteBuffer buffer)
+    {
+        final int position = buffer.position();
+        if (buffer.remaining() < PUBLIC_KEY_LENGTH)
+        {
+            throw new BufferUnderflowException();
+        }
+        final SolanaAccount account = of(word(buffer, position), word(buffer, position + 8), word(buffer, position + 16), word(buffer, position + 24));
+        buffer.position(position + PUBLIC_KEY_LENGTH);
+        return account;
+    }
+
+    private static SolanaAccount of(final long word0, final long word1, final long word2, final long word3)
+    {
+        for (final SolanaAccount wellKnown : WELL_KNOWN)
+        {
+            if (wellKnown.word0 == word0 && wellKnown.word1 == word1 && wellKnown.word2 == word2 && wellKnown.word3 == word3)
+            {
+                return wellKnown;
+            }
+        }
+        return new SolanaAccount(word0, word1, word2, word3);
+    }
+
+    private static SolanaAccount wellKnown(final String base58)
+    {
+        final SolanaAccount account = new SolanaAccount(FixedWidthBase58.PUBLIC_KEY.decode(base58));
+        account.base58 = base58;
+        return account;
+    }
+
+    private static byte[] checkLength(final byte[] bytes)
     {
         if (requireNonNull(bytes).length != PUBLIC_KEY_LENGTH)
         {
             throw new IllegalArgumentException("invalid public key length. Expected length: " + PUBLIC_KEY_LENGTH);
         }
-        this.bytes = bytes.clone();
+        return bytes;
+    }
+
+    private static long word(final byte[] bytes, final int offset)
+    {
+        long word = 0;
+        for (int i = offset; i < offset + 8; i++)
+        {
+            word = word << 8 | (bytes[i] & 0xff);
+        }
+        return word;
+    }
+
+    private static void putWord(final byte[] bytes, final int offset, final long word)
+    {
+        for (int i = 0; i < 8; i++)
+        {
+            bytes[offset + i] = (byte) (word >>> (56 - 8 * i));
+        }
+    }
+
+    private static long word(final ByteBuffer buffer, final int index)
+    {
+        final long word = buffer.getLong(index);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? word : Long.reverseBytes(word);
     }
 
     @Override
     public String base58()
     {
-        return Base58.encode(bytes);
+        String encoded = base58;
+        if (encoded == null)
+        {
+            encoded = FixedWidthBase58.PUBLIC_KEY.encode(bytes(), 0);
+            base58 = encoded;
+        }
+        return encoded;
     }
 
     @Override
     public byte[] bytes()
     {
-        return bytes;
+        final byte[] array = new byte[PUBLIC_KEY_LENGTH];
+        putWord(array, 0, word0);
+        putWord(array, 8, word1);
+        putWord(array, 16, word2);
+        putWord(array, 24, word3);
+        return array;
+    }
+
+    @Override
+    public long word(final int index)
+    {
+        if (index < 0 || index > 3)
+        {
+            throw new IndexOutOfBoundsException("word index must be between 0 and 3 but was " + index);
+        }
+        return index < 2 ? (index == 0 ? word0 : word1) : (index == 2 ? word2 : word3);
     }
 
     @Override
     public void write(final ByteBuffer buffer)
     {
-        buffer.put(bytes);
+        if (buffer.remaining() < PUBLIC_KEY_LENGTH)
+        {
+            throw new BufferOverflowException();
+        }
+        if (buffer.order() == ByteOrder.BIG_ENDIAN)
+        {
+            buffer.putLong(word0).putLong(word1).putLong(word2).putLong(word3);
+        }
+        else
+        {
+            buffer.putLong(Long.reverseBytes(word0)).putLong(Long.reverseBytes(word1)).putLong(Long.reverseBytes(word2)).putLong(Long.reverseBytes(word3));
+        }
     }
 
     @Override
     public int compareTo(final SolanaAccount other)
     {
-        final byte[] otherBytes = requireNonNull(other).bytes;
-
-        for (int i = 0; i < PUBLIC_KEY_LENGTH; i++)
+        requireNonNull(other);
+        int diff = Long.compareUnsigned(word0, other.word0);
+        if (diff == 0)
         {
-            final int diff = (bytes[i] & 0xff) - (otherBytes[i] & 0xff);
-            if (diff != 0)
-            {
-                return diff;
-            }
+            diff = Long.compareUnsigned(word1, other.word1);
+        }
+        if (diff == 0)
+        {
+            diff = Long.compareUnsigned(word2, other.word2);
         }
-        return 0;
+        return diff == 0 ? Long.compareUnsigned(word3, other.word3) : diff;
     }
 
     @Override
@@ -62,18 +205,18 @@ final class SolanaAccount implements PublicKey, Comparable<SolanaAccount>
         {
             return true;
         }
-        if (o == null || getClass() != o.getClass())
+        if (!(o instanceof SolanaAccount))
         {
             return false;
         }
         final SolanaAccount that = (SolanaAccount) o;
-        return Arrays.equals(bytes, that.bytes);
+        return hash == that.hash && word0 == that.word0 && word1 == that.word1 && word2 == that.word2 && word3 == that.word3;
     }
 
     @Override
     public int hashCode()
     {
-        return Arrays.hashCode(bytes);
+        return hash;
     }
 
     @Override
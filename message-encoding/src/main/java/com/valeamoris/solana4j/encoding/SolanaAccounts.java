@@ -3,12 +3,15 @@ package com.valeamoris.solana4j.encoding;
 import com.valeamoris.solana4j.api.AccountLookupEntry;
 import com.valeamoris.solana4j.api.Accounts;
 import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.LookupTableSelection;
 import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.PublicKeyObjectMap;
+import com.valeamoris.solana4j.api.References;
 import com.valeamoris.solana4j.api.TransactionInstruction;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -20,6 +23,8 @@ final class SolanaAccounts implements Accounts
     private final int countSigned;
     private final int countSignedReadOnly;
     private final int countUnsignedReadOnly;
+    private final List<PublicKey> flattenedAccounts;
+    private final AccountIndex accountIndex;
 
     private SolanaAccounts(
             final List<PublicKey> staticAccounts,
@@ -33,15 +38,21 @@ final class SolanaAccounts implements Accounts
         this.countSigned = countSigned;
         this.countSignedReadOnly = countSignedReadOnly;
         this.countUnsignedReadOnly = countUnsignedReadOnly;
+        this.flattenedAccounts = Collections.unmodifiableList(
+                Stream.concat(staticAccounts.stream(), accountLookups.stream().flatMap(lookupTable -> lookupTable.getAddresses().stream()))
+                      .collect(Collectors.toList()));
+        this.accountIndex = new AccountIndex(flattenedAccounts);
     }
 
     @Override
     public List<PublicKey> getFlattenedAccountList()
     {
-        return Stream.concat(staticAccounts.stream(), accountLookups.stream()
-                                                                    .flatMap(lookupTable -> lookupTable.getAddresses()
-                                                                                                       .stream()))
-                     .collect(Collectors.toList());
+        return flattenedAccounts;
+    }
+
+    References getReferences()
+    {
+        return accountIndex;
     }
 
     @Override
@@ -74,20 +85,29 @@ final class SolanaAccounts implements Accounts
         return countUnsignedReadOnly;
     }
 
-    static Accounts create(final List<TransactionInstruction> instructions, final PublicKey payer)
+    static SolanaAccounts create(final List<TransactionInstruction> instructions, final PublicKey payer)
     {
         return create(instructions, payer, new ArrayList<>());
     }
 
-    static Accounts create(
+    static SolanaAccounts create(
             final List<TransactionInstruction> instructions,
             final PublicKey payer,
             final List<AddressLookupTable> addressLookupTables)
+    {
+        return create(instructions, payer, addressLookupTables, LookupTableSelection.FIRST_MATCH);
+    }
+
+    static SolanaAccounts create(
+            final List<TransactionInstruction> instructions,
+            final PublicKey payer,
+            final List<AddressLookupTable> addressLookupTables,
+            final LookupTableSelection lookupTableSelection)
     {
         final SolanaAccountReference payerReference = new SolanaAccountReference(payer, true, true, false);
         final List<TransactionInstruction.AccountReference> allAccountReferences = mergeAccountReferences(payerReference, instructions);
 
-        final AccountLookups accountLookups = AccountLookups.create(allAccountReferences, addressLookupTables);
+        final AccountLookups accountLookups = AccountLookups.create(allAccountReferences, addressLookupTables, lookupTableSelection);
 
         final List<TransactionInstruction.AccountReference> staticAccountReferences = allAccountReferences
                 .stream()
@@ -131,20 +151,24 @@ final class SolanaAccounts implements Accounts
     {
         final List<TransactionInstruction.AccountReference> allAccountReferences = concatAccountReferences(payerReference, instructions);
 
-        final LinkedHashMap<PublicKey, TransactionInstruction.AccountReference> staticAccountReferences = new LinkedHashMap<>();
+        // each account's position in the merged list, which keeps the order accounts are first seen in
+        final PublicKeyObjectMap<Integer> positions = PublicKeyObjectMap.withExpectedSize(allAccountReferences.size());
+        final List<TransactionInstruction.AccountReference> staticAccountReferences = new ArrayList<>();
         for (final TransactionInstruction.AccountReference accountReference : allAccountReferences)
         {
-            if (staticAccountReferences.containsKey(accountReference.account()))
+            final Integer position = positions.get(accountReference.account());
+            if (position != null)
             {
-                staticAccountReferences.merge(accountReference.account(), accountReference, SolanaAccounts::merge);
+                staticAccountReferences.set(position, merge(staticAccountReferences.get(position), accountReference));
             }
             else
             {
-                staticAccountReferences.put(accountReference.account(), accountReference);
+                positions.put(accountReference.account(), staticAccountReferences.size());
+                staticAccountReferences.add(accountReference);
             }
         }
 
-        return new ArrayList<>(staticAccountReferences.values());
+        return staticAccountReferences;
     }
 
     private static List<TransactionInstruction.AccountReference> concatAccountReferences(
@@ -3,12 +3,15 @@ package com.valeamoris.solana4j.encoding;
 import com.valeamoris.solana4j.api.AddressLookupTable;
 import com.valeamoris.solana4j.api.PublicKey;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 final class SolanaAddressLookupTable implements AddressLookupTable
 {
     private final PublicKey lookupTableAddress;
     private final List<PublicKey> addresses;
+    private volatile AddressIndex addressIndex;
 
     SolanaAddressLookupTable(final PublicKey lookupTableAddress, final List<PublicKey> addresses)
     {
@@ -27,4 +30,50 @@ final class SolanaAddressLookupTable implements AddressLookupTable
     {
         return addresses;
     }
+
+    /**
+     * Returns the index of the given addresses in a lookup table, reusing the index cached on tables built by this library.
+     * <p>
+     * The cached index is rebuilt whenever the number of addresses in the table changes, so a table that is extended
+     * in place is still resolved correctly.
+     * </p>
+     */
+    static AddressIndex indexOf(final AddressLookupTable addressLookupTable)
+    {
+        if (!(addressLookupTable instanceof SolanaAddressLookupTable))
+        {
+            return new AddressIndex(addressLookupTable.getAddresses());
+        }
+
+        final SolanaAddressLookupTable table = (SolanaAddressLookupTable) addressLookupTable;
+        AddressIndex index = table.addressIndex;
+        if (index == null || index.size != table.addresses.size())
+        {
+            index = new AddressIndex(table.addresses);
+            table.addressIndex = index;
+        }
+        return index;
+    }
+
+    static final class AddressIndex
+    {
+        private final int size;
+        private final Map<PublicKey, Integer> indexes;
+
+        private AddressIndex(final List<PublicKey> addresses)
+        {
+            this.size = addresses.size();
+            this.indexes = new HashMap<>(addresses.size() * 2);
+            for (int i = 0; i < addresses.size(); i++)
+            {
+                indexes.putIfAbsent(addresses.get(i), i);
+            }
+        }
+
+        int indexOf(final PublicKey address)
+        {
+            final Integer index = indexes.get(address);
+            return index == null ? -1 : index;
+        }
+    }
 }
@@ -9,7 +9,7 @@ import static java.util.Objects.requireNonNull;
 
 final class SolanaBlockhash implements Blockhash
 {
-    private static final int BLOCKHASH_LENGTH = 32;
+    static final int BLOCKHASH_LENGTH = 32;
     private final byte[] bytes;
 
     SolanaBlockhash(final byte[] bytes)
@@ -7,6 +7,7 @@ import com.valeamoris.solana4j.api.Destination;
 import com.valeamoris.solana4j.api.InstructionBuilderBase;
 import com.valeamoris.solana4j.api.Message;
 import com.valeamoris.solana4j.api.MessageBuilder;
+import com.valeamoris.solana4j.api.ProgramAddressSeeds;
 import com.valeamoris.solana4j.api.ProgramDerivedAddress;
 import com.valeamoris.solana4j.api.PublicKey;
 import com.valeamoris.solana4j.api.SignedMessageBuilder;
@@ -16,6 +17,7 @@ import com.valeamoris.solana4j.api.TransactionInstruction;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 /**
@@ -33,6 +35,8 @@ public final class SolanaEncoding
      */
     public static final int MAX_MESSAGE_SIZE = 1280 - 40 - 8;
 
+    private static final SignatureVerifier SIGNATURE_VERIFIER = SignatureVerifier.builder().build();
+
     private SolanaEncoding()
     {
     }
@@ -83,26 +87,57 @@ public final class SolanaEncoding
         return new SolanaMessageReader(message).read();
     }
 
+    /**
+     * Verifies every Ed25519 signature of a message, as a {@link SignatureVerifier} with the default settings does.
+     *
+     * @param message the message, read with {@link #read(ByteBuffer)}
+     * @return true if every signature is valid
+     */
+    public static boolean verifySignatures(final Message message)
+    {
+        return SIGNATURE_VERIFIER.verifySignatures(message);
+    }
+
+    /**
+     * Ensures an encoded transaction carries the given account-less instruction, rewriting it in place.
+     * <p>
+     * An instruction for the same program that takes no accounts and has data of the same length and discriminator
+     * is overwritten. Otherwise the instruction is inserted first, or second behind a leading System advance nonce
+     * instruction, which must stay first, the program is appended to the static accounts
+     * if needed, and the buffer's limit is moved to the new end of the transaction. Any signatures already present
+     * no longer match the rewritten message.
+     * </p>
+     *
+     * @param transaction the buffer holding the encoded transaction between its position and limit
+     * @param program     the program the instruction invokes
+     * @param data        the instruction data, starting with its discriminator
+     * @throws IllegalArgumentException if the rewritten transaction does not fit the buffer or the maximum message size
+     */
+    public static void upsertInstruction(final ByteBuffer transaction, final PublicKey program, final ByteBuffer data)
+    {
+        SolanaInstructionRewriter.upsert(transaction, program, data);
+    }
+
     /**
      * Creates a new public key from the given byte array.
      *
      * @param bytes the byte array representing the public key
-     * @return a new instance of {@link PublicKey}
+     * @return a new instance of {@link PublicKey}, or the shared instance of a well-known program
      */
     public static PublicKey account(final byte[] bytes)
     {
-        return new SolanaAccount(bytes);
+        return SolanaAccount.of(bytes);
     }
 
     /**
      * Creates a new public key from the given string.
      *
      * @param accountBase58 the base58 string representing the public key
-     * @return a new instance of {@link PublicKey}
+     * @return a new instance of {@link PublicKey}, or the shared instance of a well-known program
      */
     public static PublicKey account(final String accountBase58)
     {
-        return new SolanaAccount(Base58.decode(accountBase58));
+        return SolanaAccount.of(FixedWidthBase58.PUBLIC_KEY.decode(accountBase58));
     }
 
     /**
@@ -117,6 +152,45 @@ public final class SolanaEncoding
         return SolanaProgramDerivedAddress.deriveProgramAddress(seeds, programId);
     }
 
+    /**
+     * Derives many program addresses at once, splitting the work across a pool.
+     * <p>
+     * The address and bump seed of each are written at the output buffer's position, advancing it: the 32 bytes of the
+     * address followed by one byte of bump seed, in the order of their indexes. Nothing is allocated per address.
+     * </p>
+     *
+     * @param count     the number of addresses
+     * @param seeds     writes the seeds of each address
+     * @param programId the public key of the program ID
+     * @param out       the buffer to write the addresses and bump seeds to
+     * @param pool      the pool to derive on
+     * @throws IllegalArgumentException if the output buffer has no room for every address
+     */
+    public static void deriveProgramAddresses(
+            final int count,
+            final ProgramAddressSeeds seeds,
+            final PublicKey programId,
+            final ByteBuffer out,
+            final ForkJoinPool pool)
+    {
+        SolanaProgramDerivedAddress.deriveProgramAddresses(count, seeds, programId, out, pool);
+    }
+
+    /**
+     * Creates the program address of the given seeds, bump seed and program ID, for callers who already know the bump
+     * seed that {@link #deriveProgramAddress(List, PublicKey)} would find.
+     *
+     * @param seeds     the list of byte arrays representing the seeds
+     * @param bumpSeed  the bump seed, between 0 and 255
+     * @param programId the public key of the program ID
+     * @return a new instance of {@link ProgramDerivedAddress}
+     * @throws IllegalArgumentException if the bump seed is out of range or the address lies on the curve
+     */
+    public static ProgramDerivedAddress createProgramAddress(final List<byte[]> seeds, final int bumpSeed, final PublicKey programId)
+    {
+        return SolanaProgramDerivedAddress.createProgramAddress(seeds, bumpSeed, programId);
+    }
+
     /**
      * Creates a new blockhash from the given byte array.
      *
@@ -136,7 +210,7 @@ public final class SolanaEncoding
      */
     public static Blockhash blockhash(final String blockhashBase58)
     {
-        return new SolanaBlockhash(Base58.decode(blockhashBase58));
+        return new SolanaBlockhash(FixedWidthBase58.PUBLIC_KEY.decode(blockhashBase58));
     }
 
     /**
@@ -0,0 +1,250 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Rewrites an encoded transaction so that it carries a given account-less instruction, without rebuilding it.
+ * <p>
+ * An existing instruction for the same program, with no accounts, the same data length and the same leading
+ * discriminator byte, is overwritten in place. Otherwise the instruction is inserted ahead of the others, or straight
+ * after a leading System advance nonce instruction, which must stay first for the runtime to treat the transaction as a
+ * durable nonce transaction, and the program is appended to the static accounts as a read-only unsigned account if the message does not already
+ * reference it. Appending keeps every existing static account index valid; for version 0 messages the indexes of
+ * accounts loaded from lookup tables move up by one.
+ * </p>
+ */
+final class SolanaInstructionRewriter
+{
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int BLOCKHASH_LENGTH = 32;
+    private static final byte VERSION_0_PREFIX = (byte) 0x80;
+    private static final int ADVANCE_NONCE_INSTRUCTION = 4;
+
+    private SolanaInstructionRewriter()
+    {
+    }
+
+    static void upsert(final ByteBuffer transaction, final PublicKey program, final ByteBuffer data)
+    {
+        requireNonNull(transaction);
+        requireNonNull(program);
+        requireNonNull(data);
+        if (!data.hasRemaining())
+        {
+            throw new IllegalArgumentException("instruction data must hold at least a discriminator byte");
+        }
+
+        final ByteBuffer reader = transaction.duplicate();
+        final int signatureCount = SolanaShortVec.readInt(reader);
+        reader.position(reader.position() + signatureCount * SIGNATURE_LENGTH);
+
+        final int messageStart = reader.position();
+        final boolean v0 = reader.get(messageStart) == VERSION_0_PREFIX;
+        final int headerLength = v0 ? 4 : 3;
+        reader.position(messageStart + headerLength);
+
+        final int staticAccountCount = SolanaShortVec.readInt(reader);
+        final int staticAccountsStart = reader.position();
+        final int programIndex = indexOf(reader, staticAccountsStart, staticAccountCount, program);
+        reader.position(staticAccountsStart + staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH + BLOCKHASH_LENGTH);
+
+        final int instructionsStart = reader.position();
+        final int instructionCount = SolanaShortVec.readInt(reader);
+        int insertAt = 0;
+        for (int i = 0; i < instructionCount; i++)
+        {
+            final int instructionProgram = reader.get() & 0xff;
+            final int accountCount = SolanaShortVec.readInt(reader);
+            reader.position(reader.position() + accountCount);
+            final int dataLength = SolanaShortVec.readInt(reader);
+            final int dataStart = reader.position();
+            if (i == 0 && isAdvanceNonce(reader, staticAccountsStart, staticAccountCount, instructionProgram, dataStart, dataLength))
+            {
+                insertAt = 1;
+            }
+            if (instructionProgram == programIndex
+                    && accountCount == 0
+                    && dataLength == data.remaining()
+                    && reader.get(dataStart) == data.get(data.position()))
+            {
+                final ByteBuffer writer = transaction.duplicate();
+                writer.position(dataStart);
+                writer.put(data.duplicate());
+                return;
+            }
+            reader.position(dataStart + dataLength);
+        }
+
+        insert(transaction, program, data, messageStart, headerLength, staticAccountCount, programIndex, instructionsStart, insertAt, v0);
+    }
+
+    private static boolean isAdvanceNonce(
+            final ByteBuffer reader,
+            final int staticAccountsStart,
+            final int staticAccountCount,
+            final int instructionProgram,
+            final int dataStart,
+            final int dataLength)
+    {
+        // program ids are always static accounts, and the system program's id is all zeroes
+        if (instructionProgram >= staticAccountCount || dataLength < Integer.BYTES)
+        {
+            return false;
+        }
+        final int programStart = staticAccountsStart + instructionProgram * PublicKey.PUBLIC_KEY_LENGTH;
+        for (int i = 0; i < PublicKey.PUBLIC_KEY_LENGTH; i++)
+        {
+            if (reader.get(programStart + i) != 0)
+            {
+                return false;
+            }
+        }
+        int discriminator = 0;
+        for (int i = Integer.BYTES - 1; i >= 0; i--)
+        {
+            discriminator = discriminator << 8 | (reader.get(dataStart + i) & 0xff);
+        }
+        return discriminator == ADVANCE_NONCE_INSTRUCTION;
+    }
+
+    private static void insert(
+            final ByteBuffer transaction,
+            final PublicKey program,
+            final ByteBuffer data,
+            final int messageStart,
+            final int headerLength,
+            final int staticAccountCount,
+            final int programIndex,
+            final int instructionsStart,
+            final int insertAt,
+            final boolean v0)
+    {
+        final boolean appendProgram = programIndex == -1;
+        final int unsignedReadOnlyOffset = messageStart + headerLength - 1;
+        final int unsignedReadOnlyCount = transaction.get(unsignedReadOnlyOffset) & 0xff;
+        if (appendProgram && (unsignedReadOnlyCount == 0xff || staticAccountCount == 0xff))
+        {
+            throw new IllegalArgumentException("message cannot reference another read-only account");
+        }
+
+        final int base = transaction.position();
+        final ByteBuffer original = ByteBuffer.allocate(transaction.remaining());
+        original.put(transaction.duplicate()).flip();
+        final ByteBuffer writer = ByteBuffer.allocate(original.remaining() + PublicKey.PUBLIC_KEY_LENGTH + 2 * Integer.BYTES + data.remaining());
+
+        // signatures and header are unchanged apart from the read-only count
+        writer.put(slice(original, 0, messageStart + headerLength - base));
+        if (appendProgram)
+        {
+            writer.put(unsignedReadOnlyOffset - base, (byte) (unsignedReadOnlyCount + 1));
+        }
+
+        original.position(messageStart + headerLength - base);
+        SolanaShortVec.readInt(original);
+        SolanaShortVec.write(appendProgram ? staticAccountCount + 1 : staticAccountCount, writer);
+        writer.put(slice(original, original.position(), staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH));
+        if (appendProgram)
+        {
+            program.write(writer);
+        }
+        writer.put(slice(original, original.position() + staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH, BLOCKHASH_LENGTH));
+
+        original.position(instructionsStart - base);
+        final int instructionCount = SolanaShortVec.readInt(original);
+        SolanaShortVec.write(instructionCount + 1, writer);
+
+        // lookup table accounts follow the static accounts, so only version 0 indexes need to move
+        final int shift = appendProgram && v0 ? 1 : 0;
+        for (int i = 0; i < instructionCount; i++)
+        {
+            if (i == insertAt)
+            {
+                writeInstruction(writer, appendProgram ? staticAccountCount : programIndex, data);
+            }
+            writer.put(shifted(original.get(), staticAccountCount, shift));
+            final int accountCount = SolanaShortVec.readInt(original);
+            SolanaShortVec.write(accountCount, writer);
+            for (int j = 0; j < accountCount; j++)
+            {
+                writer.put(shifted(original.get(), staticAccountCount, shift));
+            }
+            final int dataLength = SolanaShortVec.readInt(original);
+            SolanaShortVec.write(dataLength, writer);
+            writer.put(slice(original, original.position(), dataLength));
+            original.position(original.position() + dataLength);
+        }
+        if (insertAt == instructionCount)
+        {
+            writeInstruction(writer, appendProgram ? staticAccountCount : programIndex, data);
+        }
+
+        // address table lookups index into their tables, not the account list, and are copied verbatim
+        writer.put(original);
+        writer.flip();
+
+        if (writer.remaining() > SolanaEncoding.MAX_MESSAGE_SIZE)
+        {
+            throw new IllegalArgumentException("rewritten transaction exceeds the maximum size of " + SolanaEncoding.MAX_MESSAGE_SIZE + " bytes");
+        }
+        if (writer.remaining() > transaction.capacity() - base)
+        {
+            throw new IllegalArgumentException("buffer too small to hold the rewritten transaction");
+        }
+        transaction.limit(base + writer.remaining());
+        final ByteBuffer target = transaction.duplicate();
+        target.put(writer);
+    }
+
+    private static void writeInstruction(final ByteBuffer writer, final int programIndex, final ByteBuffer data)
+    {
+        writer.put((byte) programIndex);
+        SolanaShortVec.write(0, writer);
+        SolanaShortVec.write(data.remaining(), writer);
+        writer.put(data.duplicate());
+    }
+
+    private static int indexOf(final ByteBuffer reader, final int staticAccountsStart, final int staticAccountCount, final PublicKey program)
+    {
+        final byte[] programBytes = program.bytes();
+        for (int i = 0; i < staticAccountCount; i++)
+        {
+            final int offset = staticAccountsStart + i * PublicKey.PUBLIC_KEY_LENGTH;
+            int matched = 0;
+            while (matched < PublicKey.PUBLIC_KEY_LENGTH && reader.get(offset + matched) == programBytes[matched])
+            {
+                matched++;
+            }
+            if (matched == PublicKey.PUBLIC_KEY_LENGTH)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte shifted(final byte index, final int staticAccountCount, final int shift)
+    {
+        final int value = index & 0xff;
+        if (value < staticAccountCount)
+        {
+            return index;
+        }
+        if (value + shift > 0xff)
+        {
+            throw new IllegalArgumentException("message cannot reference another account");
+        }
+        return (byte) (value + shift);
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int from, final int length)
+    {
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(from);
+        slice.limit(from + length);
+        return slice;
+    }
+}
@@ -21,4 +21,9 @@ final class SolanaMessage implements Message
 
         return visitor.visit(messageView);
     }
+
+    ByteBuffer buffer()
+    {
+        return buffer.duplicate();
+    }
 }
@@ -65,7 +65,7 @@ final class SolanaMessageBuilderLegacy implements MessageBuilderLegacy
             throw new IllegalStateException("Solana transaction incomplete; payer has not been specified.");
         }
 
-        final Accounts accounts = SolanaAccounts.create(instructions, payer);
+        final SolanaAccounts accounts = SolanaAccounts.create(instructions, payer);
 
         final SolanaMessageWriterLegacy writer = new SolanaMessageWriterLegacy(accounts, this.recent, this.instructions);
 
@@ -1,8 +1,8 @@
 package com.valeamoris.solana4j.encoding;
 
-import com.valeamoris.solana4j.api.Accounts;
 import com.valeamoris.solana4j.api.AddressLookupTable;
 import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.LookupTableSelection;
 import com.valeamoris.solana4j.api.MessageBuilder;
 import com.valeamoris.solana4j.api.MessageBuilderV0;
 import com.valeamoris.solana4j.api.PublicKey;
@@ -27,6 +27,7 @@ final class SolanaMessageBuilderV0 implements MessageBuilderV0
 
     private final List<TransactionInstruction> instructions = new ArrayList<>();
     private List<AddressLookupTable> accountLookups = new ArrayList<>();
+    private LookupTableSelection lookupTableSelection = LookupTableSelection.FIRST_MATCH;
 
     SolanaMessageBuilderV0(final MessageBuilder parent, final ByteBuffer buffer)
     {
@@ -69,6 +70,14 @@ final class SolanaMessageBuilderV0 implements MessageBuilderV0
         return this;
     }
 
+    @Override
+    public MessageBuilderV0 lookups(final List<AddressLookupTable> accountLookups, final LookupTableSelection selection)
+    {
+        this.accountLookups = accountLookups;
+        this.lookupTableSelection = requireNonNull(selection);
+        return this;
+    }
+
     @Override
     public SealedMessageBuilder seal() throws BufferOverflowException
     {
@@ -77,7 +86,7 @@ final class SolanaMessageBuilderV0 implements MessageBuilderV0
             throw new IllegalStateException("Solana transaction incomplete; payer has not been specified.");
         }
 
-        final Accounts accounts = SolanaAccounts.create(instructions, payer, accountLookups);
+        final SolanaAccounts accounts = SolanaAccounts.create(instructions, payer, accountLookups, lookupTableSelection);
 
         final SolanaMessageWriterV0 writer = new SolanaMessageWriterV0(recentBlockhash, instructions, accounts);
 
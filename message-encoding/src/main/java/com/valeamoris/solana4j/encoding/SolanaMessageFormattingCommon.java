@@ -163,9 +163,7 @@ final class SolanaMessageFormattingCommon
 
         for (int i = 0; i < count; i++)
         {
-            final byte[] bytes = new byte[32];
-            buffer.get(bytes);
-            final SolanaAccount accountLookup = new SolanaAccount(bytes);
+            final SolanaAccount accountLookup = SolanaAccount.read(buffer);
             final int countReadWrite = SolanaShortVec.readInt(buffer);
             final List<Integer> readWriteIndexes = new ArrayList<>();
             for (int j = 0; j < countReadWrite; j++)
@@ -219,9 +217,7 @@ final class SolanaMessageFormattingCommon
         final List<PublicKey> publicKeys = new ArrayList<>(count);
         for (int i = 0; i < count; i++)
         {
-            final byte[] bytes = new byte[32];
-            buffer.get(bytes);
-            publicKeys.add(new SolanaAccount(bytes));
+            publicKeys.add(SolanaAccount.read(buffer));
         }
         return publicKeys;
     }
@@ -1,15 +1,19 @@
 package com.valeamoris.solana4j.encoding;
 
+import com.valeamoris.solana4j.api.ProgramAddressSeeds;
 import com.valeamoris.solana4j.api.ProgramDerivedAddress;
 import com.valeamoris.solana4j.api.PublicKey;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static com.valeamoris.solana4j.api.PublicKey.PUBLIC_KEY_LENGTH;
 import static java.util.Objects.requireNonNull;
@@ -17,7 +21,10 @@ import static java.util.Objects.requireNonNull;
 final class SolanaProgramDerivedAddress implements ProgramDerivedAddress
 {
     public static final byte[] PROGRAM_DERIVED_ADDRESS_BYTES = "ProgramDerivedAddress".getBytes(StandardCharsets.UTF_8);
-    private static final int BUMP_LENGTH = 1;
+    private static final int MAX_BUMP = 255;
+    private static final int DERIVED_LENGTH = PUBLIC_KEY_LENGTH + 1;
+    private static final int ITEMS_PER_TASK = 64;
+    private static final ThreadLocal<Hasher> HASHERS = ThreadLocal.withInitial(Hasher::new);
 
     final PublicKey address;
     final PublicKey programAccount;
@@ -25,42 +32,67 @@ final class SolanaProgramDerivedAddress implements ProgramDerivedAddress
 
     static ProgramDerivedAddress deriveProgramAddress(final List<byte[]> seeds, final PublicKey programId)
     {
-        final int seedLength = seeds.stream().mapToInt(seed -> seed.length).sum();
-        final int byteLength = seedLength + PUBLIC_KEY_LENGTH + PROGRAM_DERIVED_ADDRESS_BYTES.length + BUMP_LENGTH;
-
-        int bumpSeed = 255;
-        while (bumpSeed > 0)
+        final Hasher hasher = HASHERS.get();
+        hasher.prepare(seeds, programId);
+        try
         {
-            final ByteBuffer seedsBuffer = ByteBuffer.allocate(byteLength);
-            seeds.forEach(seedsBuffer::put);
-            seedsBuffer.put(new byte[]{(byte) bumpSeed});
-
-            programId.write(seedsBuffer);
-            seedsBuffer.put(PROGRAM_DERIVED_ADDRESS_BYTES);
-
-            final byte[] programAddress = hash(seedsBuffer.array());
-
-            if (isOffCurve(programAddress))
+            int bumpSeed = MAX_BUMP;
+            while (bumpSeed > 0)
             {
-                return new SolanaProgramDerivedAddress(new SolanaAccount(programAddress), programId, bumpSeed);
+                final byte[] programAddress = hasher.hash(bumpSeed);
+
+                if (isOffCurve(programAddress))
+                {
+                    return new SolanaProgramDerivedAddress(new SolanaAccount(programAddress), programId, bumpSeed);
+                }
+                bumpSeed--;
             }
-            bumpSeed--;
+        }
+        finally
+        {
+            hasher.release();
         }
         throw new RuntimeException("Could not find a program address off the curve.");
     }
 
-    private static byte[] hash(final byte[] input)
+    static ProgramDerivedAddress createProgramAddress(final List<byte[]> seeds, final int bumpSeed, final PublicKey programId)
     {
-        final MessageDigest digest;
+        if (bumpSeed < 0 || bumpSeed > MAX_BUMP)
+        {
+            throw new IllegalArgumentException("bump seed must be between 0 and " + MAX_BUMP + " but was " + bumpSeed);
+        }
+        final Hasher hasher = HASHERS.get();
+        hasher.prepare(seeds, programId);
+        final byte[] programAddress;
         try
         {
-            digest = MessageDigest.getInstance("SHA-256");
+            programAddress = hasher.hash(bumpSeed);
         }
-        catch (final NoSuchAlgorithmException e)
+        finally
         {
-            throw new RuntimeException(e);
+            hasher.release();
         }
-        return digest.digest(input);
+        if (!isOffCurve(programAddress))
+        {
+            throw new IllegalArgumentException("The seeds and bump seed give an address on the curve");
+        }
+        return new SolanaProgramDerivedAddress(new SolanaAccount(programAddress), programId, bumpSeed);
+    }
+
+    static void deriveProgramAddresses(
+            final int count,
+            final ProgramAddressSeeds seeds,
+            final PublicKey programId,
+            final ByteBuffer out,
+            final ForkJoinPool pool)
+    {
+        if (count < 0 || out.remaining() / DERIVED_LENGTH < count)
+        {
+            throw new IllegalArgumentException("output buffer has room for " + out.remaining() / DERIVED_LENGTH + " addresses but " + count + " were asked for");
+        }
+        final int start = out.position();
+        pool.invoke(new DeriveAction(seeds, programId.bytes(), out, start, 0, count));
+        out.position(start + count * DERIVED_LENGTH);
     }
 
     private static boolean isOffCurve(final byte[] programAddress)
@@ -137,4 +169,185 @@ final class SolanaProgramDerivedAddress implements ProgramDerivedAddress
     {
         return nonce;
     }
+
+    /**
+     * Derives a range of addresses, splitting it in halves down to a few dozen addresses per task.
+     */
+    private static final class DeriveAction extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ProgramAddressSeeds seeds;
+        private final byte[] programId;
+        private final ByteBuffer out;
+        private final int start;
+        private final int from;
+        private final int to;
+
+        DeriveAction(final ProgramAddressSeeds seeds, final byte[] programId, final ByteBuffer out, final int start, final int from, final int to)
+        {
+            this.seeds = seeds;
+            this.programId = programId;
+            this.out = out;
+            this.start = start;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > ITEMS_PER_TASK)
+            {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new DeriveAction(seeds, programId, out, start, from, middle), new DeriveAction(seeds, programId, out, start, middle, to));
+                return;
+            }
+
+            final Hasher hasher = HASHERS.get();
+            for (int i = from; i < to; i++)
+            {
+                final int bumpSeed = hasher.search(seeds.write(i, hasher.seedBytes), programId);
+                final int index = start + i * DERIVED_LENGTH;
+                for (int b = 0; b < PUBLIC_KEY_LENGTH; b++)
+                {
+                    out.put(index + b, hasher.address[b]);
+                }
+                out.put(index + PUBLIC_KEY_LENGTH, (byte) bumpSeed);
+            }
+        }
+    }
+
+    /**
+     * Hashes the candidate addresses of one derivation, hashing the seeds once into a prefix digest that each bump seed
+     * continues from a clone of. Single and batch derivations share the prefix; only where the digest cannot be cloned
+     * are the seeds hashed again for each bump seed.
+     */
+    private static final class Hasher
+    {
+        private final MessageDigest prefix = sha256();
+        private final MessageDigest digest = sha256();
+        private final boolean cloneable = isCloneable(prefix);
+        private final byte[] programId = new byte[PUBLIC_KEY_LENGTH];
+        private final ByteBuffer programIdBuffer = ByteBuffer.wrap(programId);
+        private final byte[] address = new byte[PUBLIC_KEY_LENGTH];
+        private final byte[] seedBytes = new byte[ProgramAddressSeeds.MAX_SEEDS_LENGTH];
+        private List<byte[]> seeds;
+        private int seedsLength;
+
+        void prepare(final List<byte[]> seeds, final PublicKey programId)
+        {
+            this.seeds = seeds;
+            programIdBuffer.clear();
+            programId.write(programIdBuffer);
+            prefix.reset();
+            for (final byte[] seed : seeds)
+            {
+                prefix.update(seed);
+            }
+        }
+
+        byte[] hash(final int bumpSeed)
+        {
+            return finish(candidate(), bumpSeed, programId);
+        }
+
+        void release()
+        {
+            seeds = null;
+        }
+
+        /**
+         * Finds the bump seed of the seeds written to the seed bytes, leaving the address in the address bytes.
+         */
+        int search(final int seedsLength, final byte[] programId)
+        {
+            this.seedsLength = seedsLength;
+            prefix.reset();
+            prefix.update(seedBytes, 0, seedsLength);
+            for (int bumpSeed = MAX_BUMP; bumpSeed > 0; bumpSeed--)
+            {
+                if (isOffCurve(finish(candidate(), bumpSeed, programId)))
+                {
+                    return bumpSeed;
+                }
+            }
+            throw new RuntimeException("Could not find a program address off the curve.");
+        }
+
+        /**
+         * Returns a digest that has hashed the seeds, a clone of the prefix where it can be cloned.
+         */
+        private MessageDigest candidate()
+        {
+            if (cloneable)
+            {
+                try
+                {
+                    return (MessageDigest) prefix.clone();
+                }
+                catch (final CloneNotSupportedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            }
+            digest.reset();
+            if (seeds != null)
+            {
+                for (final byte[] seed : seeds)
+                {
+                    digest.update(seed);
+                }
+            }
+            else
+            {
+                digest.update(seedBytes, 0, seedsLength);
+            }
+            return digest;
+        }
+
+        /**
+         * Completes a digest of the seeds with the bump seed and program id, into the address bytes.
+         */
+        private byte[] finish(final MessageDigest candidate, final int bumpSeed, final byte[] programId)
+        {
+            candidate.update((byte) bumpSeed);
+            candidate.update(programId);
+            candidate.update(PROGRAM_DERIVED_ADDRESS_BYTES);
+            try
+            {
+                candidate.digest(address, 0, address.length);
+            }
+            catch (final DigestException e)
+            {
+                throw new IllegalStateException(e);
+            }
+            return address;
+        }
+
+        private static boolean isCloneable(final MessageDigest digest)
+        {
+            try
+            {
+                digest.clone();
+                return true;
+            }
+            catch (final CloneNotSupportedException e)
+            {
+                return false;
+            }
+        }
+
+        private static MessageDigest sha256()
+        {
+            try
+            {
+                return MessageDigest.getInstance("SHA-256");
+            }
+            catch (final NoSuchAlgorithmException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
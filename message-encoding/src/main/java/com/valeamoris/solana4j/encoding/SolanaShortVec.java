@@ -21,6 +21,18 @@ final class SolanaShortVec
         buffer.put((byte) tmpValue);
     }
 
+    static int length(final long value)
+    {
+        int length = 1;
+        long tmpValue = value;
+        while (tmpValue >= 0x80)
+        {
+            tmpValue >>= 7;
+            length++;
+        }
+        return length;
+    }
+
     static int readInt(final ByteBuffer buffer)
     {
         int result = 0;
@@ -36,6 +48,32 @@ final class SolanaShortVec
         return result;
     }
 
+    static int readInt(final ByteBuffer buffer, final int index)
+    {
+        int result = 0;
+        int offset = index;
+        byte b = buffer.get(offset);
+        int bytes = 1;
+        while ((b & 0x80) == 0x80)
+        {
+            result = result | ((b & 0x7f) << (7 * (bytes - 1)));
+            b = buffer.get(++offset);
+            bytes++;
+        }
+        result = result | (b << (7 * (bytes - 1)));
+        return result;
+    }
+
+    static int skip(final ByteBuffer buffer, final int index)
+    {
+        int offset = index;
+        while ((buffer.get(offset) & 0x80) == 0x80)
+        {
+            offset++;
+        }
+        return offset + 1;
+    }
+
     static long readLong(final ByteBuffer buffer)
     {
         long result = 0;
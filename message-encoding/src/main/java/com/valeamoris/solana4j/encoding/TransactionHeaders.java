@@ -0,0 +1,293 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the fields at the head of a transaction on the wire without parsing its message.
+ * <p>
+ * Deduplication, routing and logging usually need no more than the transaction id, which is the first signature, the
+ * fee payer and the message version. Each method here reads the transaction between the buffer's position and limit
+ * with absolute gets, leaving the position and limit as they are, and looks at no more of it than the field asked for
+ * needs; none allocates, other than those returning a new object. Each is thread safe as long as the buffer is not
+ * written to meanwhile.
+ * </p>
+ * <p>
+ * For anything beyond the header, such as the instructions, wrap the transaction in a {@link TransactionView}.
+ * </p>
+ */
+public final class TransactionHeaders
+{
+    static final int SIGNATURE_LENGTH = 64;
+
+    private static final int MAX_SHORT_VEC = 0xffff;
+
+    private TransactionHeaders()
+    {
+    }
+
+    /**
+     * Returns the number of signatures.
+     *
+     * @param transaction the transaction
+     * @return the signature count
+     * @throws IllegalStateException if the transaction is malformed
+     */
+    public static int signatureCount(final ByteBuffer transaction)
+    {
+        return readShortVec(transaction, transaction.position());
+    }
+
+    /**
+     * Returns the offset of the message, the part of the transaction that is signed.
+     *
+     * @param transaction the transaction
+     * @return the absolute offset of the message
+     * @throws IllegalStateException if the transaction is malformed
+     */
+    public static int messageOffset(final ByteBuffer transaction)
+    {
+        final int offset = signaturesOffset(transaction) + signatureCount(transaction) * SIGNATURE_LENGTH;
+        if (offset >= transaction.limit())
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the message, the part of the transaction that is signed, as a new buffer sharing the transaction's content.
+     *
+     * @param transaction the transaction
+     * @return a slice from the start of the message to the transaction's limit
+     * @throws IllegalStateException if the transaction is malformed
+     */
+    public static ByteBuffer messageBodySlice(final ByteBuffer transaction)
+    {
+        final ByteBuffer message = transaction.duplicate();
+        message.position(messageOffset(transaction));
+        return message.slice();
+    }
+
+    /**
+     * Returns the version of the message.
+     *
+     * @param transaction the transaction
+     * @return 0 for a version 0 message, {@link TransactionView#LEGACY_VERSION} for a legacy one
+     * @throws IllegalStateException if the transaction is malformed or its message version is not supported
+     */
+    public static int messageVersion(final ByteBuffer transaction)
+    {
+        return messageVersion(transaction, messageOffset(transaction));
+    }
+
+    private static int messageVersion(final ByteBuffer transaction, final int messageOffset)
+    {
+        final byte first = transaction.get(messageOffset);
+        if (first != (byte) 0x80 && (first & 0x80) != 0x00)
+        {
+            throw new IllegalStateException("unsupported message format");
+        }
+        return first == (byte) 0x80 ? 0 : TransactionView.LEGACY_VERSION;
+    }
+
+    /**
+     * Returns the offset of the first signature; signer {@code i}'s is {@code i * 64} bytes after it.
+     */
+    static int signaturesOffset(final ByteBuffer transaction)
+    {
+        return skipShortVec(transaction, transaction.position());
+    }
+
+    /**
+     * Returns the offset of the first account of the message, having checked that there is an account for every
+     * signature; signer {@code i}'s key is {@code i * 32} bytes after it.
+     *
+     * @throws IllegalStateException if the transaction is malformed or its message version is not supported
+     */
+    static int signerAccountsOffset(final ByteBuffer transaction)
+    {
+        final int messageOffset = messageOffset(transaction);
+        final int accountsLength = accountsLengthOffset(transaction, messageOffset);
+        final int countAccountsSigned = get(transaction, accountsLength - 3) & 0xff;
+        final int staticAccountCount = readShortVec(transaction, accountsLength);
+        final int offset = skipShortVec(transaction, accountsLength);
+        if (countAccountsSigned != signatureCount(transaction)
+                || staticAccountCount < countAccountsSigned
+                || offset + staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH > transaction.limit())
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the offset of the static account count, after the version prefix, if any, and the three header counts.
+     */
+    private static int accountsLengthOffset(final ByteBuffer transaction, final int messageOffset)
+    {
+        return messageOffset + (messageVersion(transaction, messageOffset) == TransactionView.LEGACY_VERSION ? 3 : 4);
+    }
+
+    /**
+     * Returns the offset of the transaction id, the fee payer's signature.
+     *
+     * @param transaction the transaction
+     * @return the absolute offset of the id's 64 bytes
+     * @throws IllegalStateException if the transaction is malformed or has no signatures
+     */
+    public static int transactionIdOffset(final ByteBuffer transaction)
+    {
+        final int offset = signaturesOffset(transaction);
+        if (signatureCount(transaction) == 0 || offset + SIGNATURE_LENGTH > transaction.limit())
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return offset;
+    }
+
+    /**
+     * Copies the transaction id, the fee payer's signature, into an array.
+     *
+     * @param transaction the transaction
+     * @param out         the array to copy the id's 64 bytes to
+     * @param offset      the offset to copy the first byte to
+     * @throws IllegalStateException     if the transaction is malformed or has no signatures
+     * @throws IndexOutOfBoundsException if the array has no room for the id
+     */
+    public static void transactionId(final ByteBuffer transaction, final byte[] out, final int offset)
+    {
+        if (offset < 0 || offset > out.length - SIGNATURE_LENGTH)
+        {
+            throw new IndexOutOfBoundsException("no room for a signature at " + offset + " of " + out.length);
+        }
+        final int start = transactionIdOffset(transaction);
+        for (int i = 0; i < SIGNATURE_LENGTH; i++)
+        {
+            out[offset + i] = transaction.get(start + i);
+        }
+    }
+
+    /**
+     * Appends the Base58 encoding of the transaction id, the fee payer's signature, as shown by explorers and RPC nodes.
+     *
+     * @param transaction the transaction
+     * @param out         the builder to append to
+     * @throws IllegalStateException if the transaction is malformed or has no signatures
+     */
+    public static void transactionId(final ByteBuffer transaction, final StringBuilder out)
+    {
+        FixedWidthBase58.SIGNATURE.encode(transaction, transactionIdOffset(transaction), out);
+    }
+
+    /**
+     * Returns the Base58 encoding of the transaction id, the fee payer's signature, as shown by explorers and RPC nodes.
+     *
+     * @param transaction the transaction
+     * @return the transaction id
+     * @throws IllegalStateException if the transaction is malformed or has no signatures
+     */
+    public static String transactionId(final ByteBuffer transaction)
+    {
+        return FixedWidthBase58.SIGNATURE.encode(transaction, transactionIdOffset(transaction));
+    }
+
+    /**
+     * Returns the offset of the fee payer, the first account of the message.
+     *
+     * @param transaction the transaction
+     * @return the absolute offset of the fee payer's 32 bytes
+     * @throws IllegalStateException if the transaction is malformed or its message version is not supported
+     */
+    public static int feePayerOffset(final ByteBuffer transaction)
+    {
+        final int accountsLength = accountsLengthOffset(transaction, messageOffset(transaction));
+        final int offset = skipShortVec(transaction, accountsLength);
+        if (readShortVec(transaction, accountsLength) == 0 || offset + PublicKey.PUBLIC_KEY_LENGTH > transaction.limit())
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the fee payer, the first account of the message, which is created on each call unless it is a well-known
+     * program; use {@link #feePayerOffset(ByteBuffer)} to compare or copy it in place.
+     *
+     * @param transaction the transaction
+     * @return the fee payer
+     * @throws IllegalStateException if the transaction is malformed or its message version is not supported
+     */
+    public static PublicKey feePayer(final ByteBuffer transaction)
+    {
+        final ByteBuffer view = transaction.duplicate();
+        view.position(feePayerOffset(transaction));
+        return SolanaAccount.read(view);
+    }
+
+    /**
+     * Returns whether every signature has been written, that is none is left as 64 zero bytes, the placeholder Solana
+     * uses for a missing signature. The signatures are not verified.
+     *
+     * @param transaction the transaction
+     * @return true if the transaction has at least one signature and none is missing
+     * @throws IllegalStateException if the transaction is malformed
+     */
+    public static boolean isFullySigned(final ByteBuffer transaction)
+    {
+        final int count = signatureCount(transaction);
+        final int end = messageOffset(transaction);
+        boolean signed = count > 0;
+        for (int signature = end - count * SIGNATURE_LENGTH; signed && signature < end; signature += SIGNATURE_LENGTH)
+        {
+            long bits = 0;
+            for (int i = 0; i < SIGNATURE_LENGTH; i += Long.BYTES)
+            {
+                bits |= transaction.getLong(signature + i);
+            }
+            signed = bits != 0;
+        }
+        return signed;
+    }
+
+    private static int readShortVec(final ByteBuffer transaction, final int offset)
+    {
+        final int value;
+        try
+        {
+            value = SolanaShortVec.readInt(transaction, offset);
+        }
+        catch (final IndexOutOfBoundsException e)
+        {
+            throw new IllegalStateException("message is malformed", e);
+        }
+        // a compact-u16, so anything wider can only come of a malformed transaction
+        if (value < 0 || value > MAX_SHORT_VEC)
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return value;
+    }
+
+    private static int skipShortVec(final ByteBuffer transaction, final int offset)
+    {
+        try
+        {
+            return SolanaShortVec.skip(transaction, offset);
+        }
+        catch (final IndexOutOfBoundsException e)
+        {
+            throw new IllegalStateException("message is malformed", e);
+        }
+    }
+
+    private static byte get(final ByteBuffer transaction, final int index)
+    {
+        if (index >= transaction.limit())
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return transaction.get(index);
+    }
+}
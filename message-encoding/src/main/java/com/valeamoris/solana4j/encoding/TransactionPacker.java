@@ -0,0 +1,391 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.Message;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Packs a stream of instructions into as few transactions as possible.
+ * <p>
+ * Instructions are added one at a time, or as atomic groups that must land in the same transaction. The packer tracks
+ * the exact encoded size and account set of the transaction being filled, using the same account merging and lookup
+ * table rules as the message builders, and hands a batch to the sink as soon as the next instruction or group would
+ * take it past {@link SolanaEncoding#MAX_MESSAGE_SIZE} or the account lock limit. Because adding instructions never
+ * shrinks a transaction, filling each batch to the brim yields the fewest transactions that keep the instructions in
+ * the order they were added.
+ * </p>
+ * <p>
+ * Every batch starts with the same fee payer and optional preamble, typically compute budget instructions, so space
+ * for them is reserved in every transaction. A packer is not thread safe.
+ * </p>
+ */
+public final class TransactionPacker
+{
+    /**
+     * The default maximum number of accounts a transaction may lock.
+     */
+    public static final int DEFAULT_MAX_ACCOUNT_LOCKS = 64;
+
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int LEGACY_HEADER_LENGTH = 3;
+    private static final int SIGNER = 1;
+    private static final int WRITER = 2;
+
+    private final PublicKey payer;
+    private final boolean v0;
+    private final List<AddressLookupTable> addressLookupTables;
+    private final List<TransactionInstruction> preamble;
+    private final int maxSize;
+    private final int maxAccountLocks;
+    private final Consumer<List<TransactionInstruction>> sink;
+    private final Map<PublicKey, Integer> lookupTableOfAccount = new HashMap<>();
+
+    private final List<TransactionInstruction> batch = new ArrayList<>();
+    private final Map<PublicKey, Integer> roles = new HashMap<>();
+    private final int[] readWriteLoads;
+    private final int[] readOnlyLoads;
+    private int signerCount;
+    private int staticAccountCount;
+    private int instructionCount;
+    private int instructionBytes;
+
+    private TransactionPacker(final Builder builder, final Consumer<List<TransactionInstruction>> sink)
+    {
+        this.payer = builder.payer;
+        this.v0 = builder.v0;
+        this.addressLookupTables = builder.addressLookupTables;
+        this.preamble = builder.preamble;
+        this.maxSize = builder.maxSize;
+        this.maxAccountLocks = builder.maxAccountLocks;
+        this.sink = sink;
+        this.readWriteLoads = new int[addressLookupTables.size()];
+        this.readOnlyLoads = new int[addressLookupTables.size()];
+
+        // the message builders load an account from the first table that holds it
+        for (int table = 0; table < addressLookupTables.size(); table++)
+        {
+            for (final PublicKey address : addressLookupTables.get(table).getAddresses())
+            {
+                lookupTableOfAccount.putIfAbsent(address, table);
+            }
+        }
+
+        reset();
+        if (!fits())
+        {
+            throw new IllegalArgumentException("preamble alone does not fit in a transaction");
+        }
+    }
+
+    /**
+     * Creates a builder for a packer whose transactions are paid for by the given account.
+     *
+     * @param payer the fee payer of every transaction
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(final PublicKey payer)
+    {
+        return new Builder(payer);
+    }
+
+    /**
+     * Adds an instruction, handing the current batch to the sink first if the instruction does not fit in it.
+     *
+     * @param instruction the instruction to add
+     * @throws IllegalArgumentException if the instruction does not fit in a transaction on its own
+     */
+    public void add(final TransactionInstruction instruction)
+    {
+        addAtomic(Collections.singletonList(instruction));
+    }
+
+    /**
+     * Adds instructions that must be executed in the same transaction, in the given order.
+     *
+     * @param instructions the instructions to add
+     * @throws IllegalArgumentException if the instructions do not fit in a transaction on their own
+     */
+    public void addAtomic(final List<TransactionInstruction> instructions)
+    {
+        for (final TransactionInstruction instruction : instructions)
+        {
+            apply(instruction);
+        }
+        if (!fits())
+        {
+            if (batch.size() == preamble.size())
+            {
+                reset();
+                throw new IllegalArgumentException("instructions do not fit in a transaction on their own");
+            }
+            flush();
+            for (final TransactionInstruction instruction : instructions)
+            {
+                apply(instruction);
+            }
+            if (!fits())
+            {
+                reset();
+                throw new IllegalArgumentException("instructions do not fit in a transaction on their own");
+            }
+        }
+        batch.addAll(instructions);
+    }
+
+    /**
+     * Hands the current batch to the sink, if it holds any instruction besides the preamble.
+     */
+    public void flush()
+    {
+        if (batch.size() > preamble.size())
+        {
+            sink.accept(new ArrayList<>(batch));
+        }
+        reset();
+    }
+
+    /**
+     * Returns the encoded size of the transaction the current batch would make.
+     *
+     * @return the size in bytes, including the signatures
+     */
+    public int encodedSize()
+    {
+        int size = SolanaShortVec.length(signerCount) + signerCount * SIGNATURE_LENGTH
+                + (v0 ? 1 : 0) + LEGACY_HEADER_LENGTH
+                + SolanaShortVec.length(staticAccountCount) + staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH
+                + SolanaBlockhash.BLOCKHASH_LENGTH
+                + SolanaShortVec.length(instructionCount) + instructionBytes;
+        if (v0)
+        {
+            int tablesUsed = 0;
+            for (int table = 0; table < readWriteLoads.length; table++)
+            {
+                if (readWriteLoads[table] + readOnlyLoads[table] > 0)
+                {
+                    tablesUsed++;
+                    size += PublicKey.PUBLIC_KEY_LENGTH
+                            + SolanaShortVec.length(readWriteLoads[table]) + readWriteLoads[table]
+                            + SolanaShortVec.length(readOnlyLoads[table]) + readOnlyLoads[table];
+                }
+            }
+            size += SolanaShortVec.length(tablesUsed);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of accounts the transaction the current batch would make locks.
+     *
+     * @return the account count, static and loaded from lookup tables
+     */
+    public int accountCount()
+    {
+        return roles.size();
+    }
+
+    /**
+     * Encodes a batch handed to the sink as an unsigned message with this packer's payer and lookup tables.
+     *
+     * @param instructions the batch
+     * @param recent       the recent blockhash or nonce of the transaction
+     * @param buffer       the buffer to write the transaction into
+     * @return the message
+     */
+    public Message encode(final List<TransactionInstruction> instructions, final Blockhash recent, final ByteBuffer buffer)
+    {
+        if (v0)
+        {
+            return SolanaEncoding.builder(buffer)
+                    .v0()
+                    .payer(payer)
+                    .recent(recent)
+                    .prebuiltInstructions(instructions)
+                    .lookups(addressLookupTables)
+                    .seal()
+                    .unsigned()
+                    .build();
+        }
+        return SolanaEncoding.builder(buffer)
+                .legacy()
+                .payer(payer)
+                .recent(recent)
+                .prebuiltInstructions(instructions)
+                .seal()
+                .unsigned()
+                .build();
+    }
+
+    private boolean fits()
+    {
+        return encodedSize() <= maxSize && roles.size() <= maxAccountLocks;
+    }
+
+    private void reset()
+    {
+        batch.clear();
+        roles.clear();
+        Arrays.fill(readWriteLoads, 0);
+        Arrays.fill(readOnlyLoads, 0);
+        signerCount = 0;
+        staticAccountCount = 0;
+        instructionCount = 0;
+        instructionBytes = 0;
+
+        merge(payer, SIGNER | WRITER);
+        for (final TransactionInstruction instruction : preamble)
+        {
+            apply(instruction);
+        }
+        batch.addAll(preamble);
+    }
+
+    private void apply(final TransactionInstruction instruction)
+    {
+        merge(instruction.program(), 0);
+        final List<TransactionInstruction.AccountReference> accountReferences = instruction.accountReferences();
+        for (final TransactionInstruction.AccountReference accountReference : accountReferences)
+        {
+            merge(accountReference.account(), (accountReference.isSigner() ? SIGNER : 0) | (accountReference.isWriter() ? WRITER : 0));
+        }
+        instructionBytes += 1
+                + SolanaShortVec.length(accountReferences.size()) + accountReferences.size()
+                + SolanaShortVec.length(instruction.datasize()) + instruction.datasize();
+        instructionCount++;
+    }
+
+    private void merge(final PublicKey account, final int role)
+    {
+        final Integer previous = roles.get(account);
+        final int merged = previous == null ? role : previous | role;
+        if (previous != null && previous == merged)
+        {
+            return;
+        }
+        if (previous != null)
+        {
+            count(account, previous, -1);
+        }
+        roles.put(account, merged);
+        count(account, merged, 1);
+    }
+
+    private void count(final PublicKey account, final int role, final int delta)
+    {
+        final boolean signer = (role & SIGNER) != 0;
+        final Integer table = v0 && !signer ? lookupTableOfAccount.get(account) : null;
+        if (table == null)
+        {
+            staticAccountCount += delta;
+            signerCount += signer ? delta : 0;
+        }
+        else if ((role & WRITER) != 0)
+        {
+            readWriteLoads[table] += delta;
+        }
+        else
+        {
+            readOnlyLoads[table] += delta;
+        }
+    }
+
+    /**
+     * Builder for {@link TransactionPacker}.
+     */
+    public static final class Builder
+    {
+        private final PublicKey payer;
+        private boolean v0;
+        private List<AddressLookupTable> addressLookupTables = Collections.emptyList();
+        private List<TransactionInstruction> preamble = Collections.emptyList();
+        private int maxSize = SolanaEncoding.MAX_MESSAGE_SIZE;
+        private int maxAccountLocks = DEFAULT_MAX_ACCOUNT_LOCKS;
+
+        private Builder(final PublicKey payer)
+        {
+            this.payer = requireNonNull(payer);
+        }
+
+        /**
+         * Packs version 0 messages loading accounts from the given lookup tables.
+         *
+         * @param addressLookupTables the lookup tables, searched in order
+         * @return this builder
+         */
+        public Builder v0(final List<AddressLookupTable> addressLookupTables)
+        {
+            this.v0 = true;
+            this.addressLookupTables = new ArrayList<>(addressLookupTables);
+            return this;
+        }
+
+        /**
+         * Starts every transaction with the given instructions, such as compute budget instructions.
+         *
+         * @param preamble the instructions to start every transaction with
+         * @return this builder
+         */
+        public Builder preamble(final List<TransactionInstruction> preamble)
+        {
+            this.preamble = new ArrayList<>(preamble);
+            return this;
+        }
+
+        /**
+         * Sets the largest encoded transaction to emit, to leave room for instructions added later.
+         *
+         * @param maxSize the size in bytes, at most {@link SolanaEncoding#MAX_MESSAGE_SIZE}
+         * @return this builder
+         */
+        public Builder maxSize(final int maxSize)
+        {
+            if (maxSize <= 0 || maxSize > SolanaEncoding.MAX_MESSAGE_SIZE)
+            {
+                throw new IllegalArgumentException("maxSize must be between 1 and " + SolanaEncoding.MAX_MESSAGE_SIZE + " but was " + maxSize);
+            }
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of accounts a transaction may lock.
+         *
+         * @param maxAccountLocks the limit; {@link #DEFAULT_MAX_ACCOUNT_LOCKS} unless set
+         * @return this builder
+         */
+        public Builder maxAccountLocks(final int maxAccountLocks)
+        {
+            if (maxAccountLocks <= 0)
+            {
+                throw new IllegalArgumentException("maxAccountLocks must be positive but was " + maxAccountLocks);
+            }
+            this.maxAccountLocks = maxAccountLocks;
+            return this;
+        }
+
+        /**
+         * Builds the packer.
+         *
+         * @param sink receives each full batch, preamble first, ready for {@link TransactionPacker#encode}
+         * @return a new {@link TransactionPacker}
+         * @throws IllegalArgumentException if the preamble alone does not fit in a transaction
+         */
+        public TransactionPacker build(final Consumer<List<TransactionInstruction>> sink)
+        {
+            return new TransactionPacker(this, requireNonNull(sink));
+        }
+    }
+}
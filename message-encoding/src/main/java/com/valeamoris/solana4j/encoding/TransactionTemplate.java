@@ -0,0 +1,354 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.ByteBufferSigner;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A precompiled transaction whose variable parts are patched in place.
+ * <p>
+ * Many transactions share their accounts and programs and differ only in their blockhash, an amount or an account.
+ * A template is compiled once from such a transaction, encoded by the message builders, and records the byte offsets
+ * of its signature slots, static accounts, blockhash and instruction data. Producing the next transaction is then a copy
+ * of the template into a buffer, a few absolute writes through {@link #blockhash}, {@link #account} and declared
+ * {@link Field}s, and a signing pass, without merging accounts or running the message writer again.
+ * </p>
+ * <p>
+ * Every offset is relative to the position of the buffer the template was copied to, so many transactions can share one
+ * buffer. Patching never changes the length or layout of the transaction: an account written with {@link #account} keeps
+ * the role of the account it replaces, so it must not also appear elsewhere in the message. A template is immutable and
+ * may be shared between threads.
+ * </p>
+ */
+public final class TransactionTemplate
+{
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int BLOCKHASH_LENGTH = 32;
+
+    private final byte[] transaction;
+    private final int signatureCount;
+    private final int messageOffset;
+    private final int staticAccountsOffset;
+    private final int staticAccountCount;
+    private final int blockhashOffset;
+    private final int[] dataOffsets;
+    private final int[] dataLengths;
+
+    private TransactionTemplate(
+            final byte[] transaction,
+            final int signatureCount,
+            final int messageOffset,
+            final int staticAccountsOffset,
+            final int staticAccountCount,
+            final int blockhashOffset,
+            final int[] dataOffsets,
+            final int[] dataLengths)
+    {
+        this.transaction = transaction;
+        this.signatureCount = signatureCount;
+        this.messageOffset = messageOffset;
+        this.staticAccountsOffset = staticAccountsOffset;
+        this.staticAccountCount = staticAccountCount;
+        this.blockhashOffset = blockhashOffset;
+        this.dataOffsets = dataOffsets;
+        this.dataLengths = dataLengths;
+    }
+
+    /**
+     * Compiles a template from an encoded transaction, such as the buffer a message builder has just sealed.
+     *
+     * @param transaction the transaction between the buffer's position and limit; the buffer itself is left untouched
+     * @return a new {@link TransactionTemplate}
+     * @throws IllegalArgumentException if the buffer does not hold a well formed transaction
+     */
+    public static TransactionTemplate of(final ByteBuffer transaction)
+    {
+        final ByteBuffer buffer = requireNonNull(transaction).duplicate();
+        final int start = buffer.position();
+        try
+        {
+            final int signatureCount = SolanaShortVec.readInt(buffer);
+            buffer.position(buffer.position() + signatureCount * SIGNATURE_LENGTH);
+            final int messageOffset = buffer.position() - start;
+
+            final boolean v0 = (buffer.get(buffer.position()) & 0x80) != 0;
+            buffer.position(buffer.position() + (v0 ? 4 : 3));
+
+            final int staticAccountCount = SolanaShortVec.readInt(buffer);
+            final int staticAccountsOffset = buffer.position() - start;
+            buffer.position(buffer.position() + staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH);
+
+            final int blockhashOffset = buffer.position() - start;
+            buffer.position(buffer.position() + BLOCKHASH_LENGTH);
+
+            final int instructionCount = SolanaShortVec.readInt(buffer);
+            final int[] dataOffsets = new int[instructionCount];
+            final int[] dataLengths = new int[instructionCount];
+            for (int i = 0; i < instructionCount; i++)
+            {
+                buffer.get();
+                final int accountCount = SolanaShortVec.readInt(buffer);
+                buffer.position(buffer.position() + accountCount);
+                dataLengths[i] = SolanaShortVec.readInt(buffer);
+                dataOffsets[i] = buffer.position() - start;
+                buffer.position(buffer.position() + dataLengths[i]);
+            }
+
+            final byte[] bytes = new byte[transaction.remaining()];
+            transaction.duplicate().get(bytes);
+            Arrays.fill(bytes, messageOffset - signatureCount * SIGNATURE_LENGTH, messageOffset, (byte) 0);
+            return new TransactionTemplate(bytes, signatureCount, messageOffset, staticAccountsOffset, staticAccountCount, blockhashOffset, dataOffsets, dataLengths);
+        }
+        catch (final RuntimeException e)
+        {
+            throw new IllegalArgumentException("buffer does not hold a well formed transaction", e);
+        }
+    }
+
+    /**
+     * Returns the length of the transactions made from this template.
+     *
+     * @return the length in bytes, signatures included
+     */
+    public int length()
+    {
+        return transaction.length;
+    }
+
+    /**
+     * Returns the number of signatures the transaction requires.
+     *
+     * @return the number of signature slots
+     */
+    public int signatureCount()
+    {
+        return signatureCount;
+    }
+
+    /**
+     * Returns the offset of a signature slot.
+     *
+     * @param signer the index of the signer, the fee payer being 0
+     * @return the offset of the slot's 64 bytes
+     */
+    public int signatureOffset(final int signer)
+    {
+        checkIndex(signer, signatureCount, "signer");
+        return messageOffset - (signatureCount - signer) * SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Returns the offset of the message that is signed, just past the signature slots.
+     *
+     * @return the offset of the message
+     */
+    public int messageOffset()
+    {
+        return messageOffset;
+    }
+
+    /**
+     * Returns the offset of the recent blockhash or durable nonce.
+     *
+     * @return the offset of the blockhash's 32 bytes
+     */
+    public int blockhashOffset()
+    {
+        return blockhashOffset;
+    }
+
+    /**
+     * Returns the offset of a static account key.
+     *
+     * @param index the index of the account among the static accounts, the fee payer being 0
+     * @return the offset of the key's 32 bytes
+     */
+    public int accountOffset(final int index)
+    {
+        checkIndex(index, staticAccountCount, "account");
+        return staticAccountsOffset + index * PublicKey.PUBLIC_KEY_LENGTH;
+    }
+
+    /**
+     * Returns the offset of an instruction's data.
+     *
+     * @param instruction the index of the instruction
+     * @return the offset of the data
+     */
+    public int instructionDataOffset(final int instruction)
+    {
+        checkIndex(instruction, dataOffsets.length, "instruction");
+        return dataOffsets[instruction];
+    }
+
+    /**
+     * Declares a field within an instruction's data, such as an amount, to patch in each transaction.
+     *
+     * @param instruction the index of the instruction
+     * @param offset      the offset of the field within the instruction's data
+     * @param length      the length of the field in bytes
+     * @return the {@link Field}
+     * @throws IllegalArgumentException if the field does not lie within the instruction's data
+     */
+    public Field field(final int instruction, final int offset, final int length)
+    {
+        checkIndex(instruction, dataOffsets.length, "instruction");
+        if (offset < 0 || length <= 0 || offset + length > dataLengths[instruction])
+        {
+            throw new IllegalArgumentException("field of " + length + " bytes at " + offset + " does not lie within the "
+                    + dataLengths[instruction] + " bytes of data of instruction " + instruction);
+        }
+        return new Field(dataOffsets[instruction] + offset, length);
+    }
+
+    /**
+     * Copies the template to the buffer's position, ready to be patched.
+     * <p>
+     * On return the buffer's position is where the transaction starts and its limit where it ends; signature slots are
+     * zeroed.
+     * </p>
+     *
+     * @param buffer the buffer to copy to
+     * @return the buffer
+     */
+    public ByteBuffer copyTo(final ByteBuffer buffer)
+    {
+        final int start = buffer.position();
+        buffer.put(transaction);
+        buffer.limit(buffer.position());
+        buffer.position(start);
+        return buffer;
+    }
+
+    /**
+     * Patches the recent blockhash, or durable nonce, of a transaction copied from this template.
+     *
+     * @param buffer    the transaction, from its position
+     * @param blockhash the blockhash
+     */
+    public void blockhash(final ByteBuffer buffer, final Blockhash blockhash)
+    {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(buffer.position() + blockhashOffset);
+        blockhash.write(view);
+    }
+
+    /**
+     * Patches a static account of a transaction copied from this template.
+     *
+     * @param buffer  the transaction, from its position
+     * @param index   the index of the account among the static accounts
+     * @param account the account that takes its place and its role
+     */
+    public void account(final ByteBuffer buffer, final int index, final PublicKey account)
+    {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(buffer.position() + accountOffset(index));
+        account.write(view);
+    }
+
+    /**
+     * Signs a transaction copied from this template, writing the signature into the signer's slot.
+     *
+     * @param buffer      the transaction, from its position
+     * @param signerIndex the index of the signer, the fee payer being 0
+     * @param signer      signs the message
+     */
+    public void sign(final ByteBuffer buffer, final int signerIndex, final ByteBufferSigner signer)
+    {
+        final int start = buffer.position();
+
+        final ByteBuffer signature = buffer.duplicate();
+        signature.limit(start + signatureOffset(signerIndex) + SIGNATURE_LENGTH);
+        signature.position(start + signatureOffset(signerIndex));
+
+        final ByteBuffer message = buffer.duplicate();
+        message.limit(start + transaction.length);
+        message.position(start + messageOffset);
+
+        signer.sign(message.slice(), signature.slice());
+    }
+
+    private static void checkIndex(final int index, final int count, final String what)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IllegalArgumentException(what + " index " + index + " is outside 0 to " + (count - 1));
+        }
+    }
+
+    /**
+     * A field within an instruction's data, written little endian as Solana programs read it.
+     */
+    public static final class Field
+    {
+        private final int offset;
+        private final int length;
+
+        private Field(final int offset, final int length)
+        {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Returns the offset of the field within the transaction.
+         *
+         * @return the offset
+         */
+        public int offset()
+        {
+            return offset;
+        }
+
+        /**
+         * Returns the length of the field.
+         *
+         * @return the length in bytes
+         */
+        public int length()
+        {
+            return length;
+        }
+
+        /**
+         * Writes a value into the field, truncated to the field's length.
+         *
+         * @param buffer the transaction, from its position
+         * @param value  the value
+         */
+        public void putLong(final ByteBuffer buffer, final long value)
+        {
+            final int start = buffer.position() + offset;
+            for (int i = 0; i < length; i++)
+            {
+                buffer.put(start + i, (byte) (i < Long.BYTES ? value >>> (8 * i) : 0));
+            }
+        }
+
+        /**
+         * Writes bytes into the field.
+         *
+         * @param buffer the transaction, from its position
+         * @param bytes  exactly {@link #length()} bytes
+         * @throws IllegalArgumentException if the number of bytes is not the field's length
+         */
+        public void put(final ByteBuffer buffer, final byte[] bytes)
+        {
+            if (bytes.length != length)
+            {
+                throw new IllegalArgumentException("field holds " + length + " bytes but was given " + bytes.length);
+            }
+            final int start = buffer.position() + offset;
+            for (int i = 0; i < length; i++)
+            {
+                buffer.put(start + i, bytes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,535 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Flyweight view over a transaction on the wire: its signatures followed by a legacy or version 0 message.
+ * <p>
+ * {@link #wrap(ByteBuffer) Wrapping} a transaction makes a single pass over it, recording where each section, each
+ * instruction and each address table lookup starts; nothing is decoded until it is asked for, and then only by index.
+ * Accounts and signatures are exposed as absolute offsets into the wrapped buffer, so they can be compared or copied in
+ * place, for example with {@link com.valeamoris.solana4j.api.PublicKeySet#contains(ByteBuffer, int)}, and instruction
+ * account indexes are read as {@code int}s rather than lists.
+ * </p>
+ * <p>
+ * A single instance can be wrapped around many transactions in turn. The offset tables grow to fit the largest
+ * transaction seen and are then reused, so reading a block's worth of transactions allocates nothing per transaction.
+ * The buffer is not copied and must not be modified while the view is in use; its position and limit are never changed.
+ * A view is not thread safe.
+ * </p>
+ */
+public final class TransactionView
+{
+    /**
+     * The {@link #messageVersion()} of a legacy message, which has no version prefix.
+     */
+    public static final int LEGACY_VERSION = -1;
+
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int BLOCKHASH_LENGTH = 32;
+    private static final int INITIAL_CAPACITY = 8;
+    // a program index and two empty shortvecs
+    private static final int MIN_INSTRUCTION_LENGTH = 3;
+    // a table address and two empty shortvecs
+    private static final int MIN_LOOKUP_LENGTH = PublicKey.PUBLIC_KEY_LENGTH + 2;
+
+    private ByteBuffer buffer;
+    private int signatureCount;
+    private int signaturesOffset;
+    private int messageOffset;
+    private int messageVersion;
+    private int countAccountsSigned;
+    private int countAccountsSignedReadOnly;
+    private int countAccountsUnsignedReadOnly;
+    private int staticAccountCount;
+    private int accountsOffset;
+    private int blockhashOffset;
+    private int messageEnd;
+
+    private int instructionCount;
+    private int[] programIndexes = new int[INITIAL_CAPACITY];
+    private int[] instructionAccountCounts = new int[INITIAL_CAPACITY];
+    private int[] instructionAccountsOffsets = new int[INITIAL_CAPACITY];
+    private int[] instructionDataLengths = new int[INITIAL_CAPACITY];
+    private int[] instructionDataOffsets = new int[INITIAL_CAPACITY];
+
+    private int lookupCount;
+    private int[] lookupTableOffsets = new int[INITIAL_CAPACITY];
+    private int[] lookupWritableCounts = new int[INITIAL_CAPACITY];
+    private int[] lookupReadOnlyCounts = new int[INITIAL_CAPACITY];
+
+    private ByteBuffer instructionData;
+
+    // the offset the last short vector read finished at
+    private int cursor;
+
+    /**
+     * Points this view at the transaction between the buffer's position and limit.
+     *
+     * @param buffer the transaction; it is not copied and must not be modified while the view is in use
+     * @return this view
+     * @throws IllegalStateException if the transaction is malformed or its message version is not supported
+     */
+    public TransactionView wrap(final ByteBuffer buffer)
+    {
+        if (buffer != this.buffer)
+        {
+            this.buffer = requireNonNull(buffer);
+            this.instructionData = null;
+        }
+        try
+        {
+            readSections(buffer.position(), buffer.limit());
+        }
+        catch (final IndexOutOfBoundsException e)
+        {
+            throw new IllegalStateException("message is malformed", e);
+        }
+        return this;
+    }
+
+    private void readSections(final int start, final int limit)
+    {
+        signatureCount = readShortVec(start, limit);
+        signaturesOffset = cursor;
+        messageOffset = signaturesOffset + signatureCount * SIGNATURE_LENGTH;
+
+        int offset = messageOffset;
+        final byte first = get(offset++, limit);
+        if (first == (byte) 0x80)
+        {
+            messageVersion = 0;
+            countAccountsSigned = get(offset++, limit) & 0xff;
+        }
+        else if ((first & 0x80) == 0x00)
+        {
+            messageVersion = LEGACY_VERSION;
+            countAccountsSigned = first & 0xff;
+        }
+        else
+        {
+            throw new IllegalStateException("unsupported message format");
+        }
+        countAccountsSignedReadOnly = get(offset++, limit) & 0xff;
+        countAccountsUnsignedReadOnly = get(offset++, limit) & 0xff;
+
+        staticAccountCount = readShortVec(offset, limit);
+        accountsOffset = cursor;
+        blockhashOffset = accountsOffset + staticAccountCount * PublicKey.PUBLIC_KEY_LENGTH;
+        offset = readInstructions(blockhashOffset + BLOCKHASH_LENGTH, limit);
+        messageEnd = messageVersion == LEGACY_VERSION ? offset : readLookups(offset, limit);
+
+        if (messageEnd > limit || countAccountsSigned != signatureCount || countAccountsSigned > staticAccountCount)
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+    }
+
+    private int readInstructions(final int start, final int limit)
+    {
+        instructionCount = readShortVec(start, limit);
+        // each instruction takes at least three bytes, so a larger count cannot fit and must not size the tables
+        if (instructionCount > (limit - cursor) / MIN_INSTRUCTION_LENGTH)
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        ensureInstructionCapacity(instructionCount);
+        int offset = cursor;
+        for (int i = 0; i < instructionCount; i++)
+        {
+            programIndexes[i] = get(offset, limit) & 0xff;
+            instructionAccountCounts[i] = readShortVec(offset + 1, limit);
+            instructionAccountsOffsets[i] = cursor;
+            instructionDataLengths[i] = readShortVec(cursor + instructionAccountCounts[i], limit);
+            instructionDataOffsets[i] = cursor;
+            offset = cursor + instructionDataLengths[i];
+            if (programIndexes[i] >= staticAccountCount)
+            {
+                throw new IllegalStateException("message is malformed");
+            }
+        }
+        return offset;
+    }
+
+    private int readLookups(final int start, final int limit)
+    {
+        lookupCount = readShortVec(start, limit);
+        if (lookupCount > (limit - cursor) / MIN_LOOKUP_LENGTH)
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        ensureLookupCapacity(lookupCount);
+        int offset = cursor;
+        for (int i = 0; i < lookupCount; i++)
+        {
+            lookupTableOffsets[i] = offset;
+            lookupWritableCounts[i] = readShortVec(offset + PublicKey.PUBLIC_KEY_LENGTH, limit);
+            lookupReadOnlyCounts[i] = readShortVec(cursor + lookupWritableCounts[i], limit);
+            offset = cursor + lookupReadOnlyCounts[i];
+        }
+        return offset;
+    }
+
+    /**
+     * Reads a compact-u16 length at the given offset, leaving the offset after it in the cursor.
+     */
+    private int readShortVec(final int offset, final int limit)
+    {
+        int value = 0;
+        int index = offset;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = get(index++, limit);
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0 && shift < 21);
+        cursor = index;
+        return value;
+    }
+
+    private byte get(final int index, final int limit)
+    {
+        if (index >= limit)
+        {
+            throw new IllegalStateException("message is malformed");
+        }
+        return buffer.get(index);
+    }
+
+    private void ensureInstructionCapacity(final int count)
+    {
+        if (programIndexes.length < count)
+        {
+            final int capacity = Math.max(count, programIndexes.length * 2);
+            programIndexes = Arrays.copyOf(programIndexes, capacity);
+            instructionAccountCounts = Arrays.copyOf(instructionAccountCounts, capacity);
+            instructionAccountsOffsets = Arrays.copyOf(instructionAccountsOffsets, capacity);
+            instructionDataLengths = Arrays.copyOf(instructionDataLengths, capacity);
+            instructionDataOffsets = Arrays.copyOf(instructionDataOffsets, capacity);
+        }
+    }
+
+    private void ensureLookupCapacity(final int count)
+    {
+        if (lookupTableOffsets.length < count)
+        {
+            final int capacity = Math.max(count, lookupTableOffsets.length * 2);
+            lookupTableOffsets = Arrays.copyOf(lookupTableOffsets, capacity);
+            lookupWritableCounts = Arrays.copyOf(lookupWritableCounts, capacity);
+            lookupReadOnlyCounts = Arrays.copyOf(lookupReadOnlyCounts, capacity);
+        }
+    }
+
+    /**
+     * Returns the buffer the view is wrapped around, which all offsets index into.
+     *
+     * @return the wrapped buffer
+     */
+    public ByteBuffer buffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of signatures.
+     *
+     * @return the signature count
+     */
+    public int signatureCount()
+    {
+        return signatureCount;
+    }
+
+    /**
+     * Returns the offset of a signature's 64 bytes; the first signature is the transaction id.
+     *
+     * @param index the index of the signature, which is also the index of its signer among the accounts
+     * @return the absolute offset of the signature
+     */
+    public int signatureOffset(final int index)
+    {
+        return signaturesOffset + checkIndex(index, signatureCount) * SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Returns the offset of the message, the part of the transaction that is signed.
+     *
+     * @return the absolute offset of the message
+     */
+    public int messageOffset()
+    {
+        return messageOffset;
+    }
+
+    /**
+     * Returns the length of the message, the part of the transaction that is signed.
+     *
+     * @return the message length in bytes
+     */
+    public int messageLength()
+    {
+        return messageEnd - messageOffset;
+    }
+
+    /**
+     * Returns the version of the message.
+     *
+     * @return 0 for a version 0 message, {@link #LEGACY_VERSION} for a legacy one
+     */
+    public int messageVersion()
+    {
+        return messageVersion;
+    }
+
+    /**
+     * Returns the number of accounts that must sign.
+     *
+     * @return the signed account count
+     */
+    public int countAccountsSigned()
+    {
+        return countAccountsSigned;
+    }
+
+    /**
+     * Returns the number of signing accounts that are read only.
+     *
+     * @return the signed read only account count
+     */
+    public int countAccountsSignedReadOnly()
+    {
+        return countAccountsSignedReadOnly;
+    }
+
+    /**
+     * Returns the number of non-signing static accounts that are read only.
+     *
+     * @return the unsigned read only account count
+     */
+    public int countAccountsUnsignedReadOnly()
+    {
+        return countAccountsUnsignedReadOnly;
+    }
+
+    /**
+     * Returns the number of accounts listed in the message itself, excluding those loaded from lookup tables.
+     *
+     * @return the static account count
+     */
+    public int staticAccountCount()
+    {
+        return staticAccountCount;
+    }
+
+    /**
+     * Returns the offset of a static account's 32 bytes; the first is the fee payer.
+     *
+     * @param index the index of the account
+     * @return the absolute offset of the account
+     */
+    public int accountOffset(final int index)
+    {
+        return accountsOffset + checkIndex(index, staticAccountCount) * PublicKey.PUBLIC_KEY_LENGTH;
+    }
+
+    /**
+     * Reads a static account as a public key, which is created on each call unless it is a well-known program.
+     *
+     * @param index the index of the account
+     * @return the account
+     */
+    public PublicKey account(final int index)
+    {
+        final ByteBuffer view = buffer.duplicate();
+        view.position(accountOffset(index));
+        return SolanaAccount.read(view);
+    }
+
+    /**
+     * Returns the offset of the recent blockhash, or of the nonce for a durable nonce transaction.
+     *
+     * @return the absolute offset of the blockhash's 32 bytes
+     */
+    public int blockhashOffset()
+    {
+        return blockhashOffset;
+    }
+
+    /**
+     * Returns the number of instructions.
+     *
+     * @return the instruction count
+     */
+    public int instructionCount()
+    {
+        return instructionCount;
+    }
+
+    /**
+     * Returns the index of an instruction's program among the static accounts.
+     *
+     * @param instruction the index of the instruction
+     * @return the program's account index
+     */
+    public int programIndex(final int instruction)
+    {
+        return programIndexes[checkIndex(instruction, instructionCount)];
+    }
+
+    /**
+     * Returns the number of accounts an instruction references.
+     *
+     * @param instruction the index of the instruction
+     * @return the instruction's account count
+     */
+    public int instructionAccountCount(final int instruction)
+    {
+        return instructionAccountCounts[checkIndex(instruction, instructionCount)];
+    }
+
+    /**
+     * Returns the index of one of an instruction's accounts in the message's account list: the static accounts followed,
+     * in a version 0 message, by the writable then read only accounts of each lookup.
+     *
+     * @param instruction the index of the instruction
+     * @param account     the index of the account within the instruction
+     * @return the account's index in the message
+     */
+    public int accountIndex(final int instruction, final int account)
+    {
+        final int offset = instructionAccountsOffsets[checkIndex(instruction, instructionCount)];
+        return buffer.get(offset + checkIndex(account, instructionAccountCounts[instruction])) & 0xff;
+    }
+
+    /**
+     * Returns the offset of an instruction's data.
+     *
+     * @param instruction the index of the instruction
+     * @return the absolute offset of the data
+     */
+    public int instructionDataOffset(final int instruction)
+    {
+        return instructionDataOffsets[checkIndex(instruction, instructionCount)];
+    }
+
+    /**
+     * Returns the length of an instruction's data.
+     *
+     * @param instruction the index of the instruction
+     * @return the data length in bytes
+     */
+    public int instructionDataLength(final int instruction)
+    {
+        return instructionDataLengths[checkIndex(instruction, instructionCount)];
+    }
+
+    /**
+     * Returns an instruction's data as a read only buffer from position zero to its length.
+     * <p>
+     * The same buffer is returned by every call, re-pointed at the requested instruction, so it is only valid until the
+     * next call or wrap.
+     * </p>
+     *
+     * @param instruction the index of the instruction
+     * @return the instruction's data
+     */
+    public ByteBuffer instructionData(final int instruction)
+    {
+        if (instructionData == null)
+        {
+            instructionData = buffer.asReadOnlyBuffer().order(buffer.order());
+        }
+        instructionData.limit(buffer.capacity());
+        instructionData.position(instructionDataOffset(instruction));
+        instructionData.limit(instructionData.position() + instructionDataLengths[instruction]);
+        return instructionData;
+    }
+
+    /**
+     * Returns the number of address table lookups, always zero for a legacy message.
+     *
+     * @return the lookup count
+     */
+    public int lookupCount()
+    {
+        return messageVersion == LEGACY_VERSION ? 0 : lookupCount;
+    }
+
+    /**
+     * Returns the offset of a lookup's table address.
+     *
+     * @param lookup the index of the lookup
+     * @return the absolute offset of the table address's 32 bytes
+     */
+    public int lookupTableOffset(final int lookup)
+    {
+        return lookupTableOffsets[checkIndex(lookup, lookupCount())];
+    }
+
+    /**
+     * Returns the number of writable accounts a lookup loads.
+     *
+     * @param lookup the index of the lookup
+     * @return the writable account count
+     */
+    public int lookupWritableCount(final int lookup)
+    {
+        return lookupWritableCounts[checkIndex(lookup, lookupCount())];
+    }
+
+    /**
+     * Returns the index within its table of a writable account a lookup loads.
+     *
+     * @param lookup the index of the lookup
+     * @param index  the index of the account within the lookup's writable accounts
+     * @return the account's index in the table
+     */
+    public int lookupWritableIndex(final int lookup, final int index)
+    {
+        final int offset = lookupTableOffset(lookup) + PublicKey.PUBLIC_KEY_LENGTH + SolanaShortVec.length(lookupWritableCounts[lookup]);
+        return buffer.get(offset + checkIndex(index, lookupWritableCounts[lookup])) & 0xff;
+    }
+
+    /**
+     * Returns the number of read only accounts a lookup loads.
+     *
+     * @param lookup the index of the lookup
+     * @return the read only account count
+     */
+    public int lookupReadOnlyCount(final int lookup)
+    {
+        return lookupReadOnlyCounts[checkIndex(lookup, lookupCount())];
+    }
+
+    /**
+     * Returns the index within its table of a read only account a lookup loads.
+     *
+     * @param lookup the index of the lookup
+     * @param index  the index of the account within the lookup's read only accounts
+     * @return the account's index in the table
+     */
+    public int lookupReadOnlyIndex(final int lookup, final int index)
+    {
+        final int writableCount = lookupWritableCount(lookup);
+        final int offset = lookupTableOffsets[lookup] + PublicKey.PUBLIC_KEY_LENGTH + SolanaShortVec.length(writableCount) + writableCount
+                + SolanaShortVec.length(lookupReadOnlyCounts[lookup]);
+        return buffer.get(offset + checkIndex(index, lookupReadOnlyCounts[lookup])) & 0xff;
+    }
+
+    private static int checkIndex(final int index, final int count)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for " + count);
+        }
+        return index;
+    }
+}
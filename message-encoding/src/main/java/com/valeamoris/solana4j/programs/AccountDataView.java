@@ -0,0 +1,120 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base of the flyweight account data views.
+ * <p>
+ * A view holds a reference to a caller-owned {@link ByteBuffer} and reads little-endian fields at fixed offsets from
+ * the buffer's position at the time it was wrapped. Nothing is copied up front and the buffer's position, limit and
+ * byte order are never modified, so one view instance can be re-pointed at any number of accounts.
+ * </p>
+ */
+abstract class AccountDataView
+{
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private boolean bigEndian;
+
+    final void wrapBuffer(final ByteBuffer buffer, final int minimumLength)
+    {
+        requireNonNull(buffer);
+        if (buffer.remaining() < minimumLength)
+        {
+            throw new IllegalArgumentException("account data too short. Expected at least " + minimumLength + " bytes but found " + buffer.remaining());
+        }
+        this.buffer = buffer;
+        this.offset = buffer.position();
+        this.length = buffer.remaining();
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Returns the number of bytes of account data the view was wrapped over.
+     *
+     * @return the account data length
+     */
+    public final int length()
+    {
+        return length;
+    }
+
+    final int u8(final int at)
+    {
+        return buffer.get(offset + at) & 0xff;
+    }
+
+    final int u16(final int at)
+    {
+        final short value = buffer.getShort(offset + at);
+        return (bigEndian ? Short.reverseBytes(value) : value) & 0xffff;
+    }
+
+    final int u32(final int at)
+    {
+        final int value = buffer.getInt(offset + at);
+        return bigEndian ? Integer.reverseBytes(value) : value;
+    }
+
+    final long u64(final int at)
+    {
+        final long value = buffer.getLong(offset + at);
+        return bigEndian ? Long.reverseBytes(value) : value;
+    }
+
+    final boolean bool(final int at)
+    {
+        return buffer.get(offset + at) != 0;
+    }
+
+    final byte[] bytes(final int at, final int count)
+    {
+        final byte[] bytes = new byte[count];
+        for (int i = 0; i < count; i++)
+        {
+            bytes[i] = buffer.get(offset + at + i);
+        }
+        return bytes;
+    }
+
+    final PublicKey publicKey(final int at)
+    {
+        return Solana.account(bytes(at, PublicKey.PUBLIC_KEY_LENGTH));
+    }
+
+    final void copyPublicKey(final int at, final ByteBuffer destination)
+    {
+        for (int i = 0; i < PublicKey.PUBLIC_KEY_LENGTH; i++)
+        {
+            destination.put(buffer.get(offset + at + i));
+        }
+    }
+
+    final boolean publicKeyEquals(final int at, final PublicKey publicKey)
+    {
+        for (int i = 0; i < 4; i++)
+        {
+            final long word = buffer.getLong(offset + at + 8 * i);
+            if ((bigEndian ? word : Long.reverseBytes(word)) != publicKey.word(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a {@code COption<Pubkey>}, a four byte tag followed by the key, as used by the SPL token layouts.
+     */
+    final PublicKey optionalPublicKey(final int at)
+    {
+        return u32(at) == 0 ? null : publicKey(at + 4);
+    }
+}
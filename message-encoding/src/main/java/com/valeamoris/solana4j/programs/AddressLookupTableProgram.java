@@ -11,7 +11,7 @@ import com.valeamoris.solana4j.encoding.SolanaEncoding;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -183,10 +183,7 @@ public final class AddressLookupTableProgram
      */
     public static ProgramDerivedAddress deriveAddress(final PublicKey authority, final Slot slot)
     {
-        final List<byte[]> seeds = new ArrayList<>();
-        seeds.add(authority.bytes());
-        seeds.add(slot.bytes());
-        return SolanaEncoding.deriveProgramAddress(seeds, AddressLookupTableProgram.PROGRAM_ACCOUNT);
+        return SolanaEncoding.deriveProgramAddress(Arrays.asList(authority.bytes(), slot.bytes()), AddressLookupTableProgram.PROGRAM_ACCOUNT);
     }
 
     /**
@@ -203,20 +200,7 @@ public final class AddressLookupTableProgram
         assert serializedAddressesLength >= 0;
         assert serializedAddressesLength % 32 == 0;
 
-        final int numberOfSerializedAddresses = serializedAddressesLength / 32;
-
-        final ByteBuffer lookupTable = ByteBuffer.allocate(lookupAddressData.length);
-        lookupTable.put(lookupAddressData);
-        lookupTable.position(LOOKUP_TABLE_META_SIZE);
-
-        final List<PublicKey> addresses = new ArrayList<>();
-        for (int i = 0; i < numberOfSerializedAddresses; i++)
-        {
-            final byte[] account = new byte[32];
-            lookupTable.get(account, 0, 32);
-            final PublicKey address = Solana.account(account);
-            addresses.add(address);
-        }
+        final List<PublicKey> addresses = new AddressLookupTableView().wrap(ByteBuffer.wrap(lookupAddressData)).addresses();
 
         return SolanaEncoding.addressLookupTable(lookupTableAddress, addresses);
     }
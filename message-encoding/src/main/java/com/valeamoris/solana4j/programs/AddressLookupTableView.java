@@ -0,0 +1,179 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flyweight view over the data of an address lookup table account.
+ * <p>
+ * The {@link AddressLookupTableProgram#LOOKUP_TABLE_META_SIZE} byte metadata is read at fixed offsets, and addresses are
+ * read by index from the array that follows it. A single instance can be {@link #wrap(ByteBuffer) wrapped} around many
+ * tables in turn.
+ * </p>
+ */
+public final class AddressLookupTableView extends AccountDataView
+{
+    private static final int TYPE_OFFSET = 0;
+    private static final int DEACTIVATION_SLOT_OFFSET = 4;
+    private static final int LAST_EXTENDED_SLOT_OFFSET = 12;
+    private static final int LAST_EXTENDED_SLOT_START_INDEX_OFFSET = 20;
+    private static final int AUTHORITY_OFFSET = 21;
+    private static final int ADDRESSES_OFFSET = AddressLookupTableProgram.LOOKUP_TABLE_META_SIZE;
+
+    /**
+     * The deactivation slot of a table that has not been deactivated (u64::MAX).
+     */
+    public static final long ACTIVE_DEACTIVATION_SLOT = -1L;
+
+    /**
+     * Points this view at the lookup table data starting at the buffer's current position.
+     *
+     * @param buffer the account data; it is not copied and must not be modified while the view is in use
+     * @return this view
+     * @throws IllegalArgumentException if fewer than {@link AddressLookupTableProgram#LOOKUP_TABLE_META_SIZE} bytes remain
+     */
+    public AddressLookupTableView wrap(final ByteBuffer buffer)
+    {
+        wrapBuffer(buffer, AddressLookupTableProgram.LOOKUP_TABLE_META_SIZE);
+        return this;
+    }
+
+    /**
+     * Returns the account type discriminator.
+     *
+     * @return one for an initialized lookup table
+     */
+    public int type()
+    {
+        return u32(TYPE_OFFSET);
+    }
+
+    /**
+     * Returns the slot at which the table was deactivated.
+     *
+     * @return the unsigned deactivation slot, {@link #ACTIVE_DEACTIVATION_SLOT} while the table is active
+     */
+    public long deactivationSlot()
+    {
+        return u64(DEACTIVATION_SLOT_OFFSET);
+    }
+
+    /**
+     * Returns whether the table has not been deactivated.
+     *
+     * @return true if the table is active
+     */
+    public boolean isActive()
+    {
+        return deactivationSlot() == ACTIVE_DEACTIVATION_SLOT;
+    }
+
+    /**
+     * Returns the slot at which the table was last extended.
+     *
+     * @return the unsigned slot
+     */
+    public long lastExtendedSlot()
+    {
+        return u64(LAST_EXTENDED_SLOT_OFFSET);
+    }
+
+    /**
+     * Returns the index of the first address added by the last extension.
+     *
+     * @return the start index of the last extension
+     */
+    public int lastExtendedSlotStartIndex()
+    {
+        return u8(LAST_EXTENDED_SLOT_START_INDEX_OFFSET);
+    }
+
+    /**
+     * Returns the authority allowed to extend, deactivate and close the table, if any.
+     *
+     * @return the authority, or null if the table is frozen
+     */
+    public PublicKey authority()
+    {
+        return bool(AUTHORITY_OFFSET) ? publicKey(AUTHORITY_OFFSET + 1) : null;
+    }
+
+    /**
+     * Returns the number of addresses stored in the table.
+     *
+     * @return the address count
+     */
+    public int addressCount()
+    {
+        return (length() - ADDRESSES_OFFSET) / PublicKey.PUBLIC_KEY_LENGTH;
+    }
+
+    /**
+     * Returns the address stored at the given index.
+     *
+     * @param index the index of the address in the table
+     * @return the address
+     */
+    public PublicKey address(final int index)
+    {
+        return publicKey(addressOffset(index));
+    }
+
+    /**
+     * Writes the address stored at the given index into the destination buffer without allocating.
+     *
+     * @param index       the index of the address in the table
+     * @param destination the buffer to write the 32 byte address into
+     */
+    public void writeAddress(final int index, final ByteBuffer destination)
+    {
+        copyPublicKey(addressOffset(index), destination);
+    }
+
+    /**
+     * Finds the index of an address in the table, comparing in place.
+     *
+     * @param address the address to look for
+     * @return the index of the first occurrence of {@code address}, or -1 if the table does not contain it
+     */
+    public int indexOf(final PublicKey address)
+    {
+        final int addressCount = addressCount();
+        for (int i = 0; i < addressCount; i++)
+        {
+            if (publicKeyEquals(ADDRESSES_OFFSET + i * PublicKey.PUBLIC_KEY_LENGTH, address))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Materialises every address stored in the table.
+     *
+     * @return the addresses, in index order
+     */
+    public List<PublicKey> addresses()
+    {
+        final int addressCount = addressCount();
+        final List<PublicKey> addresses = new ArrayList<>(addressCount);
+        for (int i = 0; i < addressCount; i++)
+        {
+            addresses.add(address(i));
+        }
+        return addresses;
+    }
+
+    private int addressOffset(final int index)
+    {
+        if (index < 0 || index >= addressCount())
+        {
+            throw new IndexOutOfBoundsException("lookup table index " + index + " out of range, table holds " + addressCount() + " addresses");
+        }
+        return ADDRESSES_OFFSET + index * PublicKey.PUBLIC_KEY_LENGTH;
+    }
+}
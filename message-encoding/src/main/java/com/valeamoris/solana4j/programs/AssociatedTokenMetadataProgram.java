@@ -6,10 +6,8 @@ import com.valeamoris.solana4j.api.PublicKey;
 import com.valeamoris.solana4j.encoding.SolanaEncoding;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.List;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -27,6 +25,11 @@ public final class AssociatedTokenMetadataProgram
      */
     private static final byte[] METADATA_MAGIC_STRING = "metadata".getBytes(UTF_8);
 
+    /**
+     * The padded length of the name field of a metadata account.
+     */
+    private static final int MAX_NAME_LENGTH = 32;
+
     /**
      * The program ID for the associated token metadata program.
      * <p>
@@ -63,12 +66,8 @@ public final class AssociatedTokenMetadataProgram
      */
     public static ProgramDerivedAddress deriveAddress(final PublicKey mint)
     {
-        final List<byte[]> seeds = new ArrayList<>();
-        seeds.add(METADATA_MAGIC_STRING);
-        seeds.add(ASSOCIATED_TOKEN_METADATA_PROGRAM_ID);
-        seeds.add(mint.bytes());
         return SolanaEncoding.deriveProgramAddress(
-                seeds,
+                Arrays.asList(METADATA_MAGIC_STRING, ASSOCIATED_TOKEN_METADATA_PROGRAM_ID, mint.bytes()),
                 ASSOCIATED_TOKEN_METADATA_PROGRAM_ACCOUNT
         );
     }
@@ -76,8 +75,9 @@ public final class AssociatedTokenMetadataProgram
     /**
      * Extracts the token name from the base64-encoded metadata.
      * <p>
-     * This method decodes the base64-encoded metadata and extracts the token name from it. The name is determined
-     * by reading the length of the name and then extracting the corresponding bytes from the metadata.
+     * This method decodes only the leading part of the base64-encoded metadata that holds the name, and reads the name
+     * through a {@link TokenMetadataView}. The name is determined by reading the length of the name and then extracting
+     * the corresponding bytes from the metadata.
      * </p>
      *
      * @param base64Metadata the base64-encoded metadata string
@@ -85,17 +85,18 @@ public final class AssociatedTokenMetadataProgram
      */
     public static String extractTokenName(final String base64Metadata)
     {
-        final byte[] metadata = Base64.getDecoder().decode(base64Metadata);
-
-        final ByteBuffer nameLengthBuffer = ByteBuffer.allocate(4);
-        nameLengthBuffer.order(ByteOrder.LITTLE_ENDIAN);
-        nameLengthBuffer.put(metadata, 65, 4);
-        nameLengthBuffer.flip();
-        final int nameLength = nameLengthBuffer.getInt();
-
-        final ByteBuffer nameBuffer = ByteBuffer.allocate(nameLength);
-        nameBuffer.put(metadata, 69, nameLength);
+        final TokenMetadataView metadata = new TokenMetadataView();
+        metadata.wrap(ByteBuffer.wrap(decodeBase64Prefix(base64Metadata, TokenMetadataView.NAME_OFFSET + 4 + MAX_NAME_LENGTH)));
+        if (metadata.nameEnd() > metadata.length())
+        {
+            metadata.wrap(ByteBuffer.wrap(decodeBase64Prefix(base64Metadata, metadata.nameEnd())));
+        }
+        return metadata.name();
+    }
 
-        return new String(nameBuffer.array(), UTF_8).trim();
+    private static byte[] decodeBase64Prefix(final String base64, final int byteCount)
+    {
+        final int charCount = (byteCount + 2) / 3 * 4;
+        return Base64.getDecoder().decode(charCount < base64.length() ? base64.substring(0, charCount) : base64);
     }
 }
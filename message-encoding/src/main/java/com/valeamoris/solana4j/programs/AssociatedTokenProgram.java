@@ -5,11 +5,13 @@ import com.valeamoris.solana4j.api.ProgramDerivedAddress;
 import com.valeamoris.solana4j.api.PublicKey;
 import com.valeamoris.solana4j.api.TransactionBuilder;
 import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.encoding.ProgramAddressCache;
 import com.valeamoris.solana4j.encoding.SolanaEncoding;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.valeamoris.solana4j.encoding.SysVar.RENT;
 import static com.valeamoris.solana4j.programs.SystemProgram.SYSTEM_PROGRAM_ACCOUNT;
@@ -166,13 +168,127 @@ public final class AssociatedTokenProgram
         requireNonNull(tokenProgramAccount, "The token program public key must be specified, but was null");
         requireNonNull(mint, "The mint public key must be specified, but was null");
 
-        final List<byte[]> seeds = new ArrayList<>();
-        seeds.add(owner.bytes());
-        seeds.add(tokenProgramAccount.bytes());
-        seeds.add(mint.bytes());
         return SolanaEncoding.deriveProgramAddress(
-                seeds,
+                Arrays.asList(owner.bytes(), tokenProgramAccount.bytes(), mint.bytes()),
                 ASSOCIATED_TOKEN_PROGRAM_ACCOUNT
         );
     }
+
+    /**
+     * Derives a program address for a given owner, token program account, and mint, through a cache of addresses.
+     * <p>
+     * Deriving the same owner, token program account and mint again costs a cache lookup rather than a bump seed search.
+     * </p>
+     *
+     * @param owner               the owner's public key; must not be null
+     * @param tokenProgramAccount the token program account's public key; must not be null
+     * @param mint                the mint's public key; must not be null
+     * @param cache               the cache of derived addresses
+     * @return the derived program address based on the provided owner, token program account, and mint public keys
+     * @throws NullPointerException if the owner, tokenProgramAccount, or mint is null
+     */
+    public static ProgramDerivedAddress deriveAddress(
+            final PublicKey owner,
+            final PublicKey tokenProgramAccount,
+            final PublicKey mint,
+            final ProgramAddressCache cache)
+    {
+        requireNonNull(owner, "The owner public key must be specified, but was null");
+        requireNonNull(tokenProgramAccount, "The token program public key must be specified, but was null");
+        requireNonNull(mint, "The mint public key must be specified, but was null");
+
+        return cache.deriveProgramAddress(
+                Arrays.asList(owner.bytes(), tokenProgramAccount.bytes(), mint.bytes()),
+                ASSOCIATED_TOKEN_PROGRAM_ACCOUNT
+        );
+    }
+
+    /**
+     * Derives the associated token addresses of many owner and mint pairs at once, splitting the work across a pool.
+     * <p>
+     * For each pair in turn, the 32 bytes of the address followed by one byte of bump seed are written at the output
+     * buffer's position, advancing it. Nothing is allocated per pair.
+     * </p>
+     *
+     * @param owners              the owners' public keys
+     * @param mints               the mints' public keys, one per owner
+     * @param tokenProgramAccount the token program account's public key
+     * @param out                 the buffer to write the addresses and bump seeds to
+     * @param pool                the pool to derive on
+     * @throws IllegalArgumentException if there are not as many mints as owners or the output buffer has no room for every address
+     */
+    public static void deriveAddresses(
+            final PublicKey[] owners,
+            final PublicKey[] mints,
+            final PublicKey tokenProgramAccount,
+            final ByteBuffer out,
+            final ForkJoinPool pool)
+    {
+        if (owners.length != mints.length)
+        {
+            throw new IllegalArgumentException("expected one mint per owner but had " + owners.length + " owners and " + mints.length + " mints");
+        }
+        final byte[] tokenProgram = tokenProgramAccount.bytes();
+        SolanaEncoding.deriveProgramAddresses(owners.length, (index, seeds) ->
+        {
+            putKey(seeds, 0, owners[index]);
+            System.arraycopy(tokenProgram, 0, seeds, PublicKey.PUBLIC_KEY_LENGTH, PublicKey.PUBLIC_KEY_LENGTH);
+            putKey(seeds, 2 * PublicKey.PUBLIC_KEY_LENGTH, mints[index]);
+            return 3 * PublicKey.PUBLIC_KEY_LENGTH;
+        }, ASSOCIATED_TOKEN_PROGRAM_ACCOUNT, out, pool);
+    }
+
+    /**
+     * Derives the associated token addresses of many owner and mint pairs at once, reading the keys from flat buffers.
+     * <p>
+     * The owners and mints are read as consecutive 32 byte keys between each buffer's position and limit, which are left as
+     * they are. The results are written as {@link #deriveAddresses(PublicKey[], PublicKey[], PublicKey, ByteBuffer, ForkJoinPool)}
+     * writes them.
+     * </p>
+     *
+     * @param owners              the owners' public keys, 32 bytes each
+     * @param mints               the mints' public keys, 32 bytes each, one per owner
+     * @param tokenProgramAccount the token program account's public key
+     * @param out                 the buffer to write the addresses and bump seeds to
+     * @param pool                the pool to derive on
+     * @throws IllegalArgumentException if the buffers do not hold whole keys, one mint per owner, or the output buffer has no room for every address
+     */
+    public static void deriveAddresses(
+            final ByteBuffer owners,
+            final ByteBuffer mints,
+            final PublicKey tokenProgramAccount,
+            final ByteBuffer out,
+            final ForkJoinPool pool)
+    {
+        if (owners.remaining() % PublicKey.PUBLIC_KEY_LENGTH != 0 || owners.remaining() != mints.remaining())
+        {
+            throw new IllegalArgumentException("expected one 32 byte mint per 32 byte owner but had " + owners.remaining() + " and " + mints.remaining() + " bytes");
+        }
+        final byte[] tokenProgram = tokenProgramAccount.bytes();
+        final int ownersStart = owners.position();
+        final int mintsStart = mints.position();
+        SolanaEncoding.deriveProgramAddresses(owners.remaining() / PublicKey.PUBLIC_KEY_LENGTH, (index, seeds) ->
+        {
+            final int offset = index * PublicKey.PUBLIC_KEY_LENGTH;
+            for (int i = 0; i < PublicKey.PUBLIC_KEY_LENGTH; i++)
+            {
+                seeds[i] = owners.get(ownersStart + offset + i);
+                seeds[2 * PublicKey.PUBLIC_KEY_LENGTH + i] = mints.get(mintsStart + offset + i);
+            }
+            System.arraycopy(tokenProgram, 0, seeds, PublicKey.PUBLIC_KEY_LENGTH, PublicKey.PUBLIC_KEY_LENGTH);
+            return 3 * PublicKey.PUBLIC_KEY_LENGTH;
+        }, ASSOCIATED_TOKEN_PROGRAM_ACCOUNT, out, pool);
+    }
+
+    private static void putKey(final byte[] seeds, final int offset, final PublicKey key)
+    {
+        for (int i = 0; i < 4; i++)
+        {
+            final long word = key.word(i);
+            for (int j = 0; j < 8; j++)
+            {
+                seeds[offset + 8 * i + j] = (byte) (word >>> (56 - 8 * j));
+            }
+        }
+    }
 }
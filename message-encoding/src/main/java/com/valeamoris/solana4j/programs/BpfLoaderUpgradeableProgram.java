@@ -8,8 +8,7 @@ import com.valeamoris.solana4j.api.TransactionInstruction;
 import com.valeamoris.solana4j.encoding.SolanaEncoding;
 
 import java.nio.ByteOrder;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 import java.util.Optional;
 
 /**
@@ -40,7 +39,7 @@ public final class BpfLoaderUpgradeableProgram
      * This constant defines the instruction code used to change the upgrade authority for a program in the Solana BPF Loader Upgradeable program.
      * </p>
      */
-    private static final int SET_AUTHORITY_INSTRUCTION = 4;
+    static final int SET_AUTHORITY_INSTRUCTION = 4;
 
     /**
      * Private constructor to prevent instantiation.
@@ -131,8 +130,6 @@ public final class BpfLoaderUpgradeableProgram
      */
     public static ProgramDerivedAddress deriveAddress(final PublicKey program)
     {
-        final List<byte[]> seeds = new ArrayList<>();
-        seeds.add(program.bytes());
-        return SolanaEncoding.deriveProgramAddress(seeds, PROGRAM_ACCOUNT);
+        return SolanaEncoding.deriveProgramAddress(Collections.singletonList(program.bytes()), PROGRAM_ACCOUNT);
     }
 }
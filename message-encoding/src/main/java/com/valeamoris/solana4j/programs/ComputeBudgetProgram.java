@@ -6,7 +6,12 @@ import com.valeamoris.solana4j.api.TransactionBuilder;
 import com.valeamoris.solana4j.api.TransactionInstruction;
 import com.valeamoris.solana4j.encoding.SolanaEncoding;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Program for managing compute budgets on the Solana blockchain.
@@ -44,6 +49,11 @@ public final class ComputeBudgetProgram
      */
     public static final int SET_COMPUTE_UNIT_PRICE_INSTRUCTION = 3;
 
+    /**
+     * The maximum compute unit limit a transaction may request.
+     */
+    public static final int MAX_COMPUTE_UNIT_LIMIT = 1_400_000;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -113,6 +123,38 @@ public final class ComputeBudgetProgram
             tb.append(ComputeBudgetProgram.setComputeUnitPrice(microLamports));
             return this;
         }
+
+        /**
+         * Sets the compute unit price quoted by a {@link ComputeUnitPricer}.
+         * <p>
+         * This method asks the pricer for a price against the accounts the given instructions write to, and generates
+         * a transaction instruction to set the price per compute unit, expressed in microLamports.
+         * </p>
+         *
+         * @param pricer       the source of the compute unit price
+         * @param instructions the instructions the price should be quoted for
+         * @return this {@code ComputeBudgetProgramFactory} instance
+         */
+        public ComputeBudgetProgramFactory setComputeUnitPrice(final ComputeUnitPricer pricer, final List<TransactionInstruction> instructions)
+        {
+            tb.append(ComputeBudgetProgram.setComputeUnitPrice(pricer, instructions));
+            return this;
+        }
+    }
+
+    /**
+     * A source of compute unit prices, such as a priority fee estimator.
+     */
+    @FunctionalInterface
+    public interface ComputeUnitPricer
+    {
+        /**
+         * Quotes a compute unit price for a transaction that write-locks the given accounts.
+         *
+         * @param writableAccounts the accounts the transaction writes to
+         * @return the price in microLamports per compute unit
+         */
+        long microLamports(List<PublicKey> writableAccounts);
     }
 
     /**
@@ -156,4 +198,67 @@ public final class ComputeBudgetProgram
                         .putLong(microLamports))
         );
     }
+
+    /**
+     * Sets the compute unit price quoted by a {@link ComputeUnitPricer}.
+     * <p>
+     * This method collects the distinct accounts the given instructions write to, asks the pricer for a price against
+     * them, and creates a {@link TransactionInstruction} for setting the price per compute unit in Solana.
+     * </p>
+     *
+     * @param pricer       the source of the compute unit price
+     * @param instructions the instructions the price should be quoted for
+     * @return A {@code TransactionInstruction} of the created instruction
+     */
+    public static TransactionInstruction setComputeUnitPrice(final ComputeUnitPricer pricer, final List<TransactionInstruction> instructions)
+    {
+        final Set<PublicKey> writableAccounts = new LinkedHashSet<>();
+        for (final TransactionInstruction instruction : instructions)
+        {
+            for (final TransactionInstruction.AccountReference accountReference : instruction.accountReferences())
+            {
+                if (accountReference.isWriter())
+                {
+                    writableAccounts.add(accountReference.account());
+                }
+            }
+        }
+        return setComputeUnitPrice(pricer.microLamports(new ArrayList<>(writableAccounts)));
+    }
+
+    /**
+     * Sets the compute unit limit of an already encoded transaction.
+     * <p>
+     * The value of an existing set compute unit limit instruction is overwritten in place; otherwise the instruction
+     * is inserted ahead of the others without re-encoding the rest of the message. See
+     * {@link SolanaEncoding#upsertInstruction(ByteBuffer, PublicKey, ByteBuffer)}.
+     * </p>
+     *
+     * @param transaction  the buffer holding the encoded, unsigned transaction between its position and limit
+     * @param computeUnits the number of compute units to set as the limit
+     */
+    public static void setComputeUnitLimit(final ByteBuffer transaction, final int computeUnits)
+    {
+        final ByteBuffer data = ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) SET_COMPUTE_UNIT_LIMIT_INSTRUCTION).putInt(computeUnits).flip();
+        SolanaEncoding.upsertInstruction(transaction, COMPUTE_BUDGET_PROGRAM_ACCOUNT, data);
+    }
+
+    /**
+     * Sets the compute unit price of an already encoded transaction.
+     * <p>
+     * The value of an existing set compute unit price instruction is overwritten in place; otherwise the instruction
+     * is inserted ahead of the others without re-encoding the rest of the message. See
+     * {@link SolanaEncoding#upsertInstruction(ByteBuffer, PublicKey, ByteBuffer)}.
+     * </p>
+     *
+     * @param transaction   the buffer holding the encoded, unsigned transaction between its position and limit
+     * @param microLamports the price in microLamports per compute unit
+     */
+    public static void setComputeUnitPrice(final ByteBuffer transaction, final long microLamports)
+    {
+        final ByteBuffer data = ByteBuffer.allocate(9).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) SET_COMPUTE_UNIT_PRICE_INSTRUCTION).putLong(microLamports).flip();
+        SolanaEncoding.upsertInstruction(transaction, COMPUTE_BUDGET_PROGRAM_ACCOUNT, data);
+    }
 }
@@ -0,0 +1,26 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.encoding.TransactionView;
+
+/**
+ * Decodes the instructions of one program, calling the {@link InstructionVisitor} method matching each.
+ * <p>
+ * A decoder is registered against its program's id with an {@link InstructionDecoderRegistry}, which only hands it
+ * instructions of that program. It should allocate nothing and hold no state, as a registry may be shared between
+ * threads.
+ * </p>
+ */
+@FunctionalInterface
+public interface InstructionDecoder
+{
+    /**
+     * Decodes an instruction, calling the visitor's method for it if it is recognised.
+     *
+     * @param transaction the transaction holding the instruction
+     * @param instruction the index of the instruction
+     * @param visitor     the visitor to call
+     * @return true if the instruction was recognised and the visitor called, false if the registry should report it as
+     *         unknown
+     */
+    boolean decode(TransactionView transaction, int instruction, InstructionVisitor visitor);
+}
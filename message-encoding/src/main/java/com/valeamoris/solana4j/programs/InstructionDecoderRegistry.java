@@ -0,0 +1,164 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.PublicKeyObjectMap;
+import com.valeamoris.solana4j.encoding.TransactionView;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decodes the instructions of transactions, dispatching each to the {@link InstructionDecoder} of its program.
+ * <p>
+ * The decoders are keyed by program id in a {@link PublicKeyObjectMap}, and an instruction's program is looked up
+ * straight from the key's bytes in the transaction, so decoding a {@link TransactionView} allocates nothing. Decoded
+ * instructions are reported to an {@link InstructionVisitor} as primitive callbacks, and any instruction without a
+ * decoder, or one its decoder does not recognise, such as one with too few accounts or too little data, to
+ * {@link InstructionVisitor#onUnknownInstruction(int, int)}.
+ * </p>
+ * <p>
+ * {@link #knownPrograms()} decodes the instructions of the programs this package builds instructions for: the System,
+ * Token, Token-2022, Associated Token Account, Compute Budget, Address Lookup Table and upgradeable BPF loader programs.
+ * A registry is thread safe.
+ * </p>
+ */
+public final class InstructionDecoderRegistry
+{
+    private static final InstructionDecoderRegistry KNOWN_PROGRAMS = builder().knownPrograms().build();
+
+    private final PublicKeyObjectMap<InstructionDecoder> decoders;
+
+    private InstructionDecoderRegistry(final PublicKeyObjectMap<InstructionDecoder> decoders)
+    {
+        this.decoders = decoders;
+    }
+
+    /**
+     * Returns the registry of the programs this package builds instructions for.
+     *
+     * @return the shared {@link InstructionDecoderRegistry} of the known programs
+     */
+    public static InstructionDecoderRegistry knownPrograms()
+    {
+        return KNOWN_PROGRAMS;
+    }
+
+    /**
+     * Creates a builder of a registry, initially without decoders.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Decodes every instruction of a transaction, in order.
+     *
+     * @param transaction the transaction
+     * @param visitor     the visitor to report the instructions to
+     */
+    public void decode(final TransactionView transaction, final InstructionVisitor visitor)
+    {
+        for (int instruction = 0; instruction < transaction.instructionCount(); instruction++)
+        {
+            decode(transaction, instruction, visitor);
+        }
+    }
+
+    /**
+     * Decodes one instruction of a transaction.
+     *
+     * @param transaction the transaction
+     * @param instruction the index of the instruction
+     * @param visitor     the visitor to report the instruction to
+     * @return true if the instruction was decoded, false if it was reported as unknown
+     */
+    public boolean decode(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int program = transaction.programIndex(instruction);
+        final InstructionDecoder decoder = decoders.get(transaction.buffer(), transaction.accountOffset(program));
+        final boolean decoded = decoder != null && decoder.decode(transaction, instruction, visitor);
+        if (!decoded)
+        {
+            visitor.onUnknownInstruction(program, instruction);
+        }
+        return decoded;
+    }
+
+    /**
+     * Returns whether the registry has a decoder for the given program.
+     *
+     * @param program the program id
+     * @return true if instructions of the program are decoded
+     */
+    public boolean isKnown(final PublicKey program)
+    {
+        return decoders.containsKey(program);
+    }
+
+    /**
+     * Builder of an {@link InstructionDecoderRegistry}.
+     */
+    public static final class Builder
+    {
+        private PublicKeyObjectMap<InstructionDecoder> decoders = PublicKeyObjectMap.withExpectedSize(16);
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Registers the decoders of the programs this package builds instructions for.
+         *
+         * @return this builder
+         */
+        public Builder knownPrograms()
+        {
+            register(SystemProgram.SYSTEM_PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeSystem);
+            register(TokenProgram.PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeToken);
+            register(Token2022Program.PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeToken);
+            register(AssociatedTokenProgram.ASSOCIATED_TOKEN_PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeAssociatedToken);
+            register(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeComputeBudget);
+            register(AddressLookupTableProgram.PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeAddressLookupTable);
+            return register(BpfLoaderUpgradeableProgram.PROGRAM_ACCOUNT, KnownInstructionDecoders::decodeBpfLoaderUpgradeable);
+        }
+
+        /**
+         * Registers the decoder of a program, replacing any registered before.
+         *
+         * @param program the program id
+         * @param decoder the decoder of the program's instructions
+         * @return this builder
+         * @throws IllegalStateException if the registry has already been built
+         */
+        public Builder register(final PublicKey program, final InstructionDecoder decoder)
+        {
+            checkNotBuilt();
+            decoders.put(requireNonNull(program), requireNonNull(decoder));
+            return this;
+        }
+
+        /**
+         * Builds the registry, which takes over the registered decoders; the builder cannot be used afterwards.
+         *
+         * @return a new {@link InstructionDecoderRegistry}
+         * @throws IllegalStateException if the registry has already been built
+         */
+        public InstructionDecoderRegistry build()
+        {
+            checkNotBuilt();
+            final InstructionDecoderRegistry registry = new InstructionDecoderRegistry(decoders);
+            decoders = null;
+            return registry;
+        }
+
+        private void checkNotBuilt()
+        {
+            if (decoders == null)
+            {
+                throw new IllegalStateException("registry has already been built");
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.encoding.TransactionView;
+
+/**
+ * Receives the instructions decoded by an {@link InstructionDecoderRegistry}, one callback per instruction.
+ * <p>
+ * Every argument is a primitive, so decoding allocates nothing. Accounts are passed as their index in the message's
+ * account list, as returned by {@link TransactionView#accountIndex(int, int)}: an index below
+ * {@link TransactionView#staticAccountCount()} is a static account whose key is at
+ * {@link TransactionView#accountOffset(int)}, and any other is loaded from an address lookup table. Public keys held in
+ * the instruction data are passed as the absolute offset of their 32 bytes in {@link TransactionView#buffer()}, or -1 if
+ * an optional key is absent.
+ * </p>
+ * <p>
+ * Every method does nothing by default, so a visitor only implements the instructions it is interested in.
+ * </p>
+ */
+public interface InstructionVisitor
+{
+    /**
+     * Called for an instruction whose program has no decoder, or which its program's decoder does not recognise.
+     *
+     * @param program     the index of the program account
+     * @param instruction the index of the instruction, to read its accounts and data from the {@link TransactionView}
+     */
+    default void onUnknownInstruction(final int program, final int instruction)
+    {
+    }
+
+    /**
+     * Called for a system program transfer.
+     *
+     * @param from     the index of the funding account
+     * @param to       the index of the recipient account
+     * @param lamports the number of lamports transferred
+     */
+    default void onTransfer(final int from, final int to, final long lamports)
+    {
+    }
+
+    /**
+     * Called for a system program account creation.
+     *
+     * @param payer       the index of the funding account
+     * @param newAccount  the index of the new account
+     * @param lamports    the number of lamports transferred to the new account
+     * @param space       the number of bytes of data allocated
+     * @param ownerOffset the offset of the key of the program that will own the new account
+     */
+    default void onCreateAccount(final int payer, final int newAccount, final long lamports, final long space, final int ownerOffset)
+    {
+    }
+
+    /**
+     * Called for a system program nonce account initialisation.
+     *
+     * @param nonce           the index of the nonce account
+     * @param authorityOffset the offset of the key of the nonce authority
+     */
+    default void onInitializeNonce(final int nonce, final int authorityOffset)
+    {
+    }
+
+    /**
+     * Called for a system program nonce advance.
+     *
+     * @param nonce     the index of the nonce account
+     * @param authority the index of the nonce authority
+     */
+    default void onAdvanceNonce(final int nonce, final int authority)
+    {
+    }
+
+    /**
+     * Called for a token program mint initialisation.
+     *
+     * @param program               the index of the token program, SPL Token or Token-2022
+     * @param mint                  the index of the mint
+     * @param decimals              the number of decimals of the mint
+     * @param mintAuthorityOffset   the offset of the key of the mint authority
+     * @param freezeAuthorityOffset the offset of the key of the freeze authority, or -1 if there is none
+     */
+    default void onInitializeMint(final int program, final int mint, final int decimals, final int mintAuthorityOffset, final int freezeAuthorityOffset)
+    {
+    }
+
+    /**
+     * Called for a token program account initialisation.
+     *
+     * @param program the index of the token program, SPL Token or Token-2022
+     * @param account the index of the token account
+     * @param mint    the index of the mint
+     * @param owner   the index of the owner
+     */
+    default void onInitializeAccount(final int program, final int account, final int mint, final int owner)
+    {
+    }
+
+    /**
+     * Called for a token program multisig initialisation; the signers are the instruction's accounts from its third on.
+     *
+     * @param program            the index of the token program, SPL Token or Token-2022
+     * @param multisig           the index of the multisig account
+     * @param requiredSignatures the number of signers required
+     * @param signerCount        the number of signers
+     */
+    default void onInitializeMultisig(final int program, final int multisig, final int requiredSignatures, final int signerCount)
+    {
+    }
+
+    /**
+     * Called for a token program transfer.
+     *
+     * @param program     the index of the token program, SPL Token or Token-2022
+     * @param source      the index of the source token account
+     * @param destination the index of the destination token account
+     * @param owner       the index of the source's owner or delegate, or of the multisig
+     * @param amount      the amount transferred, in the mint's smallest unit
+     */
+    default void onTokenTransfer(final int program, final int source, final int destination, final int owner, final long amount)
+    {
+    }
+
+    /**
+     * Called for a token program checked transfer.
+     *
+     * @param program     the index of the token program, SPL Token or Token-2022
+     * @param source      the index of the source token account
+     * @param mint        the index of the mint
+     * @param destination the index of the destination token account
+     * @param owner       the index of the source's owner or delegate, or of the multisig
+     * @param amount      the amount transferred, in the mint's smallest unit
+     * @param decimals    the number of decimals of the mint
+     */
+    default void onTokenTransferChecked(final int program, final int source, final int mint, final int destination, final int owner, final long amount, final int decimals)
+    {
+    }
+
+    /**
+     * Called for a token program mint.
+     *
+     * @param program     the index of the token program, SPL Token or Token-2022
+     * @param mint        the index of the mint
+     * @param destination the index of the destination token account
+     * @param authority   the index of the mint authority, or of the multisig
+     * @param amount      the amount minted, in the mint's smallest unit
+     */
+    default void onMintTo(final int program, final int mint, final int destination, final int authority, final long amount)
+    {
+    }
+
+    /**
+     * Called for a token program authority change.
+     *
+     * @param program            the index of the token program, SPL Token or Token-2022
+     * @param account            the index of the mint or token account
+     * @param authorityType      the type of authority changed, the {@link TokenProgramBase.AuthorityType} of the same ordinal
+     * @param currentAuthority   the index of the current authority, or of the multisig
+     * @param newAuthorityOffset the offset of the key of the new authority, or -1 if the authority is removed
+     */
+    default void onSetAuthority(final int program, final int account, final int authorityType, final int currentAuthority, final int newAuthorityOffset)
+    {
+    }
+
+    /**
+     * Called for an associated token account creation.
+     *
+     * @param payer        the index of the funding account
+     * @param account      the index of the associated token account
+     * @param owner        the index of the owner
+     * @param mint         the index of the mint
+     * @param tokenProgram the index of the token program, SPL Token or Token-2022
+     * @param idempotent   whether the creation succeeds if the account already exists
+     */
+    default void onCreateAssociatedTokenAccount(final int payer, final int account, final int owner, final int mint, final int tokenProgram, final boolean idempotent)
+    {
+    }
+
+    /**
+     * Called for a compute budget unit limit.
+     *
+     * @param computeUnits the maximum number of compute units the transaction may consume
+     */
+    default void onSetComputeUnitLimit(final int computeUnits)
+    {
+    }
+
+    /**
+     * Called for a compute budget unit price.
+     *
+     * @param microLamports the price of a compute unit, in micro-lamports
+     */
+    default void onSetComputeUnitPrice(final long microLamports)
+    {
+    }
+
+    /**
+     * Called for an address lookup table creation.
+     *
+     * @param lookupTable the index of the lookup table
+     * @param authority   the index of the table's authority
+     * @param payer       the index of the funding account
+     * @param recentSlot  the recent slot the table's address is derived from
+     * @param bumpSeed    the bump seed of the table's address
+     */
+    default void onCreateLookupTable(final int lookupTable, final int authority, final int payer, final long recentSlot, final int bumpSeed)
+    {
+    }
+
+    /**
+     * Called for an address lookup table extension.
+     *
+     * @param lookupTable     the index of the lookup table
+     * @param authority       the index of the table's authority
+     * @param payer           the index of the funding account
+     * @param addressCount    the number of addresses added
+     * @param addressesOffset the offset of the first added address; the others follow it, 32 bytes apart
+     */
+    default void onExtendLookupTable(final int lookupTable, final int authority, final int payer, final int addressCount, final int addressesOffset)
+    {
+    }
+
+    /**
+     * Called for an upgradeable BPF loader authority change.
+     *
+     * @param account          the index of the program data or buffer account
+     * @param currentAuthority the index of the current authority
+     * @param newAuthority     the index of the new authority, or -1 if the program is made immutable
+     */
+    default void onSetUpgradeAuthority(final int account, final int currentAuthority, final int newAuthority)
+    {
+    }
+}
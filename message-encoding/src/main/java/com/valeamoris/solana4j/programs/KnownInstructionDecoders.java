@@ -0,0 +1,302 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.encoding.TransactionView;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The {@link InstructionDecoder}s of the programs this package builds instructions for.
+ * <p>
+ * Each checks that an instruction has the accounts and data its layout needs before calling the visitor, so that a
+ * truncated or unfamiliar instruction is reported as unknown rather than failing. Data is little-endian whatever the
+ * order of the transaction's buffer.
+ * </p>
+ */
+final class KnownInstructionDecoders
+{
+    private static final int TOKEN_TRANSFER_CHECKED_INSTRUCTION = 12;
+    private static final int ALT_EXTEND_DATA_LENGTH = 12;
+
+    private KnownInstructionDecoders()
+    {
+    }
+
+    static boolean decodeSystem(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int length = transaction.instructionDataLength(instruction);
+        final int accounts = transaction.instructionAccountCount(instruction);
+        final int data = transaction.instructionDataOffset(instruction);
+        final ByteBuffer buffer = transaction.buffer();
+        final boolean decoded;
+        switch (length < 4 ? -1 : getInt(buffer, data))
+        {
+            case SystemProgram.CREATE_ACCOUNT_INSTRUCTION:
+                decoded = length >= 52 && accounts >= 2;
+                if (decoded)
+                {
+                    visitor.onCreateAccount(
+                            account(transaction, instruction, 0),
+                            account(transaction, instruction, 1),
+                            getLong(buffer, data + 4),
+                            getLong(buffer, data + 12),
+                            data + 20);
+                }
+                break;
+            case SystemProgram.TRANSFER_INSTRUCTION:
+                decoded = length >= 12 && accounts >= 2;
+                if (decoded)
+                {
+                    visitor.onTransfer(account(transaction, instruction, 0), account(transaction, instruction, 1), getLong(buffer, data + 4));
+                }
+                break;
+            case SystemProgram.ADVANCE_NONCE_INSTRUCTION:
+                decoded = accounts >= 3;
+                if (decoded)
+                {
+                    visitor.onAdvanceNonce(account(transaction, instruction, 0), account(transaction, instruction, 2));
+                }
+                break;
+            case SystemProgram.NONCE_INIT_INSTRUCTION:
+                decoded = length >= 4 + PublicKey.PUBLIC_KEY_LENGTH && accounts >= 1;
+                if (decoded)
+                {
+                    visitor.onInitializeNonce(account(transaction, instruction, 0), data + 4);
+                }
+                break;
+            default:
+                decoded = false;
+        }
+        return decoded;
+    }
+
+    static boolean decodeToken(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int length = transaction.instructionDataLength(instruction);
+        final int accounts = transaction.instructionAccountCount(instruction);
+        final int data = transaction.instructionDataOffset(instruction);
+        final ByteBuffer buffer = transaction.buffer();
+        final int program = transaction.programIndex(instruction);
+        final boolean decoded;
+        switch (length < 1 ? -1 : buffer.get(data))
+        {
+            case TokenProgramBase.INITIALIZE_MINT_INSTRUCTION:
+                decoded = accounts >= 1 && length >= 3 + PublicKey.PUBLIC_KEY_LENGTH && hasOptionalKey(buffer, data + 2 + PublicKey.PUBLIC_KEY_LENGTH, data + length);
+                if (decoded)
+                {
+                    visitor.onInitializeMint(
+                            program,
+                            account(transaction, instruction, 0),
+                            buffer.get(data + 1) & 0xff,
+                            data + 2,
+                            optionalKey(buffer, data + 2 + PublicKey.PUBLIC_KEY_LENGTH));
+                }
+                break;
+            case TokenProgramBase.INITIALIZE_ACCOUNT_INSTRUCTION:
+                decoded = accounts >= 3;
+                if (decoded)
+                {
+                    visitor.onInitializeAccount(program, account(transaction, instruction, 0), account(transaction, instruction, 1), account(transaction, instruction, 2));
+                }
+                break;
+            case TokenProgramBase.INITIALIZE_MULTISIG_INSTRUCTION:
+                decoded = length >= 2 && accounts >= 2;
+                if (decoded)
+                {
+                    visitor.onInitializeMultisig(program, account(transaction, instruction, 0), buffer.get(data + 1) & 0xff, accounts - 2);
+                }
+                break;
+            case TokenProgramBase.TRANSFER_INSTRUCTION:
+                decoded = length >= 9 && accounts >= 3;
+                if (decoded)
+                {
+                    visitor.onTokenTransfer(
+                            program,
+                            account(transaction, instruction, 0),
+                            account(transaction, instruction, 1),
+                            account(transaction, instruction, 2),
+                            getLong(buffer, data + 1));
+                }
+                break;
+            case TokenProgramBase.SET_AUTHORITY_INSTRUCTION:
+                decoded = length >= 3 && accounts >= 2 && hasOptionalKey(buffer, data + 2, data + length);
+                if (decoded)
+                {
+                    visitor.onSetAuthority(
+                            program,
+                            account(transaction, instruction, 0),
+                            buffer.get(data + 1) & 0xff,
+                            account(transaction, instruction, 1),
+                            optionalKey(buffer, data + 2));
+                }
+                break;
+            case TokenProgramBase.MINT_TO_INSTRUCTION:
+                decoded = length >= 9 && accounts >= 3;
+                if (decoded)
+                {
+                    visitor.onMintTo(
+                            program,
+                            account(transaction, instruction, 0),
+                            account(transaction, instruction, 1),
+                            account(transaction, instruction, 2),
+                            getLong(buffer, data + 1));
+                }
+                break;
+            case TOKEN_TRANSFER_CHECKED_INSTRUCTION:
+                decoded = length >= 10 && accounts >= 4;
+                if (decoded)
+                {
+                    visitor.onTokenTransferChecked(
+                            program,
+                            account(transaction, instruction, 0),
+                            account(transaction, instruction, 1),
+                            account(transaction, instruction, 2),
+                            account(transaction, instruction, 3),
+                            getLong(buffer, data + 1),
+                            buffer.get(data + 9) & 0xff);
+                }
+                break;
+            default:
+                decoded = false;
+        }
+        return decoded;
+    }
+
+    static boolean decodeAssociatedToken(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int length = transaction.instructionDataLength(instruction);
+        // the original create instruction had no data at all
+        final int kind = length == 0 ? AssociatedTokenProgram.CREATE_INSTRUCTION : transaction.buffer().get(transaction.instructionDataOffset(instruction));
+        final boolean decoded = transaction.instructionAccountCount(instruction) >= 6
+                && (kind == AssociatedTokenProgram.CREATE_INSTRUCTION || kind == AssociatedTokenProgram.IDEMPOTENT_CREATE_INSTRUCTION);
+        if (decoded)
+        {
+            visitor.onCreateAssociatedTokenAccount(
+                    account(transaction, instruction, 0),
+                    account(transaction, instruction, 1),
+                    account(transaction, instruction, 2),
+                    account(transaction, instruction, 3),
+                    account(transaction, instruction, 5),
+                    kind == AssociatedTokenProgram.IDEMPOTENT_CREATE_INSTRUCTION);
+        }
+        return decoded;
+    }
+
+    static boolean decodeComputeBudget(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int length = transaction.instructionDataLength(instruction);
+        final int data = transaction.instructionDataOffset(instruction);
+        final ByteBuffer buffer = transaction.buffer();
+        final boolean decoded;
+        switch (length < 1 ? -1 : buffer.get(data))
+        {
+            case ComputeBudgetProgram.SET_COMPUTE_UNIT_LIMIT_INSTRUCTION:
+                decoded = length >= 5;
+                if (decoded)
+                {
+                    visitor.onSetComputeUnitLimit(getInt(buffer, data + 1));
+                }
+                break;
+            case ComputeBudgetProgram.SET_COMPUTE_UNIT_PRICE_INSTRUCTION:
+                decoded = length >= 9;
+                if (decoded)
+                {
+                    visitor.onSetComputeUnitPrice(getLong(buffer, data + 1));
+                }
+                break;
+            default:
+                decoded = false;
+        }
+        return decoded;
+    }
+
+    static boolean decodeAddressLookupTable(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int length = transaction.instructionDataLength(instruction);
+        final int data = transaction.instructionDataOffset(instruction);
+        final ByteBuffer buffer = transaction.buffer();
+        final boolean accounts = transaction.instructionAccountCount(instruction) >= 3;
+        final boolean decoded;
+        switch (length < 4 ? -1 : getInt(buffer, data))
+        {
+            case AddressLookupTableProgram.CREATE_LOOKUP_TABLE_INSTRUCTION:
+                decoded = accounts && length >= 13;
+                if (decoded)
+                {
+                    visitor.onCreateLookupTable(
+                            account(transaction, instruction, 0),
+                            account(transaction, instruction, 1),
+                            account(transaction, instruction, 2),
+                            getLong(buffer, data + 4),
+                            buffer.get(data + 12) & 0xff);
+                }
+                break;
+            case AddressLookupTableProgram.EXTEND_LOOKUP_TABLE_INSTRUCTION:
+            {
+                // the address count is a u64, which the data holding the addresses must bear out
+                final long count = length >= ALT_EXTEND_DATA_LENGTH ? getLong(buffer, data + 4) : -1;
+                decoded = accounts && count >= 0 && count <= (length - ALT_EXTEND_DATA_LENGTH) / PublicKey.PUBLIC_KEY_LENGTH;
+                if (decoded)
+                {
+                    visitor.onExtendLookupTable(
+                            account(transaction, instruction, 0),
+                            account(transaction, instruction, 1),
+                            account(transaction, instruction, 2),
+                            (int) count,
+                            data + ALT_EXTEND_DATA_LENGTH);
+                }
+                break;
+            }
+            default:
+                decoded = false;
+        }
+        return decoded;
+    }
+
+    static boolean decodeBpfLoaderUpgradeable(final TransactionView transaction, final int instruction, final InstructionVisitor visitor)
+    {
+        final int accounts = transaction.instructionAccountCount(instruction);
+        final boolean decoded = accounts >= 2
+                && transaction.instructionDataLength(instruction) >= 4
+                && getInt(transaction.buffer(), transaction.instructionDataOffset(instruction)) == BpfLoaderUpgradeableProgram.SET_AUTHORITY_INSTRUCTION;
+        if (decoded)
+        {
+            visitor.onSetUpgradeAuthority(
+                    account(transaction, instruction, 0),
+                    account(transaction, instruction, 1),
+                    accounts >= 3 ? account(transaction, instruction, 2) : -1);
+        }
+        return decoded;
+    }
+
+    private static int account(final TransactionView transaction, final int instruction, final int account)
+    {
+        return transaction.accountIndex(instruction, account);
+    }
+
+    /**
+     * Returns whether a one byte option tag, followed by a key if it is set, fits before the end of the data.
+     */
+    private static boolean hasOptionalKey(final ByteBuffer buffer, final int tag, final int end)
+    {
+        return tag < end && (buffer.get(tag) == 0 || tag + 1 + PublicKey.PUBLIC_KEY_LENGTH <= end);
+    }
+
+    private static int optionalKey(final ByteBuffer buffer, final int tag)
+    {
+        return buffer.get(tag) == 0 ? -1 : tag + 1;
+    }
+
+    private static int getInt(final ByteBuffer buffer, final int index)
+    {
+        final int value = buffer.getInt(index);
+        return buffer.order() == ByteOrder.LITTLE_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    private static long getLong(final ByteBuffer buffer, final int index)
+    {
+        final long value = buffer.getLong(index);
+        return buffer.order() == ByteOrder.LITTLE_ENDIAN ? value : Long.reverseBytes(value);
+    }
+}
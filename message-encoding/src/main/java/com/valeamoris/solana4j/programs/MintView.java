@@ -0,0 +1,84 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight view over the data of an spl-token or spl-token-2022 mint.
+ * <p>
+ * Fields are read at their fixed offsets in the {@link TokenProgram#MINT_LAYOUT_SPAN} byte layout each time they are
+ * requested, so a single instance can be {@link #wrap(ByteBuffer) wrapped} around many mints in turn.
+ * </p>
+ */
+public final class MintView extends TokenStateView
+{
+    private static final int MINT_AUTHORITY_OFFSET = 0;
+    private static final int SUPPLY_OFFSET = 36;
+    private static final int DECIMALS_OFFSET = 44;
+    private static final int IS_INITIALIZED_OFFSET = 45;
+    private static final int FREEZE_AUTHORITY_OFFSET = 46;
+
+    /**
+     * Points this view at the mint data starting at the buffer's current position.
+     *
+     * @param buffer the account data; it is not copied and must not be modified while the view is in use
+     * @return this view
+     * @throws IllegalArgumentException if fewer than {@link TokenProgram#MINT_LAYOUT_SPAN} bytes remain
+     */
+    public MintView wrap(final ByteBuffer buffer)
+    {
+        wrapBuffer(buffer, TokenProgram.MINT_LAYOUT_SPAN);
+        return this;
+    }
+
+    /**
+     * Returns the authority allowed to mint new tokens, if any.
+     *
+     * @return the mint authority, or null if the supply is fixed
+     */
+    public PublicKey mintAuthority()
+    {
+        return optionalPublicKey(MINT_AUTHORITY_OFFSET);
+    }
+
+    /**
+     * Returns the total raw supply of the mint.
+     *
+     * @return the unsigned supply
+     */
+    public long supply()
+    {
+        return u64(SUPPLY_OFFSET);
+    }
+
+    /**
+     * Returns the number of decimals of the mint.
+     *
+     * @return the decimals
+     */
+    public int decimals()
+    {
+        return u8(DECIMALS_OFFSET);
+    }
+
+    /**
+     * Returns whether the mint has been initialized.
+     *
+     * @return true if the mint is initialized
+     */
+    public boolean isInitialized()
+    {
+        return bool(IS_INITIALIZED_OFFSET);
+    }
+
+    /**
+     * Returns the authority allowed to freeze token accounts, if any.
+     *
+     * @return the freeze authority, or null if accounts cannot be frozen
+     */
+    public PublicKey freezeAuthority()
+    {
+        return optionalPublicKey(FREEZE_AUTHORITY_OFFSET);
+    }
+}
@@ -0,0 +1,106 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight view over the data of a durable nonce account owned by the system program.
+ * <p>
+ * Fields are read at their fixed offsets in the {@link SystemProgram#NONCE_ACCOUNT_LENGTH} byte layout each time they are
+ * requested, so a single instance can be {@link #wrap(ByteBuffer) wrapped} around many accounts in turn.
+ * </p>
+ */
+public final class NonceAccountView extends AccountDataView
+{
+    private static final int VERSION_OFFSET = 0;
+    private static final int STATE_OFFSET = 4;
+    private static final int AUTHORITY_OFFSET = 8;
+    private static final int NONCE_OFFSET = 40;
+    private static final int LAMPORTS_PER_SIGNATURE_OFFSET = 72;
+
+    /**
+     * Points this view at the nonce account data starting at the buffer's current position.
+     *
+     * @param buffer the account data; it is not copied and must not be modified while the view is in use
+     * @return this view
+     * @throws IllegalArgumentException if fewer than {@link SystemProgram#NONCE_ACCOUNT_LENGTH} bytes remain
+     */
+    public NonceAccountView wrap(final ByteBuffer buffer)
+    {
+        wrapBuffer(buffer, SystemProgram.NONCE_ACCOUNT_LENGTH);
+        return this;
+    }
+
+    /**
+     * Returns the version of the nonce account layout.
+     *
+     * @return zero for legacy accounts, one for current accounts
+     */
+    public int version()
+    {
+        return u32(VERSION_OFFSET);
+    }
+
+    /**
+     * Returns whether the nonce account has been initialized.
+     *
+     * @return true if the account holds a nonce
+     */
+    public boolean isInitialized()
+    {
+        return u32(STATE_OFFSET) != 0;
+    }
+
+    /**
+     * Returns the authority allowed to advance the nonce.
+     *
+     * @return the nonce authority
+     */
+    public PublicKey authority()
+    {
+        return publicKey(AUTHORITY_OFFSET);
+    }
+
+    /**
+     * Returns the stored nonce.
+     *
+     * @return the nonce value
+     */
+    public PublicKey nonce()
+    {
+        return publicKey(NONCE_OFFSET);
+    }
+
+    /**
+     * Returns the stored nonce as the recent blockhash of a durable transaction.
+     *
+     * @return the nonce value as a {@link Blockhash}
+     */
+    public Blockhash blockhash()
+    {
+        return Solana.blockhash(bytes(NONCE_OFFSET, PublicKey.PUBLIC_KEY_LENGTH));
+    }
+
+    /**
+     * Writes the stored nonce into the destination buffer without allocating.
+     *
+     * @param destination the buffer to write the 32 byte nonce into
+     */
+    public void writeNonce(final ByteBuffer destination)
+    {
+        copyPublicKey(NONCE_OFFSET, destination);
+    }
+
+    /**
+     * Returns the fee per signature recorded when the nonce was last advanced.
+     *
+     * @return the lamports per signature
+     */
+    public long lamportsPerSignature()
+    {
+        return u64(LAMPORTS_PER_SIGNATURE_OFFSET);
+    }
+}
@@ -7,8 +7,8 @@ import com.valeamoris.solana4j.api.TransactionInstruction;
 import com.valeamoris.solana4j.encoding.SolanaEncoding;
 import com.valeamoris.solana4j.encoding.SysVar;
 
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
  * Program for managing system-level operations on the Solana blockchain.
@@ -37,6 +37,8 @@ public final class SystemProgram
      */
     public static final int NONCE_ACCOUNT_LENGTH = 80;
 
+    private static final int NONCE_VALUE_OFFSET = 40;
+
     /**
      * The length of a mint account in bytes.
      * <p>
@@ -264,21 +266,22 @@ public final class SystemProgram
 
     /**
      * Gets the nonce value from a nonce account's data.
+     * <p>
+     * Only the first 72 bytes, up to the end of the nonce, need be present; use {@link NonceAccountView} to read the other
+     * fields of a full {@link #NONCE_ACCOUNT_LENGTH} byte account.
+     * </p>
      *
      * @param nonceAccountDataBytes the byte array containing the nonce account's data
      * @return the public key representing the nonce value
+     * @throws IllegalArgumentException if the data is shorter than 72 bytes
      */
     public static PublicKey getNonceAccountValue(final byte[] nonceAccountDataBytes)
     {
-        assert nonceAccountDataBytes.length >= 72;
-
-        final ByteBuffer nonceAccountData = ByteBuffer.allocate(nonceAccountDataBytes.length);
-        nonceAccountData.put(nonceAccountDataBytes);
-
-        final byte[] nonceValue = new byte[32];
-        nonceAccountData.position(40);
-        nonceAccountData.get(nonceValue, 0, 32);
-
-        return Solana.account(nonceValue);
+        if (nonceAccountDataBytes.length < NONCE_VALUE_OFFSET + PublicKey.PUBLIC_KEY_LENGTH)
+        {
+            throw new IllegalArgumentException("nonce account data too short. Expected at least " + (NONCE_VALUE_OFFSET + PublicKey.PUBLIC_KEY_LENGTH)
+                                               + " bytes but found " + nonceAccountDataBytes.length);
+        }
+        return Solana.account(Arrays.copyOfRange(nonceAccountDataBytes, NONCE_VALUE_OFFSET, NONCE_VALUE_OFFSET + PublicKey.PUBLIC_KEY_LENGTH));
     }
 }
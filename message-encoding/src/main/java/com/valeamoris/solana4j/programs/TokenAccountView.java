@@ -0,0 +1,193 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight view over the data of an spl-token or spl-token-2022 token account.
+ * <p>
+ * Fields are read at their fixed offsets in the {@link TokenProgram#ACCOUNT_LAYOUT_SPAN} byte layout each time they are
+ * requested, so a single instance can be {@link #wrap(ByteBuffer) wrapped} around many accounts in turn. Public keys are
+ * only materialised when asked for; {@link #isMint(PublicKey)} and {@link #isOwner(PublicKey)} compare in place.
+ * </p>
+ */
+public final class TokenAccountView extends TokenStateView
+{
+    private static final int MINT_OFFSET = 0;
+    private static final int OWNER_OFFSET = 32;
+    private static final int AMOUNT_OFFSET = 64;
+    private static final int DELEGATE_OFFSET = 72;
+    private static final int STATE_OFFSET = 108;
+    private static final int IS_NATIVE_OFFSET = 109;
+    private static final int DELEGATED_AMOUNT_OFFSET = 121;
+    private static final int CLOSE_AUTHORITY_OFFSET = 129;
+
+    private static final State[] STATES = State.values();
+
+    /**
+     * Points this view at the token account data starting at the buffer's current position.
+     *
+     * @param buffer the account data; it is not copied and must not be modified while the view is in use
+     * @return this view
+     * @throws IllegalArgumentException if fewer than {@link TokenProgram#ACCOUNT_LAYOUT_SPAN} bytes remain
+     */
+    public TokenAccountView wrap(final ByteBuffer buffer)
+    {
+        wrapBuffer(buffer, TokenProgram.ACCOUNT_LAYOUT_SPAN);
+        return this;
+    }
+
+    /**
+     * Returns the mint of the tokens held by the account.
+     *
+     * @return the mint
+     */
+    public PublicKey mint()
+    {
+        return publicKey(MINT_OFFSET);
+    }
+
+    /**
+     * Writes the mint into the destination buffer without allocating.
+     *
+     * @param destination the buffer to write the 32 byte mint into
+     */
+    public void writeMint(final ByteBuffer destination)
+    {
+        copyPublicKey(MINT_OFFSET, destination);
+    }
+
+    /**
+     * Returns whether the account holds tokens of the given mint.
+     *
+     * @param mint the mint to compare against
+     * @return true if the account's mint is equal to {@code mint}
+     */
+    public boolean isMint(final PublicKey mint)
+    {
+        return publicKeyEquals(MINT_OFFSET, mint);
+    }
+
+    /**
+     * Returns the owner of the account.
+     *
+     * @return the owner
+     */
+    public PublicKey owner()
+    {
+        return publicKey(OWNER_OFFSET);
+    }
+
+    /**
+     * Writes the owner into the destination buffer without allocating.
+     *
+     * @param destination the buffer to write the 32 byte owner into
+     */
+    public void writeOwner(final ByteBuffer destination)
+    {
+        copyPublicKey(OWNER_OFFSET, destination);
+    }
+
+    /**
+     * Returns whether the account is owned by the given key.
+     *
+     * @param owner the owner to compare against
+     * @return true if the account's owner is equal to {@code owner}
+     */
+    public boolean isOwner(final PublicKey owner)
+    {
+        return publicKeyEquals(OWNER_OFFSET, owner);
+    }
+
+    /**
+     * Returns the raw token amount held by the account, in the mint's smallest unit.
+     *
+     * @return the unsigned amount
+     */
+    public long amount()
+    {
+        return u64(AMOUNT_OFFSET);
+    }
+
+    /**
+     * Returns the delegate of the account, if any.
+     *
+     * @return the delegate, or null if there is none
+     */
+    public PublicKey delegate()
+    {
+        return optionalPublicKey(DELEGATE_OFFSET);
+    }
+
+    /**
+     * Returns the state of the account.
+     *
+     * @return the {@link State}
+     */
+    public State state()
+    {
+        return STATES[u8(STATE_OFFSET)];
+    }
+
+    /**
+     * Returns whether the account holds wrapped SOL.
+     *
+     * @return true if this is a native account
+     */
+    public boolean isNative()
+    {
+        return u32(IS_NATIVE_OFFSET) != 0;
+    }
+
+    /**
+     * Returns the rent-exempt reserve of a native account.
+     *
+     * @return the unsigned reserve in lamports, zero for non-native accounts
+     */
+    public long rentExemptReserve()
+    {
+        return isNative() ? u64(IS_NATIVE_OFFSET + 4) : 0;
+    }
+
+    /**
+     * Returns the raw amount the delegate is authorised to transfer.
+     *
+     * @return the unsigned delegated amount
+     */
+    public long delegatedAmount()
+    {
+        return u64(DELEGATED_AMOUNT_OFFSET);
+    }
+
+    /**
+     * Returns the authority allowed to close the account, if any.
+     *
+     * @return the close authority, or null if the owner is the close authority
+     */
+    public PublicKey closeAuthority()
+    {
+        return optionalPublicKey(CLOSE_AUTHORITY_OFFSET);
+    }
+
+    /**
+     * The state of a token account.
+     */
+    public enum State
+    {
+        /**
+         * The account has not been initialized.
+         */
+        UNINITIALIZED,
+
+        /**
+         * The account is initialized and usable.
+         */
+        INITIALIZED,
+
+        /**
+         * The account has been frozen by the mint's freeze authority.
+         */
+        FROZEN
+    }
+}
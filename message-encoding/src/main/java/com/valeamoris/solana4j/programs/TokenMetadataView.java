@@ -0,0 +1,127 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.api.PublicKey;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Flyweight view over the data of a token metadata account owned by the associated token metadata program.
+ * <p>
+ * The fixed prefix is read at known offsets. The name, symbol and uri are length-prefixed strings, so the offsets of
+ * the later fields are derived from the lengths of the earlier ones each time they are requested. A single instance
+ * can be {@link #wrap(ByteBuffer) wrapped} around many accounts in turn.
+ * </p>
+ */
+public final class TokenMetadataView extends AccountDataView
+{
+    private static final int KEY_OFFSET = 0;
+    private static final int UPDATE_AUTHORITY_OFFSET = 1;
+    private static final int MINT_OFFSET = 33;
+    static final int NAME_OFFSET = 65;
+    private static final int STRING_LENGTH_PREFIX = 4;
+
+    /**
+     * Points this view at the metadata account data starting at the buffer's current position.
+     *
+     * @param buffer the account data; it is not copied and must not be modified while the view is in use
+     * @return this view
+     * @throws IllegalArgumentException if the buffer is too short to hold the fixed prefix of the layout
+     */
+    public TokenMetadataView wrap(final ByteBuffer buffer)
+    {
+        wrapBuffer(buffer, NAME_OFFSET + STRING_LENGTH_PREFIX);
+        return this;
+    }
+
+    /**
+     * Returns the account key discriminator.
+     *
+     * @return the key, four for a metadata account
+     */
+    public int key()
+    {
+        return u8(KEY_OFFSET);
+    }
+
+    /**
+     * Returns the authority allowed to update the metadata.
+     *
+     * @return the update authority
+     */
+    public PublicKey updateAuthority()
+    {
+        return publicKey(UPDATE_AUTHORITY_OFFSET);
+    }
+
+    /**
+     * Returns the mint the metadata describes.
+     *
+     * @return the mint
+     */
+    public PublicKey mint()
+    {
+        return publicKey(MINT_OFFSET);
+    }
+
+    /**
+     * Returns the token name, without its padding.
+     *
+     * @return the name
+     */
+    public String name()
+    {
+        return string(NAME_OFFSET);
+    }
+
+    /**
+     * Returns the token symbol, without its padding.
+     *
+     * @return the symbol
+     */
+    public String symbol()
+    {
+        return string(nameEnd());
+    }
+
+    /**
+     * Returns the uri of the off-chain metadata, without its padding.
+     *
+     * @return the uri
+     */
+    public String uri()
+    {
+        return string(uriOffset());
+    }
+
+    /**
+     * Returns the royalty charged on secondary sales.
+     *
+     * @return the royalty in basis points
+     */
+    public int sellerFeeBasisPoints()
+    {
+        return u16(skipString(uriOffset()));
+    }
+
+    int nameEnd()
+    {
+        return skipString(NAME_OFFSET);
+    }
+
+    private int uriOffset()
+    {
+        return skipString(nameEnd());
+    }
+
+    private int skipString(final int at)
+    {
+        return at + STRING_LENGTH_PREFIX + u32(at);
+    }
+
+    private String string(final int at)
+    {
+        return new String(bytes(at + STRING_LENGTH_PREFIX, u32(at)), UTF_8).trim();
+    }
+}
@@ -35,6 +35,15 @@ public final class TokenProgram extends TokenProgramBase
      */
     public static final int ACCOUNT_LAYOUT_SPAN = 165; // https://spl.solana.com/token
 
+    /**
+     * The span (size) of the mint layout in bytes.
+     * <p>
+     * This constant defines the fixed size of a mint layout for a Solana token mint.
+     * For more details, see the <a href="https://spl.solana.com/token">Solana Token Program documentation</a>.
+     * </p>
+     */
+    public static final int MINT_LAYOUT_SPAN = 82; // https://spl.solana.com/token
+
     /**
      * The span (size) of the multisig account layout in bytes.
      * <p>
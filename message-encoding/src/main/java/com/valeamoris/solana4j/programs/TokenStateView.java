@@ -0,0 +1,84 @@
+package com.valeamoris.solana4j.programs;
+
+/**
+ * Base of the spl-token views, adding access to the Token-2022 extended layout.
+ * <p>
+ * Token-2022 accounts and mints share the base layout of the original token program. When extensions are present
+ * the data is padded to {@link TokenProgram#ACCOUNT_LAYOUT_SPAN} bytes, followed by a one byte account type and a
+ * sequence of type-length-value extension entries.
+ * </p>
+ */
+abstract class TokenStateView extends AccountDataView
+{
+    /**
+     * The account type of an extended Token-2022 mint.
+     */
+    public static final int ACCOUNT_TYPE_MINT = 1;
+
+    /**
+     * The account type of an extended Token-2022 token account.
+     */
+    public static final int ACCOUNT_TYPE_ACCOUNT = 2;
+
+    private static final int ACCOUNT_TYPE_OFFSET = TokenProgram.ACCOUNT_LAYOUT_SPAN;
+    private static final int EXTENSIONS_OFFSET = ACCOUNT_TYPE_OFFSET + 1;
+    private static final int EXTENSION_HEADER_LENGTH = 4;
+
+    /**
+     * Returns whether the data uses the Token-2022 extended layout.
+     *
+     * @return true if an account type byte follows the base layout
+     */
+    public final boolean isExtended()
+    {
+        return length() > ACCOUNT_TYPE_OFFSET;
+    }
+
+    /**
+     * Returns the Token-2022 account type byte.
+     *
+     * @return {@link #ACCOUNT_TYPE_MINT}, {@link #ACCOUNT_TYPE_ACCOUNT}, or zero if the data is not extended
+     */
+    public final int accountType()
+    {
+        return isExtended() ? u8(ACCOUNT_TYPE_OFFSET) : 0;
+    }
+
+    /**
+     * Finds a Token-2022 extension by its type.
+     *
+     * @param extensionType the extension type, as defined by the Token-2022 program
+     * @return the offset of the extension's value from the start of the account data, or -1 if it is not present
+     */
+    public final int extensionOffset(final int extensionType)
+    {
+        int position = EXTENSIONS_OFFSET;
+        while (position + EXTENSION_HEADER_LENGTH <= length())
+        {
+            final int type = u16(position);
+            if (type == extensionType)
+            {
+                return position + EXTENSION_HEADER_LENGTH;
+            }
+            // an uninitialized entry terminates the list
+            if (type == 0)
+            {
+                break;
+            }
+            position += EXTENSION_HEADER_LENGTH + u16(position + 2);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the length of a Token-2022 extension's value.
+     *
+     * @param extensionType the extension type, as defined by the Token-2022 program
+     * @return the length of the extension's value in bytes, or -1 if it is not present
+     */
+    public final int extensionLength(final int extensionType)
+    {
+        final int valueOffset = extensionOffset(extensionType);
+        return valueOffset < 0 ? -1 : u16(valueOffset - 2);
+    }
+}
@@ -10,10 +10,12 @@ import org.assertj.core.api.Assertions;
 import org.assertj.core.api.Fail;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -101,6 +103,25 @@ public class Solana4jTestHelper
         return Solana.account(bytes);
     }
 
+    public static PublicKey randomAccount(final Random random)
+    {
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+
+        return Solana.account(bytes);
+    }
+
+    public static List<PublicKey> randomAccounts(final Random random, final int count)
+    {
+        final List<PublicKey> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            accounts.add(randomAccount(random));
+        }
+
+        return accounts;
+    }
+
     public static Blockhash generateBlockhash(final byte value)
     {
         final byte[] bytes = new byte[32];
@@ -0,0 +1,80 @@
+package com.valeamoris.solana4j.api;
+
+import com.valeamoris.solana4j.Solana;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicKeyObjectMapTest
+{
+    private final Random random = new Random(47);
+
+    @Test
+    void behavesLikeAHashMapThroughPutsAndRemoves()
+    {
+        final var keys = new ArrayList<PublicKey>();
+        for (int i = 0; i < 1000; i++)
+        {
+            final var bytes = new byte[32];
+            random.nextBytes(bytes);
+            keys.add(Solana.account(bytes));
+        }
+        final var map = PublicKeyObjectMap.<String>withExpectedSize(16);
+        final var expected = new HashMap<PublicKey, String>();
+
+        for (int i = 0; i < 30_000; i++)
+        {
+            final var key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0)
+            {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            }
+            else
+            {
+                assertThat(map.put(key, "v" + i)).isEqualTo(expected.put(key, "v" + i));
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (final PublicKey key : keys)
+        {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+            assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        }
+
+        final List<String> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertThat(values.size()).isEqualTo(expected.size());
+        assertThat(new HashSet<>(values)).isEqualTo(new HashSet<>(expected.values()));
+    }
+
+    @Test
+    void looksUpValuesStraightFromABuffer()
+    {
+        final var key = Solana.account("4vJ9JU1bJJE96FWSJKvHsmmFADCg4gpZQff4P3bkLKi");
+        final var map = PublicKeyObjectMap.<Integer>withExpectedSize(1);
+        final var buffer = ByteBuffer.allocate(40);
+        buffer.position(8);
+        key.write(buffer);
+
+        assertThat(map.put(buffer, 8, 1)).isNull();
+        assertThat(map.get(key)).isEqualTo(1);
+        assertThat(map.put(key, 2)).isEqualTo(1);
+        assertThat(map.get(buffer, 8)).isEqualTo(2);
+        assertThat(map.containsKey(buffer, 8)).isTrue();
+        assertThat(map.get(buffer, 0)).isNull();
+        assertThat(buffer.position()).isEqualTo(40);
+        assertThatThrownBy(() -> map.put(key, null)).isInstanceOf(NullPointerException.class);
+
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(key)).isNull();
+    }
+}
@@ -0,0 +1,149 @@
+package com.valeamoris.solana4j.api;
+
+import com.valeamoris.solana4j.Solana;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublicKeySetTest
+{
+    private final Random random = new Random(47);
+
+    @Test
+    void behavesLikeAHashSetThroughAddsAndRemoves()
+    {
+        final var keys = randomKeys(2000);
+        final var set = PublicKeySet.withExpectedSize(0);
+        final var expected = new HashSet<PublicKey>();
+
+        for (int i = 0; i < 50_000; i++)
+        {
+            final var key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0)
+            {
+                assertThat(set.remove(key)).isEqualTo(expected.remove(key));
+            }
+            else
+            {
+                assertThat(set.add(key)).isEqualTo(expected.add(key));
+            }
+            assertThat(set.size()).isEqualTo(expected.size());
+        }
+        for (final PublicKey key : keys)
+        {
+            assertThat(set.contains(key)).isEqualTo(expected.contains(key));
+        }
+    }
+
+    @Test
+    void findsKeysStraightFromABufferInEitherByteOrder()
+    {
+        final var keys = randomKeys(100);
+        final var set = PublicKeySet.withExpectedSize(50);
+        keys.subList(0, 50).forEach(set::add);
+
+        for (final ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN})
+        {
+            final var buffer = ByteBuffer.allocate(3 + 100 * 32).order(order);
+            buffer.position(3);
+            keys.forEach(key -> key.write(buffer));
+            buffer.position(1);
+
+            for (int i = 0; i < keys.size(); i++)
+            {
+                assertThat(set.contains(buffer, 3 + i * 32)).isEqualTo(i < 50);
+            }
+            assertThat(buffer.position()).isEqualTo(1);
+        }
+
+        final var buffer = ByteBuffer.allocate(32);
+        keys.get(99).write(buffer);
+        assertThat(set.add(buffer, 0)).isTrue();
+        assertThat(set.contains(keys.get(99))).isTrue();
+        assertThat(set.remove(buffer, 0)).isTrue();
+        assertThat(set.contains(keys.get(99))).isFalse();
+    }
+
+    @Test
+    void writesEveryKeyAndClears()
+    {
+        final var keys = randomKeys(20);
+        keys.add(Solana.account(new byte[32]));
+        final var set = PublicKeySet.withExpectedSize(keys.size());
+        keys.forEach(set::add);
+
+        final var buffer = ByteBuffer.allocate(keys.size() * 32);
+        set.writeKeys(buffer);
+        final var written = new HashSet<PublicKey>();
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            final var bytes = new byte[32];
+            buffer.get(bytes);
+            written.add(Solana.account(bytes));
+        }
+        assertThat(written).isEqualTo(new HashSet<>(keys));
+        assertThatThrownBy(() -> set.writeKeys(ByteBuffer.allocate(32))).isInstanceOf(BufferOverflowException.class);
+
+        set.clear();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(keys.get(0))).isFalse();
+        assertThatThrownBy(() -> PublicKeySet.withExpectedSize(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findsKeysOfOtherPublicKeyImplementations()
+    {
+        final var key = randomKeys(1).get(0);
+        final PublicKey other = new PublicKey()
+        {
+            @Override
+            public String base58()
+            {
+                return key.base58();
+            }
+
+            @Override
+            public byte[] bytes()
+            {
+                return key.bytes().clone();
+            }
+
+            @Override
+            public void write(final ByteBuffer buffer)
+            {
+                buffer.put(bytes());
+            }
+        };
+        final var set = PublicKeySet.withExpectedSize(1);
+        set.add(key);
+
+        for (int i = 0; i < 4; i++)
+        {
+            assertThat(other.word(i)).isEqualTo(key.word(i));
+        }
+        assertThat(set.contains(other)).isTrue();
+        assertThat(set.add(other)).isFalse();
+    }
+
+    private List<PublicKey> randomKeys(final int count)
+    {
+        final List<PublicKey> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            final var bytes = new byte[32];
+            random.nextBytes(bytes);
+            keys.add(Solana.account(bytes));
+        }
+        return keys;
+    }
+}
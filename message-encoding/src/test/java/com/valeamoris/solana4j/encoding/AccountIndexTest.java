@@ -0,0 +1,57 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.api.PublicKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccounts;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountIndexTest
+{
+    private final Random random = new Random(36);
+
+    @Test
+    void findsEveryAccountAtItsPositionInTheList()
+    {
+        final var accounts = randomAccounts(random, 300);
+        final var index = new AccountIndex(accounts);
+
+        for (int i = 0; i < accounts.size(); i++)
+        {
+            assertThat(index.indexOfAccount(accounts.get(i))).isEqualTo(i);
+            assertThat(index.indexOfAccount(new SolanaAccount(accounts.get(i).bytes()))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void keepsTheFirstPositionOfADuplicatedAccount()
+    {
+        final var duplicated = randomAccount(random);
+        final List<PublicKey> accounts = new ArrayList<>(randomAccounts(random, 5));
+        accounts.add(2, duplicated);
+        accounts.add(duplicated);
+        accounts.add(new SolanaAccount(duplicated.bytes()));
+        final var index = new AccountIndex(accounts);
+
+        assertThat(index.indexOfAccount(duplicated)).isEqualTo(accounts.indexOf(duplicated)).isEqualTo(2);
+        assertThat(index.indexOfAccount(accounts.get(3))).isEqualTo(3);
+        assertThat(index.indexOfAccount(accounts.get(5))).isEqualTo(5);
+    }
+
+    @Test
+    void doesNotFindAccountsMissingFromTheList()
+    {
+        final var index = new AccountIndex(randomAccounts(random, 10));
+
+        for (int i = 0; i < 100; i++)
+        {
+            assertThat(index.indexOfAccount(randomAccount(random))).isEqualTo(-1);
+        }
+        assertThat(new AccountIndex(List.of()).indexOfAccount(randomAccount(random))).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,171 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.ByteBufferSigner;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchSignerTest
+{
+    private final Random random = new Random(39);
+    private final PublicKey payer = randomAccount(random);
+    private final PublicKey owner = randomAccount(random);
+    private final PublicKey stranger = randomAccount(random);
+    private final PublicKey recipient = randomAccount(random);
+    private final Blockhash blockhash = Solana.blockhash(randomAccount(random).bytes());
+
+    @Test
+    void signsEveryMessageAsTheSigningBuilderDoesAndKeepsTheirOrder()
+    {
+        final var unsigned = new ArrayList<ByteBuffer>();
+        final var expected = new ArrayList<byte[]>();
+        for (int i = 0; i < 500; i++)
+        {
+            unsigned.add(transfer(i, i % 2 == 0));
+            final var reference = transfer(i, i % 2 == 0);
+            Solana.forSigning(reference).by(payer, digestSigner(payer)).by(owner, digestSigner(owner)).build();
+            expected.add(bytes(reference));
+        }
+
+        final var pool = new ForkJoinPool(4);
+        try
+        {
+            final var signed = BatchSigner.builder()
+                    .by(payer, () -> digestSigner(payer))
+                    .by(owner, () -> digestSigner(owner))
+                    .executor(pool)
+                    .build()
+                    .sign(unsigned);
+
+            assertThat(signed).hasSize(unsigned.size());
+            for (int i = 0; i < unsigned.size(); i++)
+            {
+                assertThat(bytes(unsigned.get(i))).isEqualTo(expected.get(i));
+                assertThat(bytes(signed.get(i).accept(message -> message.transaction()))).isEqualTo(bytes(Solana.read(unsigned.get(i)).accept(message -> message.transaction())));
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void createsSignersOncePerThread()
+    {
+        final var created = new AtomicInteger();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final var messages = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 200; i++)
+        {
+            messages.add(transfer(i, true));
+        }
+
+        final var pool = new ForkJoinPool(3);
+        try
+        {
+            final var signer = BatchSigner.builder()
+                    .by(payer, () ->
+                    {
+                        created.incrementAndGet();
+                        return (transaction, signature) ->
+                        {
+                            threads.add(Thread.currentThread());
+                            signature.put(new byte[64]);
+                        };
+                    })
+                    .executor(pool)
+                    .build();
+            signer.sign(messages);
+            signer.sign(messages);
+
+            assertThat(created.get()).isEqualTo(threads.size());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void leavesTheSlotsOfUnregisteredSignersUntouched()
+    {
+        final var message = transfer(7, false);
+        final var before = bytes(message);
+
+        BatchSigner.builder().by(stranger, () -> digestSigner(stranger)).build().sign(List.of(message));
+
+        assertThat(bytes(message)).isEqualTo(before);
+    }
+
+    @Test
+    void rejectsMalformedMessages()
+    {
+        final var signer = BatchSigner.builder().by(payer, () -> digestSigner(payer)).build();
+
+        assertThatThrownBy(() -> signer.sign(List.of(transfer(1, true), ByteBuffer.wrap(new byte[]{2, 0, 0}))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> BatchSigner.builder().executor(ForkJoinPool.commonPool(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ByteBuffer transfer(final long lamports, final boolean v0)
+    {
+        final List<TransactionInstruction> instructions = List.of(
+                SystemProgram.transfer(payer, recipient, lamports),
+                SystemProgram.transfer(owner, recipient, lamports));
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        final var builder = Solana.builder(buffer);
+        if (v0)
+        {
+            builder.v0().payer(payer).recent(blockhash).prebuiltInstructions(instructions).seal().unsigned().build();
+        }
+        else
+        {
+            builder.legacy().payer(payer).recent(blockhash).prebuiltInstructions(instructions).seal().unsigned().build();
+        }
+        return buffer;
+    }
+
+    private static ByteBufferSigner digestSigner(final PublicKey account)
+    {
+        return (transaction, signature) ->
+        {
+            try
+            {
+                final MessageDigest digest = MessageDigest.getInstance("SHA-512");
+                digest.update(account.bytes());
+                digest.update(transaction);
+                signature.put(digest.digest());
+            }
+            catch (final Exception e)
+            {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,123 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import net.i2p.crypto.eddsa.EdDSAEngine;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import static net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable.ED_25519_CURVE_SPEC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Ed25519SignerTest
+{
+    @Test
+    void signsTheTestVectorsOfRfc8032()
+    {
+        assertSignsVector(
+                "9d61b19deffd5a60ba844af492ec2cc44449c5697b326919703bac031cae7f60",
+                "d75a980182b10ab7d54bfed3c964073a0ee172f3daa62325af021a68f707511a",
+                "",
+                "e5564300c360ac729086e2cc806e828a84877f1eb8e5d974d873e065224901555fb8821590a33bacc61e39701cf9b46bd25bf5f0595bbe24655141438e7a100b");
+        assertSignsVector(
+                "4ccd089b28ff96da9db6c346ec114e0f5b8a319f35aba624da8cf6ed4fb8a6fb",
+                "3d4017c3e843895a92b70aa74d1b7ebc9c982ccf2ec4968cc0cd55f12af4660c",
+                "72",
+                "92a009a9f0d4cab8720e820b5f642540a2b27b5416503f8fb3762223ebdb69da085ac1e43e15996e458f3613d0f11d8c387b2eaeb4302aeeb00d291612bb0c00");
+        assertSignsVector(
+                "c5aa8df43f9f837bedb7442f31dcb7b166d38535076f094b85ce3a2e0b4458f7",
+                "fc51cd8e6218a1a38da47ed00230f0580816ed13ba3303ac5deb911548908025",
+                "af82",
+                "6291d657deec24024827e69c3abe01a30ce548a284743a445e3680d7db5ac3ac18ff9b538d16f290ae67f760984dc6594a7c15e9716ed28dc027beceea1ec40a");
+    }
+
+    @Test
+    void signsExactlyAsTheEddsaImplementationDoes() throws Exception
+    {
+        final var random = new Random(40);
+        for (int i = 0; i < 500; i++)
+        {
+            final var seed = new byte[32];
+            random.nextBytes(seed);
+            final var message = new byte[random.nextInt(Solana.MAX_MESSAGE_SIZE)];
+            random.nextBytes(message);
+
+            final var key = new EdDSAPrivateKey(new EdDSAPrivateKeySpec(seed, ED_25519_CURVE_SPEC));
+            final var engine = new EdDSAEngine(MessageDigest.getInstance("SHA-512"));
+            engine.initSign(key);
+            engine.update(message);
+
+            final var signer = Ed25519Signer.fromSeed(seed);
+            assertThat(signer.publicKey().bytes()).isEqualTo(key.getAbyte());
+            assertThat(sign(signer, message)).isEqualTo(engine.sign());
+        }
+    }
+
+    @Test
+    void signsBetweenPositionAndLimitAndWritesAtThePosition()
+    {
+        final var signer = Ed25519Signer.fromSeed(new byte[32]);
+        final var message = new byte[]{1, 2, 3, 4, 5};
+        final var transaction = ByteBuffer.allocate(20);
+        transaction.position(7);
+        transaction.put(message);
+        transaction.limit(12).position(7);
+        final var signature = ByteBuffer.allocate(100);
+        signature.position(10);
+
+        signer.sign(transaction, signature);
+
+        assertThat(transaction.position()).isEqualTo(7);
+        assertThat(transaction.limit()).isEqualTo(12);
+        assertThat(signature.position()).isEqualTo(74);
+        assertThat(Arrays.copyOfRange(signature.array(), 10, 74)).isEqualTo(sign(signer, message));
+    }
+
+    @Test
+    void createsSignersFromSolanaSecretKeys()
+    {
+        final var seed = new byte[32];
+        new Random(41).nextBytes(seed);
+        final var fromSeed = Ed25519Signer.fromSeed(seed);
+        final var secretKey = new byte[64];
+        System.arraycopy(seed, 0, secretKey, 0, 32);
+        System.arraycopy(fromSeed.publicKey().bytes(), 0, secretKey, 32, 32);
+
+        assertThat(Ed25519Signer.fromSecretKey(secretKey).publicKey()).isEqualTo(fromSeed.publicKey());
+
+        secretKey[40] ^= 1;
+        assertThatThrownBy(() -> Ed25519Signer.fromSecretKey(secretKey)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ed25519Signer.fromSeed(new byte[31])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertSignsVector(final String seed, final String publicKey, final String message, final String signature)
+    {
+        final var signer = Ed25519Signer.fromSeed(hex(seed));
+
+        assertThat(signer.publicKey().bytes()).isEqualTo(hex(publicKey));
+        assertThat(sign(signer, hex(message))).isEqualTo(hex(signature));
+    }
+
+    private static byte[] sign(final Ed25519Signer signer, final byte[] message)
+    {
+        final var signature = ByteBuffer.allocate(Ed25519Signer.SIGNATURE_LENGTH);
+        signer.sign(ByteBuffer.wrap(message), signature);
+        return signature.array();
+    }
+
+    private static byte[] hex(final String hex)
+    {
+        final var bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+}
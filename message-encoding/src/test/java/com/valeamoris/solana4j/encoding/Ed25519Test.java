@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Random;
 
 import static com.valeamoris.solana4j.encoding.Ed25519.reverse;
@@ -85,6 +86,24 @@ class Ed25519Test
         assertThrows(RuntimeException.class, () -> Ed25519.isOnCurve(invalidPublicKey));
     }
 
+    @Test
+    void limbArithmeticMatchesTheCurveEquationInBigIntegers()
+    {
+        final var random = new Random(42);
+        for (int i = 0; i < 10000; i++)
+        {
+            final var key = createRandomByteArray(random, 32);
+            if (i % 100 == 0)
+            {
+                // y at or above P, which only the top few values of y can be
+                Arrays.fill(key, 1, 32, (byte) 0xff);
+                key[0] = (byte) (0xed + random.nextInt(0x13));
+            }
+
+            assertEquals(isOnCurveBigInteger(key), Ed25519.isOnCurve(key));
+        }
+    }
+
     @Test
     void shouldReverseByteArray()
     {
@@ -122,6 +141,29 @@ class Ed25519Test
         return array;
     }
 
+    private static byte[] createRandomByteArray(final Random random, final int length)
+    {
+        final byte[] array = new byte[length];
+        random.nextBytes(array);
+        return array;
+    }
+
+    private static boolean isOnCurveBigInteger(final byte[] publicKey)
+    {
+        final var p = BigInteger.ONE.shiftLeft(255).subtract(BigInteger.valueOf(19));
+        final var d = BigInteger.valueOf(-121665).multiply(BigInteger.valueOf(121666).modInverse(p)).mod(p);
+        final var yBytes = publicKey.clone();
+        yBytes[31] &= 0x7F;
+
+        final var y = new BigInteger(1, reverse(yBytes)).mod(p);
+        final var u = y.multiply(y).subtract(BigInteger.ONE).mod(p);
+        final var v = d.multiply(y).multiply(y).add(BigInteger.ONE).mod(p);
+
+        // u/v has a square root exactly when it is zero or (u/v)^((p - 1) / 2) = 1
+        final var ratio = u.multiply(v.modInverse(p)).mod(p);
+        return ratio.signum() == 0 || ratio.modPow(p.subtract(BigInteger.ONE).shiftRight(1), p).equals(BigInteger.ONE);
+    }
+
     private boolean isOnCurveEddsaLibrary(final byte[] publickKey)
     {
         try
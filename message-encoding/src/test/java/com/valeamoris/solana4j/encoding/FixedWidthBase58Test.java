@@ -0,0 +1,100 @@
+package com.valeamoris.solana4j.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedWidthBase58Test
+{
+    private final Random random = new Random(45);
+
+    @Test
+    void encodesAndDecodesLikeTheGenericCodec()
+    {
+        for (final FixedWidthBase58 codec : new FixedWidthBase58[]{FixedWidthBase58.PUBLIC_KEY, FixedWidthBase58.SIGNATURE})
+        {
+            for (int i = 0; i < 2000; i++)
+            {
+                final var bytes = randomValue(codec.length(), i % codec.length());
+                final var encoded = Base58.encode(bytes);
+
+                assertThat(codec.encode(bytes)).isEqualTo(encoded);
+                assertThat(codec.decode(encoded)).isEqualTo(bytes);
+                assertThat(codec.isValid(encoded)).isTrue();
+                assertThat(encoded.length()).isLessThanOrEqualTo(codec.maxEncodedLength());
+            }
+        }
+    }
+
+    @Test
+    void encodesTheExtremeValues()
+    {
+        final var zeros = new byte[32];
+        final var ones = new byte[64];
+        Arrays.fill(ones, (byte) 0xff);
+
+        assertThat(FixedWidthBase58.PUBLIC_KEY.encode(zeros)).isEqualTo("11111111111111111111111111111111");
+        assertThat(FixedWidthBase58.PUBLIC_KEY.decode("11111111111111111111111111111111")).isEqualTo(zeros);
+        assertThat(FixedWidthBase58.SIGNATURE.encode(ones)).isEqualTo(Base58.encode(ones));
+        assertThat(FixedWidthBase58.SIGNATURE.encode(ones)).hasSize(88);
+        assertThat(FixedWidthBase58.SIGNATURE.decode(Base58.encode(ones))).isEqualTo(ones);
+    }
+
+    @Test
+    void encodesAndDecodesAtOffsets()
+    {
+        final var bytes = randomValue(64, 0);
+        final var encoded = Base58.encode(bytes);
+        final var array = new byte[70];
+        final var buffer = ByteBuffer.allocate(70);
+        buffer.position(9);
+
+        FixedWidthBase58.SIGNATURE.decode(encoded, array, 3);
+        FixedWidthBase58.SIGNATURE.decode(encoded, buffer, 5);
+        final var builder = new StringBuilder("id:");
+        FixedWidthBase58.SIGNATURE.encode(buffer, 5, builder);
+
+        assertThat(Arrays.copyOfRange(array, 3, 67)).isEqualTo(bytes);
+        assertThat(Arrays.copyOfRange(buffer.array(), 5, 69)).isEqualTo(bytes);
+        assertThat(buffer.position()).isEqualTo(9);
+        assertThat(FixedWidthBase58.SIGNATURE.encode(array, 3)).isEqualTo(encoded);
+        assertThat(builder.toString()).isEqualTo("id:" + encoded);
+    }
+
+    @Test
+    void rejectsStringsThatAreNotExactlyTheWidth()
+    {
+        final var key = Base58.encode(randomValue(32, 0));
+        final var tooLarge = Base58.encode(randomValue(33, 0));
+        final var tooSmall = Base58.encode(randomValue(31, 0));
+
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid(key)).isTrue();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid("")).isFalse();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid(tooLarge)).isFalse();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid(tooSmall)).isFalse();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid("1" + key)).isFalse();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid(key.substring(2))).isFalse();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid(key.substring(0, 10) + "0" + key.substring(11))).isFalse();
+        assertThat(FixedWidthBase58.PUBLIC_KEY.isValid(key.substring(0, 10) + "\u00e9" + key.substring(11))).isFalse();
+        assertThat(FixedWidthBase58.SIGNATURE.isValid(key)).isFalse();
+        assertThatThrownBy(() -> FixedWidthBase58.PUBLIC_KEY.decode(tooLarge)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FixedWidthBase58.PUBLIC_KEY.encode(new byte[31])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private byte[] randomValue(final int length, final int leadingZeros)
+    {
+        final var bytes = new byte[length];
+        random.nextBytes(bytes);
+        Arrays.fill(bytes, 0, leadingZeros, (byte) 0);
+        if (leadingZeros < length && bytes[leadingZeros] == 0)
+        {
+            bytes[leadingZeros] = 1;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.programs.AssociatedTokenProgram;
+import com.valeamoris.solana4j.programs.TokenProgram;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProgramAddressCacheTest
+{
+    private final Random random = new Random(43);
+    private final PublicKey program = randomAccount(random);
+
+    @Test
+    void derivesTheSameAddressesAsTheDerivationItCaches()
+    {
+        final var cache = ProgramAddressCache.withCapacity(100);
+        for (int i = 0; i < 20; i++)
+        {
+            final var owner = randomAccount(random);
+            final var mint = randomAccount(random);
+            final var expected = AssociatedTokenProgram.deriveAddress(owner, TokenProgram.PROGRAM_ACCOUNT, mint);
+
+            assertThat(AssociatedTokenProgram.deriveAddress(owner, TokenProgram.PROGRAM_ACCOUNT, mint, cache)).isEqualTo(expected);
+            assertThat(AssociatedTokenProgram.deriveAddress(owner, TokenProgram.PROGRAM_ACCOUNT, mint, cache)).isEqualTo(expected);
+        }
+        assertThat(cache.size()).isEqualTo(20);
+    }
+
+    @Test
+    void returnsTheCachedAddressForEqualSeedsInNewArrays()
+    {
+        final var cache = ProgramAddressCache.withCapacity(10);
+        final var seed = randomAccount(random).bytes();
+
+        final var first = cache.deriveProgramAddress(List.of(seed.clone()), program);
+        seed[0] ^= 1;
+        final var other = cache.deriveProgramAddress(List.of(seed.clone()), program);
+        seed[0] ^= 1;
+
+        assertThat(cache.deriveProgramAddress(List.of(seed.clone()), program)).isSameAs(first);
+        assertThat(other).isNotEqualTo(first);
+        assertThat(cache.deriveProgramAddress(List.of(seed), randomAccount(random))).isNotEqualTo(first);
+    }
+
+    @Test
+    void holdsNoMoreThanItsCapacity()
+    {
+        final var cache = ProgramAddressCache.withCapacity(50);
+        for (int i = 0; i < 200; i++)
+        {
+            cache.deriveProgramAddress(List.of(randomAccount(random).bytes()), program);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+
+        cache.clear();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    void derivesConcurrently()
+    {
+        final var cache = ProgramAddressCache.withCapacity(1000);
+        final var seeds = new ArrayList<byte[]>();
+        for (int i = 0; i < 32; i++)
+        {
+            seeds.add(randomAccount(random).bytes());
+        }
+
+        final var pool = new ForkJoinPool(4);
+        try
+        {
+            final var tasks = new ArrayList<CompletableFuture<Void>>();
+            for (int task = 0; task < 8; task++)
+            {
+                tasks.add(CompletableFuture.runAsync(() ->
+                {
+                    for (int round = 0; round < 10; round++)
+                    {
+                        for (final byte[] seed : seeds)
+                        {
+                            assertThat(cache.deriveProgramAddress(List.of(seed), program))
+                                    .isEqualTo(Solana.programDerivedAddress(List.of(seed), program));
+                        }
+                    }
+                }, pool));
+            }
+            tasks.forEach(CompletableFuture::join);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        assertThat(cache.size()).isEqualTo(32);
+    }
+
+    @Test
+    void rejectsCapacitiesThatAreNotPositive()
+    {
+        assertThatThrownBy(() -> ProgramAddressCache.withCapacity(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
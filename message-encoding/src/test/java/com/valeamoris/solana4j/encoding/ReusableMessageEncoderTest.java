@@ -0,0 +1,229 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.BLOCKHASH;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccounts;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReusableMessageEncoderTest
+{
+    private static final byte[] DATA = new byte[]{3, 1, 4, 1, 5, 9, 2, 6};
+
+    private final Random random = new Random(37);
+    private final PublicKey payer = randomAccount(random);
+    private final Blockhash blockhash = Solana.blockhash(BLOCKHASH);
+    private final List<PublicKey> accounts = randomAccounts(random, 80);
+    private final ReusableMessageEncoder encoder = ReusableMessageEncoder.builder().build();
+
+    @Test
+    void encodesLegacyMessagesExactlyAsTheBuilderDoes()
+    {
+        for (int round = 0; round < 50; round++)
+        {
+            final var instructions = randomInstructions();
+
+            encoder.reset().payer(payer).recent(blockhash);
+            instructions.forEach(encoder::instruction);
+
+            assertThat(bytes(encode())).isEqualTo(bytes(buildLegacy(instructions)));
+        }
+    }
+
+    @Test
+    void encodesVersion0MessagesWithOneLookupTableExactlyAsTheBuilderDoes()
+    {
+        final var lookupTable = Solana.addressLookupTable(randomAccount(random), accounts.subList(0, 50));
+
+        for (int round = 0; round < 50; round++)
+        {
+            final var instructions = randomInstructions();
+
+            encoder.reset().payer(payer).recent(blockhash).lookup(lookupTable);
+            instructions.forEach(encoder::instruction);
+
+            assertThat(bytes(encode())).isEqualTo(bytes(buildV0(instructions, List.of(lookupTable))));
+        }
+    }
+
+    @Test
+    void encodesVersion0MessagesWithSeveralLookupTablesExactlyAsTheBuilderDoes()
+    {
+        final List<AddressLookupTable> lookupTables = List.of(
+                Solana.addressLookupTable(randomAccount(random), accounts.subList(0, 30)),
+                Solana.addressLookupTable(randomAccount(random), accounts.subList(20, 50)),
+                Solana.addressLookupTable(randomAccount(random), accounts.subList(45, 70)));
+
+        for (int round = 0; round < 50; round++)
+        {
+            final var instructions = randomInstructions();
+
+            encoder.reset().payer(payer).recent(blockhash);
+            lookupTables.forEach(encoder::lookup);
+            instructions.forEach(encoder::instruction);
+
+            assertThat(bytes(encode())).isEqualTo(bytes(buildV0(instructions, lookupTables)));
+        }
+    }
+
+    @Test
+    void encodesInstructionsDescribedInPlaceAsTheirPrebuiltEquivalents()
+    {
+        final var program = accounts.get(79);
+        final var prebuilt = Solana.instruction(ib -> ib
+                .program(program)
+                .account(accounts.get(1), false, true)
+                .account(payer, true, true)
+                .account(accounts.get(2), false, false)
+                .data(DATA.length, bb -> bb.put(DATA)));
+
+        encoder.reset().payer(payer).recent(blockhash)
+                .instruction(program)
+                .account(accounts.get(1), false, true)
+                .account(payer, true, true)
+                .account(accounts.get(2), false, false)
+                .data(DATA, 0, DATA.length)
+                .instruction(program)
+                .account(accounts.get(1), false, true)
+                .account(payer, true, true)
+                .account(accounts.get(2), false, false)
+                .data(DATA.length, bb -> bb.put(DATA));
+
+        assertThat(bytes(encode())).isEqualTo(bytes(buildLegacy(List.of(prebuilt, prebuilt))));
+    }
+
+    @Test
+    void encodesAtTheBufferPositionAndFramesTheMessage()
+    {
+        final var instructions = randomInstructions();
+        final var expected = bytes(buildLegacy(instructions));
+
+        encoder.reset().payer(payer).recent(blockhash);
+        instructions.forEach(encoder::instruction);
+        final var buffer = ByteBuffer.allocate(2 * Solana.MAX_MESSAGE_SIZE);
+        buffer.position(100);
+
+        assertThat(encoder.encode(buffer)).isEqualTo(expected.length);
+        assertThat(buffer.position()).isEqualTo(100);
+        assertThat(bytes(buffer)).isEqualTo(expected);
+    }
+
+    @Test
+    void encodesWithoutAllocatingOnceWarm()
+    {
+        final var lookupTable = Solana.addressLookupTable(randomAccount(random), accounts.subList(0, 50));
+        final var program = accounts.get(79);
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+
+        for (int i = 0; i < 20_000; i++)
+        {
+            encodeTransfers(buffer, lookupTable, program);
+        }
+
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 10_000; i++)
+        {
+            encodeTransfers(buffer, lookupTable, program);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+
+        // leave room for the measurement itself, far less than a byte a message
+        assertThat(allocated).isLessThan(1_024L);
+    }
+
+    @Test
+    void rejectsMessagesBeyondItsCapacity()
+    {
+        final var small = ReusableMessageEncoder.builder().maxAccounts(3).maxInstructions(1).maxDataBytes(4).build();
+        small.reset().payer(payer).recent(blockhash).instruction(accounts.get(0)).account(accounts.get(1), false, true);
+
+        assertThatThrownBy(() -> small.account(accounts.get(2), false, true).account(accounts.get(3), false, true))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> small.instruction(accounts.get(0))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> small.data(DATA, 0, DATA.length)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ReusableMessageEncoder.builder().maxAccounts(257)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> encoder.reset().account(payer, true, true)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> encoder.reset().payer(payer).encode(ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void encodeTransfers(final ByteBuffer buffer, final AddressLookupTable lookupTable, final PublicKey program)
+    {
+        encoder.reset().payer(payer).recent(blockhash).lookup(lookupTable);
+        for (int i = 0; i < 10; i++)
+        {
+            encoder.instruction(program)
+                    .account(payer, true, true)
+                    .account(accounts.get(i), false, true)
+                    .account(accounts.get(60 + i), false, false)
+                    .data(DATA, 0, DATA.length);
+        }
+        buffer.clear();
+        encoder.encode(buffer);
+    }
+
+    private ByteBuffer encode()
+    {
+        final var buffer = ByteBuffer.allocate(2 * Solana.MAX_MESSAGE_SIZE);
+        encoder.encode(buffer);
+        return buffer;
+    }
+
+    private ByteBuffer buildLegacy(final List<TransactionInstruction> instructions)
+    {
+        final var buffer = ByteBuffer.allocate(2 * Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer).legacy().payer(payer).recent(blockhash).prebuiltInstructions(instructions).seal().unsigned().build();
+        return buffer;
+    }
+
+    private ByteBuffer buildV0(final List<TransactionInstruction> instructions, final List<AddressLookupTable> lookupTables)
+    {
+        final var buffer = ByteBuffer.allocate(2 * Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer).v0().payer(payer).recent(blockhash).prebuiltInstructions(instructions).lookups(lookupTables).seal().unsigned().build();
+        return buffer;
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private List<TransactionInstruction> randomInstructions()
+    {
+        final var instructions = new ArrayList<TransactionInstruction>();
+        final int count = 1 + random.nextInt(8);
+        for (int i = 0; i < count; i++)
+        {
+            final var program = accounts.get(accounts.size() - 1 - random.nextInt(3));
+            final int accountCount = random.nextInt(6);
+            final int dataLength = random.nextInt(20);
+            instructions.add(Solana.instruction(ib ->
+            {
+                ib.program(program);
+                for (int account = 0; account < accountCount; account++)
+                {
+                    final var key = random.nextInt(10) == 0 ? payer : accounts.get(random.nextInt(accounts.size() - 3));
+                    ib.account(key, random.nextInt(6) == 0, random.nextBoolean());
+                }
+                ib.data(dataLength, bb -> bb.put(new byte[dataLength]));
+            }));
+        }
+        return instructions;
+    }
+}
@@ -0,0 +1,283 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SignatureVerifierTest
+{
+    private static final BigInteger L = BigInteger.ONE.shiftLeft(252).add(new BigInteger("27742317777372353535851937790883648493"));
+    // (0, y) for y = 0 is a point of order 4, and the other encoding below one of order 8
+    private static final byte[] ORDER_4 = new byte[32];
+    private static final byte[] ORDER_8 = hex("26e8958fc2b227b045c3f489f2ef98f0d5dfac05d3c63339b13802886d53fc05");
+
+    private final Random random = new Random(41);
+    private final Ed25519Signer payer = Ed25519Signer.fromSeed(randomBytes(32));
+    private final Ed25519Signer owner = Ed25519Signer.fromSeed(randomBytes(32));
+    private final PublicKey recipient = Solana.account(randomBytes(32));
+    private final Blockhash blockhash = Solana.blockhash(randomBytes(32));
+
+    @Test
+    void verifiesSignedMessages()
+    {
+        final var verifier = SignatureVerifier.builder().build();
+
+        assertThat(verifier.verifySignatures(Solana.read(signedTransfer(1, true)))).isTrue();
+        assertThat(verifier.verifySignatures(Solana.read(signedTransfer(2, false)))).isTrue();
+        assertThat(Solana.verifySignatures(Solana.read(signedTransfer(3, true)))).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedSignaturesAndMessages()
+    {
+        final var verifier = SignatureVerifier.builder().build();
+
+        final var signature = signedTransfer(1, true);
+        signature.put(1 + 64 + 5, (byte) (signature.get(1 + 64 + 5) ^ 1));
+        assertThat(verifier.verifySignatures(signature)).isFalse();
+
+        final var message = signedTransfer(1, false);
+        message.put(message.limit() - 1, (byte) (message.get(message.limit() - 1) ^ 1));
+        assertThat(verifier.verifySignatures(message)).isFalse();
+
+        final var unsigned = transfer(1, true);
+        assertThat(verifier.verifySignatures(unsigned)).isFalse();
+    }
+
+    @Test
+    void rejectsSignaturesWhoseScalarIsNotReduced()
+    {
+        final var transaction = signedTransfer(1, true);
+        final var s = new byte[32];
+        for (int i = 0; i < 32; i++)
+        {
+            s[31 - i] = transaction.get(1 + 32 + i);
+        }
+        final var unreduced = new BigInteger(1, s).add(L).toByteArray();
+        for (int i = 0; i < 32; i++)
+        {
+            transaction.put(1 + 32 + i, i < unreduced.length ? unreduced[unreduced.length - 1 - i] : 0);
+        }
+
+        assertThat(SignatureVerifier.builder().build().verifySignatures(transaction)).isFalse();
+    }
+
+    @Test
+    void rejectsKeysOfSmallOrder() throws NoSuchAlgorithmException
+    {
+        // R = sB and S = s satisfy 8SB = 8R + 8kA for any A of small order, but not SB = R + kA as validators require
+        final var seed = randomBytes(32);
+        final var nonce = Ed25519Signer.fromSeed(seed).publicKey().bytes();
+        final var transaction = selfTransfer(Solana.account(ORDER_4));
+        sign(transaction, nonce, scalar(seed));
+
+        assertThat(SignatureVerifier.builder().build().verifySignatures(transaction)).isFalse();
+        final var valid = SignatureVerifier.builder().build().verifySignatures(List.of(transaction, signedTransfer(1, true)));
+        assertThat(valid[0]).isFalse();
+        assertThat(valid[1]).isTrue();
+    }
+
+    @Test
+    void rejectsNoncesOfSmallOrder() throws NoSuchAlgorithmException
+    {
+        // S = ka satisfies 8SB = 8R + 8kA for any R of small order, but not SB = R + kA as validators require
+        final var seed = randomBytes(32);
+        final var key = Ed25519Signer.fromSeed(seed).publicKey();
+        final var transaction = selfTransfer(key);
+        sign(transaction, ORDER_8, challenge(transaction, ORDER_8, key.bytes()).multiply(scalar(seed)).mod(L));
+
+        assertThat(SignatureVerifier.builder().build().verifySignatures(transaction)).isFalse();
+        final var valid = SignatureVerifier.builder().build().verifySignatures(List.of(signedTransfer(1, true), transaction));
+        assertThat(valid[0]).isTrue();
+        assertThat(valid[1]).isFalse();
+    }
+
+    @Test
+    void verifiesSignaturesPutTogetherByHand() throws NoSuchAlgorithmException
+    {
+        // R = rB and S = r + ka, checking the construction the small order tests rely on
+        final var seed = randomBytes(32);
+        final var nonceSeed = randomBytes(32);
+        final var key = Ed25519Signer.fromSeed(seed).publicKey();
+        final var nonce = Ed25519Signer.fromSeed(nonceSeed).publicKey().bytes();
+        final var transaction = selfTransfer(key);
+        sign(transaction, nonce, challenge(transaction, nonce, key.bytes()).multiply(scalar(seed)).add(scalar(nonceSeed)).mod(L));
+
+        assertThat(SignatureVerifier.builder().build().verifySignatures(transaction)).isTrue();
+    }
+
+    @Test
+    void pinpointsTheBadTransactionsOfALargeBatchInOrder()
+    {
+        final var transactions = new ArrayList<ByteBuffer>();
+        final var expected = new boolean[300];
+        for (int i = 0; i < expected.length; i++)
+        {
+            final var transaction = signedTransfer(i, i % 3 != 0);
+            expected[i] = i % 37 != 5;
+            if (!expected[i])
+            {
+                final int index = transaction.position() + 1 + 64 * (i % 2) + random.nextInt(64);
+                transaction.put(index, (byte) (transaction.get(index) + 1));
+            }
+            transactions.add(transaction);
+        }
+        transactions.add(ByteBuffer.wrap(new byte[]{2, 0, 0}));
+
+        final var pool = new ForkJoinPool(4);
+        try
+        {
+            final var verifier = SignatureVerifier.builder().executor(pool).batchSize(16).build();
+            final var valid = verifier.verifySignatures(transactions);
+
+            assertThat(valid.length).isEqualTo(expected.length + 1);
+            for (int i = 0; i < expected.length; i++)
+            {
+                assertThat(valid[i]).as("transaction %d", i).isEqualTo(expected[i]);
+                assertThat(verifier.verifySignatures(transactions.get(i))).isEqualTo(expected[i]);
+            }
+            assertThat(valid[expected.length]).isFalse();
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void leavesTheBuffersAsTheyAre()
+    {
+        final var transaction = signedTransfer(1, true);
+        final int position = transaction.position();
+        final int limit = transaction.limit();
+
+        SignatureVerifier.builder().build().verifySignatures(List.of(transaction, transaction));
+
+        assertThat(transaction.position()).isEqualTo(position);
+        assertThat(transaction.limit()).isEqualTo(limit);
+    }
+
+    @Test
+    void rejectsInvalidSettings()
+    {
+        assertThatThrownBy(() -> SignatureVerifier.builder().batchSize(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SignatureVerifier.builder().executor(ForkJoinPool.commonPool(), 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ByteBuffer signedTransfer(final long lamports, final boolean v0)
+    {
+        final var buffer = transfer(lamports, v0);
+        Solana.forSigning(buffer).by(payer.publicKey(), payer).by(owner.publicKey(), owner).build();
+        return buffer;
+    }
+
+    private ByteBuffer transfer(final long lamports, final boolean v0)
+    {
+        final List<TransactionInstruction> instructions = List.of(
+                SystemProgram.transfer(payer.publicKey(), recipient, lamports),
+                SystemProgram.transfer(owner.publicKey(), recipient, lamports));
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        final var builder = Solana.builder(buffer);
+        if (v0)
+        {
+            builder.v0().payer(payer.publicKey()).recent(blockhash).prebuiltInstructions(instructions).seal().unsigned().build();
+        }
+        else
+        {
+            builder.legacy().payer(payer.publicKey()).recent(blockhash).prebuiltInstructions(instructions).seal().unsigned().build();
+        }
+        return buffer;
+    }
+
+    private ByteBuffer selfTransfer(final PublicKey signer)
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer)
+                .legacy()
+                .payer(signer)
+                .recent(blockhash)
+                .prebuiltInstructions(List.of(SystemProgram.transfer(signer, recipient, 1)))
+                .seal()
+                .unsigned()
+                .build();
+        return buffer;
+    }
+
+    private static void sign(final ByteBuffer transaction, final byte[] r, final BigInteger s)
+    {
+        transaction.put(transaction.position() + 1, r);
+        transaction.put(transaction.position() + 1 + 32, littleEndian(s));
+    }
+
+    private static BigInteger challenge(final ByteBuffer transaction, final byte[] r, final byte[] a) throws NoSuchAlgorithmException
+    {
+        final var digest = MessageDigest.getInstance("SHA-512");
+        digest.update(r);
+        digest.update(a);
+        digest.update(transaction.duplicate().position(transaction.position() + 1 + 64));
+        return fromLittleEndian(digest.digest()).mod(L);
+    }
+
+    private static BigInteger scalar(final byte[] seed) throws NoSuchAlgorithmException
+    {
+        final var h = MessageDigest.getInstance("SHA-512").digest(seed);
+        h[0] &= (byte) 248;
+        h[31] &= 127;
+        h[31] |= 64;
+        return fromLittleEndian(Arrays.copyOf(h, 32)).mod(L);
+    }
+
+    private static BigInteger fromLittleEndian(final byte[] bytes)
+    {
+        final var bigEndian = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bigEndian[bytes.length - 1 - i] = bytes[i];
+        }
+        return new BigInteger(1, bigEndian);
+    }
+
+    private static byte[] littleEndian(final BigInteger value)
+    {
+        final var bigEndian = value.toByteArray();
+        final var bytes = new byte[32];
+        for (int i = 0; i < 32 && i < bigEndian.length; i++)
+        {
+            bytes[i] = bigEndian[bigEndian.length - 1 - i];
+        }
+        return bytes;
+    }
+
+    private static byte[] hex(final String hex)
+    {
+        final var bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    private byte[] randomBytes(final int length)
+    {
+        final var bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -1,10 +1,16 @@
 package com.valeamoris.solana4j.encoding;
 
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.programs.ComputeBudgetProgram;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import com.valeamoris.solana4j.programs.TokenProgram;
 import org.junit.jupiter.api.Test;
 
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -108,4 +114,85 @@ class SolanaAccountTest
 
         assertThatThrownBy(() -> a.write(buffer)).isInstanceOf(BufferOverflowException.class);
     }
+
+    @Test
+    void readsAndWritesInEitherByteOrder()
+    {
+        final var bytes = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, (byte) 0xff};
+        final var a = new SolanaAccount(bytes);
+
+        for (final ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN})
+        {
+            final var buffer = ByteBuffer.allocate(40).order(order);
+            buffer.put((byte) 7);
+            a.write(buffer);
+            assertThat(Arrays.compare(buffer.array(), 1, 33, bytes, 0, 32)).isZero();
+
+            buffer.position(1);
+            final var read = SolanaAccount.read(buffer);
+            assertThat(buffer.position()).isEqualTo(33);
+            assertThat(read).isEqualTo(a);
+            assertThat(read.hashCode()).isEqualTo(a.hashCode());
+            assertThat(read.bytes()).isEqualTo(bytes);
+        }
+    }
+
+    @Test
+    void doesNotWritePartOfAKeyWhenTheBufferIsTooSmall()
+    {
+        final var a = new SolanaAccount(new byte[32]);
+        final var buffer = ByteBuffer.allocate(31);
+
+        assertThatThrownBy(() -> a.write(buffer)).isInstanceOf(BufferOverflowException.class);
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    void encodesBase58AndKeepsTheBytesItWasGiven()
+    {
+        final var bytes = new byte[32];
+        new Random(46).nextBytes(bytes);
+        final var a = new SolanaAccount(bytes);
+        bytes[0]++;
+
+        assertThat(a.base58()).isEqualTo(Base58.encode(a.bytes()));
+        assertThat(a.base58()).isSameAs(a.base58());
+        assertThat(a.bytes()[0]).isEqualTo((byte) (bytes[0] - 1));
+    }
+
+    @Test
+    void internsTheWellKnownPrograms()
+    {
+        final var tokenProgram = Base58.decode("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+
+        assertThat(SolanaAccount.of(tokenProgram)).isSameAs(TokenProgram.PROGRAM_ACCOUNT);
+        assertThat(SolanaAccount.read(ByteBuffer.wrap(tokenProgram))).isSameAs(TokenProgram.PROGRAM_ACCOUNT);
+        assertThat(Solana.account("ComputeBudget111111111111111111111111111111")).isSameAs(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT);
+        assertThat(Solana.account(new byte[32])).isSameAs(SystemProgram.SYSTEM_PROGRAM_ACCOUNT);
+        assertThat(SolanaAccount.of(Base58.decode("4vJ9JU1bJJE96FWSJKvHsmmFADCg4gpZQff4P3bkLKi")))
+                .isNotSameAs(SolanaAccount.of(Base58.decode("4vJ9JU1bJJE96FWSJKvHsmmFADCg4gpZQff4P3bkLKi")));
+    }
+
+    @Test
+    void returnsACopyOfItsBytes()
+    {
+        final var bytes = new byte[32];
+        new Random(47).nextBytes(bytes);
+        final var a = new SolanaAccount(bytes);
+        final var hash = a.hashCode();
+
+        a.bytes()[0]++;
+        SystemProgram.SYSTEM_PROGRAM_ACCOUNT.bytes()[0]++;
+
+        assertThat(a.bytes()).isEqualTo(bytes);
+        assertThat(a.bytes()).isNotSameAs(a.bytes());
+        assertThat(a).isEqualTo(new SolanaAccount(bytes));
+        assertThat(a.hashCode()).isEqualTo(hash);
+        assertThat(SystemProgram.SYSTEM_PROGRAM_ACCOUNT.bytes()).isEqualTo(new byte[32]);
+        assertThat(Solana.account(new byte[32])).isSameAs(SystemProgram.SYSTEM_PROGRAM_ACCOUNT);
+
+        final var written = ByteBuffer.allocate(32);
+        SystemProgram.SYSTEM_PROGRAM_ACCOUNT.write(written);
+        assertThat(written.array()).isEqualTo(new byte[32]);
+    }
 }
@@ -1,25 +1,36 @@
 package com.valeamoris.solana4j.encoding;
 
+import com.valeamoris.solana4j.Solana;
 import com.valeamoris.solana4j.api.Accounts;
 import com.valeamoris.solana4j.api.AddressLookupTable;
 import com.valeamoris.solana4j.api.AccountLookupEntry;
+import com.valeamoris.solana4j.api.LookupTableSelection;
 import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT1;
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT2;
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT3;
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT4;
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT5;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT8;
+import static com.valeamoris.solana4j.Solana4jTestHelper.BLOCKHASH;
 import static com.valeamoris.solana4j.Solana4jTestHelper.LOOKUP_TABLE_ADDRESS1;
 import static com.valeamoris.solana4j.Solana4jTestHelper.LOOKUP_TABLE_ADDRESS2;
 import static com.valeamoris.solana4j.Solana4jTestHelper.DATA1;
 import static com.valeamoris.solana4j.Solana4jTestHelper.PAYER;
 import static com.valeamoris.solana4j.Solana4jTestHelper.PROGRAM1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.fail;
 
 class SolanaAccountsTest
@@ -447,6 +458,52 @@ class SolanaAccountsTest
         countSignedEquals(accounts.getCountSigned(), 2);
     }
 
+    @Test
+    void accountPresentManyTimesIsMergedIntoOneFlattenedEntryAndIndexedThere()
+    {
+        final SolanaAccount account1 = new SolanaAccount(ACCOUNT1);
+        final SolanaAccount account2 = new SolanaAccount(ACCOUNT2);
+
+        final SolanaTransactionInstruction solanaTransactionInstruction1 = new SolanaTransactionInstruction(
+                List.of(
+                        new SolanaAccountReference(account2, false, false, false),
+                        new SolanaAccountReference(account1, false, true, false)
+                ),
+                RO_U_PROGRAM1_ACCOUNT,
+                10,
+                w -> w.put(DATA1));
+
+        final SolanaTransactionInstruction solanaTransactionInstruction2 = new SolanaTransactionInstruction(
+                List.of(
+                        new SolanaAccountReference(account1, true, false, false),
+                        new SolanaAccountReference(RW_S_PAYER_ACCOUNT, false, false, false),
+                        new SolanaAccountReference(account2, false, false, false)
+                ),
+                RO_U_PROGRAM1_ACCOUNT,
+                10,
+                w -> w.put(DATA1));
+
+        final SolanaAccounts accounts = SolanaAccounts.create(
+                List.of(solanaTransactionInstruction1, solanaTransactionInstruction2),
+                RW_S_PAYER_ACCOUNT
+        );
+
+        // account1 is a signer in one instruction and a writer in the other, so it is a writable signer
+        flattenedAccountListEquals(accounts.getFlattenedAccountList(), List.of(RW_S_PAYER_ACCOUNT, account1, RO_U_PROGRAM1_ACCOUNT, account2));
+        countSignedEquals(accounts.getCountSigned(), 2);
+        countSignedReadOnlyEquals(accounts.getCountSignedReadOnly(), 0);
+        countUnsignedReadOnlyEquals(accounts.getCountUnsignedReadOnly(), 2);
+
+        assertThat(accounts.getReferences().indexOfAccount(RW_S_PAYER_ACCOUNT)).isEqualTo(0);
+        assertThat(accounts.getReferences().indexOfAccount(new SolanaAccount(ACCOUNT1))).isEqualTo(1);
+        assertThat(accounts.getReferences().indexOfAccount(RO_U_PROGRAM1_ACCOUNT)).isEqualTo(2);
+        assertThat(accounts.getReferences().indexOfAccount(account2)).isEqualTo(3);
+        assertThat(accounts.getReferences().indexOfAccount(new SolanaAccount(ACCOUNT3))).isEqualTo(-1);
+
+        assertThat(accounts.getFlattenedAccountList()).isSameAs(accounts.getFlattenedAccountList());
+        assertThatThrownBy(() -> accounts.getFlattenedAccountList().add(account2)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
     @Test
     void lookupAccountPresentManyTimesIsDeduplicated()
     {
@@ -721,6 +778,164 @@ class SolanaAccountsTest
         );
     }
 
+    @Test
+    void minimumSizeLeavesAccountStaticRatherThanLoadItAloneFromATable()
+    {
+        final SolanaAccount roUAccount1 = new SolanaAccount(ACCOUNT1);
+        final SolanaAccount roUAccount2 = new SolanaAccount(ACCOUNT2);
+        final SolanaAccount roUAccount3 = new SolanaAccount(ACCOUNT3);
+
+        final SolanaAccount lookupTableAddress1 = new SolanaAccount(LOOKUP_TABLE_ADDRESS1);
+        final AddressLookupTable addressLookupTable1 = new SolanaAddressLookupTable(lookupTableAddress1, List.of(roUAccount1));
+
+        final SolanaAccount lookupTableAddress2 = new SolanaAccount(LOOKUP_TABLE_ADDRESS2);
+        final AddressLookupTable addressLookupTable2 = new SolanaAddressLookupTable(lookupTableAddress2, List.of(roUAccount2, roUAccount3));
+
+        final SolanaTransactionInstruction solanaTransactionInstruction = new SolanaTransactionInstruction(
+                List.of(
+                        new SolanaAccountReference(roUAccount1, false, false, false),
+                        new SolanaAccountReference(roUAccount2, false, false, false),
+                        new SolanaAccountReference(roUAccount3, false, false, false)
+                ),
+                RO_U_PROGRAM1_ACCOUNT,
+                10,
+                w -> w.put(DATA1));
+
+        final Accounts accounts = SolanaAccounts.create(
+                List.of(solanaTransactionInstruction),
+                RW_S_PAYER_ACCOUNT,
+                List.of(addressLookupTable1, addressLookupTable2),
+                LookupTableSelection.MINIMUM_SIZE
+        );
+
+        staticAccountsEqual(accounts.getStaticAccounts(), List.of(RW_S_PAYER_ACCOUNT, RO_U_PROGRAM1_ACCOUNT, roUAccount1));
+        lookupAccountsEqual(accounts.getAccountLookups(), lookupTableAddress1, List.of());
+        lookupAccountsEqual(accounts.getAccountLookups(), lookupTableAddress2, List.of(roUAccount2, roUAccount3));
+        accountLookupReadOnlyIndexEquals(accounts.getAccountLookups(), lookupTableAddress2, roUAccount2, 0);
+        accountLookupReadOnlyIndexEquals(accounts.getAccountLookups(), lookupTableAddress2, roUAccount3, 1);
+        countUnsignedReadOnlyEquals(accounts.getCountUnsignedReadOnly(), 2);
+    }
+
+    @Test
+    void minimumSizePrefersOneTableHoldingEveryAccountOverTheFirstTablesHoldingThem()
+    {
+        final SolanaAccount roUAccount1 = new SolanaAccount(ACCOUNT1);
+        final SolanaAccount roUAccount2 = new SolanaAccount(ACCOUNT2);
+        final SolanaAccount rwUAccount3 = new SolanaAccount(ACCOUNT3);
+        final SolanaAccount rwUAccount4 = new SolanaAccount(ACCOUNT4);
+
+        final SolanaAccount lookupTableAddress1 = new SolanaAccount(LOOKUP_TABLE_ADDRESS1);
+        final AddressLookupTable addressLookupTable1 = new SolanaAddressLookupTable(lookupTableAddress1, List.of(roUAccount1, roUAccount2));
+
+        final SolanaAccount lookupTableAddress2 = new SolanaAccount(LOOKUP_TABLE_ADDRESS2);
+        final AddressLookupTable addressLookupTable2 = new SolanaAddressLookupTable(lookupTableAddress2, List.of(rwUAccount3, rwUAccount4));
+
+        final SolanaAccount lookupTableAddress3 = new SolanaAccount(ACCOUNT8);
+        final AddressLookupTable addressLookupTable3 = new SolanaAddressLookupTable(lookupTableAddress3, List.of(rwUAccount4, rwUAccount3, roUAccount2, roUAccount1));
+
+        final SolanaTransactionInstruction solanaTransactionInstruction = new SolanaTransactionInstruction(
+                List.of(
+                        new SolanaAccountReference(roUAccount1, false, false, false),
+                        new SolanaAccountReference(roUAccount2, false, false, false),
+                        new SolanaAccountReference(rwUAccount3, false, true, false),
+                        new SolanaAccountReference(rwUAccount4, false, true, false)
+                ),
+                RO_U_PROGRAM1_ACCOUNT,
+                10,
+                w -> w.put(DATA1));
+
+        final List<AddressLookupTable> addressLookupTables = List.of(addressLookupTable1, addressLookupTable2, addressLookupTable3);
+        final Accounts firstMatch = SolanaAccounts.create(List.of(solanaTransactionInstruction), RW_S_PAYER_ACCOUNT, addressLookupTables);
+        final Accounts minimumSize = SolanaAccounts.create(
+                List.of(solanaTransactionInstruction),
+                RW_S_PAYER_ACCOUNT,
+                addressLookupTables,
+                LookupTableSelection.MINIMUM_SIZE
+        );
+
+        assertThat(firstMatch.getAccountLookups().size()).isEqualTo(2);
+        assertThat(minimumSize.getAccountLookups().size()).isEqualTo(1);
+        staticAccountsEqual(minimumSize.getStaticAccounts(), List.of(RW_S_PAYER_ACCOUNT, RO_U_PROGRAM1_ACCOUNT));
+        accountLookupReadWriteIndexEquals(minimumSize.getAccountLookups(), lookupTableAddress3, rwUAccount3, 1);
+        accountLookupReadWriteIndexEquals(minimumSize.getAccountLookups(), lookupTableAddress3, rwUAccount4, 0);
+        accountLookupReadOnlyIndexEquals(minimumSize.getAccountLookups(), lookupTableAddress3, roUAccount1, 3);
+        accountLookupReadOnlyIndexEquals(minimumSize.getAccountLookups(), lookupTableAddress3, roUAccount2, 2);
+        flattenedAccountListEquals(minimumSize.getFlattenedAccountList(), List.of(
+                RW_S_PAYER_ACCOUNT,
+                RO_U_PROGRAM1_ACCOUNT,
+                rwUAccount3,
+                rwUAccount4,
+                roUAccount1,
+                roUAccount2)
+        );
+    }
+
+    @Test
+    void minimumSizeNeverEncodesLargerThanFirstMatch()
+    {
+        final Random random = new Random(35);
+        final List<PublicKey> addresses = new ArrayList<>();
+        for (int i = 0; i < 120; i++)
+        {
+            addresses.add(randomAccount(random));
+        }
+
+        // eight tables are searched exhaustively, twenty greedily
+        for (final int tableCount : List.of(8, 20))
+        {
+            for (int round = 0; round < 25; round++)
+            {
+                final List<AddressLookupTable> addressLookupTables = new ArrayList<>();
+                for (int table = 0; table < tableCount; table++)
+                {
+                    final int from = random.nextInt(addresses.size() - 10);
+                    addressLookupTables.add(new SolanaAddressLookupTable(
+                            randomAccount(random),
+                            addresses.subList(from, from + 1 + random.nextInt(Math.min(40, addresses.size() - from - 1)))));
+                }
+
+                final List<TransactionInstruction> instructions = new ArrayList<>();
+                for (int instruction = 0; instruction < 6; instruction++)
+                {
+                    instructions.add(Solana.instruction(ib ->
+                    {
+                        ib.program(addresses.get(random.nextInt(3))).data(1, bb -> bb.put((byte) 1));
+                        for (int account = 0; account < 5; account++)
+                        {
+                            ib.account(addresses.get(random.nextInt(addresses.size())), random.nextInt(10) == 0, random.nextBoolean());
+                        }
+                    }));
+                }
+
+                final ByteBuffer firstMatch = encode(instructions, addressLookupTables, LookupTableSelection.FIRST_MATCH);
+                final ByteBuffer minimumSize = encode(instructions, addressLookupTables, LookupTableSelection.MINIMUM_SIZE);
+
+                assertThat(minimumSize.remaining()).isLessThanOrEqualTo(firstMatch.remaining());
+                assertThat(new HashSet<>(SolanaAccounts.create(instructions, RW_S_PAYER_ACCOUNT, addressLookupTables, LookupTableSelection.MINIMUM_SIZE)
+                        .getFlattenedAccountList()))
+                        .isEqualTo(new HashSet<>(SolanaAccounts.create(instructions, RW_S_PAYER_ACCOUNT, addressLookupTables).getFlattenedAccountList()));
+            }
+        }
+    }
+
+    private static ByteBuffer encode(
+            final List<TransactionInstruction> instructions,
+            final List<AddressLookupTable> addressLookupTables,
+            final LookupTableSelection selection)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer)
+                .v0()
+                .payer(RW_S_PAYER_ACCOUNT)
+                .recent(Solana.blockhash(BLOCKHASH))
+                .prebuiltInstructions(instructions)
+                .lookups(addressLookupTables, selection)
+                .seal()
+                .unsigned()
+                .build();
+        return buffer;
+    }
+
     private void staticAccountsEqual(final List<PublicKey> staticAccounts, final List<PublicKey> expectedAccounts)
     {
         assertThat(staticAccounts).usingRecursiveComparison().isEqualTo(expectedAccounts);
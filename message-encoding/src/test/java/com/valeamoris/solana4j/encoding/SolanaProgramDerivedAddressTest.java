@@ -9,6 +9,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 class SolanaProgramDerivedAddressTest
 {
@@ -33,10 +34,36 @@ class SolanaProgramDerivedAddressTest
 
         final SolanaAccount seed = new SolanaAccount(Base58.decode("Wd4UqPtgrnYAH6pxMrzr6aNv4CmTFgwDfPQi9BYjPt7"));
         final ProgramDerivedAddress programDerivedAddress = SolanaProgramDerivedAddress.deriveProgramAddress(
-                List.of("aString".getBytes(StandardCharsets.UTF_8), "anotherString".getBytes(StandardCharsets.UTF_8), seed.bytes),
+                List.of("aString".getBytes(StandardCharsets.UTF_8), "anotherString".getBytes(StandardCharsets.UTF_8), seed.bytes()),
                 program);
 
         AssertionsForClassTypes.assertThat(programDerivedAddress.address().base58()).isEqualTo("FiZFCNEX1WJbP1UEyr2o4uyhtEFoZc3cMyYScf6LAYDx");
         AssertionsForClassTypes.assertThat(programDerivedAddress.nonce()).isEqualTo(254);
     }
+
+    @Test
+    void shouldCreateTheProgramAddressOfAKnownBumpSeed()
+    {
+        final SolanaAccount program = new SolanaAccount(Base58.decode("FTCuVnzaBZQXGz7D5mweRnWgY4fbS8rg42SD6envtoUD"));
+        final SolanaAccount seed = new SolanaAccount(Base58.decode("Wd4UqPtgrnYAH6pxMrzr6aNv4CmTFgwDfPQi9BYjPt7"));
+        final List<byte[]> seeds = List.of("aString".getBytes(StandardCharsets.UTF_8), "anotherString".getBytes(StandardCharsets.UTF_8), seed.bytes());
+
+        final ProgramDerivedAddress programDerivedAddress = SolanaProgramDerivedAddress.createProgramAddress(seeds, 254, program);
+
+        assertThat(programDerivedAddress).isEqualTo(SolanaProgramDerivedAddress.deriveProgramAddress(seeds, program));
+        assertThat(programDerivedAddress.address().base58()).isEqualTo("FiZFCNEX1WJbP1UEyr2o4uyhtEFoZc3cMyYScf6LAYDx");
+    }
+
+    @Test
+    void shouldRejectBumpSeedsGivingAnAddressOnTheCurveOrOutOfRange()
+    {
+        final SolanaAccount program = new SolanaAccount(Base58.decode("FTCuVnzaBZQXGz7D5mweRnWgY4fbS8rg42SD6envtoUD"));
+        final SolanaAccount seed = new SolanaAccount(Base58.decode("Wd4UqPtgrnYAH6pxMrzr6aNv4CmTFgwDfPQi9BYjPt7"));
+        final List<byte[]> seeds = List.of("aString".getBytes(StandardCharsets.UTF_8), "anotherString".getBytes(StandardCharsets.UTF_8), seed.bytes());
+
+        // the derivation settled on 254, so 255 gives an address on the curve
+        assertThatThrownBy(() -> SolanaProgramDerivedAddress.createProgramAddress(seeds, 255, program)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SolanaProgramDerivedAddress.createProgramAddress(seeds, 256, program)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SolanaProgramDerivedAddress.createProgramAddress(seeds, -1, program)).isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -32,6 +32,18 @@ class SolanaShortVecTest
         assertThat(actual).isEqualTo(300);
     }
 
+    @Test
+    void shouldDecodeAnIntegerAtAnIndexWithoutMovingThePosition()
+    {
+        final var buffer = ByteBuffer.wrap(new byte[]{ 7, (byte) 0b10101100, (byte) 0b00000010, 9});
+
+        assertThat(SolanaShortVec.readInt(buffer, 1)).isEqualTo(300);
+        assertThat(SolanaShortVec.skip(buffer, 1)).isEqualTo(3);
+        assertThat(SolanaShortVec.readInt(buffer, 3)).isEqualTo(9);
+        assertThat(SolanaShortVec.skip(buffer, 3)).isEqualTo(4);
+        assertThat(buffer.position()).isEqualTo(0);
+    }
+
     @Test
     void shouldEncode()
     {
@@ -0,0 +1,142 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.PAYER;
+import static com.valeamoris.solana4j.Solana4jTestHelper.SIGNATURE_PAYER;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeComplexPartiallySignedLegacyMessage;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeComplexPartiallySignedV0Message;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeSimpleFullySignedLegacyMessage;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeSimpleFullySignedV0Message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionHeadersTest
+{
+    @Test
+    void readsTheHeaderOfALegacyTransaction()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleFullySignedLegacyMessage(buffer);
+
+        assertHeaderMatches(buffer, TransactionView.LEGACY_VERSION);
+    }
+
+    @Test
+    void readsTheHeaderOfAV0Transaction()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleFullySignedV0Message(buffer);
+
+        assertHeaderMatches(buffer, 0);
+    }
+
+    @Test
+    void readsTheTransactionIdInEveryForm()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleFullySignedV0Message(buffer);
+        final var expected = FixedWidthBase58.SIGNATURE.encode(SIGNATURE_PAYER);
+
+        final var id = new byte[66];
+        TransactionHeaders.transactionId(buffer, id, 2);
+        final var builder = new StringBuilder("id=");
+        TransactionHeaders.transactionId(buffer, builder);
+
+        assertThat(TransactionHeaders.transactionId(buffer)).isEqualTo(expected);
+        assertThat(FixedWidthBase58.SIGNATURE.encode(id, 2)).isEqualTo(expected);
+        assertThat(builder.toString()).isEqualTo("id=" + expected);
+        assertThatThrownBy(() -> TransactionHeaders.transactionId(buffer, new byte[64], 1))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void reportsWhetherEverySignatureIsPresent()
+    {
+        final var partial = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedV0Message(partial);
+        assertThat(TransactionHeaders.isFullySigned(partial)).isFalse();
+
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleFullySignedV0Message(buffer);
+        assertThat(TransactionHeaders.isFullySigned(buffer)).isTrue();
+
+        final var view = new TransactionView().wrap(buffer);
+        for (int i = 0; i < 64; i++)
+        {
+            buffer.put(view.signatureOffset(view.signatureCount() - 1) + i, (byte) 0);
+        }
+        assertThat(TransactionHeaders.isFullySigned(buffer)).isFalse();
+        assertThat(TransactionHeaders.isFullySigned(ByteBuffer.wrap(new byte[]{0, 1, 0, 0}))).isFalse();
+    }
+
+    @Test
+    void leavesTheBufferAsItIs()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedLegacyMessage(buffer);
+        final int position = buffer.position();
+        final int limit = buffer.limit();
+
+        TransactionHeaders.transactionId(buffer, new StringBuilder());
+        TransactionHeaders.feePayer(buffer);
+        TransactionHeaders.messageBodySlice(buffer);
+        TransactionHeaders.isFullySigned(buffer);
+
+        assertThat(buffer.position()).isEqualTo(position);
+        assertThat(buffer.limit()).isEqualTo(limit);
+    }
+
+    @Test
+    void rejectsMalformedTransactions()
+    {
+        assertThatThrownBy(() -> TransactionHeaders.transactionId(ByteBuffer.wrap(new byte[]{1, 0, 0})))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+        assertThatThrownBy(() -> TransactionHeaders.transactionId(ByteBuffer.wrap(new byte[]{0, 1, 0, 0})))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+        assertThatThrownBy(() -> TransactionHeaders.feePayer(ByteBuffer.wrap(new byte[]{0, 1, 0, 0, 0})))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+        assertThatThrownBy(() -> TransactionHeaders.messageVersion(ByteBuffer.wrap(new byte[]{0, (byte) 0x81})))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("unsupported message format");
+        // one signature, but a message signed by two of its one account
+        assertThatThrownBy(() -> TransactionHeaders.signerAccountsOffset(ByteBuffer.wrap(withSignature(new byte[]{2, 0, 0, 1}))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+        // a signature count wider than a compact-u16
+        assertThatThrownBy(() -> TransactionHeaders.signatureCount(ByteBuffer.wrap(new byte[]{(byte) 0xff, (byte) 0xff, (byte) 0xff, 0x7f})))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+    }
+
+    private static byte[] withSignature(final byte[] message)
+    {
+        final var transaction = ByteBuffer.allocate(1 + 64 + message.length + 32);
+        transaction.put((byte) 1).put(new byte[64]).put(message).put(new byte[32]);
+        return transaction.array();
+    }
+
+    private static void assertHeaderMatches(final ByteBuffer buffer, final int version)
+    {
+        final MessageVisitor.MessageView message = SolanaMessageView.fromBuffer(buffer.duplicate());
+        final var view = new TransactionView().wrap(buffer);
+
+        assertThat(TransactionHeaders.signatureCount(buffer)).isEqualTo(message.countAccountsSigned());
+        assertThat(TransactionHeaders.messageVersion(buffer)).isEqualTo(version);
+        assertThat(TransactionHeaders.messageOffset(buffer)).isEqualTo(view.messageOffset());
+        assertThat(TransactionHeaders.messageBodySlice(buffer)).isEqualTo(message.transaction());
+        assertThat(TransactionHeaders.feePayer(buffer)).isEqualTo(Solana.account(PAYER));
+        assertThat(TransactionHeaders.feePayerOffset(buffer)).isEqualTo(view.accountOffset(0));
+        assertThat(TransactionHeaders.transactionIdOffset(buffer)).isEqualTo(view.signatureOffset(0));
+        assertThat(TransactionHeaders.isFullySigned(buffer)).isTrue();
+        assertThat(TransactionHeaders.signaturesOffset(buffer)).isEqualTo(view.signatureOffset(0));
+        assertThat(TransactionHeaders.signerAccountsOffset(buffer)).isEqualTo(view.accountOffset(0));
+    }
+}
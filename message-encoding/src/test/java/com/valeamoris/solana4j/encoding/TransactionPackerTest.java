@@ -0,0 +1,237 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.programs.ComputeBudgetProgram;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import com.valeamoris.solana4j.programs.TokenProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.BLOCKHASH;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccounts;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionPackerTest
+{
+    private static final int OVERSIZED_BUFFER = 4 * Solana.MAX_MESSAGE_SIZE;
+
+    private final Random random = new Random(7);
+    private final PublicKey payer = randomAccount(random);
+    private final List<PublicKey> accounts = randomAccounts(random, 200);
+
+    @Test
+    void computesEncodedSizeOfLegacyTransactionExactly()
+    {
+        final var added = new ArrayList<TransactionInstruction>();
+        final var packer = TransactionPacker.builder(payer).build(batch -> added.clear());
+
+        for (int i = 0; i < 40; i++)
+        {
+            final var instruction = randomInstruction(40);
+            packer.add(instruction);
+            added.add(instruction);
+
+            assertThat(packer.encodedSize()).isEqualTo(encodedSize(packer, added));
+        }
+    }
+
+    @Test
+    void computesEncodedSizeOfVersion0TransactionExactly()
+    {
+        final var lookupTables = List.of(
+                Solana.addressLookupTable(randomAccount(random), accounts.subList(0, 60)),
+                Solana.addressLookupTable(randomAccount(random), accounts.subList(40, 120)));
+        final var added = new ArrayList<TransactionInstruction>();
+        final var packer = TransactionPacker.builder(payer).v0(lookupTables).maxAccountLocks(256).build(batch -> added.clear());
+
+        for (int i = 0; i < 40; i++)
+        {
+            final var instruction = randomInstruction(150);
+            packer.add(instruction);
+            added.add(instruction);
+
+            assertThat(packer.encodedSize()).isEqualTo(encodedSize(packer, added));
+        }
+    }
+
+    @Test
+    void fillsEveryTransactionToCapacity()
+    {
+        final var batches = new ArrayList<List<TransactionInstruction>>();
+        final var packer = TransactionPacker.builder(payer).build(batches::add);
+        final var instructions = new ArrayList<TransactionInstruction>();
+        for (int i = 0; i < 500; i++)
+        {
+            instructions.add(SystemProgram.transfer(payer, accounts.get(random.nextInt(accounts.size())), 1 + random.nextInt(1_000)));
+        }
+
+        instructions.forEach(packer::add);
+        packer.flush();
+
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(instructions.size());
+        int next = 0;
+        for (final var batch : batches)
+        {
+            assertThat(batch).isEqualTo(instructions.subList(next, next + batch.size()));
+            next += batch.size();
+
+            assertThat(encodedSize(packer, batch)).isLessThanOrEqualTo(Solana.MAX_MESSAGE_SIZE);
+            if (next < instructions.size())
+            {
+                final var overfull = new ArrayList<>(batch);
+                overfull.add(instructions.get(next));
+                assertThat(encodedSize(packer, overfull) > Solana.MAX_MESSAGE_SIZE
+                        || accountCount(packer, overfull) > TransactionPacker.DEFAULT_MAX_ACCOUNT_LOCKS).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void respectsAccountLockLimit()
+    {
+        final var batches = new ArrayList<List<TransactionInstruction>>();
+        final var packer = TransactionPacker.builder(payer).maxAccountLocks(10).build(batches::add);
+
+        for (int i = 0; i < 12; i++)
+        {
+            packer.add(SystemProgram.transfer(payer, accounts.get(i), 1));
+        }
+        packer.flush();
+
+        // payer and system program leave room for eight recipients
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(8);
+        assertThat(batches.get(1)).hasSize(4);
+    }
+
+    @Test
+    void keepsAtomicGroupsTogether()
+    {
+        final var batches = new ArrayList<List<TransactionInstruction>>();
+        final var packer = TransactionPacker.builder(payer).build(batches::add);
+        final var groups = new ArrayList<List<TransactionInstruction>>();
+        for (int i = 0; i < 60; i++)
+        {
+            final var source = accounts.get(random.nextInt(accounts.size()));
+            final var destination = accounts.get(random.nextInt(accounts.size()));
+            groups.add(List.of(
+                    SystemProgram.transfer(payer, source, 2_039_280),
+                    Solana.instruction(ib -> ib
+                            .program(TokenProgram.PROGRAM_ACCOUNT)
+                            .account(source, false, true)
+                            .account(destination, false, true)
+                            .account(payer, true, false)
+                            .data(9, bb -> bb.put((byte) 3).putLong(10)))));
+        }
+
+        groups.forEach(packer::addAtomic);
+        packer.flush();
+
+        assertThat(batches.size()).isGreaterThan(1);
+        for (final var batch : batches)
+        {
+            assertThat(batch.size() % 2).isEqualTo(0);
+            for (int i = 0; i < batch.size(); i += 2)
+            {
+                assertThat(groups).contains(List.of(batch.get(i), batch.get(i + 1)));
+            }
+        }
+    }
+
+    @Test
+    void startsEveryTransactionWithPreamble()
+    {
+        final var batches = new ArrayList<List<TransactionInstruction>>();
+        final var preamble = List.of(ComputeBudgetProgram.setComputeUnitLimit(200_000), ComputeBudgetProgram.setComputeUnitPrice(1_000));
+        final var packer = TransactionPacker.builder(payer).preamble(preamble).build(batches::add);
+
+        for (int i = 0; i < 100; i++)
+        {
+            packer.add(SystemProgram.transfer(payer, accounts.get(i), 1));
+        }
+        packer.flush();
+        packer.flush();
+
+        assertThat(batches.size()).isGreaterThan(1);
+        for (final var batch : batches)
+        {
+            assertThat(batch.subList(0, 2)).isEqualTo(preamble);
+            assertThat(batch.size()).isGreaterThan(2);
+            assertThat(encodedSize(packer, batch)).isLessThanOrEqualTo(Solana.MAX_MESSAGE_SIZE);
+        }
+    }
+
+    @Test
+    void encodesBatchWithPayerAndLookupTables()
+    {
+        final var lookupTables = List.of(Solana.addressLookupTable(randomAccount(random), accounts.subList(0, 100)));
+        final var batches = new ArrayList<List<TransactionInstruction>>();
+        final var packer = TransactionPacker.builder(payer).v0(lookupTables).build(batches::add);
+        for (int i = 0; i < 100; i++)
+        {
+            packer.add(SystemProgram.transfer(payer, accounts.get(i), 1));
+        }
+        packer.flush();
+
+        final var message = packer.encode(batches.get(0), Solana.blockhash(BLOCKHASH), ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE));
+
+        message.accept(view ->
+        {
+            assertThat(view.feePayer()).isEqualTo(payer);
+            assertThat(((MessageVisitor.Version0MessageView) view).accountLookups()).hasSize(1);
+            return null;
+        });
+    }
+
+    @Test
+    void rejectsInstructionsThatCannotFitAlone()
+    {
+        final var packer = TransactionPacker.builder(payer).build(batch -> { });
+        final var oversized = Solana.instruction(ib -> ib
+                .program(SystemProgram.SYSTEM_PROGRAM_ACCOUNT)
+                .data(Solana.MAX_MESSAGE_SIZE, bb -> bb.put(new byte[Solana.MAX_MESSAGE_SIZE])));
+
+        assertThatThrownBy(() -> packer.add(oversized)).isInstanceOf(IllegalArgumentException.class);
+
+        packer.add(SystemProgram.transfer(payer, accounts.get(0), 1));
+        assertThatThrownBy(() -> packer.add(oversized)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TransactionInstruction randomInstruction(final int accountRange)
+    {
+        final int accountCount = random.nextInt(6);
+        final int dataLength = random.nextInt(40);
+        final var program = accounts.get(accounts.size() - 1 - random.nextInt(3));
+        return Solana.instruction(ib ->
+        {
+            ib.program(program);
+            for (int i = 0; i < accountCount; i++)
+            {
+                ib.account(accounts.get(random.nextInt(accountRange)), random.nextInt(8) == 0, random.nextBoolean());
+            }
+            ib.data(dataLength, bb -> bb.put(new byte[dataLength]));
+        });
+    }
+
+    private static int encodedSize(final TransactionPacker packer, final List<TransactionInstruction> instructions)
+    {
+        final var buffer = ByteBuffer.allocate(OVERSIZED_BUFFER);
+        packer.encode(instructions, Solana.blockhash(BLOCKHASH), buffer);
+        return buffer.remaining();
+    }
+
+    private static int accountCount(final TransactionPacker packer, final List<TransactionInstruction> instructions)
+    {
+        return packer.encode(instructions, Solana.blockhash(BLOCKHASH), ByteBuffer.allocate(OVERSIZED_BUFFER))
+                .accept(view -> view.staticAccounts().size());
+    }
+}
@@ -0,0 +1,157 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.Blockhash;
+import com.valeamoris.solana4j.api.ByteBufferSigner;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.programs.SystemProgram;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionTemplateTest
+{
+    private final Random random = new Random(38);
+    private final PublicKey payer = randomAccount(random);
+    private final PublicKey recipient = randomAccount(random);
+    private final PublicKey otherRecipient = randomAccount(random);
+    private final Blockhash blockhash = Solana.blockhash(randomAccount(random).bytes());
+    private final Blockhash otherBlockhash = Solana.blockhash(randomAccount(random).bytes());
+
+    @Test
+    void patchesBlockhashAndAmountToMatchAFreshlyBuiltTransaction()
+    {
+        final var template = TransactionTemplate.of(legacyTransfer(recipient, 1, blockhash));
+        final var amount = template.field(0, 4, 8);
+
+        final var buffer = template.copyTo(ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE));
+        template.blockhash(buffer, otherBlockhash);
+        amount.putLong(buffer, 1_000_000_007L);
+
+        assertThat(bytes(buffer)).isEqualTo(bytes(legacyTransfer(recipient, 1_000_000_007L, otherBlockhash)));
+    }
+
+    @Test
+    void patchesAccountsOfVersion0Transactions()
+    {
+        final AddressLookupTable lookupTable = Solana.addressLookupTable(randomAccount(random), List.of(randomAccount(random), SystemProgram.SYSTEM_PROGRAM_ACCOUNT));
+        final var template = TransactionTemplate.of(v0Transfer(recipient, 5, lookupTable));
+        final var buffer = template.copyTo(ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE));
+
+        template.account(buffer, 1, otherRecipient);
+        template.field(0, 4, 8).putLong(buffer, 6);
+
+        assertThat(bytes(buffer)).isEqualTo(bytes(v0Transfer(otherRecipient, 6, lookupTable)));
+    }
+
+    @Test
+    void signsInPlaceAsTheSigningBuilderDoes()
+    {
+        final var template = TransactionTemplate.of(legacyTransfer(recipient, 10, blockhash));
+        final var buffer = ByteBuffer.allocate(2 * Solana.MAX_MESSAGE_SIZE);
+        buffer.position(300);
+        template.copyTo(buffer);
+        template.sign(buffer, 0, DIGEST_SIGNER);
+
+        final var expected = legacyTransfer(recipient, 10, blockhash);
+        Solana.forSigning(expected).by(payer, DIGEST_SIGNER).build();
+
+        assertThat(buffer.position()).isEqualTo(300);
+        assertThat(bytes(buffer)).isEqualTo(bytes(expected));
+    }
+
+    @Test
+    void recordsOffsetsOfEveryPatchableSection()
+    {
+        final var transaction = legacyTransfer(recipient, 10, blockhash);
+        final var template = TransactionTemplate.of(transaction);
+
+        assertThat(template.length()).isEqualTo(transaction.remaining());
+        assertThat(template.signatureCount()).isEqualTo(1);
+        assertThat(template.signatureOffset(0)).isEqualTo(1);
+        assertThat(template.messageOffset()).isEqualTo(65);
+        assertThat(template.accountOffset(0)).isEqualTo(69);
+        assertThat(template.blockhashOffset()).isEqualTo(69 + 3 * 32);
+        assertThat(slice(transaction, template.accountOffset(1), 32)).isEqualTo(recipient.bytes());
+        assertThat(slice(transaction, template.instructionDataOffset(0), 4)).isEqualTo(new byte[]{2, 0, 0, 0});
+    }
+
+    @Test
+    void rejectsFieldsOutsideInstructionDataAndMalformedTransactions()
+    {
+        final var template = TransactionTemplate.of(legacyTransfer(recipient, 10, blockhash));
+
+        assertThatThrownBy(() -> template.field(0, 8, 8)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> template.field(1, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> template.accountOffset(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TransactionTemplate.of(ByteBuffer.wrap(new byte[]{1, 2, 3}))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ByteBuffer legacyTransfer(final PublicKey to, final long lamports, final Blockhash recent)
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer)
+                .legacy()
+                .payer(payer)
+                .recent(recent)
+                .prebuiltInstructions(List.of(SystemProgram.transfer(payer, to, lamports)))
+                .seal()
+                .unsigned()
+                .build();
+        return buffer;
+    }
+
+    private ByteBuffer v0Transfer(final PublicKey to, final long lamports, final AddressLookupTable lookupTable)
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer)
+                .v0()
+                .payer(payer)
+                .recent(blockhash)
+                .prebuiltInstructions(List.of(SystemProgram.transfer(payer, to, lamports)))
+                .lookups(List.of(lookupTable))
+                .seal()
+                .unsigned()
+                .build();
+        return buffer;
+    }
+
+    private static final ByteBufferSigner DIGEST_SIGNER = (transaction, signature) ->
+    {
+        try
+        {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-512");
+            digest.update(transaction);
+            signature.put(digest.digest());
+        }
+        catch (final Exception e)
+        {
+            throw new IllegalStateException(e);
+        }
+    };
+
+    private static byte[] slice(final ByteBuffer buffer, final int offset, final int length)
+    {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = buffer.get(buffer.position() + offset + i);
+        }
+        return bytes;
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
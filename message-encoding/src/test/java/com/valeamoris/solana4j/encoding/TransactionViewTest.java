@@ -0,0 +1,223 @@
+package com.valeamoris.solana4j.encoding;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKeySet;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT3;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeComplexPartiallySignedLegacyMessage;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeComplexPartiallySignedV0Message;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeSimpleFullySignedLegacyMessage;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeSimpleFullySignedV0Message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionViewTest
+{
+    @Test
+    void readsTheSameLegacyMessageAsTheMessageView()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedLegacyMessage(buffer);
+
+        final var view = new TransactionView().wrap(buffer);
+
+        assertThat(view.messageVersion()).isEqualTo(TransactionView.LEGACY_VERSION);
+        assertThat(view.lookupCount()).isEqualTo(0);
+        assertMatches(view, SolanaMessageView.fromBuffer(buffer));
+    }
+
+    @Test
+    void readsTheSameV0MessageAsTheMessageView()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedV0Message(buffer);
+
+        final var view = new TransactionView().wrap(buffer);
+        final var message = (MessageVisitor.Version0MessageView) SolanaMessageView.fromBuffer(buffer);
+
+        assertThat(view.messageVersion()).isEqualTo(0);
+        assertMatches(view, message);
+        assertThat(view.lookupCount()).isEqualTo(message.accountLookups().size());
+        for (int l = 0; l < view.lookupCount(); l++)
+        {
+            final var lookup = message.accountLookups().get(l);
+            assertThat(accountAt(buffer, view.lookupTableOffset(l))).isEqualTo(lookup.accountLookup());
+            final var writable = new ArrayList<Integer>();
+            for (int i = 0; i < view.lookupWritableCount(l); i++)
+            {
+                writable.add(view.lookupWritableIndex(l, i));
+            }
+            final var readOnly = new ArrayList<Integer>();
+            for (int i = 0; i < view.lookupReadOnlyCount(l); i++)
+            {
+                readOnly.add(view.lookupReadOnlyIndex(l, i));
+            }
+            assertThat(writable).isEqualTo(lookup.readWriteTableIndexes());
+            assertThat(readOnly).isEqualTo(lookup.readOnlyTableIndexes());
+        }
+    }
+
+    @Test
+    void canBeRewrappedAroundAnotherTransaction()
+    {
+        final var v0 = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleFullySignedV0Message(v0);
+        final var legacy = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleFullySignedLegacyMessage(legacy);
+        final var view = new TransactionView();
+
+        assertMatches(view.wrap(v0), SolanaMessageView.fromBuffer(v0.duplicate()));
+        assertMatches(view.wrap(legacy), SolanaMessageView.fromBuffer(legacy.duplicate()));
+        assertThat(view.lookupCount()).isEqualTo(0);
+        assertMatches(view.wrap(v0), SolanaMessageView.fromBuffer(v0.duplicate()));
+    }
+
+    @Test
+    void findsAccountsInPlace()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedLegacyMessage(buffer);
+        final var watched = PublicKeySet.withExpectedSize(2);
+        watched.add(Solana.account(ACCOUNT1));
+        watched.add(Solana.account(ACCOUNT3));
+
+        final var view = new TransactionView().wrap(buffer);
+        final var found = new ArrayList<Integer>();
+        for (int i = 0; i < view.staticAccountCount(); i++)
+        {
+            if (watched.contains(buffer, view.accountOffset(i)))
+            {
+                found.add(i);
+            }
+        }
+
+        assertThat(found).hasSize(2);
+        for (final int index : found)
+        {
+            assertThat(watched.contains(view.account(index))).isTrue();
+        }
+    }
+
+    @Test
+    void leavesTheBufferAsItIs()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedV0Message(buffer);
+        final int position = buffer.position();
+        final int limit = buffer.limit();
+
+        final var view = new TransactionView().wrap(buffer);
+        view.instructionData(0);
+        view.account(0);
+
+        assertThat(buffer.position()).isEqualTo(position);
+        assertThat(buffer.limit()).isEqualTo(limit);
+    }
+
+    @Test
+    void rejectsMalformedTransactions()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedV0Message(buffer);
+        final var view = new TransactionView();
+
+        assertThatThrownBy(() -> view.wrap(buffer.duplicate().limit(buffer.limit() - 1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+        assertThatThrownBy(() -> view.wrap(ByteBuffer.wrap(new byte[]{2, 0, 0})))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+
+        final var unsupported = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeComplexPartiallySignedV0Message(unsupported);
+        final int versionOffset = view.wrap(unsupported).messageOffset();
+        unsupported.put(versionOffset, (byte) 0x81);
+        assertThatThrownBy(() -> view.wrap(unsupported))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("unsupported message format");
+    }
+
+    @Test
+    void rejectsCountsTheRemainingBytesCannotHold()
+    {
+        final var legacy = ByteBuffer.allocate(1 + 64 + 3 + 1 + 32 + 32 + 3);
+        legacy.put((byte) 1).put(new byte[64]).put((byte) 1).put((byte) 0).put((byte) 0).put((byte) 1).put(new byte[64]);
+        legacy.put((byte) 0xff).put((byte) 0xff).put((byte) 0x7f).flip();
+        final var view = new TransactionView();
+
+        assertThatThrownBy(() -> view.wrap(legacy))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+
+        final var v0 = ByteBuffer.allocate(1 + 64 + 4 + 1 + 32 + 32 + 1 + 3);
+        v0.put((byte) 1).put(new byte[64]).put((byte) 0x80).put((byte) 1).put((byte) 0).put((byte) 0).put((byte) 1).put(new byte[64]);
+        v0.put((byte) 0).put((byte) 0xff).put((byte) 0xff).put((byte) 0x7f).flip();
+
+        assertThatThrownBy(() -> view.wrap(v0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("message is malformed");
+    }
+
+    private static void assertMatches(final TransactionView view, final MessageVisitor.MessageView message)
+    {
+        final var buffer = view.buffer();
+        assertThat(view.countAccountsSigned()).isEqualTo(message.countAccountsSigned());
+        assertThat(view.countAccountsSignedReadOnly()).isEqualTo(message.countAccountsSignedReadOnly());
+        assertThat(view.countAccountsUnsignedReadOnly()).isEqualTo(message.countAccountsUnsignedReadOnly());
+        assertThat(view.signatureCount()).isEqualTo(message.countAccountsSigned());
+        assertThat(view.messageOffset() + view.messageLength()).isEqualTo(buffer.limit());
+
+        final var accounts = message.staticAccounts();
+        assertThat(view.staticAccountCount()).isEqualTo(accounts.size());
+        for (int i = 0; i < accounts.size(); i++)
+        {
+            assertThat(view.account(i)).isEqualTo(accounts.get(i));
+            assertThat(accountAt(buffer, view.accountOffset(i))).isEqualTo(accounts.get(i));
+        }
+        assertThat(slice(buffer, view.signatureOffset(0), 64)).isEqualTo(message.signature(message.feePayer()));
+        assertThat(Solana.blockhash(bytes(buffer, view.blockhashOffset(), 32))).isEqualTo(message.recentBlockHash());
+
+        final List<? extends MessageVisitor.InstructionView> instructions = message instanceof MessageVisitor.Version0MessageView
+                ? ((MessageVisitor.Version0MessageView) message).instructions()
+                : ((MessageVisitor.LegacyMessageView) message).instructions();
+        assertThat(view.instructionCount()).isEqualTo(instructions.size());
+        for (int ix = 0; ix < instructions.size(); ix++)
+        {
+            final var instruction = instructions.get(ix);
+            assertThat(view.programIndex(ix)).isEqualTo(instruction.programIndex());
+            final var indexes = new ArrayList<Integer>();
+            for (int i = 0; i < view.instructionAccountCount(ix); i++)
+            {
+                indexes.add(view.accountIndex(ix, i));
+            }
+            assertThat(indexes).isEqualTo(instruction.accountIndexes());
+            assertThat(view.instructionData(ix)).isEqualTo(instruction.data());
+            assertThat(view.instructionData(ix)).isSameAs(view.instructionData(0));
+            assertThat(view.instructionDataLength(ix)).isEqualTo(instruction.data().remaining());
+        }
+    }
+
+    private static Object accountAt(final ByteBuffer buffer, final int offset)
+    {
+        return Solana.account(bytes(buffer, offset, 32));
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length)
+    {
+        return ByteBuffer.wrap(bytes(buffer, offset, length));
+    }
+
+    private static byte[] bytes(final ByteBuffer buffer, final int offset, final int length)
+    {
+        final var bytes = new byte[length];
+        buffer.duplicate().position(offset).get(bytes);
+        return bytes;
+    }
+}
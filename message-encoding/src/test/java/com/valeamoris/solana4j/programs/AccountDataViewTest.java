@@ -0,0 +1,264 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT2;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT3;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT4;
+import static com.valeamoris.solana4j.Solana4jTestHelper.BLOCKHASH;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AccountDataViewTest
+{
+    private static final PublicKey KEY1 = Solana.account(ACCOUNT1);
+    private static final PublicKey KEY2 = Solana.account(ACCOUNT2);
+    private static final PublicKey KEY3 = Solana.account(ACCOUNT3);
+    private static final PublicKey KEY4 = Solana.account(ACCOUNT4);
+
+    @Test
+    void readsTokenAccountFields()
+    {
+        final ByteBuffer data = tokenAccount(KEY1, KEY2, 1_500_000_000L, KEY3, 1, 2_039_280L, 7L, KEY4);
+
+        final TokenAccountView view = new TokenAccountView().wrap(data);
+
+        assertThat(view.mint()).isEqualTo(KEY1);
+        assertThat(view.isMint(KEY1)).isTrue();
+        assertThat(view.isMint(KEY2)).isFalse();
+        assertThat(view.owner()).isEqualTo(KEY2);
+        assertThat(view.isOwner(KEY2)).isTrue();
+        assertThat(view.amount()).isEqualTo(1_500_000_000L);
+        assertThat(view.delegate()).isEqualTo(KEY3);
+        assertThat(view.state()).isEqualTo(TokenAccountView.State.INITIALIZED);
+        assertThat(view.isNative()).isTrue();
+        assertThat(view.rentExemptReserve()).isEqualTo(2_039_280L);
+        assertThat(view.delegatedAmount()).isEqualTo(7L);
+        assertThat(view.closeAuthority()).isEqualTo(KEY4);
+        assertThat(view.isExtended()).isFalse();
+        assertThat(data.position()).isZero();
+    }
+
+    @Test
+    void readsAbsentOptionalTokenAccountFields()
+    {
+        final TokenAccountView view = new TokenAccountView().wrap(tokenAccount(KEY1, KEY2, -1L, null, 2, 0, 0, null));
+
+        assertThat(view.amount()).isEqualTo(-1L);
+        assertThat(view.delegate()).isNull();
+        assertThat(view.state()).isEqualTo(TokenAccountView.State.FROZEN);
+        assertThat(view.isNative()).isFalse();
+        assertThat(view.rentExemptReserve()).isZero();
+        assertThat(view.closeAuthority()).isNull();
+    }
+
+    @Test
+    void writesPublicKeysIntoDestinationBuffer()
+    {
+        final TokenAccountView view = new TokenAccountView().wrap(tokenAccount(KEY1, KEY2, 0, null, 1, 0, 0, null));
+        final ByteBuffer destination = ByteBuffer.allocate(64);
+
+        view.writeMint(destination);
+        view.writeOwner(destination);
+
+        assertThat(Arrays.copyOfRange(destination.array(), 0, 32)).isEqualTo(ACCOUNT1);
+        assertThat(Arrays.copyOfRange(destination.array(), 32, 64)).isEqualTo(ACCOUNT2);
+    }
+
+    @Test
+    void isReusableAcrossAccountsAndHonoursBufferPositionAndOrder()
+    {
+        final TokenAccountView view = new TokenAccountView();
+
+        assertThat(view.wrap(tokenAccount(KEY1, KEY2, 10, null, 1, 0, 0, null)).amount()).isEqualTo(10);
+
+        final ByteBuffer second = tokenAccount(KEY3, KEY4, 20, null, 1, 0, 0, null);
+        final ByteBuffer shifted = ByteBuffer.allocate(second.remaining() + 3).order(ByteOrder.BIG_ENDIAN);
+        shifted.position(3);
+        shifted.put(second);
+        shifted.position(3);
+
+        view.wrap(shifted);
+
+        assertThat(view.mint()).isEqualTo(KEY3);
+        assertThat(view.amount()).isEqualTo(20);
+        assertThat(shifted.order()).isEqualTo(ByteOrder.BIG_ENDIAN);
+        assertThat(shifted.position()).isEqualTo(3);
+    }
+
+    @Test
+    void findsToken2022Extensions()
+    {
+        final ByteBuffer data = ByteBuffer.allocate(TokenProgram.ACCOUNT_LAYOUT_SPAN + 1 + 4 + 8 + 4 + 1).order(ByteOrder.LITTLE_ENDIAN);
+        data.put(tokenAccount(KEY1, KEY2, 5, null, 1, 0, 0, null));
+        data.put((byte) TokenAccountView.ACCOUNT_TYPE_ACCOUNT);
+        data.putShort((short) 1).putShort((short) 8).putLong(42L);
+        data.putShort((short) 7).putShort((short) 1).put((byte) 1);
+        data.flip();
+
+        final TokenAccountView view = new TokenAccountView().wrap(data);
+
+        assertThat(view.isExtended()).isTrue();
+        assertThat(view.accountType()).isEqualTo(TokenAccountView.ACCOUNT_TYPE_ACCOUNT);
+        assertThat(view.amount()).isEqualTo(5);
+        assertThat(view.extensionOffset(1)).isEqualTo(TokenProgram.ACCOUNT_LAYOUT_SPAN + 1 + 4);
+        assertThat(view.extensionLength(1)).isEqualTo(8);
+        assertThat(data.getLong(view.extensionOffset(1))).isEqualTo(42L);
+        assertThat(view.extensionOffset(7)).isEqualTo(TokenProgram.ACCOUNT_LAYOUT_SPAN + 1 + 4 + 8 + 4);
+        assertThat(view.extensionOffset(9)).isEqualTo(-1);
+        assertThat(view.extensionLength(9)).isEqualTo(-1);
+    }
+
+    @Test
+    void readsMintFields()
+    {
+        final ByteBuffer data = ByteBuffer.allocate(TokenProgram.MINT_LAYOUT_SPAN).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(1).put(ACCOUNT1);
+        data.putLong(999_999_999_999L);
+        data.put((byte) 6);
+        data.put((byte) 1);
+        data.putInt(0).put(new byte[32]);
+        data.flip();
+
+        final MintView view = new MintView().wrap(data);
+
+        assertThat(view.mintAuthority()).isEqualTo(KEY1);
+        assertThat(view.supply()).isEqualTo(999_999_999_999L);
+        assertThat(view.decimals()).isEqualTo(6);
+        assertThat(view.isInitialized()).isTrue();
+        assertThat(view.freezeAuthority()).isNull();
+        assertThat(view.accountType()).isZero();
+    }
+
+    @Test
+    void readsNonceAccountFields()
+    {
+        final byte[] nonceAccount = nonceAccount();
+
+        final NonceAccountView view = new NonceAccountView().wrap(ByteBuffer.wrap(nonceAccount));
+
+        assertThat(view.version()).isEqualTo(1);
+        assertThat(view.isInitialized()).isTrue();
+        assertThat(view.authority()).isEqualTo(KEY1);
+        assertThat(view.nonce().bytes()).isEqualTo(BLOCKHASH);
+        final ByteBuffer blockhash = ByteBuffer.allocate(32);
+        view.blockhash().write(blockhash);
+        assertThat(blockhash.array()).isEqualTo(BLOCKHASH);
+        assertThat(view.lamportsPerSignature()).isEqualTo(5000L);
+        assertThat(SystemProgram.getNonceAccountValue(nonceAccount).bytes()).isEqualTo(BLOCKHASH);
+    }
+
+    @Test
+    void readsTheNonceValueFromDataEndingAtTheNonce()
+    {
+        final byte[] nonceAccount = Arrays.copyOf(nonceAccount(), 72);
+
+        assertThat(SystemProgram.getNonceAccountValue(nonceAccount).bytes()).isEqualTo(BLOCKHASH);
+        assertThatThrownBy(() -> SystemProgram.getNonceAccountValue(Arrays.copyOf(nonceAccount, 71)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsAddressLookupTableFields()
+    {
+        final ByteBuffer data = ByteBuffer.allocate(AddressLookupTableProgram.LOOKUP_TABLE_META_SIZE + 3 * 32).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(1).putLong(-1L).putLong(341_197_001L).put((byte) 2).put((byte) 1).put(ACCOUNT4).putShort((short) 0);
+        data.put(ACCOUNT1).put(ACCOUNT2).put(ACCOUNT3);
+        data.flip();
+
+        final AddressLookupTableView view = new AddressLookupTableView().wrap(data);
+
+        assertThat(view.type()).isEqualTo(1);
+        assertThat(view.isActive()).isTrue();
+        assertThat(view.lastExtendedSlot()).isEqualTo(341_197_001L);
+        assertThat(view.lastExtendedSlotStartIndex()).isEqualTo(2);
+        assertThat(view.authority()).isEqualTo(KEY4);
+        assertThat(view.addressCount()).isEqualTo(3);
+        assertThat(view.address(1)).isEqualTo(KEY2);
+        assertThat(view.indexOf(KEY3)).isEqualTo(2);
+        assertThat(view.indexOf(KEY4)).isEqualTo(-1);
+        assertThat(view.addresses()).containsExactly(KEY1, KEY2, KEY3);
+        assertThatThrownBy(() -> view.address(3)).isInstanceOf(IndexOutOfBoundsException.class);
+
+        assertThat(AddressLookupTableProgram.deserializeAddressLookupTable(KEY4, data.array()).getAddresses()).containsExactly(KEY1, KEY2, KEY3);
+    }
+
+    @Test
+    void readsTokenMetadataFields()
+    {
+        final ByteBuffer data = ByteBuffer.allocate(400).order(ByteOrder.LITTLE_ENDIAN);
+        data.put((byte) 4).put(ACCOUNT1).put(ACCOUNT2);
+        putPaddedString(data, "MILLIONSY", 32);
+        putPaddedString(data, "MM", 10);
+        putPaddedString(data, "https://example.com/m.json", 200);
+        data.putShort((short) 500);
+        data.flip();
+
+        final TokenMetadataView view = new TokenMetadataView().wrap(data);
+
+        assertThat(view.key()).isEqualTo(4);
+        assertThat(view.updateAuthority()).isEqualTo(KEY1);
+        assertThat(view.mint()).isEqualTo(KEY2);
+        assertThat(view.name()).isEqualTo("MILLIONSY");
+        assertThat(view.symbol()).isEqualTo("MM");
+        assertThat(view.uri()).isEqualTo("https://example.com/m.json");
+        assertThat(view.sellerFeeBasisPoints()).isEqualTo(500);
+    }
+
+    @Test
+    void rejectsDataShorterThanTheLayout()
+    {
+        assertThatThrownBy(() -> new TokenAccountView().wrap(ByteBuffer.allocate(TokenProgram.ACCOUNT_LAYOUT_SPAN - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new NonceAccountView().wrap(ByteBuffer.allocate(SystemProgram.NONCE_ACCOUNT_LENGTH - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteBuffer tokenAccount(
+            final PublicKey mint,
+            final PublicKey owner,
+            final long amount,
+            final PublicKey delegate,
+            final int state,
+            final long nativeReserve,
+            final long delegatedAmount,
+            final PublicKey closeAuthority)
+    {
+        final ByteBuffer data = ByteBuffer.allocate(TokenProgram.ACCOUNT_LAYOUT_SPAN).order(ByteOrder.LITTLE_ENDIAN);
+        data.put(mint.bytes()).put(owner.bytes()).putLong(amount);
+        putOptionalKey(data, delegate);
+        data.put((byte) state);
+        data.putInt(nativeReserve == 0 ? 0 : 1).putLong(nativeReserve);
+        data.putLong(delegatedAmount);
+        putOptionalKey(data, closeAuthority);
+        data.flip();
+        return data;
+    }
+
+    private static void putOptionalKey(final ByteBuffer data, final PublicKey key)
+    {
+        data.putInt(key == null ? 0 : 1).put(key == null ? new byte[32] : key.bytes());
+    }
+
+    private static byte[] nonceAccount()
+    {
+        final ByteBuffer data = ByteBuffer.allocate(SystemProgram.NONCE_ACCOUNT_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(1).putInt(1).put(ACCOUNT1).put(BLOCKHASH).putLong(5000L);
+        return data.array();
+    }
+
+    private static void putPaddedString(final ByteBuffer data, final String value, final int paddedLength)
+    {
+        data.putInt(paddedLength);
+        data.put(value.getBytes(UTF_8));
+        data.put(new byte[paddedLength - value.length()]);
+    }
+}
@@ -5,8 +5,14 @@ import com.valeamoris.solana4j.api.ProgramDerivedAddress;
 import com.valeamoris.solana4j.api.PublicKey;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT1;
 import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT2;
+import static com.valeamoris.solana4j.Solana4jTestHelper.randomAccount;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -67,4 +73,63 @@ public class AssociatedTokenProgramTest
         assertThat(associatedTokenAddress.address().base58()).isEqualTo("6TZpgbVr5gCryZfwJEEgTjp88DU4LWDkVA68ACUdC9gK");
         assertThat(associatedTokenAddress.nonce()).isEqualTo(253);
     }
+
+    @Test
+    void shouldDeriveManyAssociatedTokenAddressesAtOnce()
+    {
+        final var random = new Random(44);
+        final var owners = new PublicKey[500];
+        final var mints = new PublicKey[500];
+        final var flatOwners = ByteBuffer.allocate(500 * 32);
+        final var flatMints = ByteBuffer.allocate(500 * 32);
+        for (int i = 0; i < owners.length; i++)
+        {
+            owners[i] = randomAccount(random);
+            mints[i] = randomAccount(random);
+            flatOwners.put(owners[i].bytes());
+            flatMints.put(mints[i].bytes());
+        }
+        flatOwners.flip();
+        flatMints.flip();
+
+        final var pool = new ForkJoinPool(4);
+        try
+        {
+            final var out = ByteBuffer.allocate(10 + 500 * 33);
+            out.position(10);
+            AssociatedTokenProgram.deriveAddresses(owners, mints, TokenProgram.PROGRAM_ACCOUNT, out, pool);
+            assertThat(out.position()).isEqualTo(10 + 500 * 33);
+
+            final var flatOut = ByteBuffer.allocate(500 * 33);
+            AssociatedTokenProgram.deriveAddresses(flatOwners, flatMints, TokenProgram.PROGRAM_ACCOUNT, flatOut, pool);
+            assertThat(flatOwners.position()).isEqualTo(0);
+
+            for (int i = 0; i < owners.length; i++)
+            {
+                final ProgramDerivedAddress expected = AssociatedTokenProgram.deriveAddress(owners[i], TokenProgram.PROGRAM_ACCOUNT, mints[i]);
+                final var address = Arrays.copyOfRange(out.array(), 10 + i * 33, 10 + i * 33 + 32);
+                assertThat(address).isEqualTo(expected.address().bytes());
+                assertThat(out.get(10 + i * 33 + 32) & 0xff).isEqualTo(expected.nonce());
+                assertThat(Arrays.copyOfRange(flatOut.array(), i * 33, i * 33 + 33)).isEqualTo(Arrays.copyOfRange(out.array(), 10 + i * 33, 10 + i * 33 + 33));
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void throwsWhenBulkDerivationInputsDoNotMatchOrDoNotFit()
+    {
+        final var owners = new PublicKey[]{Solana.account(ACCOUNT1), Solana.account(ACCOUNT2)};
+        final var mints = new PublicKey[]{Solana.account(ACCOUNT2)};
+
+        assertThatThrownBy(() -> AssociatedTokenProgram.deriveAddresses(owners, mints, TokenProgram.PROGRAM_ACCOUNT, ByteBuffer.allocate(66), ForkJoinPool.commonPool()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AssociatedTokenProgram.deriveAddresses(owners, owners, TokenProgram.PROGRAM_ACCOUNT, ByteBuffer.allocate(65), ForkJoinPool.commonPool()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AssociatedTokenProgram.deriveAddresses(ByteBuffer.allocate(64), ByteBuffer.allocate(33), TokenProgram.PROGRAM_ACCOUNT, ByteBuffer.allocate(66), ForkJoinPool.commonPool()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
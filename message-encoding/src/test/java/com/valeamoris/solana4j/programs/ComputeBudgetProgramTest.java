@@ -0,0 +1,186 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.AddressLookupTable;
+import com.valeamoris.solana4j.api.MessageVisitor;
+import com.valeamoris.solana4j.api.PublicKey;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT2;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT3;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT4;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ADDRESS_LOOK_TABLE1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ADDRESS_LOOK_TABLE2;
+import static com.valeamoris.solana4j.Solana4jTestHelper.BLOCKHASH;
+import static com.valeamoris.solana4j.Solana4jTestHelper.DATA1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeSimpleUnsignedLegacyMessage;
+import static com.valeamoris.solana4j.Solana4jTestHelper.writeSimpleUnsignedV0Message;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ComputeBudgetProgramTest
+{
+    private static final List<AddressLookupTable> LOOKUP_TABLES = List.of(ADDRESS_LOOK_TABLE1, ADDRESS_LOOK_TABLE2);
+
+    @Test
+    void insertsComputeUnitLimitIntoLegacyTransaction()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleUnsignedLegacyMessage(buffer);
+        final int originalLength = buffer.remaining();
+        final int originalUnsignedReadOnly = Solana.read(buffer).accept(MessageVisitor.MessageView::countAccountsUnsignedReadOnly);
+
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, 200_000);
+
+        // the program key, then program index, account count, data length and five bytes of data
+        assertThat(buffer.remaining()).isEqualTo(originalLength + 32 + 3 + 5);
+        final var view = (MessageVisitor.LegacyMessageView) Solana.read(buffer).accept(message -> message);
+        assertThat(view.countAccountsUnsignedReadOnly()).isEqualTo(originalUnsignedReadOnly + 1);
+        assertThat(view.staticAccounts().get(view.staticAccounts().size() - 1)).isEqualTo(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT);
+        assertThat(view.instructions()).hasSize(2);
+        assertThat(view.instructions().get(0).program()).isEqualTo(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT);
+        assertThat(view.instructions().get(0).accounts()).isEmpty();
+        assertThat(computeUnitLimit(view.instructions().get(0).data())).isEqualTo(200_000);
+        assertThat(view.instructions().get(1).accounts()).containsExactly(
+                Solana.account(ACCOUNT4), Solana.account(ACCOUNT1), Solana.account(ACCOUNT2), Solana.account(ACCOUNT3));
+        assertThat(bytes(view.instructions().get(1).data())).isEqualTo(DATA1);
+        assertThat(view.isWriter(Solana.account(ACCOUNT3))).isTrue();
+        assertThat(view.isWriter(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT)).isFalse();
+    }
+
+    @Test
+    void overwritesExistingComputeUnitLimitInPlace()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleUnsignedLegacyMessage(buffer);
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, ComputeBudgetProgram.MAX_COMPUTE_UNIT_LIMIT);
+        final int length = buffer.remaining();
+
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, 42_000);
+
+        assertThat(buffer.remaining()).isEqualTo(length);
+        final var view = (MessageVisitor.LegacyMessageView) Solana.read(buffer).accept(message -> message);
+        assertThat(view.instructions()).hasSize(2);
+        assertThat(computeUnitLimit(view.instructions().get(0).data())).isEqualTo(42_000);
+    }
+
+    @Test
+    void reusesComputeBudgetProgramAlreadyReferenced()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleUnsignedLegacyMessage(buffer);
+        ComputeBudgetProgram.setComputeUnitPrice(buffer, 1_000L);
+        final int length = buffer.remaining();
+        final int unsignedReadOnly = Solana.read(buffer).accept(MessageVisitor.MessageView::countAccountsUnsignedReadOnly);
+
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, 150_000);
+        ComputeBudgetProgram.setComputeUnitPrice(buffer, 7_500L);
+
+        assertThat(buffer.remaining()).isEqualTo(length + 3 + 5);
+        final var view = (MessageVisitor.LegacyMessageView) Solana.read(buffer).accept(message -> message);
+        assertThat(view.countAccountsUnsignedReadOnly()).isEqualTo(unsignedReadOnly);
+        assertThat(view.instructions()).hasSize(3);
+        assertThat(computeUnitLimit(view.instructions().get(0).data())).isEqualTo(150_000);
+        final var price = view.instructions().get(1).data().order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(price.get(0)).isEqualTo((byte) ComputeBudgetProgram.SET_COMPUTE_UNIT_PRICE_INSTRUCTION);
+        assertThat(price.getLong(1)).isEqualTo(7_500L);
+    }
+
+    @Test
+    void shiftsLookupTableAccountIndexesOfVersion0Transaction()
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleUnsignedV0Message(buffer);
+        final List<PublicKey> accountsBefore = instructionAccounts(buffer, 0);
+
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, 300_000);
+
+        final var view = (MessageVisitor.Version0MessageView) Solana.read(buffer).accept(message -> message);
+        assertThat(view.instructions()).hasSize(2);
+        assertThat(view.instructions().get(0).program(LOOKUP_TABLES)).isEqualTo(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT);
+        assertThat(computeUnitLimit(view.instructions().get(0).data())).isEqualTo(300_000);
+        assertThat(instructionAccounts(buffer, 1)).isEqualTo(accountsBefore);
+        assertThat(view.isWriter(Solana.account(ACCOUNT3), LOOKUP_TABLES)).isTrue();
+        assertThat(view.isWriter(Solana.account(ACCOUNT4), LOOKUP_TABLES)).isFalse();
+        assertThat(view.accountLookups()).hasSize(2);
+    }
+
+    @Test
+    void keepsTheAdvanceNonceInstructionOfADurableNonceTransactionFirst()
+    {
+        final var authority = Solana.account(ACCOUNT1);
+        final var nonce = Solana.account(ACCOUNT2);
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer).legacy().payer(authority).recent(Solana.blockhash(BLOCKHASH))
+                .prebuiltInstructions(List.of(SystemProgram.nonceAdvance(nonce, authority), SystemProgram.transfer(authority, Solana.account(ACCOUNT3), 10L)))
+                .seal().unsigned().build();
+
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, 200_000);
+        ComputeBudgetProgram.setComputeUnitPrice(buffer, 1_000L);
+
+        final var view = (MessageVisitor.LegacyMessageView) Solana.read(buffer).accept(message -> message);
+        assertThat(view.instructions()).hasSize(4);
+        assertThat(view.instructions().get(0).program()).isEqualTo(SystemProgram.SYSTEM_PROGRAM_ACCOUNT);
+        assertThat(view.instructions().get(0).data().order(ByteOrder.LITTLE_ENDIAN).getInt(0)).isEqualTo(SystemProgram.ADVANCE_NONCE_INSTRUCTION);
+        assertThat(view.instructions().get(0).accounts().get(0)).isEqualTo(nonce);
+        assertThat(view.instructions().get(1).program()).isEqualTo(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT);
+        assertThat(view.instructions().get(2).program()).isEqualTo(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT);
+        assertThat(computeUnitLimit(view.instructions().get(2).data())).isEqualTo(200_000);
+        assertThat(view.instructions().get(3).program()).isEqualTo(SystemProgram.SYSTEM_PROGRAM_ACCOUNT);
+    }
+
+    @Test
+    void appendsBehindAnAdvanceNonceInstructionThatIsTheOnlyOne()
+    {
+        final var authority = Solana.account(ACCOUNT1);
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        Solana.builder(buffer).legacy().payer(authority).recent(Solana.blockhash(BLOCKHASH))
+                .prebuiltInstructions(List.of(SystemProgram.nonceAdvance(Solana.account(ACCOUNT2), authority)))
+                .seal().unsigned().build();
+
+        ComputeBudgetProgram.setComputeUnitLimit(buffer, 200_000);
+
+        final var view = (MessageVisitor.LegacyMessageView) Solana.read(buffer).accept(message -> message);
+        assertThat(view.instructions()).hasSize(2);
+        assertThat(view.instructions().get(0).program()).isEqualTo(SystemProgram.SYSTEM_PROGRAM_ACCOUNT);
+        assertThat(computeUnitLimit(view.instructions().get(1).data())).isEqualTo(200_000);
+    }
+
+    @Test
+    void rejectsTransactionThatNoLongerFitsTheBuffer()
+    {
+        final var message = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        writeSimpleUnsignedLegacyMessage(message);
+        final var buffer = ByteBuffer.allocate(message.remaining());
+        buffer.put(message).flip();
+
+        assertThatThrownBy(() -> ComputeBudgetProgram.setComputeUnitLimit(buffer, 200_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<PublicKey> instructionAccounts(final ByteBuffer buffer, final int instruction)
+    {
+        return Solana.read(buffer).accept(message ->
+                ((MessageVisitor.Version0MessageView) message).instructions().get(instruction).accounts(LOOKUP_TABLES));
+    }
+
+    private static int computeUnitLimit(final ByteBuffer data)
+    {
+        final var limit = data.order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(limit.remaining()).isEqualTo(5);
+        assertThat(limit.get(0)).isEqualTo((byte) ComputeBudgetProgram.SET_COMPUTE_UNIT_LIMIT_INSTRUCTION);
+        return limit.getInt(1);
+    }
+
+    private static byte[] bytes(final ByteBuffer data)
+    {
+        final byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,306 @@
+package com.valeamoris.solana4j.programs;
+
+import com.valeamoris.solana4j.Solana;
+import com.valeamoris.solana4j.api.PublicKey;
+import com.valeamoris.solana4j.api.TransactionInstruction;
+import com.valeamoris.solana4j.encoding.FixedWidthBase58;
+import com.valeamoris.solana4j.encoding.TransactionView;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT1;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT2;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT3;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT4;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT5;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT6;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT7;
+import static com.valeamoris.solana4j.Solana4jTestHelper.ACCOUNT8;
+import static com.valeamoris.solana4j.Solana4jTestHelper.BLOCKHASH;
+import static com.valeamoris.solana4j.Solana4jTestHelper.PAYER;
+import static com.valeamoris.solana4j.Solana4jTestHelper.PROGRAM1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstructionDecoderRegistryTest
+{
+    private static final PublicKey PAYER_KEY = Solana.account(PAYER);
+    private static final PublicKey KEY1 = Solana.account(ACCOUNT1);
+    private static final PublicKey KEY2 = Solana.account(ACCOUNT2);
+    private static final PublicKey KEY3 = Solana.account(ACCOUNT3);
+    private static final PublicKey KEY4 = Solana.account(ACCOUNT4);
+    private static final PublicKey KEY5 = Solana.account(ACCOUNT5);
+    private static final PublicKey KEY6 = Solana.account(ACCOUNT6);
+    private static final PublicKey KEY7 = Solana.account(ACCOUNT7);
+    private static final PublicKey KEY8 = Solana.account(ACCOUNT8);
+
+    @Test
+    void decodesSystemComputeBudgetAndTokenInstructions()
+    {
+        final var ata = AssociatedTokenProgram.deriveAddress(KEY1, TokenProgram.PROGRAM_ACCOUNT, KEY7);
+        final var view = transaction(false, List.of(
+                ComputeBudgetProgram.setComputeUnitLimit(200_000),
+                ComputeBudgetProgram.setComputeUnitPrice(1_000L),
+                SystemProgram.transfer(PAYER_KEY, KEY1, 5_000L),
+                SystemProgram.createAccount(PAYER_KEY, KEY2, 1_000_000L, 165L, TokenProgram.PROGRAM_ACCOUNT),
+                SystemProgram.nonceInitialize(KEY3, KEY4),
+                SystemProgram.nonceAdvance(KEY3, PAYER_KEY),
+                AssociatedTokenProgram.createAssociatedTokenAccount(ata, KEY7, KEY1, PAYER_KEY, TokenProgram.PROGRAM_ACCOUNT, true)));
+        final var recorder = new Recorder(view);
+
+        InstructionDecoderRegistry.knownPrograms().decode(view, recorder);
+
+        assertThat(recorder.events).containsExactly(
+                "computeUnitLimit 200000",
+                "computeUnitPrice 1000",
+                "transfer " + name(PAYER_KEY) + " " + name(KEY1) + " 5000",
+                "createAccount " + name(PAYER_KEY) + " " + name(KEY2) + " 1000000 165 " + name(TokenProgram.PROGRAM_ACCOUNT),
+                "initializeNonce " + name(KEY3) + " " + name(KEY4),
+                "advanceNonce " + name(KEY3) + " " + name(PAYER_KEY),
+                "createAssociatedTokenAccount " + name(PAYER_KEY) + " " + name(ata.address()) + " " + name(KEY1) + " " + name(KEY7) + " " +
+                name(TokenProgram.PROGRAM_ACCOUNT) + " true");
+    }
+
+    @Test
+    void decodesTokenInstructionsOfEitherTokenProgram()
+    {
+        final var view = transaction(false, List.of(
+                TokenProgramBase.transfer(TokenProgram.PROGRAM_ACCOUNT, KEY5, KEY6, PAYER_KEY, 42L, List.of()),
+                TokenProgramBase.mintTo(Token2022Program.PROGRAM_ACCOUNT, KEY7, PAYER_KEY, Solana.destination(KEY6, 7L)),
+                TokenProgramBase.initializeMint(TokenProgram.PROGRAM_ACCOUNT, KEY7, (byte) 6, PAYER_KEY, Optional.empty()),
+                TokenProgramBase.initializeMint(Token2022Program.PROGRAM_ACCOUNT, KEY7, (byte) 9, PAYER_KEY, Optional.of(KEY8)),
+                TokenProgramBase.initializeAccount(TokenProgram.PROGRAM_ACCOUNT, KEY5, KEY7, KEY1),
+                TokenProgramBase.setAuthority(TokenProgram.PROGRAM_ACCOUNT, KEY5, KEY4, PAYER_KEY, List.of(), TokenProgramBase.AuthorityType.CLOSE_ACCOUNT),
+                TokenProgramBase.initializeMultisig(TokenProgram.PROGRAM_ACCOUNT, KEY8, List.of(KEY1, KEY2, KEY3), 2)));
+        final var recorder = new Recorder(view);
+
+        InstructionDecoderRegistry.knownPrograms().decode(view, recorder);
+
+        final var token = name(TokenProgram.PROGRAM_ACCOUNT);
+        final var token2022 = name(Token2022Program.PROGRAM_ACCOUNT);
+        assertThat(recorder.events).containsExactly(
+                "tokenTransfer " + token + " " + name(KEY5) + " " + name(KEY6) + " " + name(PAYER_KEY) + " 42",
+                "mintTo " + token2022 + " " + name(KEY7) + " " + name(KEY6) + " " + name(PAYER_KEY) + " 7",
+                "initializeMint " + token + " " + name(KEY7) + " 6 " + name(PAYER_KEY) + " none",
+                "initializeMint " + token2022 + " " + name(KEY7) + " 9 " + name(PAYER_KEY) + " " + name(KEY8),
+                "initializeAccount " + token + " " + name(KEY5) + " " + name(KEY7) + " " + name(KEY1),
+                "setAuthority " + token + " " + name(KEY5) + " 3 " + name(PAYER_KEY) + " " + name(KEY4),
+                "initializeMultisig " + token + " " + name(KEY8) + " 2 3");
+    }
+
+    @Test
+    void decodesLookupTableAndLoaderInstructionsOfV0Messages()
+    {
+        final var table = AddressLookupTableProgram.deriveAddress(PAYER_KEY, Solana.slot(123L));
+        final var view = transaction(true, List.of(
+                AddressLookupTableProgram.createLookupTable(table, PAYER_KEY, PAYER_KEY, Solana.slot(123L)),
+                AddressLookupTableProgram.extendLookupTable(table.address(), PAYER_KEY, PAYER_KEY, List.of(KEY1, KEY2)),
+                BpfLoaderUpgradeableProgram.setUpgradeAuthority(KEY8, PAYER_KEY, Optional.of(KEY1)),
+                BpfLoaderUpgradeableProgram.setUpgradeAuthority(KEY8, PAYER_KEY, Optional.empty())));
+        final var recorder = new Recorder(view);
+
+        InstructionDecoderRegistry.knownPrograms().decode(view, recorder);
+
+        final var programData = name(BpfLoaderUpgradeableProgram.deriveAddress(KEY8).address());
+        assertThat(recorder.events).containsExactly(
+                "createLookupTable " + name(table.address()) + " " + name(PAYER_KEY) + " " + name(PAYER_KEY) + " 123 " + table.nonce(),
+                "extendLookupTable " + name(table.address()) + " " + name(PAYER_KEY) + " " + name(PAYER_KEY) + " " + name(KEY1) + " " + name(KEY2),
+                "setUpgradeAuthority " + programData + " " + name(PAYER_KEY) + " " + name(KEY1),
+                "setUpgradeAuthority " + programData + " " + name(PAYER_KEY) + " none");
+    }
+
+    @Test
+    void reportsUnknownProgramsAndUnrecognisedInstructionsAsUnknown()
+    {
+        final var view = transaction(false, List.of(
+                Solana.instruction(ib -> ib.program(Solana.account(PROGRAM1)).account(KEY1, false, true).data(12, bb -> bb.putInt(2).putLong(1L))),
+                Solana.instruction(ib -> ib.program(SystemProgram.SYSTEM_PROGRAM_ACCOUNT).account(KEY1, false, true).data(12, bb -> bb.putInt(0x02000000).putLong(1L))),
+                Solana.instruction(ib -> ib.program(SystemProgram.SYSTEM_PROGRAM_ACCOUNT).account(KEY1, true, true).data(2, bb -> bb.put((byte) 2).put((byte) 0))),
+                Solana.instruction(ib -> ib.program(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT).data(3, bb -> bb.put((byte) 3).put((byte) 0).put((byte) 0)))));
+        final var recorder = new Recorder(view);
+
+        InstructionDecoderRegistry.knownPrograms().decode(view, recorder);
+
+        assertThat(recorder.events).containsExactly(
+                "unknown " + name(Solana.account(PROGRAM1)) + " 0",
+                "unknown " + name(SystemProgram.SYSTEM_PROGRAM_ACCOUNT) + " 1",
+                "unknown " + name(SystemProgram.SYSTEM_PROGRAM_ACCOUNT) + " 2",
+                "unknown " + name(ComputeBudgetProgram.COMPUTE_BUDGET_PROGRAM_ACCOUNT) + " 3");
+    }
+
+    @Test
+    void dispatchesToRegisteredDecoders()
+    {
+        final var view = transaction(false, List.of(
+                SystemProgram.transfer(PAYER_KEY, KEY1, 5_000L),
+                Solana.instruction(ib -> ib.program(Solana.account(PROGRAM1)).account(KEY2, false, true).data(8, bb -> bb.putLong(9L)))));
+        final var custom = new ArrayList<Integer>();
+        final var builder = InstructionDecoderRegistry.builder()
+                .register(Solana.account(PROGRAM1), (transaction, instruction, visitor) -> custom.add(instruction));
+        final var registry = builder.build();
+        final var recorder = new Recorder(view);
+
+        assertThat(registry.decode(view, 0, recorder)).isFalse();
+        assertThat(registry.decode(view, 1, recorder)).isTrue();
+
+        assertThat(custom).isEqualTo(List.of(1));
+        assertThat(recorder.events).containsExactly("unknown " + name(SystemProgram.SYSTEM_PROGRAM_ACCOUNT) + " 0");
+        assertThat(registry.isKnown(Solana.account(PROGRAM1))).isTrue();
+        assertThat(registry.isKnown(SystemProgram.SYSTEM_PROGRAM_ACCOUNT)).isFalse();
+        assertThat(InstructionDecoderRegistry.knownPrograms().isKnown(Token2022Program.PROGRAM_ACCOUNT)).isTrue();
+        assertThatThrownBy(() -> builder.register(SystemProgram.SYSTEM_PROGRAM_ACCOUNT, (transaction, instruction, visitor) -> true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static TransactionView transaction(final boolean v0, final List<TransactionInstruction> instructions)
+    {
+        final var buffer = ByteBuffer.allocate(Solana.MAX_MESSAGE_SIZE);
+        if (v0)
+        {
+            Solana.builder(buffer).v0().payer(PAYER_KEY).recent(Solana.blockhash(BLOCKHASH)).prebuiltInstructions(instructions).seal().unsigned().build();
+        }
+        else
+        {
+            Solana.builder(buffer).legacy().payer(PAYER_KEY).recent(Solana.blockhash(BLOCKHASH)).prebuiltInstructions(instructions).seal().unsigned().build();
+        }
+        return new TransactionView().wrap(buffer);
+    }
+
+    private static String name(final PublicKey key)
+    {
+        return key.base58();
+    }
+
+    private static final class Recorder implements InstructionVisitor
+    {
+        private final List<String> events = new ArrayList<>();
+        private final TransactionView view;
+
+        private Recorder(final TransactionView view)
+        {
+            this.view = view;
+        }
+
+        private String account(final int index)
+        {
+            return view.account(index).base58();
+        }
+
+        private String key(final int offset)
+        {
+            return offset < 0 ? "none" : FixedWidthBase58.PUBLIC_KEY.encode(view.buffer(), offset);
+        }
+
+        @Override
+        public void onUnknownInstruction(final int program, final int instruction)
+        {
+            events.add("unknown " + account(program) + " " + instruction);
+        }
+
+        @Override
+        public void onTransfer(final int from, final int to, final long lamports)
+        {
+            events.add("transfer " + account(from) + " " + account(to) + " " + lamports);
+        }
+
+        @Override
+        public void onCreateAccount(final int payer, final int newAccount, final long lamports, final long space, final int ownerOffset)
+        {
+            events.add("createAccount " + account(payer) + " " + account(newAccount) + " " + lamports + " " + space + " " + key(ownerOffset));
+        }
+
+        @Override
+        public void onInitializeNonce(final int nonce, final int authorityOffset)
+        {
+            events.add("initializeNonce " + account(nonce) + " " + key(authorityOffset));
+        }
+
+        @Override
+        public void onAdvanceNonce(final int nonce, final int authority)
+        {
+            events.add("advanceNonce " + account(nonce) + " " + account(authority));
+        }
+
+        @Override
+        public void onInitializeMint(final int program, final int mint, final int decimals, final int mintAuthorityOffset, final int freezeAuthorityOffset)
+        {
+            events.add("initializeMint " + account(program) + " " + account(mint) + " " + decimals + " " + key(mintAuthorityOffset) + " " + key(freezeAuthorityOffset));
+        }
+
+        @Override
+        public void onInitializeAccount(final int program, final int account, final int mint, final int owner)
+        {
+            events.add("initializeAccount " + account(program) + " " + account(account) + " " + account(mint) + " " + account(owner));
+        }
+
+        @Override
+        public void onInitializeMultisig(final int program, final int multisig, final int requiredSignatures, final int signerCount)
+        {
+            events.add("initializeMultisig " + account(program) + " " + account(multisig) + " " + requiredSignatures + " " + signerCount);
+        }
+
+        @Override
+        public void onTokenTransfer(final int program, final int source, final int destination, final int owner, final long amount)
+        {
+            events.add("tokenTransfer " + account(program) + " " + account(source) + " " + account(destination) + " " + account(owner) + " " + amount);
+        }
+
+        @Override
+        public void onMintTo(final int program, final int mint, final int destination, final int authority, final long amount)
+        {
+            events.add("mintTo " + account(program) + " " + account(mint) + " " + account(destination) + " " + account(authority) + " " + amount);
+        }
+
+        @Override
+        public void onSetAuthority(final int program, final int account, final int authorityType, final int currentAuthority, final int newAuthorityOffset)
+        {
+            events.add("setAuthority " + account(program) + " " + account(account) + " " + authorityType + " " + account(currentAuthority) + " " + key(newAuthorityOffset));
+        }
+
+        @Override
+        public void onCreateAssociatedTokenAccount(final int payer, final int account, final int owner, final int mint, final int tokenProgram, final boolean idempotent)
+        {
+            events.add("createAssociatedTokenAccount " + account(payer) + " " + account(account) + " " + account(owner) + " " + account(mint) + " " +
+                       account(tokenProgram) + " " + idempotent);
+        }
+
+        @Override
+        public void onSetComputeUnitLimit(final int computeUnits)
+        {
+            events.add("computeUnitLimit " + computeUnits);
+        }
+
+        @Override
+        public void onSetComputeUnitPrice(final long microLamports)
+        {
+            events.add("computeUnitPrice " + microLamports);
+        }
+
+        @Override
+        public void onCreateLookupTable(final int lookupTable, final int authority, final int payer, final long recentSlot, final int bumpSeed)
+        {
+            events.add("createLookupTable " + account(lookupTable) + " " + account(authority) + " " + account(payer) + " " + recentSlot + " " + bumpSeed);
+        }
+
+        @Override
+        public void onExtendLookupTable(final int lookupTable, final int authority, final int payer, final int addressCount, final int addressesOffset)
+        {
+            final var event = new StringBuilder("extendLookupTable " + account(lookupTable) + " " + account(authority) + " " + account(payer));
+            for (int i = 0; i < addressCount; i++)
+            {
+                event.append(' ').append(key(addressesOffset + i * PublicKey.PUBLIC_KEY_LENGTH));
+            }
+            events.add(event.toString());
+        }
+
+        @Override
+        public void onSetUpgradeAuthority(final int account, final int currentAuthority, final int newAuthority)
+        {
+            events.add("setUpgradeAuthority " + account(account) + " " + account(currentAuthority) + " " + (newAuthority < 0 ? "none" : account(newAuthority)));
+        }
+    }
+}